@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.reader.ArrayCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Attribute;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.NetcdfFileWriter;
+import ucar.nc2.NetcdfFiles;
+import ucar.nc2.Variable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArrayCache access on a generated NetCDF file with a growing number of scaled short variables of GAC size. The
+ * file is written to the temp directory before and removed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ArrayCacheBenchmark {
+
+    private static final int WIDTH = SyntheticSwath.GAC_WIDTH;
+    private static final int HEIGHT = 2000;
+
+    @Param({"4", "32"})
+    public int numVariables;
+
+    private Path tempDirectory;
+    private NetcdfFile netcdfFile;
+    private ArrayCache filledCache;
+    private String[] variableNames;
+
+    @Setup
+    public void setUp() throws IOException, InvalidRangeException {
+        tempDirectory = Files.createTempDirectory("mms-benchmark");
+        final Path file = tempDirectory.resolve("array_cache.nc");
+
+        variableNames = new String[numVariables];
+        for (int i = 0; i < numVariables; i++) {
+            variableNames[i] = "variable_" + i;
+        }
+        writeFile(file);
+
+        netcdfFile = NetcdfFiles.open(file.toString());
+        filledCache = new ArrayCache(netcdfFile);
+        for (final String variableName : variableNames) {
+            filledCache.getScaled(variableName, "scale_factor", "add_offset");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (netcdfFile != null) {
+            netcdfFile.close();
+        }
+        Files.deleteIfExists(tempDirectory.resolve("array_cache.nc"));
+        Files.deleteIfExists(tempDirectory);
+    }
+
+    @Benchmark
+    public void readAll(Blackhole blackhole) throws IOException {
+        final ArrayCache arrayCache = new ArrayCache(netcdfFile);
+        for (final String variableName : variableNames) {
+            blackhole.consume(arrayCache.get(variableName));
+        }
+    }
+
+    @Benchmark
+    public void readAllScaled(Blackhole blackhole) throws IOException {
+        final ArrayCache arrayCache = new ArrayCache(netcdfFile);
+        for (final String variableName : variableNames) {
+            blackhole.consume(arrayCache.getScaled(variableName, "scale_factor", "add_offset"));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void getCached(Blackhole blackhole) throws IOException {
+        for (final String variableName : variableNames) {
+            blackhole.consume(filledCache.getScaled(variableName, "scale_factor", "add_offset"));
+        }
+    }
+
+    private void writeFile(Path file) throws IOException, InvalidRangeException {
+        final Random random = new Random(1234L);
+        try (NetcdfFileWriter writer = NetcdfFileWriter.createNew(NetcdfFileWriter.Version.netcdf3, file.toString())) {
+            writer.addDimension(null, "y", HEIGHT);
+            writer.addDimension(null, "x", WIDTH);
+            final Variable[] variables = new Variable[numVariables];
+            for (int i = 0; i < numVariables; i++) {
+                variables[i] = writer.addVariable(null, variableNames[i], DataType.SHORT, "y x");
+                writer.addVariableAttribute(variables[i], new Attribute("scale_factor", 0.01f));
+                writer.addVariableAttribute(variables[i], new Attribute("add_offset", 273.15f));
+            }
+            writer.create();
+
+            final short[] data = new short[HEIGHT * WIDTH];
+            for (final Variable variable : variables) {
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = (short) random.nextInt(Short.MAX_VALUE);
+                }
+                writer.write(variable, Array.factory(DataType.SHORT, new int[]{HEIGHT, WIDTH}, data));
+            }
+        }
+    }
+}
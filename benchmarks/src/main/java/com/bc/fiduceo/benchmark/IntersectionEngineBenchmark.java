@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.math.Intersection;
+import com.bc.fiduceo.math.IntersectionEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intersection of two overlapping synthetic swath segments, the secondary acquired five minutes after the primary.
+ * The number of boundary points drives the cost of the polygon intersection and of the time axis projections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class IntersectionEngineBenchmark {
+
+    @Param({"32", "128"})
+    public int boundaryPoints;
+
+    private SatelliteObservation primaryObservation;
+    private SatelliteObservation secondaryObservation;
+
+    @Setup
+    public void setUp() {
+        final GeometryFactory geometryFactory = new GeometryFactory(GeometryFactory.Type.S2);
+        final SyntheticSwath primarySwath = new SyntheticSwath(SyntheticSwath.GAC_WIDTH, 4000, 0.0, -70.0, 70.0, new Date(1000000000000L));
+        final SyntheticSwath secondarySwath = new SyntheticSwath(SyntheticSwath.GAC_WIDTH, 4000, 8.0, -70.0, 70.0, new Date(1000000300000L));
+
+        primaryObservation = primarySwath.createObservation(geometryFactory, boundaryPoints);
+        secondaryObservation = secondarySwath.createObservation(geometryFactory, boundaryPoints);
+    }
+
+    @Benchmark
+    public Intersection[] getIntersectingIntervals() {
+        return IntersectionEngine.getIntersectingIntervals(primaryObservation, secondaryObservation);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.math.SphericalDistance;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spherical distances between matchup candidates. The matchup conditions create one SphericalDistance per primary
+ * sample, both the construction and the plain distance calculation are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SphericalDistanceBenchmark {
+
+    private static final int NUM_PAIRS = 4096;
+
+    private double[] lons;
+    private double[] lats;
+    private SphericalDistance sphericalDistance;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(1234L);
+        lons = new double[NUM_PAIRS * 2];
+        lats = new double[NUM_PAIRS * 2];
+        for (int i = 0; i < lons.length; i++) {
+            lons[i] = random.nextDouble() * 360.0 - 180.0;
+            lats[i] = Math.toDegrees(Math.asin(random.nextDouble() * 2.0 - 1.0));
+        }
+        sphericalDistance = new SphericalDistance(lons[0], lats[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PAIRS)
+    public void distance(Blackhole blackhole) {
+        for (int i = 0; i < NUM_PAIRS; i++) {
+            blackhole.consume(sphericalDistance.distance(lons[i], lats[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_PAIRS)
+    public void createAndDistance(Blackhole blackhole) {
+        for (int i = 0; i < NUM_PAIRS; i++) {
+            final SphericalDistance distance = new SphericalDistance(lons[2 * i], lats[2 * i]);
+            blackhole.consume(distance.distance(lons[2 * i + 1], lats[2 * i + 1]));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.location.PixelLocator;
+import com.bc.fiduceo.location.PixelLocatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.geom.Point2D;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pixel and geo-location lookups on a synthetic AVHRR GAC swath, a segment or a full orbit. The
+ * locations are drawn with a fixed seed, all runs request the same pixels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SwathPixelLocatorBenchmark {
+
+    private static final int NUM_LOCATIONS = 1024;
+
+    @Param({"2000", "12000"})
+    public int height;
+
+    private PixelLocator pixelLocator;
+    private double[] lons;
+    private double[] lats;
+    private double[] xs;
+    private double[] ys;
+
+    @Setup
+    public void setUp() {
+        // GAC resolution along track, 12000 lines are one orbit starting at the south pole
+        final double stopOrbitAngle = -90.0 + 360.0 * (height - 1) / 12000.0;
+        final SyntheticSwath swath = new SyntheticSwath(SyntheticSwath.GAC_WIDTH, height, 0.0, -90.0, stopOrbitAngle, new Date(1000000000000L));
+        pixelLocator = PixelLocatorFactory.getSwathPixelLocator(swath.getLongitudes(), swath.getLatitudes(), swath.getWidth(), swath.getHeight());
+
+        final Random random = new Random(1234L);
+        lons = new double[NUM_LOCATIONS];
+        lats = new double[NUM_LOCATIONS];
+        xs = new double[NUM_LOCATIONS];
+        ys = new double[NUM_LOCATIONS];
+        for (int i = 0; i < NUM_LOCATIONS; i++) {
+            xs[i] = random.nextInt(swath.getWidth()) + 0.5;
+            ys[i] = random.nextInt(swath.getHeight()) + 0.5;
+            final double[] geoLocation = swath.getGeoLocation(xs[i] - 0.5, ys[i] - 0.5);
+            lons[i] = geoLocation[0];
+            lats[i] = geoLocation[1];
+        }
+
+        // the locator builds its search structures lazily, keep this out of the measurement
+        pixelLocator.getPixelLocation(lons[0], lats[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_LOCATIONS)
+    public void getPixelLocation(Blackhole blackhole) {
+        for (int i = 0; i < NUM_LOCATIONS; i++) {
+            blackhole.consume(pixelLocator.getPixelLocation(lons[i], lats[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_LOCATIONS)
+    public void getGeoLocation(Blackhole blackhole) {
+        final Point2D.Double geoLocation = new Point2D.Double();
+        for (int i = 0; i < NUM_LOCATIONS; i++) {
+            blackhole.consume(pixelLocator.getGeoLocation(xs[i], ys[i], geoLocation));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.geometry.LineString;
+import com.bc.fiduceo.geometry.Point;
+import com.bc.fiduceo.geometry.Polygon;
+import com.bc.fiduceo.geometry.TimeAxis;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Geolocation of a synthetic polar orbiting swath sensor on a spherical earth. The sub-satellite track follows a
+ * sun-synchronous orbit, the scan lines are great circle segments perpendicular to the track and the acquisition time
+ * increases linearly along the track. Everything is computed, so the benchmarks need no test data.
+ */
+public class SyntheticSwath {
+
+    public static final int GAC_WIDTH = 409;
+
+    private static final double INCLINATION = Math.toRadians(98.7);
+    private static final double ORBIT_PERIOD_MILLIS = 101.0 * 60.0 * 1000.0;
+    private static final double EARTH_ROTATION_PER_MILLI = 2.0 * Math.PI / 86164000.0;
+    // earth-central angle from the sub-satellite point to the swath edge, approx. 1450 km
+    private static final double HALF_SWATH_ANGLE = Math.toRadians(13.0);
+
+    private final int width;
+    private final int height;
+    private final double nodeLon;
+    private final double startOrbitAngle;
+    private final double orbitAngleStep;
+    private final long startTime;
+    private final double lineMillis;
+
+    /**
+     * @param width           the number of pixels per scan line
+     * @param height          the number of scan lines
+     * @param nodeLon         the longitude of the ascending node in degrees
+     * @param startOrbitAngle the orbit angle of the first scan line in degrees, 0 is the ascending node
+     * @param stopOrbitAngle  the orbit angle of the last scan line in degrees
+     * @param startTime       the acquisition time of the first scan line
+     */
+    public SyntheticSwath(int width, int height, double nodeLon, double startOrbitAngle, double stopOrbitAngle, Date startTime) {
+        this.width = width;
+        this.height = height;
+        this.nodeLon = Math.toRadians(nodeLon);
+        this.startOrbitAngle = Math.toRadians(startOrbitAngle);
+        this.orbitAngleStep = Math.toRadians(stopOrbitAngle - startOrbitAngle) / (height - 1);
+        this.startTime = startTime.getTime();
+        this.lineMillis = orbitAngleStep / (2.0 * Math.PI) * ORBIT_PERIOD_MILLIS;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Calculates the geolocation of a pixel centre.
+     *
+     * @param x the pixel x index, fractional values are allowed
+     * @param y the scan line index, fractional values are allowed
+     * @return {lon, lat} in degrees
+     */
+    public double[] getGeoLocation(double x, double y) {
+        final double orbitAngle = startOrbitAngle + y * orbitAngleStep;
+        final double halfWidth = 0.5 * (width - 1);
+        final double scanAngle = (x - halfWidth) / halfWidth * HALF_SWATH_ANGLE;
+
+        final double sinU = Math.sin(orbitAngle);
+        final double cosU = Math.cos(orbitAngle);
+        final double sinI = Math.sin(INCLINATION);
+        final double cosI = Math.cos(INCLINATION);
+        final double cosA = Math.cos(scanAngle);
+        final double sinA = Math.sin(scanAngle);
+
+        // sub-satellite point plus scan angle times orbit normal - the normal points to the left of the flight direction
+        final double vx = cosA * cosU;
+        final double vy = cosA * sinU * cosI - sinA * sinI;
+        final double vz = cosA * sinU * sinI + sinA * cosI;
+
+        final double lat = Math.toDegrees(Math.asin(Math.max(-1.0, Math.min(1.0, vz))));
+        final double lon = Math.toDegrees(Math.atan2(vy, vx) + nodeLon - EARTH_ROTATION_PER_MILLI * y * lineMillis);
+        return new double[]{normalizeLon(lon), lat};
+    }
+
+    public Date getTime(double y) {
+        return new Date(startTime + Math.round(y * lineMillis));
+    }
+
+    public Array getLongitudes() {
+        return createGeolocationArray(0);
+    }
+
+    public Array getLatitudes() {
+        return createGeolocationArray(1);
+    }
+
+    /**
+     * Creates the swath outline, counter-clockwise as required for the spherical geometries. Orbit angles beyond
+     * +-80 degree result in a polygon covering a pole, which is not supported.
+     *
+     * @param geometryFactory the factory
+     * @param numPointsPerSide the number of points along each swath edge
+     * @return the polygon
+     */
+    public Polygon createBoundary(GeometryFactory geometryFactory, int numPointsPerSide) {
+        final List<Point> points = new ArrayList<>();
+        // the right edge in flight direction first, then back along the left edge
+        for (int i = 0; i < numPointsPerSide; i++) {
+            points.add(createPoint(geometryFactory, 0, getLineIndex(i, numPointsPerSide)));
+        }
+        for (int i = numPointsPerSide - 1; i >= 0; i--) {
+            points.add(createPoint(geometryFactory, width - 1, getLineIndex(i, numPointsPerSide)));
+        }
+        points.add(points.get(0));
+        return geometryFactory.createPolygon(points);
+    }
+
+    public LineString createTrack(GeometryFactory geometryFactory, int numPoints) {
+        final List<Point> points = new ArrayList<>();
+        for (int i = 0; i < numPoints; i++) {
+            points.add(createPoint(geometryFactory, 0.5 * (width - 1), getLineIndex(i, numPoints)));
+        }
+        return geometryFactory.createLineString(points);
+    }
+
+    public SatelliteObservation createObservation(GeometryFactory geometryFactory, int numPointsPerSide) {
+        final LineString track = createTrack(geometryFactory, numPointsPerSide);
+        final TimeAxis timeAxis = geometryFactory.createTimeAxis(track, getTime(0), getTime(height - 1));
+
+        final SatelliteObservation observation = new SatelliteObservation();
+        observation.setGeoBounds(createBoundary(geometryFactory, numPointsPerSide));
+        observation.setTimeAxes(new TimeAxis[]{timeAxis});
+        observation.setStartTime(getTime(0));
+        observation.setStopTime(getTime(height - 1));
+        return observation;
+    }
+
+    private Point createPoint(GeometryFactory geometryFactory, double x, double y) {
+        final double[] geoLocation = getGeoLocation(x, y);
+        return geometryFactory.createPoint(geoLocation[0], geoLocation[1]);
+    }
+
+    private double getLineIndex(int pointIndex, int numPoints) {
+        return (double) pointIndex * (height - 1) / (numPoints - 1);
+    }
+
+    private Array createGeolocationArray(int component) {
+        final float[] data = new float[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                data[y * width + x] = (float) getGeoLocation(x, y)[component];
+            }
+        }
+        return Array.factory(DataType.FLOAT, new int[]{height, width}, data);
+    }
+
+    private static double normalizeLon(double lon) {
+        while (lon >= 180.0) {
+            lon -= 360.0;
+        }
+        while (lon < -180.0) {
+            lon += 360.0;
+        }
+        return lon;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.geometry.Point;
+import com.bc.fiduceo.geometry.TimeAxis;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acquisition time lookup on the S2 time axis of a synthetic swath segment, for pixels spread across the swath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TimeAxisBenchmark {
+
+    private static final int NUM_POINTS = 1024;
+
+    @Param({"32", "256"})
+    public int axisPoints;
+
+    private TimeAxis timeAxis;
+    private Point[] points;
+
+    @Setup
+    public void setUp() {
+        final GeometryFactory geometryFactory = new GeometryFactory(GeometryFactory.Type.S2);
+        final SyntheticSwath swath = new SyntheticSwath(SyntheticSwath.GAC_WIDTH, 4000, 0.0, -70.0, 70.0, new Date(1000000000000L));
+        timeAxis = geometryFactory.createTimeAxis(swath.createTrack(geometryFactory, axisPoints), swath.getTime(0), swath.getTime(swath.getHeight() - 1));
+
+        final Random random = new Random(1234L);
+        points = new Point[NUM_POINTS];
+        for (int i = 0; i < NUM_POINTS; i++) {
+            final double[] geoLocation = swath.getGeoLocation(random.nextInt(swath.getWidth()), random.nextInt(swath.getHeight()));
+            points[i] = geometryFactory.createPoint(geoLocation[0], geoLocation[1]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_POINTS)
+    public void getTime(Blackhole blackhole) {
+        for (final Point point : points) {
+            blackhole.consume(timeAxis.getTime(point));
+        }
+    }
+}
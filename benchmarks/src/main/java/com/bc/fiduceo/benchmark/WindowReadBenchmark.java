@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.benchmark;
+
+import com.bc.fiduceo.core.Dimension;
+import com.bc.fiduceo.core.Interval;
+import com.bc.fiduceo.reader.RawDataReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window extraction from in-memory variables of a GAC sized product via RawDataReader. Windows completely inside the
+ * product are cut as array sections, windows crossing the product border are copied and filled by the WindowReader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WindowReadBenchmark {
+
+    private static final int WIDTH = SyntheticSwath.GAC_WIDTH;
+    private static final int HEIGHT = 2000;
+    private static final int NUM_WINDOWS = 1024;
+
+    @Param({"1", "5", "21"})
+    public int windowSize;
+
+    @Param({"FLOAT", "SHORT"})
+    public String dataType;
+
+    private Array rawArray;
+    private Array lineArray;
+    private Dimension productSize;
+    private Interval interval;
+    private Number fillValue;
+    private int[] insideX;
+    private int[] insideY;
+    private int[] borderX;
+    private int[] borderY;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(1234L);
+        final DataType type = DataType.valueOf(dataType);
+        rawArray = createArray(type, new int[]{HEIGHT, WIDTH}, random);
+        lineArray = createArray(type, new int[]{HEIGHT}, random);
+        productSize = new Dimension("size", WIDTH, HEIGHT);
+        interval = new Interval(windowSize, windowSize);
+        fillValue = -32768;
+
+        final int halfWindow = windowSize / 2;
+        insideX = new int[NUM_WINDOWS];
+        insideY = new int[NUM_WINDOWS];
+        borderX = new int[NUM_WINDOWS];
+        borderY = new int[NUM_WINDOWS];
+        for (int i = 0; i < NUM_WINDOWS; i++) {
+            insideX[i] = halfWindow + random.nextInt(WIDTH - 2 * halfWindow);
+            insideY[i] = halfWindow + random.nextInt(HEIGHT - 2 * halfWindow);
+
+            // centres on the first or last pixel of a scan line, half of the window is outside the product
+            borderX[i] = random.nextBoolean() ? 0 : WIDTH - 1;
+            borderY[i] = random.nextInt(HEIGHT);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_WINDOWS)
+    public void readInside(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < NUM_WINDOWS; i++) {
+            blackhole.consume(RawDataReader.read(insideX[i], insideY[i], interval, fillValue, rawArray, productSize));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_WINDOWS)
+    public void readAtBorder(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < NUM_WINDOWS; i++) {
+            blackhole.consume(RawDataReader.read(borderX[i], borderY[i], interval, fillValue, rawArray, productSize));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_WINDOWS)
+    public void readPerScanLine(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < NUM_WINDOWS; i++) {
+            blackhole.consume(RawDataReader.read(insideX[i], insideY[i], interval, fillValue, lineArray, productSize));
+        }
+    }
+
+    private static Array createArray(DataType type, int[] shape, Random random) {
+        int size = 1;
+        for (final int length : shape) {
+            size *= length;
+        }
+
+        if (type == DataType.FLOAT) {
+            final float[] data = new float[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = random.nextFloat() * 300.f;
+            }
+            return Array.factory(type, shape, data);
+        } else if (type == DataType.SHORT) {
+            final short[] data = new short[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (short) random.nextInt(Short.MAX_VALUE);
+            }
+            return Array.factory(type, shape, data);
+        }
+        throw new RuntimeException("Unsupported data type: " + type);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.condition;
+
+import com.bc.fiduceo.core.Dimension;
+import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap removal for dense candidate sets, as produced by seed point runs over small-scale products (SLSTR/MODIS
+ * sized swath). Located in the condition package because the condition classes are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OverlapRemoveConditionBenchmark {
+
+    private static final int PRODUCT_WIDTH = 1500;
+    private static final int PRODUCT_HEIGHT = 2000;
+
+    @Param({"100000", "1000000"})
+    public int numCandidates;
+
+    @Param({"5", "21"})
+    public int windowSize;
+
+    private List<SampleSet> candidates;
+    private ConditionEngineContext context;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(1234L);
+        candidates = new ArrayList<>(numCandidates);
+        for (int i = 0; i < numCandidates; i++) {
+            final SampleSet sampleSet = new SampleSet();
+            sampleSet.setPrimary(new Sample(random.nextInt(PRODUCT_WIDTH), random.nextInt(PRODUCT_HEIGHT), 0.0, 0.0, i));
+            candidates.add(sampleSet);
+        }
+
+        context = new ConditionEngineContext();
+        context.setPrimaryExtractSize(new Dimension("primary", windowSize, windowSize));
+    }
+
+    @Benchmark
+    public MatchupSet removeOverlapping() {
+        // the condition replaces the sample sets, every invocation needs a fresh matchup set
+        final MatchupSet matchupSet = new MatchupSet();
+        matchupSet.setSampleSets(new ArrayList<>(candidates));
+
+        new OverlapRemoveCondition().apply(matchupSet, context);
+        return matchupSet;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+package com.bc.fiduceo.matchup.screening.expression;
+
+import com.bc.fiduceo.core.Dimension;
+import com.bc.fiduceo.core.Interval;
+import com.bc.fiduceo.reader.RawDataReader;
+import com.bc.fiduceo.reader.Reader;
+import org.openjdk.jmh.annotations.*;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window screening reads of WindowReaderEvalEnv, one variable evaluated on all pixels of each window. The reader cuts
+ * the windows from an in-memory variable of a GAC sized product, as a reader does with cached variables.
+ * <p>
+ * "dense" are the neighbouring pixels of a block of scan lines, as the matchups in the overlap of two swaths, "sparse"
+ * are random positions in order of the scan lines, as seed point matchups. A region margin of 0 reads every window
+ * exactly, which is the behaviour without region reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WindowReaderEvalEnvBenchmark {
+
+    private static final int WIDTH = 409;
+    private static final int HEIGHT = 12000;
+    private static final int NUM_WINDOWS = 1024;
+    private static final String VARIABLE_NAME = "brightness_temperature";
+
+    @Param({"dense", "sparse"})
+    public String layout;
+
+    @Param({"5", "21"})
+    public int windowSize;
+
+    @Param({"0", "32"})
+    public int regionMargin;
+
+    private Reader reader;
+    private int[] centerX;
+    private int[] centerY;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(1234L);
+        final float[] data = new float[WIDTH * HEIGHT];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 200.f + random.nextFloat() * 100.f;
+        }
+        final Array rawArray = Array.factory(DataType.FLOAT, new int[]{HEIGHT, WIDTH}, data);
+        final Dimension productSize = new Dimension("size", WIDTH, HEIGHT);
+        reader = createReader(rawArray, productSize);
+
+        final int halfWindow = windowSize / 2;
+        centerX = new int[NUM_WINDOWS];
+        centerY = new int[NUM_WINDOWS];
+        if ("dense".equals(layout)) {
+            // 32 neighbouring pixels on each of 32 scan lines
+            for (int i = 0; i < NUM_WINDOWS; i++) {
+                centerX[i] = 150 + i % 32;
+                centerY[i] = 5000 + i / 32;
+            }
+        } else {
+            final long[] positions = new long[NUM_WINDOWS];
+            for (int i = 0; i < NUM_WINDOWS; i++) {
+                final int x = halfWindow + random.nextInt(WIDTH - 2 * halfWindow);
+                final int y = halfWindow + random.nextInt(HEIGHT - 2 * halfWindow);
+                positions[i] = (long) y * WIDTH + x;
+            }
+            Arrays.sort(positions);
+            for (int i = 0; i < NUM_WINDOWS; i++) {
+                centerX[i] = (int) (positions[i] % WIDTH);
+                centerY[i] = (int) (positions[i] / WIDTH);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_WINDOWS)
+    public double evaluateWindows() throws Exception {
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader, regionMargin);
+        double sum = 0.0;
+        for (int i = 0; i < NUM_WINDOWS; i++) {
+            if (i + 1 < NUM_WINDOWS) {
+                evalEnv.setWindow(centerX[i], centerY[i], windowSize, windowSize, centerX[i + 1], centerY[i + 1]);
+            } else {
+                evalEnv.setWindow(centerX[i], centerY[i], windowSize, windowSize);
+            }
+            for (int y = 0; y < windowSize; y++) {
+                for (int x = 0; x < windowSize; x++) {
+                    evalEnv.setLocationInWindow(x, y);
+                    sum += evalEnv.fetchPixelDouble(VARIABLE_NAME);
+                }
+            }
+        }
+        return sum;
+    }
+
+    // only the methods used by the evaluation environment are supported
+    private static Reader createReader(Array rawArray, Dimension productSize) {
+        return (Reader) Proxy.newProxyInstance(Reader.class.getClassLoader(), new Class<?>[]{Reader.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getProductSize":
+                    return productSize;
+                case "readScaled":
+                    final Interval interval = (Interval) args[2];
+                    return RawDataReader.read((Integer) args[0], (Integer) args[1], interval, Float.NaN, rawArray, productSize);
+                default:
+                    throw new IOException("not supported: " + method.getName());
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.benchmark.SyntheticSwath;
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.geometry.Point;
+import com.bc.fiduceo.geometry.Polygon;
+import com.bc.fiduceo.location.PixelLocator;
+import com.bc.fiduceo.math.Intersection;
+import com.bc.fiduceo.math.IntersectionEngine;
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.reader.time.TimeLocator;
+import com.bc.fiduceo.tool.ToolContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.geom.Point2D;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary sample collection in the intersection of two synthetic GAC swath segments, the secondary acquired five
+ * minutes after the primary with its ascending node shifted by eight degrees. "scanline" is SampleCollector with
+ * ScanlineContainment, "perPixel" the former per pixel polygon test on the same pixel range. The number of boundary
+ * points drives the number of polygon vertices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SampleCollectorBenchmark {
+
+    @Param({"32", "128", "512"})
+    public int boundaryPoints;
+
+    private ToolContext context;
+    private PixelLocator pixelLocator;
+    private TimeLocator timeLocator;
+    private Polygon polygon;
+    private int startX;
+    private int endX;
+    private int startY;
+    private int endY;
+
+    @Setup
+    public void setUp() {
+        final GeometryFactory geometryFactory = new GeometryFactory(GeometryFactory.Type.S2);
+        final SyntheticSwath primarySwath = new SyntheticSwath(SyntheticSwath.GAC_WIDTH, 1000, 0.0, -20.0, 20.0, new Date(1000000000000L));
+        final SyntheticSwath secondarySwath = new SyntheticSwath(SyntheticSwath.GAC_WIDTH, 1000, 8.0, -20.0, 20.0, new Date(1000000300000L));
+        final SatelliteObservation primaryObservation = primarySwath.createObservation(geometryFactory, boundaryPoints);
+        final SatelliteObservation secondaryObservation = secondarySwath.createObservation(geometryFactory, boundaryPoints);
+
+        final Intersection[] intersections = IntersectionEngine.getIntersectingIntervals(primaryObservation, secondaryObservation);
+        if (intersections.length == 0) {
+            throw new IllegalStateException("The swaths do not intersect");
+        }
+        polygon = (Polygon) intersections[0].getGeometry();
+
+        context = new ToolContext();
+        context.setGeometryFactory(geometryFactory);
+        pixelLocator = new SwathLocator(primarySwath, polygon.getCoordinates());
+        timeLocator = (x, y) -> primarySwath.getTime(y).getTime();
+
+        // the pixel range of the polygon, determined the same way as by the SampleCollector
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (final Point coordinate : polygon.getCoordinates()) {
+            for (final Point2D location : pixelLocator.getPixelLocation(coordinate.getLon(), coordinate.getLat())) {
+                minX = Math.min(minX, location.getX());
+                maxX = Math.max(maxX, location.getX());
+                minY = Math.min(minY, location.getY());
+                maxY = Math.max(maxY, location.getY());
+            }
+        }
+        startX = (int) minX;
+        endX = (int) maxX;
+        startY = (int) minY;
+        endY = (int) maxY;
+    }
+
+    @Benchmark
+    public int scanline() {
+        final MatchupSet matchupSet = new MatchupSet();
+        new SampleCollector(context, pixelLocator).addPrimarySamples(polygon, matchupSet, timeLocator);
+        return matchupSet.getNumObservations();
+    }
+
+    @Benchmark
+    public int perPixel() {
+        final MatchupSet matchupSet = new MatchupSet();
+        final GeometryFactory factory = context.getGeometryFactory();
+        final Point2D.Double geoPos = new Point2D.Double();
+        for (int y = startY; y <= endY; y++) {
+            for (int x = startX; x <= endX; x++) {
+                final Point2D geoLocation = pixelLocator.getGeoLocation(x + .5, y + .5, geoPos);
+                if (geoLocation == null) {
+                    continue;
+                }
+                final double lon = geoLocation.getX();
+                final double lat = geoLocation.getY();
+                if (polygon.contains(factory.createPoint(lon, lat))) {
+                    final long time = timeLocator.getTimeFor(x, y);
+                    if (time >= 0) {
+                        matchupSet.addPrimary(new Sample(x, y, lon, lat, time));
+                    }
+                }
+            }
+        }
+        return matchupSet.getNumObservations();
+    }
+
+    /**
+     * Geo-locations of the pixel centres taken from the swath arrays. The collector asks for the pixel locations of
+     * the polygon vertices only, these are searched once on creation - the benchmark measures the pixel loop, not the
+     * pixel location search.
+     */
+    private static class SwathLocator implements PixelLocator {
+
+        private static final double MAX_DISTANCE_KM = 5.0;
+        private static final double EARTH_RADIUS_KM = 6371.0;
+
+        private final int width;
+        private final int height;
+        private final float[] lons;
+        private final float[] lats;
+        private final HashMap<Point2D, Point2D[]> vertexLocations;
+
+        SwathLocator(SyntheticSwath swath, Point[] vertices) {
+            width = swath.getWidth();
+            height = swath.getHeight();
+            lons = (float[]) swath.getLongitudes().getStorage();
+            lats = (float[]) swath.getLatitudes().getStorage();
+
+            final int numPixels = width * height;
+            final double[] vx = new double[numPixels];
+            final double[] vy = new double[numPixels];
+            final double[] vz = new double[numPixels];
+            for (int i = 0; i < numPixels; i++) {
+                final double lon = Math.toRadians(lons[i]);
+                final double lat = Math.toRadians(lats[i]);
+                vx[i] = Math.cos(lat) * Math.cos(lon);
+                vy[i] = Math.cos(lat) * Math.sin(lon);
+                vz[i] = Math.sin(lat);
+            }
+
+            final double minCos = Math.cos(MAX_DISTANCE_KM / EARTH_RADIUS_KM);
+            vertexLocations = new HashMap<>();
+            for (final Point vertex : vertices) {
+                final double lon = Math.toRadians(vertex.getLon());
+                final double lat = Math.toRadians(vertex.getLat());
+                final double px = Math.cos(lat) * Math.cos(lon);
+                final double py = Math.cos(lat) * Math.sin(lon);
+                final double pz = Math.sin(lat);
+
+                int nearest = -1;
+                double maxCos = minCos;
+                for (int i = 0; i < numPixels; i++) {
+                    final double cos = px * vx[i] + py * vy[i] + pz * vz[i];
+                    if (cos > maxCos) {
+                        maxCos = cos;
+                        nearest = i;
+                    }
+                }
+
+                final Point2D[] locations;
+                if (nearest < 0) {
+                    locations = new Point2D[0];
+                } else {
+                    locations = new Point2D[]{new Point2D.Double(nearest % width + 0.5, nearest / width + 0.5)};
+                }
+                vertexLocations.put(new Point2D.Double(vertex.getLon(), vertex.getLat()), locations);
+            }
+        }
+
+        @Override
+        public Point2D getGeoLocation(double x, double y, Point2D g) {
+            final int ix = (int) Math.floor(x);
+            final int iy = (int) Math.floor(y);
+            if (ix < 0 || ix >= width || iy < 0 || iy >= height) {
+                return null;
+            }
+
+            final Point2D geoLocation = g != null ? g : new Point2D.Double();
+            geoLocation.setLocation(lons[iy * width + ix], lats[iy * width + ix]);
+            return geoLocation;
+        }
+
+        @Override
+        public Point2D[] getPixelLocation(double lon, double lat) {
+            final Point2D[] locations = vertexLocations.get(new Point2D.Double(lon, lat));
+            if (locations == null) {
+                throw new IllegalArgumentException("Not a polygon vertex: " + lon + ", " + lat);
+            }
+            return locations;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.writer;
+
+import com.bc.fiduceo.FiduceoConstants;
+import com.bc.fiduceo.log.FiduceoLogger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.NetcdfFileWriter;
+import ucar.nc2.Variable;
+import ucar.nc2.write.Nc4Chunking;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write speed, file size and downstream read speed of NetCDF-4 MMD files for different chunk layouts and
+ * compression settings. The layout resembles a satellite-to-satellite MMD: small float windows of several channels,
+ * a larger short window, per matchup scalars and a file name. The file size of each configuration is logged once at
+ * the end of the trial. Located in the writer package because the writer classes are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MmdChunkingBenchmark {
+
+    private static final int NUM_MATCHUPS = 16384;
+    private static final int CACHE_SIZE = 2048;
+    private static final int NUM_RANDOM_READS = 256;
+    private static final String[] SMALL_WINDOW_VARIABLES = {"reflectance_1", "reflectance_2", "brightness_temperature_4", "brightness_temperature_5"};
+    private static final String LARGE_WINDOW_VARIABLE = "sst";
+    private static final String SCALAR_VARIABLE = "matchup_elem";
+    private static final String FILE_NAME_VARIABLE = "l1b_filename";
+
+    // matchups per chunk, 0 for the chunking of the library
+    @Param({"0", "1", "64", "512", "2048"})
+    public int matchupChunkSize;
+
+    @Param({"deflate", "shuffle_deflate", "no_compression"})
+    public String compression;
+
+    // edge length of the large window, 101 stands for the large windows of insitu or seed point use cases
+    @Param({"21", "101"})
+    public int largeWindowSize;
+
+    private Array smallWindowBlock;
+    private Array largeWindowBlock;
+    private Array scalarBlock;
+    private Array fileNameBlock;
+    private File readFile;
+    private int[] randomMatchups;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InvalidRangeException {
+        final Random random = new Random(1234L);
+        smallWindowBlock = createWindowBlock(DataType.FLOAT, 5, random);
+        largeWindowBlock = createWindowBlock(DataType.SHORT, largeWindowSize, random);
+        scalarBlock = Array.factory(DataType.INT, new int[]{CACHE_SIZE});
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            scalarBlock.setInt(i, random.nextInt(409));
+        }
+        fileNameBlock = Array.factory(DataType.CHAR, new int[]{CACHE_SIZE, 128});
+        final String fileName = "NSS.GHRR.NN.D07365.S2319.E0113.B1371314.GC.nc";
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            for (int k = 0; k < fileName.length(); k++) {
+                fileNameBlock.setChar(i * 128 + k, fileName.charAt(k));
+            }
+        }
+
+        randomMatchups = new int[NUM_RANDOM_READS];
+        for (int i = 0; i < NUM_RANDOM_READS; i++) {
+            randomMatchups[i] = random.nextInt(NUM_MATCHUPS);
+        }
+
+        readFile = writeMmd();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FiduceoLogger.getLogger().info("MMD file size [matchupChunkSize=" + matchupChunkSize + ", compression=" + compression
+                + ", largeWindowSize=" + largeWindowSize + "]: " + readFile.length() + " bytes");
+        deleteFile(readFile);
+    }
+
+    @Benchmark
+    public long write() throws IOException, InvalidRangeException {
+        final File mmdFile = writeMmd();
+        final long fileSize = mmdFile.length();
+        deleteFile(mmdFile);
+        return fileSize;
+    }
+
+    @Benchmark
+    public void readSequential(Blackhole blackhole) throws IOException, InvalidRangeException {
+        try (NetcdfFile netcdfFile = NetcdfFile.open(readFile.getAbsolutePath())) {
+            for (final Variable variable : netcdfFile.getVariables()) {
+                final int[] shape = variable.getShape();
+                final int[] origin = new int[shape.length];
+                for (int zStart = 0; zStart < NUM_MATCHUPS; zStart += CACHE_SIZE) {
+                    origin[0] = zStart;
+                    shape[0] = Math.min(CACHE_SIZE, NUM_MATCHUPS - zStart);
+                    blackhole.consume(variable.read(origin, shape));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_RANDOM_READS)
+    public void readRandomMatchups(Blackhole blackhole) throws IOException, InvalidRangeException {
+        try (NetcdfFile netcdfFile = NetcdfFile.open(readFile.getAbsolutePath())) {
+            for (final int matchup : randomMatchups) {
+                for (final Variable variable : netcdfFile.getVariables()) {
+                    final int[] shape = variable.getShape();
+                    final int[] origin = new int[shape.length];
+                    origin[0] = matchup;
+                    shape[0] = 1;
+                    blackhole.consume(variable.read(origin, shape));
+                }
+            }
+        }
+    }
+
+    private File writeMmd() throws IOException, InvalidRangeException {
+        final File mmdFile = File.createTempFile("mmd_chunking", ".nc");
+        final NetcdfFileWriter writer = NetcdfFileWriter.createNew(NetcdfFileWriter.Version.netcdf4, mmdFile.getAbsolutePath(), createChunking());
+        try {
+            writer.addDimension(null, FiduceoConstants.MATCHUP_COUNT, NUM_MATCHUPS);
+            writer.addDimension(null, "small_ny", 5);
+            writer.addDimension(null, "small_nx", 5);
+            writer.addDimension(null, "large_ny", largeWindowSize);
+            writer.addDimension(null, "large_nx", largeWindowSize);
+            writer.addDimension(null, FiduceoConstants.FILE_NAME, 128);
+            for (final String name : SMALL_WINDOW_VARIABLES) {
+                writer.addVariable(null, name, DataType.FLOAT, FiduceoConstants.MATCHUP_COUNT + " small_ny small_nx");
+            }
+            writer.addVariable(null, LARGE_WINDOW_VARIABLE, DataType.SHORT, FiduceoConstants.MATCHUP_COUNT + " large_ny large_nx");
+            writer.addVariable(null, SCALAR_VARIABLE, DataType.INT, FiduceoConstants.MATCHUP_COUNT);
+            writer.addVariable(null, FILE_NAME_VARIABLE, DataType.CHAR, FiduceoConstants.MATCHUP_COUNT + " " + FiduceoConstants.FILE_NAME);
+            writer.create();
+
+            // written in cache blocks, as done by the MMD writer
+            for (int zStart = 0; zStart < NUM_MATCHUPS; zStart += CACHE_SIZE) {
+                for (final String name : SMALL_WINDOW_VARIABLES) {
+                    writer.write(writer.findVariable(name), new int[]{zStart, 0, 0}, smallWindowBlock);
+                }
+                writer.write(writer.findVariable(LARGE_WINDOW_VARIABLE), new int[]{zStart, 0, 0}, largeWindowBlock);
+                writer.write(writer.findVariable(SCALAR_VARIABLE), new int[]{zStart}, scalarBlock);
+                writer.write(writer.findVariable(FILE_NAME_VARIABLE), new int[]{zStart, 0}, fileNameBlock);
+            }
+        } finally {
+            writer.close();
+        }
+        return mmdFile;
+    }
+
+    private Nc4Chunking createChunking() {
+        final MmdWriterConfig writerConfig = new MmdWriterConfig();
+        writerConfig.setMatchupChunkSize(matchupChunkSize);
+        writerConfig.setShuffle("shuffle_deflate".equals(compression));
+        writerConfig.setNoCompression("no_compression".equals(compression));
+        return MmdChunking.create(writerConfig);
+    }
+
+    // smooth fields with noise, compressing roughly like geophysical data
+    private static Array createWindowBlock(DataType dataType, int windowSize, Random random) {
+        final Array block = Array.factory(dataType, new int[]{CACHE_SIZE, windowSize, windowSize});
+        int index = 0;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            final double base = 280.0 + 10.0 * Math.sin(i * 0.01);
+            for (int k = 0; k < windowSize * windowSize; k++) {
+                final double value = base + random.nextGaussian() * 0.2;
+                if (dataType == DataType.SHORT) {
+                    block.setShort(index++, (short) (value * 100.0 - 27000.0));
+                } else {
+                    block.setFloat(index++, (float) value);
+                }
+            }
+        }
+        return block;
+    }
+
+    private static void deleteFile(File file) {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.writer;
+
+import com.bc.fiduceo.FiduceoConstants;
+import com.bc.fiduceo.util.NetCDFUtils;
+import org.openjdk.jmh.annotations.*;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.Index;
+import ucar.nc2.NetcdfFileWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar and string values written to the cache buffers of the MMD writer, one value per matchup of a cache block.
+ * Run with "-prof gc" to compare the allocation rate per value. The baseline methods repeat the former write path,
+ * which wrapped every value in an array and copied it into the buffer, so that one run shows both. Located in the
+ * writer package because the writer classes are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MmdScalarWriteBenchmark {
+
+    private static final int CACHE_SIZE = 2048;
+
+    private static final String FILE_NAME = "NSS.GHRR.NN.D07365.S2319.E0113.B1371314.GC.nc";
+
+    private File mmdFile;
+    private MmdWriterNC3 writer;
+    private Array intBuffer;
+    private Array floatBuffer;
+    private Array charBuffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        mmdFile = File.createTempFile("mmd_scalar_write", ".nc");
+
+        final MmdWriterConfig writerConfig = new MmdWriterConfig();
+        writerConfig.setCacheSize(CACHE_SIZE);
+        writer = new MmdWriterNC3(writerConfig);
+        writer.createNetCdfFileWriter(mmdFile.toPath());
+
+        final NetcdfFileWriter netcdfFileWriter = writer.netcdfFileWriter;
+        netcdfFileWriter.addDimension(null, FiduceoConstants.MATCHUP_COUNT, CACHE_SIZE);
+        netcdfFileWriter.addDimension(null, FiduceoConstants.FILE_NAME, 128);
+        netcdfFileWriter.addVariable(null, "x", DataType.INT, FiduceoConstants.MATCHUP_COUNT);
+        netcdfFileWriter.addVariable(null, "distance", DataType.FLOAT, FiduceoConstants.MATCHUP_COUNT);
+        netcdfFileWriter.addVariable(null, "file_name", DataType.CHAR, FiduceoConstants.MATCHUP_COUNT + " " + FiduceoConstants.FILE_NAME);
+        netcdfFileWriter.create();
+
+        intBuffer = Array.factory(DataType.INT, new int[]{CACHE_SIZE});
+        floatBuffer = Array.factory(DataType.FLOAT, new int[]{CACHE_SIZE});
+        charBuffer = Array.factory(DataType.CHAR, new int[]{CACHE_SIZE, 128});
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        writer.netcdfFileWriter.close();
+        if (!mmdFile.delete()) {
+            mmdFile.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_SIZE)
+    public void writeInt() {
+        for (int zIndex = 0; zIndex < CACHE_SIZE; zIndex++) {
+            writer.write(zIndex, "x", zIndex);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_SIZE)
+    public void writeFloat() {
+        for (int zIndex = 0; zIndex < CACHE_SIZE; zIndex++) {
+            writer.write(0.5f * zIndex, "distance", zIndex);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_SIZE)
+    public void writeString() {
+        for (int zIndex = 0; zIndex < CACHE_SIZE; zIndex++) {
+            writer.write(FILE_NAME, "file_name", zIndex);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_SIZE)
+    public void writeInt_baseline() {
+        for (int zIndex = 0; zIndex < CACHE_SIZE; zIndex++) {
+            copyToBuffer(NetCDFUtils.create(new int[][]{{zIndex}}), intBuffer, zIndex);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_SIZE)
+    public void writeFloat_baseline() {
+        for (int zIndex = 0; zIndex < CACHE_SIZE; zIndex++) {
+            copyToBuffer(NetCDFUtils.create(new float[][]{{0.5f * zIndex}}), floatBuffer, zIndex);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CACHE_SIZE)
+    public void writeString_baseline() {
+        for (int zIndex = 0; zIndex < CACHE_SIZE; zIndex++) {
+            final int[] shape = charBuffer.getShape();
+            final char[] chars = new char[shape[1]];
+            FILE_NAME.getChars(0, FILE_NAME.length(), chars, 0);
+            copyToBuffer(NetCDFUtils.create(new char[][]{chars}), charBuffer, zIndex);
+        }
+    }
+
+    private static void copyToBuffer(Array data, Array buffer, int zIndex) {
+        final Index index = buffer.getIndex();
+        index.set(zIndex % CACHE_SIZE);
+        Array.arraycopy(data, 0, buffer, index.currentElement(), (int) data.getSize());
+    }
+}
@@ -38,6 +38,11 @@ public class SystemConfig {
     private ArchiveConfig archiveConfig;
     private int readerCacheSize;
     private String tempDir;
+    private int matchupThreads;
+    private String checkpointDir;
+    private boolean performanceStatistics;
+    private int arrayCacheSize;
+    private int arrayCacheGlobalSize;
 
     public static SystemConfig loadFrom(File configDirectory) throws IOException {
         final File systemPropertiesFile = new File(configDirectory, "system-config.xml");
@@ -63,6 +68,7 @@ public class SystemConfig {
     public SystemConfig() {
         geometryLibraryType = "S2";
         readerCacheSize = 8;
+        matchupThreads = 1;
     }
 
     public String getGeometryLibraryType() {
@@ -81,6 +87,32 @@ public class SystemConfig {
         return tempDir;
     }
 
+    public int getMatchupThreads() {
+        return matchupThreads;
+    }
+
+    public String getCheckpointDir() {
+        return checkpointDir;
+    }
+
+    public boolean isPerformanceStatistics() {
+        return performanceStatistics;
+    }
+
+    /**
+     * @return the memory budget of the variable data cache of a single reader in MB, 0 means unlimited
+     */
+    public int getArrayCacheSize() {
+        return arrayCacheSize;
+    }
+
+    /**
+     * @return the memory budget of the variable data caches of all readers together in MB, 0 means unlimited
+     */
+    public int getArrayCacheGlobalSize() {
+        return arrayCacheGlobalSize;
+    }
+
     private SystemConfig(Document document) {
         this();
 
@@ -104,5 +136,39 @@ public class SystemConfig {
         if (tempDirElement != null) {
             this.tempDir = tempDirElement.getTextTrim();
         }
+
+        final Element matchupThreadsElement = rootElement.getChild("matchup-threads");
+        if (matchupThreadsElement != null) {
+            this.matchupThreads = Integer.parseInt(matchupThreadsElement.getTextTrim());
+            if (matchupThreads < 1) {
+                throw new RuntimeException("Value of element 'matchup-threads' >= 1 expected. But was '" + matchupThreads + "'.");
+            }
+        }
+
+        final Element checkpointDirElement = rootElement.getChild("checkpoint-directory");
+        if (checkpointDirElement != null) {
+            this.checkpointDir = checkpointDirElement.getTextTrim();
+        }
+
+        final Element performanceStatisticsElement = rootElement.getChild("performance-statistics");
+        if (performanceStatisticsElement != null) {
+            this.performanceStatistics = Boolean.parseBoolean(performanceStatisticsElement.getTextTrim());
+        }
+
+        final Element arrayCacheSizeElement = rootElement.getChild("array-cache-size");
+        if (arrayCacheSizeElement != null) {
+            this.arrayCacheSize = Integer.parseInt(arrayCacheSizeElement.getTextTrim());
+            if (arrayCacheSize < 0) {
+                throw new RuntimeException("Value of element 'array-cache-size' >= 0 expected. But was '" + arrayCacheSize + "'.");
+            }
+        }
+
+        final Element arrayCacheGlobalSizeElement = rootElement.getChild("array-cache-global-size");
+        if (arrayCacheGlobalSizeElement != null) {
+            this.arrayCacheGlobalSize = Integer.parseInt(arrayCacheGlobalSizeElement.getTextTrim());
+            if (arrayCacheGlobalSize < 0) {
+                throw new RuntimeException("Value of element 'array-cache-global-size' >= 0 expected. But was '" + arrayCacheGlobalSize + "'.");
+            }
+        }
     }
 }
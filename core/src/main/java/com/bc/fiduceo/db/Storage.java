@@ -80,7 +80,8 @@ public class Storage {
         return driver.get();
     }
 
-    public List<SatelliteObservation> get(QueryParameter parameter) throws SQLException {
+    // the drivers work on a single connection - the matchup-tool queries concurrently when processing periods in parallel
+    public synchronized List<SatelliteObservation> get(QueryParameter parameter) throws SQLException {
         return driver.get(parameter);
     }
 
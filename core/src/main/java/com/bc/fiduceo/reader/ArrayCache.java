@@ -20,24 +20,83 @@
 
 package com.bc.fiduceo.reader;
 
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import org.esa.snap.core.util.StringUtils;
 import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
 import ucar.ma2.MAMath;
 import ucar.nc2.*;
 
 import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.bc.fiduceo.util.NetCDFUtils.CF_ADD_OFFSET_NAME;
+import static com.bc.fiduceo.util.NetCDFUtils.CF_FILL_VALUE_NAME;
+import static com.bc.fiduceo.util.NetCDFUtils.CF_SCALE_FACTOR_NAME;
+import static com.bc.fiduceo.util.NetCDFUtils.CF_VALID_RANGE_NAME;
+
+/**
+ * Caches the complete data of the variables of a NetCDF file, raw and scaled. The memory used is bounded by a byte
+ * budget per cache and a budget shared by all caches; when exceeded, the least recently used arrays are dropped and
+ * re-read on the next request. For the shared budget, the least recently used arrays of all caches are dropped, not
+ * only those of the cache requesting memory. Both budgets are unlimited unless configured with
+ * {@link #setMemoryLimits(long, long)}.
+ * <p>
+ * Windows of 2D variables can be requested with {@link #getRows(String, int, int)}, which reads and caches blocks of
+ * rows (aligned to the chunking of the variable, if any) instead of the complete variable.
+ * <p>
+ * The attributes and the data type of a variable are kept separately as {@link VariableMetadata}, populated when the
+ * variable is first accessed. Attribute requests never read variable data and the metadata is not subject to eviction.
+ * <p>
+ * The cache is thread-safe. Accesses to the file are serialized, threads reading a file in parallel need readers
+ * of their own, see {@link ReaderCache#acquireReaderFor(String, java.nio.file.Path, String)}.
+ */
 public class ArrayCache {
 
+    // minimal number of rows read at once for partial reads
+    static final int MIN_ROW_BLOCK_HEIGHT = 128;
+    private static final String ROW_BLOCK_KEY = "#rows_";
+    private static final String CHUNK_SIZES_ATTRIBUTE_NAME = "_ChunkSizes";
+
+    private static final AtomicLong globalResidentBytes = new AtomicLong();
+    private static final AtomicLong globalHits = new AtomicLong();
+    private static final AtomicLong globalMisses = new AtomicLong();
+    private static final AtomicLong globalEvictions = new AtomicLong();
+    private static final AtomicLong useCounter = new AtomicLong();
+    // the caches holding arrays while the global budget is limited, candidates for global eviction. Held weakly, the
+    // bytes of a cache dropped without dispose() are released once it is collected
+    private static final Set<CacheReference> residentCaches = ConcurrentHashMap.newKeySet();
+    private static final ReferenceQueue<ArrayCache> collectedCaches = new ReferenceQueue<>();
+    private static volatile long defaultMaxBytes = Long.MAX_VALUE;
+    private static volatile long globalMaxBytes = Long.MAX_VALUE;
+
     private final NetcdfFile netcdfFile;
     private final HashMap<String, Variable> injectedVariables;
     private final HashMap<String, ArrayContainer> cache;
     private final HashMap<String, ArrayContainer> scaledCache;
+    private final LinkedHashMap<ArrayContainer, Boolean> usageOrder;
+    private final HashMap<String, Variable> rowBlockVariables;
+    private final HashMap<String, VariableMetadata> metadataCache;
+    private final CacheReference reference;
     private VariableFinder variableFinder;
+    private ArrayContainer lastRequested;
+    private long maxBytes;
+    private long residentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
 
     public ArrayCache(NetcdfFile netcdfFile) {
         this.netcdfFile = netcdfFile;
@@ -45,7 +104,33 @@ public class ArrayCache {
         cache = new HashMap<>();
         scaledCache = new HashMap<>();
         injectedVariables = new HashMap<>();
+        usageOrder = new LinkedHashMap<>(16, 0.75f, true);
+        rowBlockVariables = new HashMap<>();
+        metadataCache = new HashMap<>();
+        reference = new CacheReference(this);
         variableFinder = netcdfFile::findVariable;
+        maxBytes = defaultMaxBytes;
+    }
+
+    /**
+     * Sets the memory budgets for all caches created afterwards. A value less or equal to zero means unlimited.
+     *
+     * @param maxBytesPerCache the maximal number of bytes held by a single cache
+     * @param maxBytesGlobal   the maximal number of bytes held by all caches together
+     */
+    public static void setMemoryLimits(long maxBytesPerCache, long maxBytesGlobal) {
+        defaultMaxBytes = maxBytesPerCache > 0 ? maxBytesPerCache : Long.MAX_VALUE;
+        globalMaxBytes = maxBytesGlobal > 0 ? maxBytesGlobal : Long.MAX_VALUE;
+    }
+
+    /**
+     * Retrieves the accumulated statistics of all caches, resident bytes are those of the caches currently in use.
+     *
+     * @return the statistics
+     */
+    public static Statistics getGlobalStatistics() {
+        releaseCollectedCaches();
+        return new Statistics(globalHits.get(), globalMisses.get(), globalEvictions.get(), globalResidentBytes.get());
     }
 
     // package access for testing only tb 2016-04-14
@@ -54,47 +139,149 @@ public class ArrayCache {
     }
 
     public Array get(String variableName) throws IOException {
+        final Array array = fetch(variableName);
+        evictGloballyIfNecessary(this);
+        return array;
+    }
+
+    public Array get(String groupName, String variableName) throws IOException {
+        final Array array = fetch(groupName, variableName);
+        evictGloballyIfNecessary(this);
+        return array;
+    }
+
+    /**
+     * Retrieves the rows of a 2D variable covering the row range passed in, clipped to the extent of the variable.
+     * The rows are read in blocks which are cached; when the complete variable is cached already, it is returned.
+     * Returns null if the variable is not a 2D variable with more than one row block - these are to be read
+     * completely with {@link #get(String)}.
+     *
+     * @param variableName the variable name
+     * @param offsetY      the first row requested, may be outside the variable
+     * @param height       the number of rows requested
+     * @return the rows or null
+     * @throws IOException on disk access failures
+     */
+    public RowBlock getRows(String variableName, int offsetY, int height) throws IOException {
+        final RowBlock rowBlock = fetchRows(variableName, offsetY, height);
+        evictGloballyIfNecessary(this);
+        return rowBlock;
+    }
+
+    public Array getScaled(String groupName, String variableName, String scaleAttributeName, String offsetAttributeName) throws IOException {
+        final Array array = fetchScaled(groupName, variableName, scaleAttributeName, offsetAttributeName);
+        evictGloballyIfNecessary(this);
+        return array;
+    }
+
+    public Array getScaled(String variableName, String scaleAttributeName, String offsetAttributeName) throws IOException {
+        final Array array = fetchScaled(variableName, scaleAttributeName, offsetAttributeName);
+        evictGloballyIfNecessary(this);
+        return array;
+    }
+
+    private synchronized Array fetch(String variableName) throws IOException {
         ArrayContainer container = cache.get(variableName);
         if (container == null) {
-            container = readArrayAndAttributes(variableName, null);
-            cache.put(variableName, container);
+            container = readArrayAndAttributes(variableName, variableName, null);
+            add(variableName, container);
+        } else {
+            touch(container);
         }
 
         return container.array;
     }
 
-    public Array get(String groupName, String variableName) throws IOException {
+    private synchronized Array fetch(String groupName, String variableName) throws IOException {
         final String groupedVariableName = createGroupedName(groupName, variableName);
         ArrayContainer container = cache.get(groupedVariableName);
         if (container == null) {
-            container = readArrayAndAttributesFromGroup(variableName, groupName);
-            cache.put(groupedVariableName, container);
+            container = readArrayAndAttributesFromGroup(groupedVariableName, variableName, groupName);
+            add(groupedVariableName, container);
+        } else {
+            touch(container);
         }
         return container.array;
     }
 
-    public Array getScaled(String groupName, String variableName, String scaleAttributeName, String offsetAttributeName) throws IOException {
+    private synchronized RowBlock fetchRows(String variableName, int offsetY, int height) throws IOException {
+        final ArrayContainer container = cache.get(variableName);
+        if (container != null) {
+            touch(container);
+            final int[] shape = container.array.getShape();
+            return shape.length == 2 && shape[0] != 1 ? new RowBlock(container.array, 0) : null;
+        }
+        if (injectedVariables.containsKey(variableName)) {
+            return null;
+        }
+
+        Variable variable = rowBlockVariables.get(variableName);
+        if (variable == null) {
+            variable = findVariable(variableName, null);
+            rowBlockVariables.put(variableName, variable);
+        }
+
+        final int[] shape = variable.getShape();
+        if (shape.length != 2 || shape[0] == 1) {
+            return null;
+        }
+        final int numRows = shape[0];
+        final int blockHeight = getRowBlockHeight(variable);
+        if (numRows <= blockHeight) {
+            return null;
+        }
+
+        final int firstRow = Math.min(Math.max(offsetY, 0), numRows - 1);
+        final int lastRow = Math.min(Math.max(offsetY + height - 1, firstRow), numRows - 1);
+        final int firstBlock = firstRow / blockHeight;
+        final int lastBlock = lastRow / blockHeight;
+        if (firstBlock == lastBlock) {
+            return new RowBlock(getRowBlock(variableName, variable, firstBlock, blockHeight), firstBlock * blockHeight);
+        }
+
+        // the rows span a block border, copy the requested rows only
+        final int width = shape[1];
+        Array rows = null;
+        int rowsOffset = 0;
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            final Array blockArray = getRowBlock(variableName, variable, block, blockHeight);
+            if (rows == null) {
+                rows = Array.factory(blockArray.getDataType(), new int[]{lastRow - firstRow + 1, width});
+            }
+            final int blockFirstRow = block * blockHeight;
+            final int copyFirstRow = Math.max(firstRow, blockFirstRow);
+            final int copyLastRow = Math.min(lastRow, blockFirstRow + blockHeight - 1);
+            final int numElements = (copyLastRow - copyFirstRow + 1) * width;
+            Array.arraycopy(blockArray, (copyFirstRow - blockFirstRow) * width, rows, rowsOffset, numElements);
+            rowsOffset += numElements;
+        }
+        return new RowBlock(rows, firstRow);
+    }
+
+    private synchronized Array fetchScaled(String groupName, String variableName, String scaleAttributeName, String offsetAttributeName) throws IOException {
         final String groupedVariableName = createGroupedName(groupName, variableName);
         ArrayContainer arrayContainer = scaledCache.get(groupedVariableName);
         if (arrayContainer == null) {
             arrayContainer = cache.get(groupedVariableName);
             if (arrayContainer == null) {
-                arrayContainer = readArrayAndAttributesFromGroup(variableName, groupName);
-                cache.put(groupedVariableName, arrayContainer);
+                arrayContainer = readArrayAndAttributesFromGroup(groupedVariableName, variableName, groupName);
+                add(groupedVariableName, arrayContainer);
+            } else {
+                touch(arrayContainer);
             }
 
             float scale = 1.f;
             float offset = 0.f;
 
             if (StringUtils.isNotNullAndNotEmpty(scaleAttributeName)) {
-                final Attribute scaleAttribute = arrayContainer.get(scaleAttributeName);
+                final Attribute scaleAttribute = arrayContainer.metadata.getAttribute(scaleAttributeName);
                 if (scaleAttribute != null) {
                     scale = scaleAttribute.getNumericValue().floatValue();
                 }
             }
 
             if (StringUtils.isNotNullAndNotEmpty(offsetAttributeName)) {
-                final Attribute offsetAttribute = arrayContainer.get(offsetAttributeName);
+                final Attribute offsetAttribute = arrayContainer.metadata.getAttribute(offsetAttributeName);
                 if (offsetAttribute != null) {
                     offset = offsetAttribute.getNumericValue().floatValue();
                 }
@@ -103,24 +290,28 @@ public class ArrayCache {
             scaleIfNecessary(arrayContainer, scale, offset);
 
             scaledCache.put(groupedVariableName, arrayContainer);
+        } else {
+            touch(arrayContainer);
         }
         return arrayContainer.array;
     }
 
-    public Array getScaled(String variableName, String scaleAttributeName, String offsetAttributeName) throws IOException {
+    private synchronized Array fetchScaled(String variableName, String scaleAttributeName, String offsetAttributeName) throws IOException {
         ArrayContainer arrayContainer = scaledCache.get(variableName);
         if (arrayContainer == null) {
             arrayContainer = cache.get(variableName);
             if (arrayContainer == null) {
-                arrayContainer = readArrayAndAttributes(variableName, null);
-                cache.put(variableName, arrayContainer);
+                arrayContainer = readArrayAndAttributes(variableName, variableName, null);
+                add(variableName, arrayContainer);
+            } else {
+                touch(arrayContainer);
             }
 
             float scale = 1.f;
             float offset = 0.f;
 
             if (StringUtils.isNotNullAndNotEmpty(scaleAttributeName)) {
-                final Attribute scaleAttribute = arrayContainer.get(scaleAttributeName);
+                final Attribute scaleAttribute = arrayContainer.metadata.getAttribute(scaleAttributeName);
                 if (scaleAttribute == null) {
                     throw new RuntimeException("Scale attribute with name '" + scaleAttributeName + "' is not available.");
                 } else {
@@ -129,7 +320,7 @@ public class ArrayCache {
             }
 
             if (StringUtils.isNotNullAndNotEmpty(offsetAttributeName)) {
-                final Attribute offsetAttribute = arrayContainer.get(offsetAttributeName);
+                final Attribute offsetAttribute = arrayContainer.metadata.getAttribute(offsetAttributeName);
                 if (offsetAttribute == null) {
                     throw new RuntimeException("Offset attribute with name '" + offsetAttributeName + "' is not available.");
                 } else {
@@ -140,7 +331,8 @@ public class ArrayCache {
             scaleIfNecessary(arrayContainer, scale, offset);
 
             scaledCache.put(variableName, arrayContainer);
-
+        } else {
+            touch(arrayContainer);
         }
         return arrayContainer.array;
     }
@@ -155,13 +347,7 @@ public class ArrayCache {
      * @throws IOException on disk access failures
      */
     public String getStringAttributeValue(String attributeName, String groupName, String variableName) throws IOException {
-        final Array array = get(groupName, variableName);
-        if (array != null) {
-            final String groupedName = createGroupedName(groupName, variableName);
-            return getAttributeStringValue(attributeName, groupedName);
-        }
-
-        return null;
+        return getMetadata(groupName, variableName).getStringValue(attributeName);
     }
 
     /**
@@ -174,14 +360,39 @@ public class ArrayCache {
      * @throws IOException on disk access failures
      */
     public Attribute getAttribute(String attributeName, String groupName, String variableName) throws IOException {
-        final Array array = get(groupName, variableName);
-        if (array != null) {
-            final String groupedVariableName = createGroupedName(groupName, variableName);
-            final ArrayContainer arrayContainer = cache.get(groupedVariableName);
-            return arrayContainer.get(attributeName);
+        return getMetadata(groupName, variableName).getAttribute(attributeName);
+    }
+
+    /**
+     * Retrieves the metadata of the variable without reading the variable data.
+     *
+     * @param variableName the variable name
+     * @return the metadata
+     * @throws IOException if the variable is not present
+     */
+    public synchronized VariableMetadata getMetadata(String variableName) throws IOException {
+        VariableMetadata metadata = metadataCache.get(variableName);
+        if (metadata == null) {
+            metadata = createMetadata(variableName, findVariable(variableName, null));
         }
+        return metadata;
+    }
 
-        return null;
+    /**
+     * Retrieves the metadata of the variable without reading the variable data.
+     *
+     * @param groupName    the name of the group containing the variable
+     * @param variableName the variable name
+     * @return the metadata
+     * @throws IOException if the group or the variable is not present
+     */
+    public synchronized VariableMetadata getMetadata(String groupName, String variableName) throws IOException {
+        final String groupedVariableName = createGroupedName(groupName, variableName);
+        VariableMetadata metadata = metadataCache.get(groupedVariableName);
+        if (metadata == null) {
+            metadata = createMetadata(groupedVariableName, findVariable(variableName, findGroup(groupName)));
+        }
+        return metadata;
     }
 
     /**
@@ -189,11 +400,41 @@ public class ArrayCache {
      *
      * @param variableFinder a variable selection strategy
      */
-    public ArrayCache withVariableFinder(VariableFinder variableFinder) {
+    public synchronized ArrayCache withVariableFinder(VariableFinder variableFinder) {
         this.variableFinder = variableFinder;
         return this;
     }
 
+    /**
+     * Replaces the memory budget of this cache with the given.
+     *
+     * @param maxBytes the maximal number of bytes held, less or equal to zero means unlimited
+     */
+    public synchronized ArrayCache withMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+        evictIfNecessary(null);
+        return this;
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, residentBytes);
+    }
+
+    /**
+     * Drops all cached arrays and metadata and releases their share of the global memory budget. To be called when
+     * the file is closed; the cache remains usable.
+     */
+    public synchronized void dispose() {
+        cache.clear();
+        scaledCache.clear();
+        metadataCache.clear();
+        rowBlockVariables.clear();
+        usageOrder.clear();
+        addResidentBytes(-residentBytes);
+        lastRequested = null;
+        residentCaches.remove(reference);
+    }
+
     /**
      * Retrieves the number representation of the attribute. Returns null if attribute is not present.
      *
@@ -203,12 +444,7 @@ public class ArrayCache {
      * @throws IOException on disk access failures
      */
     public Number getNumberAttributeValue(String attributeName, String variableName) throws IOException {
-        final Array array = get(variableName);
-        if (array != null) {
-            return getAttributeNumberValue(attributeName, variableName);
-        }
-
-        return null;
+        return getMetadata(variableName).getNumberValue(attributeName);
     }
 
     /**
@@ -221,20 +457,14 @@ public class ArrayCache {
      * @throws IOException on disk access failures
      */
     public Number getNumberAttributeValue(String attributeName, String groupName, String variableName) throws IOException {
-        final Array array = get(groupName, variableName);
-        if (array != null) {
-            final String groupedName = createGroupedName(groupName, variableName);
-            return getAttributeNumberValue(attributeName, groupedName);
-        }
-
-        return null;
+        return getMetadata(groupName, variableName).getNumberValue(attributeName);
     }
 
-    public void inject(Variable variable) {
+    public synchronized void inject(Variable variable) {
         injectedVariables.put(variable.getShortName(), variable);
     }
 
-    public List<Variable> getInjectedVariables() {
+    public synchronized List<Variable> getInjectedVariables() {
         final HashMap<String, Variable> variableHashMap = this.injectedVariables;
         final ArrayList<Variable> resultList = new ArrayList<>(variableHashMap.size());
         resultList.addAll(variableHashMap.values());
@@ -250,40 +480,22 @@ public class ArrayCache {
      * @throws IOException on disk access failures
      */
     String getStringAttributeValue(String attributeName, String variableName) throws IOException {
-        final Array array = get(variableName);
-        if (array != null) {
-            return getAttributeStringValue(attributeName, variableName);
-        }
-
-        return null;
+        return getMetadata(variableName).getStringValue(attributeName);
     }
 
-    private String getAttributeStringValue(String attributeName, String variableKey) {
-        final ArrayContainer arrayContainer = cache.get(variableKey);
-        final Attribute attribute = arrayContainer.get(attributeName);
-        if (attribute != null) {
-            if (attribute.isString()) {
-                return attribute.getStringValue();
-            } else {
-                return attribute.getNumericValue().toString();
-            }
-        }
-        return null;
-    }
-
-    private Number getAttributeNumberValue(String attributeName, String variableKey) {
-        final ArrayContainer arrayContainer = cache.get(variableKey);
-        final Attribute attribute = arrayContainer.get(attributeName);
-        if (attribute != null) {
-            if (!attribute.isString()) {
-                return attribute.getNumericValue();
+    private VariableMetadata createMetadata(String key, Variable variable) {
+        final VariableMetadata metadata = new VariableMetadata(variable);
+        final AttributeContainer attributes = variable.attributes();
+        if (attributes != null) {
+            for (final Attribute attribute : attributes) {
+                metadata.attributes.put(attribute.getFullName(), attribute);
             }
         }
-        return null;
+        metadataCache.put(key, metadata);
+        return metadata;
     }
 
-    private ArrayContainer readArrayAndAttributes(String variableName, Group group) throws IOException {
-        ArrayContainer container;
+    private Variable findVariable(String variableName, Group group) throws IOException {
         Variable variable = injectedVariables.get(variableName);
         if (variable == null) {
             synchronized (netcdfFile) {
@@ -293,23 +505,70 @@ public class ArrayCache {
                 throw new IOException("requested variable '" + variableName + "' not present in file: " + netcdfFile.getLocation());
             }
         }
+        return variable;
+    }
+
+    private Array getRowBlock(String variableName, Variable variable, int blockIndex, int blockHeight) throws IOException {
+        final String key = variableName + ROW_BLOCK_KEY + blockIndex;
+        ArrayContainer container = cache.get(key);
+        if (container != null) {
+            touch(container);
+            return container.array;
+        }
+
+        final int[] shape = variable.getShape();
+        final int blockFirstRow = blockIndex * blockHeight;
+        final int[] origin = {blockFirstRow, 0};
+        final int[] blockShape = {Math.min(blockHeight, shape[0] - blockFirstRow), shape[1]};
+        container = new ArrayContainer();
+        try {
+            synchronized (netcdfFile) {
+                container.array = variable.read(origin, blockShape);
+            }
+            PerformanceStatistics.addBytesRead(container.array.getSizeBytes());
+        } catch (InvalidRangeException e) {
+            throw new IOException(e.getMessage());
+        }
+        add(key, container);
+        return container.array;
+    }
+
+    // a multiple of the chunk height, so that no chunk is decompressed for two blocks
+    static int getRowBlockHeight(Variable variable) {
+        final Attribute chunkSizes = variable.findAttribute(CHUNK_SIZES_ATTRIBUTE_NAME);
+        if (chunkSizes == null || chunkSizes.isString()) {
+            return MIN_ROW_BLOCK_HEIGHT;
+        }
+
+        final int chunkHeight = chunkSizes.getNumericValue(0).intValue();
+        if (chunkHeight <= 0) {
+            return MIN_ROW_BLOCK_HEIGHT;
+        }
+        return ((MIN_ROW_BLOCK_HEIGHT + chunkHeight - 1) / chunkHeight) * chunkHeight;
+    }
+
+    private ArrayContainer readArrayAndAttributes(String key, String variableName, Group group) throws IOException {
+        ArrayContainer container;
+        final Variable variable = findVariable(variableName, group);
         container = new ArrayContainer();
         synchronized (netcdfFile) {
             container.array = variable.read();
         }
+        PerformanceStatistics.addBytesRead(container.array.getSizeBytes());
 
-        final AttributeContainer attributes = variable.attributes();
-        if (attributes != null) {
-            for (final Attribute attribute : attributes) {
-                container.attributes.put(attribute.getFullName(), attribute);
-            }
+        container.metadata = metadataCache.get(key);
+        if (container.metadata == null) {
+            container.metadata = createMetadata(key, variable);
         }
 
         return container;
     }
 
-    private ArrayContainer readArrayAndAttributesFromGroup(String variableName, String groupName) throws IOException {
-        ArrayContainer container;
+    private ArrayContainer readArrayAndAttributesFromGroup(String key, String variableName, String groupName) throws IOException {
+        return readArrayAndAttributes(key, variableName, findGroup(groupName));
+    }
+
+    private Group findGroup(String groupName) throws IOException {
         final Group group;
         synchronized (netcdfFile) {
             group = netcdfFile.findGroup(groupName);
@@ -317,14 +576,140 @@ public class ArrayCache {
         if (group == null) {
             throw new IOException("requested group '" + groupName + "' not present in file: " + netcdfFile.getLocation());
         }
-        container = readArrayAndAttributes(variableName, group);
-        return container;
+        return group;
     }
 
     private void scaleIfNecessary(ArrayContainer arrayContainer, float scale, float offset) {
         if (scale != 1.f || offset != 0.f) {
             final MAMath.ScaleOffset scaleOffset = new MAMath.ScaleOffset(scale, offset);
             arrayContainer.array = MAMath.convert2Unpacked(arrayContainer.array, scaleOffset);
+            updateSize(arrayContainer);
+            evictIfNecessary(arrayContainer);
+        }
+    }
+
+    private void add(String key, ArrayContainer container) {
+        misses++;
+        globalMisses.incrementAndGet();
+        container.key = key;
+        cache.put(key, container);
+        usageOrder.put(container, Boolean.TRUE);
+        container.lastUse = useCounter.incrementAndGet();
+        lastRequested = container;
+        if (globalMaxBytes != Long.MAX_VALUE) {
+            residentCaches.add(reference);
+        }
+        updateSize(container);
+        evictIfNecessary(container);
+    }
+
+    private void touch(ArrayContainer container) {
+        hits++;
+        globalHits.incrementAndGet();
+        usageOrder.get(container);
+        container.lastUse = useCounter.incrementAndGet();
+        lastRequested = container;
+    }
+
+    private void updateSize(ArrayContainer container) {
+        final long sizeInBytes = container.array == null ? 0 : container.array.getSizeBytes();
+        final long delta = sizeInBytes - container.sizeInBytes;
+        container.sizeInBytes = sizeInBytes;
+        addResidentBytes(delta);
+    }
+
+    private void addResidentBytes(long delta) {
+        residentBytes += delta;
+        reference.residentBytes = residentBytes;
+        globalResidentBytes.addAndGet(delta);
+    }
+
+    // the array just requested is never dropped, even if it alone exceeds the budget
+    private void evictIfNecessary(ArrayContainer requested) {
+        final Iterator<ArrayContainer> iterator = usageOrder.keySet().iterator();
+        while (iterator.hasNext() && residentBytes > maxBytes) {
+            final ArrayContainer eldest = iterator.next();
+            if (eldest == requested) {
+                continue;
+            }
+
+            iterator.remove();
+            evict(eldest);
+        }
+        if (usageOrder.isEmpty()) {
+            residentCaches.remove(reference);
+        }
+    }
+
+    private void evict(ArrayContainer container) {
+        cache.remove(container.key, container);
+        scaledCache.remove(container.key, container);
+        addResidentBytes(-container.sizeInBytes);
+        evictions++;
+        globalEvictions.incrementAndGet();
+    }
+
+    // Drops the least recently used arrays of all caches until the global budget is met. Called without holding the
+    // lock of any cache, the caches are locked one at a time to prevent deadlocks between threads requesting memory.
+    private static void evictGloballyIfNecessary(ArrayCache requester) {
+        releaseCollectedCaches();
+        if (globalMaxBytes == Long.MAX_VALUE) {
+            return;
+        }
+
+        while (globalResidentBytes.get() > globalMaxBytes) {
+            ArrayCache eldestCache = null;
+            long eldestUse = Long.MAX_VALUE;
+            for (final CacheReference cacheReference : residentCaches) {
+                final ArrayCache arrayCache = cacheReference.get();
+                if (arrayCache == null) {
+                    continue;
+                }
+                final long use = arrayCache.getEldestUse(arrayCache == requester);
+                if (use < eldestUse) {
+                    eldestUse = use;
+                    eldestCache = arrayCache;
+                }
+            }
+            if (eldestCache == null) {
+                return;
+            }
+            eldestCache.evictEldest(eldestUse);
+        }
+    }
+
+    // the array last requested from the cache is not a candidate for the requester, it is about to be used
+    private synchronized long getEldestUse(boolean isRequester) {
+        for (final ArrayContainer container : usageOrder.keySet()) {
+            if (!isRequester || container != lastRequested) {
+                return container.lastUse;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // evicts the array with the given last use, unless it has been used or dropped in the meantime
+    private synchronized void evictEldest(long lastUse) {
+        final Iterator<ArrayContainer> iterator = usageOrder.keySet().iterator();
+        while (iterator.hasNext()) {
+            final ArrayContainer container = iterator.next();
+            if (container.lastUse == lastUse) {
+                iterator.remove();
+                evict(container);
+                break;
+            }
+        }
+        if (usageOrder.isEmpty()) {
+            residentCaches.remove(reference);
+        }
+    }
+
+    private static void releaseCollectedCaches() {
+        Reference<? extends ArrayCache> collected;
+        while ((collected = collectedCaches.poll()) != null) {
+            final CacheReference cacheReference = (CacheReference) collected;
+            residentCaches.remove(cacheReference);
+            globalResidentBytes.addAndGet(-cacheReference.residentBytes);
         }
     }
 
@@ -336,17 +721,177 @@ public class ArrayCache {
         Variable findVariable(Group group, String variableName) throws IOException;
     }
 
-    private class ArrayContainer {
+    /**
+     * A block of complete rows of a 2D variable.
+     */
+    public static class RowBlock {
 
-        Array array;
-        Map<String, Attribute> attributes;
+        private final Array array;
+        private final int firstRow;
 
-        ArrayContainer() {
+        RowBlock(Array array, int firstRow) {
+            this.array = array;
+            this.firstRow = firstRow;
+        }
+
+        public Array getArray() {
+            return array;
+        }
+
+        /**
+         * @return the index of the first row of the block in the variable
+         */
+        public int getFirstRow() {
+            return firstRow;
+        }
+    }
+
+    public static class Statistics {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long residentBytes;
+
+        Statistics(long hits, long misses, long evictions, long residentBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.residentBytes = residentBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getResidentBytes() {
+            return residentBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "hits: " + hits + ", misses: " + misses + ", evictions: " + evictions + ", resident bytes: " + residentBytes;
+        }
+    }
+
+    /**
+     * The attributes and the data type of a variable.
+     */
+    public static class VariableMetadata {
+
+        private final Variable variable;
+        private final Map<String, Attribute> attributes;
+
+        VariableMetadata(Variable variable) {
+            this.variable = variable;
             attributes = new HashMap<>();
         }
 
-        Attribute get(String name) {
+        public DataType getDataType() {
+            return variable.getDataType();
+        }
+
+        /**
+         * @return the attribute or null if not present
+         */
+        public Attribute getAttribute(String name) {
             return attributes.get(name);
         }
+
+        /**
+         * @return the string representation of the attribute or null if not present
+         */
+        public String getStringValue(String name) {
+            final Attribute attribute = attributes.get(name);
+            if (attribute != null) {
+                if (attribute.isString()) {
+                    return attribute.getStringValue();
+                } else {
+                    return attribute.getNumericValue().toString();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the number value of the attribute or null if not present or a string attribute
+         */
+        public Number getNumberValue(String name) {
+            final Attribute attribute = attributes.get(name);
+            if (attribute != null && !attribute.isString()) {
+                return attribute.getNumericValue();
+            }
+            return null;
+        }
+
+        /**
+         * @return the CF fill value or null if not present
+         */
+        public Number getFillValue() {
+            return getNumberValue(CF_FILL_VALUE_NAME);
+        }
+
+        /**
+         * @return the CF scale factor or null if not present
+         */
+        public Number getScaleFactor() {
+            return getNumberValue(CF_SCALE_FACTOR_NAME);
+        }
+
+        /**
+         * @return the CF offset or null if not present
+         */
+        public Number getOffset() {
+            return getNumberValue(CF_ADD_OFFSET_NAME);
+        }
+
+        /**
+         * @return the lower limit of the CF valid range or null if not present
+         */
+        public Number getValidMin() {
+            return getValidRangeValue(0);
+        }
+
+        /**
+         * @return the upper limit of the CF valid range or null if not present
+         */
+        public Number getValidMax() {
+            return getValidRangeValue(1);
+        }
+
+        private Number getValidRangeValue(int index) {
+            final Attribute attribute = attributes.get(CF_VALID_RANGE_NAME);
+            if (attribute == null || attribute.isString() || attribute.getLength() != 2) {
+                return null;
+            }
+            return attribute.getNumericValue(index);
+        }
+    }
+
+    // keeps the bytes held by a cache, known after the cache itself has been collected
+    private static class CacheReference extends WeakReference<ArrayCache> {
+
+        volatile long residentBytes;
+
+        CacheReference(ArrayCache arrayCache) {
+            super(arrayCache, collectedCaches);
+        }
+    }
+
+    private class ArrayContainer {
+
+        Array array;
+        VariableMetadata metadata;
+        String key;
+        long sizeInBytes;
+        long lastUse;
     }
 }
@@ -33,6 +33,77 @@ import java.io.IOException;
  */
 public class RawDataReader {
 
+    /**
+     * Reads a window of a variable from the array cache. Windows of 2D variables are cut from the blocks of rows
+     * covering them, all other variables are read completely.
+     */
+    public static Array read(int centerX, int centerY, Interval interval, Number fillValue, ArrayCache arrayCache, String variableName, com.bc.fiduceo.core.Dimension productSize) throws IOException {
+        final int windowWidth = interval.getX();
+        final int windowHeight = interval.getY();
+        final int offsetX = centerX - windowWidth / 2;
+        final int offsetY = centerY - windowHeight / 2;
+
+        final ArrayCache.RowBlock rowBlock = arrayCache.getRows(variableName, offsetY, windowHeight);
+        if (rowBlock == null) {
+            return read(centerX, centerY, interval, fillValue, arrayCache.get(variableName), productSize);
+        }
+
+        // all rows of the window not contained in the block are outside of the variable
+        final Array rawArray = rowBlock.getArray();
+        final int[] shape = rawArray.getShape();
+        final int blockOffsetY = offsetY - rowBlock.getFirstRow();
+        if (isWindowInside(offsetX, blockOffsetY, windowWidth, windowHeight, shape[1], shape[0])) {
+            return NetCDFUtils.section(rawArray, new int[]{blockOffsetY, offsetX}, new int[]{windowHeight, windowWidth});
+        }
+        return readFrom2DArray(offsetX, blockOffsetY, windowWidth, windowHeight, fillValue, rawArray, shape[1], shape[0]);
+    }
+
+    /**
+     * Reads the windows around several center pixels of a variable from the array cache and stacks them in an array
+     * of shape [numWindows, windowHeight, windowWidth]. Windows inside the variable are copied row by row straight
+     * from the cached rows into the stack, only windows at the border are assembled separately.
+     */
+    public static Array readWindows(int[] centerX, int[] centerY, Interval interval, Number fillValue, ArrayCache arrayCache, String variableName, com.bc.fiduceo.core.Dimension productSize) throws IOException {
+        WindowStack.checkCenters(centerX, centerY);
+
+        final int windowWidth = interval.getX();
+        final int windowHeight = interval.getY();
+        final int windowSize = windowWidth * windowHeight;
+
+        Array stack = null;
+        for (int i = 0; i < centerX.length; i++) {
+            final int offsetX = centerX[i] - windowWidth / 2;
+            final int offsetY = centerY[i] - windowHeight / 2;
+            final int stackOffset = i * windowSize;
+
+            final ArrayCache.RowBlock rowBlock = arrayCache.getRows(variableName, offsetY, windowHeight);
+            final Array window;
+            if (rowBlock == null) {
+                window = read(centerX[i], centerY[i], interval, fillValue, arrayCache.get(variableName), productSize);
+            } else {
+                final Array rawArray = rowBlock.getArray();
+                final int[] shape = rawArray.getShape();
+                final int blockOffsetY = offsetY - rowBlock.getFirstRow();
+                if (isWindowInside(offsetX, blockOffsetY, windowWidth, windowHeight, shape[1], shape[0])) {
+                    if (stack == null) {
+                        stack = WindowStack.create(rawArray.getDataType(), centerX.length, new int[]{windowHeight, windowWidth});
+                    }
+                    for (int y = 0; y < windowHeight; y++) {
+                        Array.arraycopy(rawArray, (blockOffsetY + y) * shape[1] + offsetX, stack, stackOffset + y * windowWidth, windowWidth);
+                    }
+                    continue;
+                }
+                window = readFrom2DArray(offsetX, blockOffsetY, windowWidth, windowHeight, fillValue, rawArray, shape[1], shape[0]);
+            }
+
+            if (stack == null) {
+                stack = WindowStack.create(window.getDataType(), centerX.length, window.getShape());
+            }
+            Array.arraycopy(window, 0, stack, stackOffset, windowSize);
+        }
+        return stack;
+    }
+
     public static Array read(int centerX, int centerY, Interval interval, Number fillValue, Array rawArray, com.bc.fiduceo.core.Dimension productSize) throws IOException {
         final int windowWidth = interval.getX();
         final int windowHeight = interval.getY();
@@ -41,6 +41,6 @@ public class Read2dFrom2d extends WindowReader {
 
     @Override
     public Array read(int centerX, int centerY, Interval interval) throws IOException {
-        return RawDataReader.read(centerX, centerY, interval, fillValue, arrayCache.get(shortName), productSize);
+        return RawDataReader.read(centerX, centerY, interval, fillValue, arrayCache, shortName, productSize);
     }
 }
@@ -139,6 +139,40 @@ public interface Reader extends AutoCloseable {
      */
     Array readScaled(int centerX, int centerY, Interval interval, String variableName) throws IOException, InvalidRangeException;
 
+    /**
+     * Reads raw data of windows around several center pixel positions of one variable. The windows are stacked in
+     * an array of shape [numWindows, windowHeight, windowWidth], window i contains the data returned by
+     * readRaw(centerX[i], centerY[i], interval, variableName).
+     *
+     * @param centerX      the center x positions.
+     * @param centerY      the center y positions, same length as centerX, at least one.
+     * @param interval     the window sizes.
+     * @param variableName the name of the data variable.
+     * @return the stacked windows.
+     * @throws IOException           on disk access failures
+     * @throws InvalidRangeException on incorrect coordinates supplied
+     */
+    default Array readRawWindows(int[] centerX, int[] centerY, Interval interval, String variableName) throws IOException, InvalidRangeException {
+        return WindowStack.read(centerX, centerY, (x, y) -> readRaw(x, y, interval, variableName));
+    }
+
+    /**
+     * Reads data of windows around several center pixel positions of one variable, scaling factor and offset
+     * applied. The windows are stacked in an array of shape [numWindows, windowHeight, windowWidth], window i
+     * contains the data returned by readScaled(centerX[i], centerY[i], interval, variableName).
+     *
+     * @param centerX      the center x positions.
+     * @param centerY      the center y positions, same length as centerX, at least one.
+     * @param interval     the window sizes.
+     * @param variableName the name of the data variable.
+     * @return the stacked windows.
+     * @throws IOException           on disk access failures
+     * @throws InvalidRangeException on incorrect coordinates supplied
+     */
+    default Array readScaledWindows(int[] centerX, int[] centerY, Interval interval, String variableName) throws IOException, InvalidRangeException {
+        return WindowStack.read(centerX, centerY, (x, y) -> readScaled(x, y, interval, variableName));
+    }
+
     /**
      * Reads an {@link Array} of acquisition time values per pixel.
      * The unit value is seconds since 1970-01-01 00:00:00.
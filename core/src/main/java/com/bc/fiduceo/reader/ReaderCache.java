@@ -26,10 +26,26 @@ import com.bc.fiduceo.log.FiduceoLogger;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 
+/**
+ * Keeps the most recently used readers open. Requesting, adding and closing readers is thread-safe.
+ * <p>
+ * Readers are not safe for concurrent use. Threads sharing a cache obtain a reader for their exclusive use with
+ * {@link #acquireReaderFor(String, Path, String)} and hand it back with {@link #releaseReader(Path, Reader)}. If the
+ * reader of a file is in use, another reader is opened, so that several threads can read the same file at once.
+ * Readers in use are never closed by the cache. Readers are opened and closed without holding the lock of the cache.
+ * <p>
+ * Note that every reader keeps its own array cache. When several threads read the same file at once, each of them
+ * holds a reader and thus a copy of the cached variables, i.e. memory use grows with the number of threads.
+ */
 public class ReaderCache extends LinkedHashMap<Path, Reader> {
 
     // The default load factor  used when none specified in constructor.
@@ -39,11 +55,16 @@ public class ReaderCache extends LinkedHashMap<Path, Reader> {
     private final int cacheSize;
     private final ReaderFactory readerFactory;
     private final FileServer fileServer;
+    private final IdentityHashMap<Reader, Path> acquiredReaders;
+    private final List<Map.Entry<Path, Reader>> evictedReaders;
+    private boolean closed;
 
     public ReaderCache(int cacheSize, ReaderFactory readerFactory, Archive archive) {
         super(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, true);
         this.cacheSize = cacheSize;
         this.readerFactory = readerFactory;
+        acquiredReaders = new IdentityHashMap<>();
+        evictedReaders = new ArrayList<>();
         if (archive == null) {
             fileServer = (reader, observationPath, sensorName, processingVersion) -> observationPath.toFile();
         } else {
@@ -57,39 +78,159 @@ public class ReaderCache extends LinkedHashMap<Path, Reader> {
     }
 
     public void add(Reader reader, Path filePath) {
-        put(filePath, reader);
+        final List<Map.Entry<Path, Reader>> evicted;
+        synchronized (this) {
+            put(filePath, reader);
+            evicted = takeEvictedReaders();
+        }
+        closeReaders(evicted);
+    }
+
+    @Override
+    public synchronized Reader get(Object key) {
+        return super.get(key);
     }
 
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return super.containsKey(key);
+    }
+
+    /**
+     * Closes the cached readers. Readers in use are closed when released.
+     *
+     * @throws IOException on disk access failures
+     */
     public void close() throws IOException {
-        for (Map.Entry<Path, Reader> next : entrySet()) {
-            next.getValue().close();
+        final List<Reader> readers;
+        synchronized (this) {
+            closed = true;
+            readers = new ArrayList<>(values());
+        }
+        for (final Reader reader : readers) {
+            reader.close();
         }
     }
 
     public Reader getReaderFor(String sensorName, Path observationPath, String processingVersion) throws IOException {
-        if (containsKey(observationPath)) {
-            return get(observationPath);
+        synchronized (this) {
+            final Reader reader = super.get(observationPath);
+            if (reader != null) {
+                return reader;
+            }
+        }
+
+        // opening takes time and does not need the lock
+        final Reader reader = openReader(sensorName, observationPath, processingVersion);
+        final Reader cachedReader;
+        final List<Map.Entry<Path, Reader>> evicted;
+        synchronized (this) {
+            cachedReader = super.get(observationPath);
+            if (cachedReader == null) {
+                put(observationPath, reader);
+            }
+            evicted = takeEvictedReaders();
+        }
+        closeReaders(evicted);
+
+        if (cachedReader != null) {
+            // another thread has opened the file in the meantime
+            reader.close();
+            return cachedReader;
+        }
+        return reader;
+    }
+
+    /**
+     * Retrieves a reader for the exclusive use of the calling thread, to be handed back with
+     * {@link #releaseReader(Path, Reader)}. Takes the cached reader of the file, if not in use, opens one otherwise.
+     *
+     * @param sensorName        the sensor name
+     * @param observationPath   the path of the observation file
+     * @param processingVersion the processing version, used to locate the file in the archive
+     * @return the reader
+     * @throws IOException on disk access failures
+     */
+    public Reader acquireReaderFor(String sensorName, Path observationPath, String processingVersion) throws IOException {
+        synchronized (this) {
+            final Reader reader = super.remove(observationPath);
+            if (reader != null) {
+                acquiredReaders.put(reader, observationPath);
+                return reader;
+            }
+        }
+
+        // opening takes time and does not need the lock
+        final Reader reader = openReader(sensorName, observationPath, processingVersion);
+        synchronized (this) {
+            acquiredReaders.put(reader, observationPath);
+        }
+        return reader;
+    }
+
+    /**
+     * Hands back a reader retrieved with {@link #acquireReaderFor(String, Path, String)}. The reader is kept open
+     * for later requests unless another reader of the file is cached already or the cache is closed.
+     *
+     * @param observationPath the path of the observation file
+     * @param reader          the reader
+     * @throws IOException on disk access failures
+     */
+    public void releaseReader(Path observationPath, Reader reader) throws IOException {
+        final List<Map.Entry<Path, Reader>> evicted;
+        synchronized (this) {
+            if (acquiredReaders.remove(reader) == null) {
+                throw new IllegalStateException("Reader for file \"" + observationPath + "\" has not been acquired");
+            }
+            if (!closed && !super.containsKey(observationPath)) {
+                put(observationPath, reader);
+                evicted = takeEvictedReaders();
+            } else {
+                evicted = null;
+            }
+        }
+        if (evicted == null) {
+            reader.close();
         } else {
-            final Reader reader = readerFactory.getReader(sensorName);
-            final File observationFile = fileServer.getFile(reader, observationPath, sensorName, processingVersion);
-            reader.open(observationFile);
-            add(reader, observationPath);
-            return reader;
+            closeReaders(evicted);
         }
     }
 
-    @Override
-    protected boolean removeEldestEntry(Map.Entry<Path, Reader> eldest) {
-        final boolean remove = size() > cacheSize;
-        if (remove) {
+    private Reader openReader(String sensorName, Path observationPath, String processingVersion) throws IOException {
+        final Reader reader = readerFactory.getReader(sensorName);
+        final File observationFile = fileServer.getFile(reader, observationPath, sensorName, processingVersion);
+        reader.open(observationFile);
+        return reader;
+    }
+
+    // must be called holding the lock, the readers are closed by the caller after releasing it
+    private List<Map.Entry<Path, Reader>> takeEvictedReaders() {
+        if (evictedReaders.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Map.Entry<Path, Reader>> evicted = new ArrayList<>(evictedReaders);
+        evictedReaders.clear();
+        return evicted;
+    }
+
+    private static void closeReaders(List<Map.Entry<Path, Reader>> evicted) {
+        for (final Map.Entry<Path, Reader> entry : evicted) {
             try {
-                final Reader reader = eldest.getValue();
-                reader.close();
+                entry.getValue().close();
             } catch (IOException e) {
-                final Path key = eldest.getKey();
+                final Path key = entry.getKey();
                 FiduceoLogger.getLogger().log(Level.WARNING, "Unable to close reader for file \"" + key.toString() + "\"", e);
             }
         }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Path, Reader> eldest) {
+        final boolean remove = size() > cacheSize;
+        if (remove) {
+            // closing takes time, the reader is closed after the lock is released
+            evictedReaders.add(new AbstractMap.SimpleImmutableEntry<>(eldest.getKey(), eldest.getValue()));
+        }
         return remove;
     }
 
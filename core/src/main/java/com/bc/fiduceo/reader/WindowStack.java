@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.reader;
+
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+
+import java.io.IOException;
+
+/**
+ * Stacks windows of one variable read around several center pixels into one array of shape
+ * [numWindows, windowHeight, windowWidth]. Windows of higher rank are stacked the same way along a new first dimension.
+ */
+public class WindowStack {
+
+    /**
+     * Reads the windows one by one and stacks them.
+     *
+     * @param centerX      the center x positions
+     * @param centerY      the center y positions
+     * @param windowSource reads the window around a center position
+     * @return the stacked windows
+     * @throws IOException           on disk access failures
+     * @throws InvalidRangeException on incorrect coordinates supplied
+     */
+    public static Array read(int[] centerX, int[] centerY, WindowSource windowSource) throws IOException, InvalidRangeException {
+        checkCenters(centerX, centerY);
+
+        Array stack = null;
+        int windowSize = 0;
+        for (int i = 0; i < centerX.length; i++) {
+            final Array window = windowSource.read(centerX[i], centerY[i]);
+            if (stack == null) {
+                stack = create(window.getDataType(), centerX.length, window.getShape());
+                windowSize = (int) window.getSize();
+            }
+            Array.arraycopy(window, 0, stack, i * windowSize, windowSize);
+        }
+        return stack;
+    }
+
+    static void checkCenters(int[] centerX, int[] centerY) {
+        if (centerX.length != centerY.length) {
+            throw new IllegalArgumentException("Number of x and y center positions differ: " + centerX.length + " != " + centerY.length);
+        }
+        if (centerX.length == 0) {
+            throw new IllegalArgumentException("At least one center position required");
+        }
+    }
+
+    static Array create(DataType dataType, int numWindows, int[] windowShape) {
+        final int[] shape = new int[windowShape.length + 1];
+        shape[0] = numWindows;
+        System.arraycopy(windowShape, 0, shape, 1, windowShape.length);
+        return Array.factory(dataType, shape);
+    }
+
+    /**
+     * Reads a single window.
+     */
+    public interface WindowSource {
+
+        Array read(int centerX, int centerY) throws IOException, InvalidRangeException;
+    }
+}
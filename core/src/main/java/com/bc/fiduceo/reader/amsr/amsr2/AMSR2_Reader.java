@@ -65,6 +65,10 @@ public class AMSR2_Reader extends NetCDFReader {
     public void close() throws IOException {
         pixelLocator = null;
         boundingPolygonCreator = null;
+        if (arrayCache != null) {
+            arrayCache.dispose();
+            arrayCache = null;
+        }
         if (netcdfFile != null) {
             netcdfFile.close();
             netcdfFile = null;
@@ -127,10 +131,9 @@ public class AMSR2_Reader extends NetCDFReader {
     @Override
     public Array readRaw(int centerX, int centerY, Interval interval, String variableName) throws IOException {
         String escapedName = NetCDFUtils.escapeVariableName(variableName);
-        final Array rawArray = arrayCache.get(escapedName);
         final Dimension productSize = getProductSize();
         final Number fillValue = getFillValue(escapedName);
-        return RawDataReader.read(centerX, centerY, interval, fillValue, rawArray, productSize);
+        return RawDataReader.read(centerX, centerY, interval, fillValue, arrayCache, escapedName, productSize);
     }
 
     @Override
@@ -287,8 +290,8 @@ public class AMSR2_Reader extends NetCDFReader {
             return 255;
         }
 
-        final Array array = arrayCache.get(variableName);
-        return NetCDFUtils.getDefaultFillValue(array);
+        final DataType dataType = arrayCache.getMetadata(variableName).getDataType();
+        return NetCDFUtils.getDefaultFillValue(dataType.getPrimitiveClassType());
     }
 
     private void initializeVariables() throws IOException {
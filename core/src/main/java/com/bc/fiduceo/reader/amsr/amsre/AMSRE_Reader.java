@@ -371,8 +371,8 @@ class AMSRE_Reader extends NetCDFReader {
         if (fillValue != null) {
             return fillValue;
         }
-        final Array array = arrayCache.get(groupName, variableName);
-        return NetCDFUtils.getDefaultFillValue(array);
+        final DataType dataType = arrayCache.getMetadata(groupName, variableName).getDataType();
+        return NetCDFUtils.getDefaultFillValue(dataType.getPrimitiveClassType());
     }
 
     static int getLayerIndexFromChannelFlagName(String channelQualityFlagName) {
@@ -101,11 +101,10 @@ public class AVHRR_FCDR_Reader extends FCDR_Reader {
 
     @Override
     public Array readRaw(int centerX, int centerY, Interval interval, String variableName) throws IOException {
-        final Array rawArray = arrayCache.get(variableName);
         final Number fillValue = getFillValue(variableName);
 
         final Dimension productSize = getProductSize();
-        return RawDataReader.read(centerX, centerY, interval, fillValue, rawArray, productSize);
+        return RawDataReader.read(centerX, centerY, interval, fillValue, arrayCache, variableName, productSize);
     }
 
     @Override
@@ -121,6 +120,27 @@ public class AVHRR_FCDR_Reader extends FCDR_Reader {
         return array;
     }
 
+    @Override
+    public Array readRawWindows(int[] centerX, int[] centerY, Interval interval, String variableName) throws IOException {
+        final Number fillValue = getFillValue(variableName);
+
+        final Dimension productSize = getProductSize();
+        return RawDataReader.readWindows(centerX, centerY, interval, fillValue, arrayCache, variableName, productSize);
+    }
+
+    @Override
+    public Array readScaledWindows(int[] centerX, int[] centerY, Interval interval, String variableName) throws IOException {
+        final Array array = readRawWindows(centerX, centerY, interval, variableName);
+
+        final double scaleFactor = getScaleFactorCf(variableName);
+        final double offset = getOffset(variableName);
+        if (ReaderUtils.mustScale(scaleFactor, offset)) {
+            final MAMath.ScaleOffset scaleOffset = new MAMath.ScaleOffset(scaleFactor, offset);
+            return MAMath.convert2Unpacked(array, scaleOffset);
+        }
+        return array;
+    }
+
     @Override
     public ArrayInt.D2 readAcquisitionTime(int x, int y, Interval interval) throws IOException, InvalidRangeException {
         return readAcquisitionTime(x, y, interval, "Time");
@@ -389,13 +389,12 @@ public class MxD35_Reader extends NetCDFReader {
     public Array readRaw(int centerX, int centerY, Interval interval, String variableName) throws IOException, InvalidRangeException {
         getPixelLocator();
         final Variable variable = _variablesLUT.get(variableName);
-        final Array array = arrayCache.get(variableName);
         final Number fillValue = variable.findAttribute(CF_FILL_VALUE_NAME).getNumericValue();
         if (fillValue == null) {
             throw new RuntimeException("implement fill value handling here.");
         }
 
-        return RawDataReader.read(centerX, centerY, interval, fillValue, array, getProductSize());
+        return RawDataReader.read(centerX, centerY, interval, fillValue, arrayCache, variableName, getProductSize());
     }
 
     @Override
@@ -29,7 +29,10 @@ public abstract class NetCDFReader implements Reader {
 
     @Override
     public void close() throws IOException {
-        arrayCache = null;
+        if (arrayCache != null) {
+            arrayCache.dispose();
+            arrayCache = null;
+        }
 
         if (netcdfFile != null) {
             netcdfFile.close();
@@ -38,12 +41,12 @@ public abstract class NetCDFReader implements Reader {
     }
 
     protected Number getFillValue(String variableName) throws IOException {
-        final Number fillValue = arrayCache.getNumberAttributeValue(CF_FILL_VALUE_NAME, variableName);
+        final ArrayCache.VariableMetadata metadata = arrayCache.getMetadata(variableName);
+        final Number fillValue = metadata.getFillValue();
         if (fillValue != null) {
             return fillValue;
         }
-        final Array array = arrayCache.get(variableName);
-        return NetCDFUtils.getDefaultFillValue(array);
+        return NetCDFUtils.getDefaultFillValue(metadata.getDataType().getPrimitiveClassType());
     }
 
     protected double getScaleFactor(String variableName, String attributeName) throws IOException {
@@ -189,9 +189,8 @@ class SmosL1CDailyGriddedReader extends NetCDFReader {
             }
             return geoHandler.read(centerX, centerY, interval, type);
         } else if (variables2D.contains(variableName)) {
-            final Array array = arrayCache.get(variableName);
             final Number fillValue = arrayCache.getNumberAttributeValue(NetCDFUtils.CF_FILL_VALUE_NAME, variableName);
-            return RawDataReader.read(centerX, centerY, interval, fillValue, array, getProductSize());
+            return RawDataReader.read(centerX, centerY, interval, fillValue, arrayCache, variableName, getProductSize());
         } else {
             final int extensionIdx = variableName.lastIndexOf("_");
             final int layerIndex = layerExtension.getIndex(variableName.substring(extensionIdx));
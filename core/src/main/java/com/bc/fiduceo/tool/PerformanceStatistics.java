@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.tool;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collects wall time, call counts, bytes and cache requests of the processing stages, per stage and sensor. Thread-safe.
+ * <p>
+ * The bytes of a stage are those read from the input files by the timing thread while the stage is timed, see
+ * {@link #addBytesRead(long)}, unless the stage states its bytes explicitly, as the MMD writing does with the bytes
+ * copied to the MMD.
+ * <p>
+ * The disabled instance records nothing and hands out a shared no-op timer, so instrumented code pays a virtual call
+ * per stage invocation only. When enabled, each timed invocation is also emitted as JFR event
+ * "com.bc.fiduceo.Stage", visible in any running flight recording. The event class is compiled on JDK 11 and later
+ * only, builds on JDK 8 record the statistics without events.
+ */
+public class PerformanceStatistics {
+
+    public static final PerformanceStatistics DISABLED = new PerformanceStatistics(false);
+
+    public static final String ALL_SENSORS = "all";
+
+    public enum Stage {
+        DB_QUERY,
+        READER_OPEN,
+        INTERSECTION,
+        PIXEL_LOCATION,
+        CONDITIONS,
+        SCREENING,
+        MMD_WRITE
+    }
+
+    private static final Timer NO_TIMER = new Timer(null, null, 0L, 0L);
+    // bytes read from the input files by the current thread, a timer takes the difference between start and stop
+    private static final ThreadLocal<long[]> threadBytesRead = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final boolean enabled;
+    private final Supplier<StageEvent> eventFactory;
+    private final ConcurrentHashMap<String, Counter> counters;
+
+    public PerformanceStatistics() {
+        this(true);
+    }
+
+    private PerformanceStatistics(boolean enabled) {
+        this.enabled = enabled;
+        eventFactory = enabled ? loadEventFactory() : null;
+        counters = new ConcurrentHashMap<>();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing an invocation of a stage, the invocation is counted when the timer is stopped.
+     *
+     * @param stage      the stage
+     * @param sensorName the sensor processed, ALL_SENSORS if the stage is not sensor specific
+     * @return the timer
+     */
+    public Timer start(Stage stage, String sensorName) {
+        if (!enabled) {
+            return NO_TIMER;
+        }
+
+        StageEvent event = null;
+        if (eventFactory != null) {
+            event = eventFactory.get();
+            event.start(stage.name(), sensorName);
+        }
+        return new Timer(getCounter(stage, sensorName), event, System.nanoTime(), threadBytesRead.get()[0]);
+    }
+
+    /**
+     * Counts bytes read from an input file by the current thread. They are recorded for the stages timed on this thread
+     * while the bytes are read.
+     *
+     * @param bytes the number of bytes
+     */
+    public static void addBytesRead(long bytes) {
+        threadBytesRead.get()[0] += bytes;
+    }
+
+    public void addBytes(Stage stage, String sensorName, long bytes) {
+        if (enabled) {
+            getCounter(stage, sensorName).bytes.add(bytes);
+        }
+    }
+
+    /**
+     * Counts a request to a cache in front of a stage. A stage behind a cache is invoked on a cache miss only, the
+     * hit rate is derived from the requests and the invocations.
+     *
+     * @param stage      the stage
+     * @param sensorName the sensor
+     */
+    public void addCacheRequest(Stage stage, String sensorName) {
+        if (enabled) {
+            getCounter(stage, sensorName).cacheRequests.increment();
+        }
+    }
+
+    public List<Entry> getEntries() {
+        final List<Entry> entries = new ArrayList<>();
+        for (final Counter counter : counters.values()) {
+            entries.add(new Entry(counter));
+        }
+        entries.sort(Comparator.comparing((Entry entry) -> entry.stage).thenComparing(entry -> entry.sensorName));
+        return entries;
+    }
+
+    public void writeJson(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("{\"stages\": [");
+            final List<Entry> entries = getEntries();
+            for (int i = 0; i < entries.size(); i++) {
+                final Entry entry = entries.get(i);
+                writer.write(i == 0 ? "\n" : ",\n");
+                writer.write(String.format(Locale.ENGLISH,
+                        "  {\"stage\": \"%s\", \"sensor\": \"%s\", \"calls\": %d, \"seconds\": %.6f, \"bytes\": %d, \"cache_requests\": %d, \"cache_hit_rate\": %.4f}",
+                        entry.stage.name().toLowerCase(Locale.ENGLISH), escape(entry.sensorName), entry.calls, entry.getSeconds(),
+                        entry.bytes, entry.cacheRequests, entry.getCacheHitRate()));
+            }
+            writer.write("\n]}\n");
+        }
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("stage,sensor,calls,seconds,bytes,cache_requests,cache_hit_rate\n");
+            for (final Entry entry : getEntries()) {
+                writer.write(String.format(Locale.ENGLISH, "%s,\"%s\",%d,%.6f,%d,%d,%.4f\n",
+                        entry.stage.name().toLowerCase(Locale.ENGLISH), escapeCsv(entry.sensorName), entry.calls, entry.getSeconds(),
+                        entry.bytes, entry.cacheRequests, entry.getCacheHitRate()));
+            }
+        }
+    }
+
+    private Counter getCounter(Stage stage, String sensorName) {
+        final String key = stage.name() + "/" + sensorName;
+        return counters.computeIfAbsent(key, k -> new Counter(stage, sensorName));
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String escapeCsv(String value) {
+        return value.replace("\"", "\"\"");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<StageEvent> loadEventFactory() {
+        try {
+            final Class<?> factoryClass = Class.forName("com.bc.fiduceo.tool.PerformanceEvent$Factory");
+            return (Supplier<StageEvent>) factoryClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // built on JDK 8 or running without flight recorder
+            return null;
+        }
+    }
+
+    /**
+     * Flight recorder event of a timed stage invocation.
+     */
+    interface StageEvent {
+
+        void start(String stage, String sensor);
+
+        void end(long bytes);
+    }
+
+    public static class Timer {
+
+        private final Counter counter;
+        private final StageEvent event;
+        private final long startNanos;
+        private final long startBytesRead;
+
+        private Timer(Counter counter, StageEvent event, long startNanos, long startBytesRead) {
+            this.counter = counter;
+            this.event = event;
+            this.startNanos = startNanos;
+            this.startBytesRead = startBytesRead;
+        }
+
+        /**
+         * Stops the timer, records the bytes read by this thread since the start.
+         */
+        public void stop() {
+            if (counter == null) {
+                return;
+            }
+
+            stop(threadBytesRead.get()[0] - startBytesRead);
+        }
+
+        /**
+         * Stops the timer, records the given bytes.
+         *
+         * @param bytes the number of bytes processed by the stage
+         */
+        public void stop(long bytes) {
+            if (counter == null) {
+                return;
+            }
+
+            counter.calls.increment();
+            counter.nanos.add(System.nanoTime() - startNanos);
+            counter.bytes.add(bytes);
+            if (event != null) {
+                event.end(bytes);
+            }
+        }
+    }
+
+    public static class Entry {
+
+        private final Stage stage;
+        private final String sensorName;
+        private final long calls;
+        private final long nanos;
+        private final long bytes;
+        private final long cacheRequests;
+
+        private Entry(Counter counter) {
+            stage = counter.stage;
+            sensorName = counter.sensorName;
+            calls = counter.calls.sum();
+            nanos = counter.nanos.sum();
+            bytes = counter.bytes.sum();
+            cacheRequests = counter.cacheRequests.sum();
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        public String getSensorName() {
+            return sensorName;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public double getSeconds() {
+            return nanos * 1e-9;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getCacheRequests() {
+            return cacheRequests;
+        }
+
+        public double getCacheHitRate() {
+            if (cacheRequests == 0) {
+                return 0.0;
+            }
+            return Math.max(0, cacheRequests - calls) / (double) cacheRequests;
+        }
+    }
+
+    private static class Counter {
+
+        private final Stage stage;
+        private final String sensorName;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder cacheRequests = new LongAdder();
+
+        private Counter(Stage stage, String sensorName) {
+            this.stage = stage;
+            this.sensorName = sensorName;
+        }
+    }
+}
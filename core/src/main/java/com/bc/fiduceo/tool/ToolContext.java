@@ -41,6 +41,7 @@ public class ToolContext {
     private ReaderFactory readerFactory;
     private TempFileUtils tempFileUtils;
     private Archive archive;
+    private PerformanceStatistics performanceStatistics = PerformanceStatistics.DISABLED;
 
     public void setStartDate(Date startDate) {
         this.startDate = startDate;
@@ -113,4 +114,12 @@ public class ToolContext {
     public void setArchive(Archive archive) {
         this.archive = archive;
     }
+
+    public PerformanceStatistics getPerformanceStatistics() {
+        return performanceStatistics;
+    }
+
+    public void setPerformanceStatistics(PerformanceStatistics performanceStatistics) {
+        this.performanceStatistics = performanceStatistics;
+    }
 }
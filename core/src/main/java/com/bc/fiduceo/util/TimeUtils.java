@@ -141,6 +141,13 @@ public class TimeUtils {
         return calendar.getTime();
     }
 
+    public static Date addDays(int days, Date date) {
+        final Calendar calendar = calendarThreadLocal.get();
+        calendar.setTimeInMillis(date.getTime());
+        calendar.add(Calendar.DAY_OF_YEAR, days);
+        return calendar.getTime();
+    }
+
     public static Date getBeginOfMonth(Date date) {
         final Calendar utcCalendar = calendarThreadLocal.get();
         utcCalendar.setTime(date);
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.tool;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+// compiled by the jfr profile of the core module on JDK 11 and later, loaded by PerformanceStatistics if present
+@Name("com.bc.fiduceo.Stage")
+@Label("Processing Stage")
+@Category({"FIDUCEO", "Matchup"})
+@StackTrace(false)
+class PerformanceEvent extends jdk.jfr.Event implements PerformanceStatistics.StageEvent {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Sensor")
+    String sensor;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Override
+    public void start(String stage, String sensor) {
+        this.stage = stage;
+        this.sensor = sensor;
+        begin();
+    }
+
+    @Override
+    public void end(long bytes) {
+        this.bytes = bytes;
+        commit();
+    }
+
+    static class Factory implements Supplier<PerformanceStatistics.StageEvent> {
+
+        @Override
+        public PerformanceStatistics.StageEvent get() {
+            return new PerformanceEvent();
+        }
+    }
+}
@@ -28,6 +28,9 @@ import java.io.ByteArrayInputStream;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class SystemConfigTest {
@@ -92,6 +95,11 @@ public class SystemConfigTest {
 
         assertEquals("S2", systemConfig.getGeometryLibraryType());
         assertEquals(8, systemConfig.getReaderCacheSize());
+        assertNull(systemConfig.getCheckpointDir());
+        assertFalse(systemConfig.isPerformanceStatistics());
+        assertEquals(1, systemConfig.getMatchupThreads());
+        assertEquals(0, systemConfig.getArrayCacheSize());
+        assertEquals(0, systemConfig.getArrayCacheGlobalSize());
     }
 
     @Test
@@ -117,4 +125,83 @@ public class SystemConfigTest {
 
         assertEquals("/wherever/I/Lay/my/hat", systemConfig.getTempDir());
     }
+
+    @Test
+    public void testLoadAndGet_MatchupThreads() {
+        final String useCaseXml = "<system-config>" +
+                "    <matchup-threads>12</matchup-threads>" +
+                "</system-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(useCaseXml.getBytes());
+
+        final SystemConfig systemConfig = SystemConfig.load(inputStream);
+
+        assertEquals(12, systemConfig.getMatchupThreads());
+    }
+
+    @Test
+    public void testLoadAndGet_MatchupThreads_invalid() {
+        final String useCaseXml = "<system-config>" +
+                "    <matchup-threads>0</matchup-threads>" +
+                "</system-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(useCaseXml.getBytes());
+
+        try {
+            SystemConfig.load(inputStream);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+            assertEquals("Unable to initialize system configuration: Value of element 'matchup-threads' >= 1 expected. But was '0'.", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testLoadAndGet_CheckpointDir() {
+        final String useCaseXml = "<system-config>" +
+                "    <checkpoint-directory>/data/checkpoints</checkpoint-directory>" +
+                "</system-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(useCaseXml.getBytes());
+
+        final SystemConfig systemConfig = SystemConfig.load(inputStream);
+
+        assertEquals("/data/checkpoints", systemConfig.getCheckpointDir());
+    }
+
+    @Test
+    public void testLoadAndGet_PerformanceStatistics() {
+        final String useCaseXml = "<system-config>" +
+                "    <performance-statistics>true</performance-statistics>" +
+                "</system-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(useCaseXml.getBytes());
+
+        final SystemConfig systemConfig = SystemConfig.load(inputStream);
+
+        assertTrue(systemConfig.isPerformanceStatistics());
+    }
+
+    @Test
+    public void testLoadAndGet_ArrayCacheSizes() {
+        final String useCaseXml = "<system-config>" +
+                "    <array-cache-size>512</array-cache-size>" +
+                "    <array-cache-global-size>4096</array-cache-global-size>" +
+                "</system-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(useCaseXml.getBytes());
+
+        final SystemConfig systemConfig = SystemConfig.load(inputStream);
+
+        assertEquals(512, systemConfig.getArrayCacheSize());
+        assertEquals(4096, systemConfig.getArrayCacheGlobalSize());
+    }
+
+    @Test
+    public void testLoadAndGet_ArrayCacheSizes_negative() {
+        final String useCaseXml = "<system-config>" +
+                "    <array-cache-size>-1</array-cache-size>" +
+                "</system-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(useCaseXml.getBytes());
+
+        try {
+            SystemConfig.load(inputStream);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+    }
 }
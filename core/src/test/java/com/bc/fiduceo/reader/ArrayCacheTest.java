@@ -25,12 +25,19 @@ import com.bc.fiduceo.util.NetCDFUtils;
 import org.junit.Before;
 import org.junit.Test;
 import ucar.ma2.Array;
+import ucar.ma2.DataType;
 import ucar.nc2.*;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 public class ArrayCacheTest {
@@ -322,7 +329,7 @@ public class ArrayCacheTest {
         assertNull(attributeValue);
 
         verify(netcdfFile, times(1)).findVariable(null, "a_variable");
-        verify(variable, times(1)).read();
+        verify(variable, never()).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
@@ -343,7 +350,7 @@ public class ArrayCacheTest {
         assertEquals("the_value", attributeValue);
 
         verify(netcdfFile, times(1)).findVariable(null, "a_variable");
-        verify(variable, times(1)).read();
+        verify(variable, never()).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
@@ -382,7 +389,7 @@ public class ArrayCacheTest {
 
         verify(netcdfFile, times(1)).findGroup("a_group");
         verify(netcdfFile, times(1)).findVariable(group, "a_group_variable");
-        verify(variable, times(1)).read();
+        verify(variable, never()).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
@@ -404,7 +411,7 @@ public class ArrayCacheTest {
 
         verify(netcdfFile, times(1)).findGroup("a_group");
         verify(netcdfFile, times(1)).findVariable(group, "a_group_variable");
-        verify(variable, times(1)).read();
+        verify(variable, never()).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
@@ -420,7 +427,7 @@ public class ArrayCacheTest {
         assertEquals(-99999, attributeValue.intValue());
 
         verify(netcdfFile, times(1)).findVariable(null, "a_variable");
-        verify(variable, times(1)).read();
+        verify(variable, never()).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
@@ -437,7 +444,7 @@ public class ArrayCacheTest {
 
         verify(netcdfFile, times(1)).findGroup("a_group");
         verify(netcdfFile, times(1)).findVariable(group, "a_group_variable");
-        verify(variable, times(1)).read();
+        verify(variable, never()).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
@@ -454,11 +461,74 @@ public class ArrayCacheTest {
 
         verify(netcdfFile, times(1)).findGroup("a_group");
         verify(netcdfFile, times(1)).findVariable(group, "a_group_variable");
+        verify(variable, never()).read();
+        verify(variable, times(1)).attributes();
+        verifyNoMoreInteractions(netcdfFile, variable);
+    }
+
+    @Test
+    public void testGetMetadata() throws IOException {
+        final AttributeContainerMutable attributes = new AttributeContainerMutable("test");
+        attributes.addAttribute(new Attribute(NetCDFUtils.CF_FILL_VALUE_NAME, -32768));
+        attributes.addAttribute(new Attribute(NetCDFUtils.CF_SCALE_FACTOR_NAME, 0.01));
+        attributes.addAttribute(new Attribute(NetCDFUtils.CF_ADD_OFFSET_NAME, 273.15));
+        attributes.addAttribute(new Attribute(NetCDFUtils.CF_VALID_RANGE_NAME, NetCDFUtils.create(new short[]{-1000, 1000})));
+        when(variable.attributes()).thenReturn(attributes);
+        when(variable.getDataType()).thenReturn(DataType.SHORT);
+
+        final ArrayCache.VariableMetadata metadata = arrayCache.getMetadata("a_variable");
+        assertEquals(-32768, metadata.getFillValue().intValue());
+        assertEquals(0.01, metadata.getScaleFactor().doubleValue(), 1e-8);
+        assertEquals(273.15, metadata.getOffset().doubleValue(), 1e-8);
+        assertEquals(-1000, metadata.getValidMin().intValue());
+        assertEquals(1000, metadata.getValidMax().intValue());
+        assertEquals(DataType.SHORT, metadata.getDataType());
+
+        assertSame(metadata, arrayCache.getMetadata("a_variable"));
+
+        verify(netcdfFile, times(1)).findVariable(null, "a_variable");
+        verify(variable, never()).read();
+        verify(variable, times(1)).attributes();
+    }
+
+    @Test
+    public void testGetMetadata_attributesNotPresent() throws IOException {
+        final ArrayCache.VariableMetadata metadata = arrayCache.getMetadata("a_group", "a_group_variable");
+        assertNull(metadata.getFillValue());
+        assertNull(metadata.getScaleFactor());
+        assertNull(metadata.getOffset());
+        assertNull(metadata.getValidMin());
+        assertNull(metadata.getValidMax());
+
+        verify(variable, never()).read();
+    }
+
+    @Test
+    public void testMetadataIsSharedWithArrayRead() throws IOException {
+        arrayCache.getNumberAttributeValue("attribute_number", "a_variable");
+        arrayCache.get("a_variable");
+        arrayCache.getNumberAttributeValue("attribute_number", "a_variable");
+
+        verify(netcdfFile, times(2)).findVariable(null, "a_variable");
         verify(variable, times(1)).read();
         verify(variable, times(1)).attributes();
         verifyNoMoreInteractions(netcdfFile, variable);
     }
 
+    @Test
+    public void testMetadataIsKeptWhenArrayIsEvicted() throws IOException {
+        mockVariable("b_variable", new int[]{5, 6, 7, 8});
+        arrayCache.withMaxBytes(20);
+
+        arrayCache.get("a_variable");
+        arrayCache.get("b_variable");   // drops a_variable
+        arrayCache.getStringAttributeValue("attribute_name", "a_variable");
+
+        verify(netcdfFile, times(1)).findVariable(null, "a_variable");
+        verify(variable, times(1)).read();
+        verify(variable, times(1)).attributes();
+    }
+
     @Test
     public void testInjectVariable() throws IOException {
         final Variable variable = mock(Variable.class);
@@ -498,4 +568,289 @@ public class ArrayCacheTest {
         assertEquals("first", injectedVariables.get(0).getShortName());
         assertEquals("second", injectedVariables.get(1).getShortName());
     }
+
+    @Test
+    public void testLeastRecentlyUsedArrayIsEvicted() throws IOException {
+        final Variable variable_b = mockVariable("b_variable", new int[]{5, 6, 7, 8});
+        final Variable variable_c = mockVariable("c_variable", new int[]{9, 10, 11, 12});
+        arrayCache.withMaxBytes(40);    // two arrays of 16 bytes
+
+        arrayCache.get("a_variable");
+        arrayCache.get("b_variable");
+        arrayCache.get("a_variable");
+        arrayCache.get("c_variable");   // drops b_variable
+
+        final Array array = arrayCache.get("a_variable");
+        assertEquals(1, array.getInt(0));
+        verify(variable, times(1)).read();
+
+        final Array array_b = arrayCache.get("b_variable");
+        assertEquals(5, array_b.getInt(0));
+        verify(variable_b, times(2)).read();
+        verify(variable_c, times(1)).read();
+    }
+
+    @Test
+    public void testStatistics() throws IOException {
+        mockVariable("b_variable", new int[]{5, 6, 7, 8});
+        arrayCache.withMaxBytes(20);
+
+        ArrayCache.Statistics statistics = arrayCache.getStatistics();
+        assertEquals(0, statistics.getHits());
+        assertEquals(0, statistics.getMisses());
+        assertEquals(0, statistics.getEvictions());
+        assertEquals(0, statistics.getResidentBytes());
+
+        arrayCache.get("a_variable");
+        arrayCache.get("a_variable");
+        arrayCache.get("b_variable");
+
+        statistics = arrayCache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+        assertEquals(1, statistics.getEvictions());
+        assertEquals(16, statistics.getResidentBytes());
+    }
+
+    @Test
+    public void testRequestedArrayIsKeptWhenExceedingTheBudget() throws IOException {
+        arrayCache.withMaxBytes(8);
+
+        final Array array = arrayCache.get("a_variable");
+        assertEquals(4, array.getSize());
+
+        arrayCache.get("a_variable");
+        verify(variable, times(1)).read();
+
+        final ArrayCache.Statistics statistics = arrayCache.getStatistics();
+        assertEquals(0, statistics.getEvictions());
+        assertEquals(16, statistics.getResidentBytes());
+    }
+
+    @Test
+    public void testDispose() throws IOException {
+        arrayCache.get("a_variable");
+        final long globalResidentBytes = ArrayCache.getGlobalStatistics().getResidentBytes();
+
+        arrayCache.dispose();
+
+        assertEquals(0, arrayCache.getStatistics().getResidentBytes());
+        assertEquals(globalResidentBytes - 16, ArrayCache.getGlobalStatistics().getResidentBytes());
+
+        arrayCache.get("a_variable");
+        verify(variable, times(2)).read();
+    }
+
+    @Test
+    public void testGlobalBudget_leastRecentlyUsedArrayOfAnotherCacheIsEvicted() throws IOException {
+        final Variable variable_b = mockVariable("b_variable", new int[]{5, 6, 7, 8});
+        final NetcdfFile otherFile = mock(NetcdfFile.class);
+        final Variable otherVariable = mock(Variable.class);
+        when(otherFile.findVariable(null, "x_variable")).thenReturn(otherVariable);
+        when(otherVariable.read()).thenReturn(NetCDFUtils.create(new int[]{9, 10, 11, 12}));
+        final ArrayCache otherCache = new ArrayCache(otherFile);
+
+        // other tests may leave arrays behind, they are not subject to the limit set here
+        final long residentBytes = ArrayCache.getGlobalStatistics().getResidentBytes();
+        ArrayCache.setMemoryLimits(0, residentBytes + 40);   // two arrays of 16 bytes
+        try {
+            otherCache.get("x_variable");
+            arrayCache.get("a_variable");
+            arrayCache.get("b_variable");   // drops x_variable of the other cache
+
+            assertEquals(1, otherCache.getStatistics().getEvictions());
+            assertEquals(0, otherCache.getStatistics().getResidentBytes());
+            assertEquals(0, arrayCache.getStatistics().getEvictions());
+            assertEquals(32, arrayCache.getStatistics().getResidentBytes());
+
+            arrayCache.get("a_variable");
+            arrayCache.get("b_variable");
+            verify(variable, times(1)).read();
+            verify(variable_b, times(1)).read();
+
+            otherCache.get("x_variable");   // drops a_variable, the least recently used
+            verify(otherVariable, times(2)).read();
+            assertEquals(1, arrayCache.getStatistics().getEvictions());
+        } finally {
+            ArrayCache.setMemoryLimits(0, 0);
+            arrayCache.dispose();
+            otherCache.dispose();
+        }
+    }
+
+    @Test
+    public void testGlobalBudget_cacheDroppedWithoutDisposeIsReleased() throws Exception {
+        ArrayCache droppedCache = new ArrayCache(netcdfFile);
+        final WeakReference<ArrayCache> droppedReference = new WeakReference<>(droppedCache);
+
+        ArrayCache.setMemoryLimits(0, Long.MAX_VALUE - 1);
+        try {
+            droppedCache.get("a_variable");
+            final long residentBytes = ArrayCache.getGlobalStatistics().getResidentBytes();
+
+            droppedCache = null;
+            for (int i = 0; i < 100 && ArrayCache.getGlobalStatistics().getResidentBytes() > residentBytes - 16; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertNull(droppedReference.get());
+            assertTrue(ArrayCache.getGlobalStatistics().getResidentBytes() <= residentBytes - 16);
+        } finally {
+            ArrayCache.setMemoryLimits(0, 0);
+        }
+    }
+
+    @Test
+    public void testScaledArrayIsEvictedTogetherWithRawArray() throws IOException {
+        final Attribute attribute = new Attribute("scaleFac", 2.0);
+        final AttributeContainerMutable attributes = new AttributeContainerMutable("test");
+        attributes.addAttribute(attribute);
+        when(variable.attributes()).thenReturn(attributes);
+        mockVariable("b_variable", new int[]{5, 6, 7, 8});
+        arrayCache.withMaxBytes(20);
+
+        arrayCache.getScaled("a_variable", "scaleFac", null);
+        arrayCache.get("b_variable");
+
+        final Array resultArray = arrayCache.getScaled("a_variable", "scaleFac", null);
+        assertEquals(2.0, resultArray.getFloat(0), 1e-6);
+        verify(variable, times(2)).read();
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final AttributeContainerMutable attributes = new AttributeContainerMutable("test");
+        attributes.addAttribute(new Attribute(NetCDFUtils.CF_FILL_VALUE_NAME, -1));
+        when(variable.attributes()).thenReturn(attributes);
+        final Array expected = arrayCache.get("a_variable");
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executorService.submit(() -> {
+                    boolean valid = true;
+                    for (int i = 0; i < 1000; i++) {
+                        valid &= arrayCache.get("a_variable") == expected;
+                        valid &= arrayCache.getNumberAttributeValue(NetCDFUtils.CF_FILL_VALUE_NAME, "a_variable").intValue() == -1;
+                    }
+                    return valid;
+                }));
+            }
+            for (final Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        verify(variable, times(1)).read();
+        verify(variable, times(1)).attributes();
+        assertEquals(8000, arrayCache.getStatistics().getHits());
+    }
+
+    @Test
+    public void testGetRows_smallVariableIsNotSplit() throws IOException {
+        when(variable.getShape()).thenReturn(new int[]{100, 4});
+
+        assertNull(arrayCache.getRows("a_variable", 10, 5));
+    }
+
+    @Test
+    public void testGetRows_notA2DVariable() throws IOException {
+        when(variable.getShape()).thenReturn(new int[]{1000});
+        assertNull(arrayCache.getRows("a_variable", 10, 5));
+
+        final Variable variable_b = mockVariable("b_variable", new int[]{1, 2});
+        when(variable_b.getShape()).thenReturn(new int[]{1, 1000});
+        assertNull(arrayCache.getRows("b_variable", 10, 5));
+    }
+
+    @Test
+    public void testGetRows_readsAndCachesBlocks() throws Exception {
+        final Variable variable_b = mockRowVariable("b_variable", 300, 4);
+
+        ArrayCache.RowBlock rowBlock = arrayCache.getRows("b_variable", 10, 5);
+        assertEquals(0, rowBlock.getFirstRow());
+        assertArrayEquals(new int[]{128, 4}, rowBlock.getArray().getShape());
+        assertEquals(102, rowBlock.getArray().getInt(42));
+
+        rowBlock = arrayCache.getRows("b_variable", -2, 5);
+        assertEquals(0, rowBlock.getFirstRow());
+
+        rowBlock = arrayCache.getRows("b_variable", 297, 5);
+        assertEquals(256, rowBlock.getFirstRow());
+        assertArrayEquals(new int[]{44, 4}, rowBlock.getArray().getShape());
+        assertEquals(2993, rowBlock.getArray().getInt(44 * 4 - 1));
+
+        verify(variable_b, times(1)).read(aryEq(new int[]{0, 0}), aryEq(new int[]{128, 4}));
+        verify(variable_b, times(1)).read(aryEq(new int[]{256, 0}), aryEq(new int[]{44, 4}));
+        verify(variable_b, times(0)).read();
+    }
+
+    @Test
+    public void testGetRows_acrossBlockBorder() throws Exception {
+        mockRowVariable("b_variable", 300, 4);
+
+        final ArrayCache.RowBlock rowBlock = arrayCache.getRows("b_variable", 126, 5);
+        assertEquals(126, rowBlock.getFirstRow());
+        assertArrayEquals(new int[]{5, 4}, rowBlock.getArray().getShape());
+        assertEquals(1260, rowBlock.getArray().getInt(0));
+        assertEquals(1273, rowBlock.getArray().getInt(7));
+        assertEquals(1303, rowBlock.getArray().getInt(19));
+    }
+
+    @Test
+    public void testGetRows_completeVariableCachedAlready() throws Exception {
+        final Variable variable_b = mockRowVariable("b_variable", 300, 4);
+
+        final Array completeArray = arrayCache.get("b_variable");
+        final ArrayCache.RowBlock rowBlock = arrayCache.getRows("b_variable", 200, 5);
+
+        assertSame(completeArray, rowBlock.getArray());
+        assertEquals(0, rowBlock.getFirstRow());
+        verify(variable_b, times(1)).read();
+        verify(variable_b, times(0)).read(any(int[].class), any(int[].class));
+    }
+
+    @Test
+    public void testGetRowBlockHeight() {
+        final Variable chunkedVariable = mock(Variable.class);
+        assertEquals(128, ArrayCache.getRowBlockHeight(chunkedVariable));
+
+        when(chunkedVariable.findAttribute("_ChunkSizes")).thenReturn(new Attribute("_ChunkSizes", Array.makeFromJavaArray(new int[]{50, 409})));
+        assertEquals(150, ArrayCache.getRowBlockHeight(chunkedVariable));
+
+        when(chunkedVariable.findAttribute("_ChunkSizes")).thenReturn(new Attribute("_ChunkSizes", Array.makeFromJavaArray(new int[]{512, 409})));
+        assertEquals(512, ArrayCache.getRowBlockHeight(chunkedVariable));
+    }
+
+    // value is 10 * row + column
+    private Variable mockRowVariable(String name, int numRows, int numColumns) throws Exception {
+        final int[][] data = new int[numRows][numColumns];
+        for (int y = 0; y < numRows; y++) {
+            for (int x = 0; x < numColumns; x++) {
+                data[y][x] = 10 * y + x;
+            }
+        }
+        final Array array = NetCDFUtils.create(data);
+
+        final Variable variable = mockVariable(name, new int[0]);
+        when(variable.read()).thenReturn(array);
+        when(variable.getShape()).thenReturn(new int[]{numRows, numColumns});
+        when(variable.read(any(int[].class), any(int[].class))).thenAnswer(invocation -> {
+            final int[] origin = invocation.getArgument(0);
+            final int[] shape = invocation.getArgument(1);
+            return array.section(origin, shape).copy();
+        });
+        return variable;
+    }
+
+    private Variable mockVariable(String name, int[] data) throws IOException {
+        final Variable variable = mock(Variable.class);
+        when(netcdfFile.findVariable(null, name)).thenReturn(variable);
+        when(variable.read()).thenReturn(NetCDFUtils.create(data));
+        return variable;
+    }
 }
@@ -21,9 +21,19 @@
 package com.bc.fiduceo.reader;
 
 
+import com.bc.fiduceo.core.Dimension;
+import com.bc.fiduceo.core.Interval;
+import com.bc.fiduceo.util.NetCDFUtils;
 import org.junit.Test;
+import ucar.ma2.Array;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.Variable;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class RawDataReaderTest {
 
@@ -43,4 +53,75 @@ public class RawDataReaderTest {
         assertEquals(RawDataReader.InputDimension.THREE_D_FALSE_DIMENSION, RawDataReader.getInputDimension(3, new int[]{1, 409, 4443}));
         assertEquals(RawDataReader.InputDimension.THREE_D_FALSE_DIMENSION, RawDataReader.getInputDimension(3, new int[]{1, 10, 10}));
     }
+
+    @Test
+    public void testReadFromArrayCache_sameResultAsCompleteArray() throws Exception {
+        final short[][] data = new short[400][30];
+        for (int y = 0; y < data.length; y++) {
+            for (int x = 0; x < data[y].length; x++) {
+                data[y][x] = (short) (100 * y + x);
+            }
+        }
+        final Array completeArray = NetCDFUtils.create(data);
+
+        final Variable variable = mock(Variable.class);
+        when(variable.getShape()).thenReturn(new int[]{400, 30});
+        when(variable.read(any(int[].class), any(int[].class))).thenAnswer(invocation -> {
+            final int[] origin = invocation.getArgument(0);
+            final int[] shape = invocation.getArgument(1);
+            return completeArray.section(origin, shape).copy();
+        });
+        final NetcdfFile netcdfFile = mock(NetcdfFile.class);
+        when(netcdfFile.findVariable(null, "the_variable")).thenReturn(variable);
+        final ArrayCache arrayCache = new ArrayCache(netcdfFile);
+
+        final Dimension productSize = new Dimension("size", 30, 400);
+        final Interval interval = new Interval(5, 7);
+        final int[][] centers = {{15, 200}, {0, 0}, {29, 399}, {12, 127}, {12, 131}, {3, 255}, {-4, 398}, {10, 404}};
+        for (final int[] center : centers) {
+            final Array expected = RawDataReader.read(center[0], center[1], interval, -1, completeArray, productSize);
+            final Array actual = RawDataReader.read(center[0], center[1], interval, -1, arrayCache, "the_variable", productSize);
+
+            assertArrayEquals((short[]) expected.copyTo1DJavaArray(), (short[]) actual.copyTo1DJavaArray());
+        }
+    }
+
+    @Test
+    public void testReadWindows_sameResultAsSingleWindows() throws Exception {
+        final short[][] data = new short[400][30];
+        for (int y = 0; y < data.length; y++) {
+            for (int x = 0; x < data[y].length; x++) {
+                data[y][x] = (short) (100 * y + x);
+            }
+        }
+        final Array completeArray = NetCDFUtils.create(data);
+
+        final Variable variable = mock(Variable.class);
+        when(variable.getShape()).thenReturn(new int[]{400, 30});
+        when(variable.read(any(int[].class), any(int[].class))).thenAnswer(invocation -> {
+            final int[] origin = invocation.getArgument(0);
+            final int[] shape = invocation.getArgument(1);
+            return completeArray.section(origin, shape).copy();
+        });
+        final NetcdfFile netcdfFile = mock(NetcdfFile.class);
+        when(netcdfFile.findVariable(null, "the_variable")).thenReturn(variable);
+        final ArrayCache arrayCache = new ArrayCache(netcdfFile);
+
+        final Dimension productSize = new Dimension("size", 30, 400);
+        final Interval interval = new Interval(5, 7);
+        final int[] centerX = {15, 0, 29, 12, 12, 3, -4, 10};
+        final int[] centerY = {200, 0, 399, 127, 131, 255, 398, 404};
+
+        final Array windows = RawDataReader.readWindows(centerX, centerY, interval, -1, arrayCache, "the_variable", productSize);
+        assertArrayEquals(new int[]{8, 7, 5}, windows.getShape());
+
+        final short[] windowData = (short[]) windows.copyTo1DJavaArray();
+        for (int i = 0; i < centerX.length; i++) {
+            final Array expected = RawDataReader.read(centerX[i], centerY[i], interval, -1, completeArray, productSize);
+            final short[] actual = new short[35];
+            System.arraycopy(windowData, i * 35, actual, 0, 35);
+
+            assertArrayEquals((short[]) expected.copyTo1DJavaArray(), actual);
+        }
+    }
 }
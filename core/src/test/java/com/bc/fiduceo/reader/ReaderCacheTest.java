@@ -26,8 +26,19 @@ import static org.mockito.Mockito.*;
 import com.bc.fiduceo.geometry.GeometryFactory;
 import org.junit.*;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ReaderCacheTest {
 
@@ -109,9 +120,161 @@ public class ReaderCacheTest {
         verify(reader_2, times(1)).close();
     }
 
+    @Test
+    public void testAcquireReaderFor_takesCachedReader() throws IOException {
+        final Reader reader = mock(Reader.class);
+        final Path path = Paths.get("a/relative/path/one");
+        readerCache.add(reader, path);
+
+        final Reader acquiredReader = readerCache.acquireReaderFor("sensor", path, null);
+        assertSame(reader, acquiredReader);
+        assertNull(readerCache.get(path));
 
+        readerCache.releaseReader(path, acquiredReader);
+        assertSame(reader, readerCache.get(path));
+        verify(reader, never()).close();
+    }
+
+    @Test
+    public void testAcquireReaderFor_readerInUse_opensAnother() throws IOException {
+        final List<Reader> createdReaders = new ArrayList<>();
+        readerCache = createCacheWithMockedReaders(2, createdReaders);
+        final Path path = Paths.get("a/relative/path/one");
 
+        final Reader reader_1 = readerCache.acquireReaderFor("sensor", path, null);
+        final Reader reader_2 = readerCache.acquireReaderFor("sensor", path, null);
+        assertNotSame(reader_1, reader_2);
+        assertEquals(2, createdReaders.size());
+        verify(reader_1, times(1)).open(new File("a/relative/path/one"));
 
+        readerCache.releaseReader(path, reader_2);
+        readerCache.releaseReader(path, reader_1);
+
+        // only one reader per file is kept
+        assertSame(reader_2, readerCache.get(path));
+        verify(reader_1, times(1)).close();
+        verify(reader_2, never()).close();
+    }
+
+    @Test
+    public void testAcquireReaderFor_acquiredReadersAreNotClosedWhenEvicted() throws IOException {
+        final List<Reader> createdReaders = new ArrayList<>();
+        readerCache = createCacheWithMockedReaders(1, createdReaders);
 
+        final Reader reader_1 = readerCache.acquireReaderFor("sensor", Paths.get("one"), null);
+        final Reader reader_2 = readerCache.acquireReaderFor("sensor", Paths.get("two"), null);
+        readerCache.releaseReader(Paths.get("two"), reader_2);
+        readerCache.getReaderFor("sensor", Paths.get("three"), null);
+
+        verify(reader_1, never()).close();
+        verify(reader_2, times(1)).close();
+
+        readerCache.releaseReader(Paths.get("one"), reader_1);
+        assertSame(reader_1, readerCache.get(Paths.get("one")));
+    }
+
+    @Test
+    public void testReleaseReader_afterClose() throws IOException {
+        final List<Reader> createdReaders = new ArrayList<>();
+        readerCache = createCacheWithMockedReaders(2, createdReaders);
+        final Path path = Paths.get("a/relative/path/one");
+
+        final Reader reader = readerCache.acquireReaderFor("sensor", path, null);
+        readerCache.close();
+        verify(reader, never()).close();
+
+        readerCache.releaseReader(path, reader);
+        verify(reader, times(1)).close();
+    }
 
+    @Test
+    public void testReleaseReader_notAcquired() throws IOException {
+        try {
+            readerCache.releaseReader(Paths.get("a/relative/path/one"), mock(Reader.class));
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testGetReaderFor_opensOnceAndCaches() throws IOException {
+        final List<Reader> createdReaders = new ArrayList<>();
+        readerCache = createCacheWithMockedReaders(2, createdReaders);
+
+        final Reader reader = readerCache.getReaderFor("sensor", Paths.get("one"), null);
+        assertSame(reader, readerCache.getReaderFor("sensor", Paths.get("one"), null));
+        assertEquals(1, createdReaders.size());
+        verify(reader, times(1)).open(new File("one"));
+    }
+
+    @Test
+    public void testGetReaderFor_opensAndClosesWithoutHoldingTheLock() throws IOException {
+        final List<Boolean> lockHeld = new ArrayList<>();
+        final ReaderFactory readerFactory = mock(ReaderFactory.class);
+        when(readerFactory.getReader("sensor")).thenAnswer(invocation -> {
+            final Reader reader = mock(Reader.class);
+            doAnswer(open -> lockHeld.add(Thread.holdsLock(readerCache))).when(reader).open(any());
+            doAnswer(close -> lockHeld.add(Thread.holdsLock(readerCache))).when(reader).close();
+            return reader;
+        });
+        readerCache = new ReaderCache(1, readerFactory, null);
+
+        final Reader reader_1 = readerCache.getReaderFor("sensor", Paths.get("one"), null);
+        readerCache.getReaderFor("sensor", Paths.get("two"), null);
+
+        verify(reader_1, times(1)).close();
+        assertEquals(3, lockHeld.size());
+        assertFalse(lockHeld.contains(true));
+    }
+
+    @Test
+    public void testAcquireAndRelease_concurrent() throws Exception {
+        final List<Reader> createdReaders = Collections.synchronizedList(new ArrayList<>());
+        readerCache = createCacheWithMockedReaders(2, createdReaders);
+        final Path[] paths = {Paths.get("one"), Paths.get("two"), Paths.get("three")};
+        final Map<Reader, AtomicBoolean> inUse = new ConcurrentHashMap<>();
+        final int numThreads = 16;
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int threadIndex = t;
+                futures.add(executorService.submit(() -> {
+                    int numConflicts = 0;
+                    for (int i = 0; i < 500; i++) {
+                        final Path path = paths[(i + threadIndex) % paths.length];
+                        final Reader reader = readerCache.acquireReaderFor("sensor", path, null);
+                        final AtomicBoolean readerInUse = inUse.computeIfAbsent(reader, r -> new AtomicBoolean());
+                        if (!readerInUse.compareAndSet(false, true)) {
+                            numConflicts++;
+                        }
+                        readerInUse.set(false);
+                        readerCache.releaseReader(path, reader);
+                    }
+                    return numConflicts;
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                assertEquals(0, future.get().intValue());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        readerCache.close();
+        for (final Reader reader : createdReaders) {
+            verify(reader, times(1)).close();
+        }
+    }
+
+    private ReaderCache createCacheWithMockedReaders(int cacheSize, List<Reader> createdReaders) {
+        final ReaderFactory readerFactory = mock(ReaderFactory.class);
+        when(readerFactory.getReader("sensor")).thenAnswer(invocation -> {
+            final Reader reader = mock(Reader.class);
+            createdReaders.add(reader);
+            return reader;
+        });
+        return new ReaderCache(cacheSize, readerFactory, null);
+    }
 }
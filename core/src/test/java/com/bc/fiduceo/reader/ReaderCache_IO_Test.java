@@ -4,19 +4,27 @@ import com.bc.fiduceo.IOTestRunner;
 import com.bc.fiduceo.TestUtil;
 import com.bc.fiduceo.archive.Archive;
 import com.bc.fiduceo.archive.ArchiveConfig;
+import com.bc.fiduceo.core.Dimension;
+import com.bc.fiduceo.core.Interval;
 import com.bc.fiduceo.core.SystemConfig;
 import com.bc.fiduceo.geometry.GeometryFactory;
 import com.bc.fiduceo.reader.insitu.sst_cci.SSTInsituReaderPlugin;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import ucar.ma2.Array;
 import ucar.nc2.Variable;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertNotNull;
@@ -137,4 +145,81 @@ public class ReaderCache_IO_Test {
         assertNotNull(insituFileOpened);
         assertSame(insituFileOpened, secondInsituFileOpened);
     }
+
+    @Test
+    public void testAcquireReaderFor_concurrentWindowReads() throws Exception {
+        final String testFilePath = TestUtil.assembleFileSystemPath(new String[]{"avhrr-n18", "v01.3", "2013", "02", "03", "20130203182600-ESACCI-L1C-AVHRR18_G-fv01.0.nc"}, false);
+        final Path avhrrFile = TestUtil.getTestDataFileAsserted(testFilePath).toPath();
+        final String[] variableNames = {"ch1", "ch3b", "relative_azimuth_angle", "qual_flags", "cloud_mask"};
+        final Interval interval = new Interval(5, 5);
+        final int numWindows = 400;
+        final int windowsPerAcquisition = 25;
+        final int numThreads = 8;
+
+        // single-threaded reference reads
+        final int[] xs = new int[numWindows];
+        final int[] ys = new int[numWindows];
+        final Array[] expectedArrays = new Array[numWindows];
+        final long[] expectedTimes = new long[numWindows];
+        final Reader referenceReader = readerFactory.getReader("avhrr-n18");
+        referenceReader.open(avhrrFile.toFile());
+        try {
+            final Dimension productSize = referenceReader.getProductSize();
+            final Random random = new Random(1234);
+            for (int i = 0; i < numWindows; i++) {
+                xs[i] = random.nextInt(productSize.getNx());
+                ys[i] = random.nextInt(productSize.getNy());
+                expectedArrays[i] = referenceReader.readRaw(xs[i], ys[i], interval, variableNames[i % variableNames.length]);
+                expectedTimes[i] = referenceReader.getTimeLocator().getTimeFor(xs[i], ys[i]);
+            }
+        } finally {
+            referenceReader.close();
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int threadOffset = t * numWindows / numThreads;
+                futures.add(executorService.submit(() -> {
+                    int numMismatches = 0;
+                    for (int n = 0; n < numWindows; n += windowsPerAcquisition) {
+                        final Reader reader = readerCache.acquireReaderFor("avhrr-n18", avhrrFile, null);
+                        try {
+                            for (int k = n; k < n + windowsPerAcquisition; k++) {
+                                final int i = (k + threadOffset) % numWindows;
+                                final Array array = reader.readRaw(xs[i], ys[i], interval, variableNames[i % variableNames.length]);
+                                final long time = reader.getTimeLocator().getTimeFor(xs[i], ys[i]);
+                                if (!isEqual(expectedArrays[i], array) || time != expectedTimes[i]) {
+                                    numMismatches++;
+                                }
+                            }
+                        } finally {
+                            readerCache.releaseReader(avhrrFile, reader);
+                        }
+                    }
+                    return numMismatches;
+                }));
+            }
+
+            for (final Future<Integer> future : futures) {
+                assertEquals(0, future.get().intValue());
+            }
+        } finally {
+            executorService.shutdownNow();
+            readerCache.close();
+        }
+    }
+
+    private static boolean isEqual(Array expected, Array actual) {
+        if (expected.getSize() != actual.getSize()) {
+            return false;
+        }
+        for (int i = 0; i < expected.getSize(); i++) {
+            if (Double.compare(expected.getDouble(i), actual.getDouble(i)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -106,7 +106,8 @@ public class SimpleNc4ReaderForTestCases implements Reader {
 
     @Override
     public Dimension getProductSize() throws IOException {
-        throw new RuntimeException("not implemented");
+        final int[] shape = ncFile.getVariables().get(0).getShape();
+        return new Dimension("size", shape[shape.length - 1], shape[shape.length - 2]);
     }
 
     @Override
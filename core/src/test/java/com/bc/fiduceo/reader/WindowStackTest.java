@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.reader;
+
+import com.bc.fiduceo.util.NetCDFUtils;
+import org.junit.Test;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+
+import static org.junit.Assert.*;
+
+public class WindowStackTest {
+
+    @Test
+    public void testRead() throws Exception {
+        final int[] centerX = {3, 5, 7};
+        final int[] centerY = {10, 11, 12};
+
+        final Array stack = WindowStack.read(centerX, centerY, (x, y) -> NetCDFUtils.create(new int[][]{{x, y}, {x + y, x * y}}));
+
+        assertEquals(DataType.INT, stack.getDataType());
+        assertArrayEquals(new int[]{3, 2, 2}, stack.getShape());
+        assertArrayEquals(new int[]{3, 10, 13, 30, 5, 11, 16, 55, 7, 12, 19, 84}, (int[]) stack.getStorage());
+    }
+
+    @Test
+    public void testRead_singleWindow() throws Exception {
+        final Array stack = WindowStack.read(new int[]{4}, new int[]{6}, (x, y) -> NetCDFUtils.create(new float[][]{{x, y, x + y}}));
+
+        assertEquals(DataType.FLOAT, stack.getDataType());
+        assertArrayEquals(new int[]{1, 1, 3}, stack.getShape());
+        assertArrayEquals(new float[]{4.f, 6.f, 10.f}, (float[]) stack.getStorage(), 1e-8f);
+    }
+
+    @Test
+    public void testRead_differentNumberOfPositions() throws Exception {
+        try {
+            WindowStack.read(new int[]{1, 2}, new int[]{1}, (x, y) -> NetCDFUtils.create(new int[][]{{x}}));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testRead_noPositions() throws Exception {
+        try {
+            WindowStack.read(new int[0], new int[0], (x, y) -> NetCDFUtils.create(new int[][]{{x}}));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
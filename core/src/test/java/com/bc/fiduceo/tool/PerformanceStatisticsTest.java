@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.tool;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.bc.fiduceo.tool.PerformanceStatistics.Stage.CONDITIONS;
+import static com.bc.fiduceo.tool.PerformanceStatistics.Stage.DB_QUERY;
+import static com.bc.fiduceo.tool.PerformanceStatistics.Stage.PIXEL_LOCATION;
+import static com.bc.fiduceo.tool.PerformanceStatistics.Stage.READER_OPEN;
+import static org.junit.Assert.*;
+
+public class PerformanceStatisticsTest {
+
+    @Test
+    public void testDisabled() {
+        final PerformanceStatistics statistics = PerformanceStatistics.DISABLED;
+        assertFalse(statistics.isEnabled());
+
+        statistics.start(DB_QUERY, "amsub-n15").stop();
+        statistics.addBytes(DB_QUERY, "amsub-n15", 12);
+        statistics.addCacheRequest(READER_OPEN, "amsub-n15");
+
+        assertEquals(0, statistics.getEntries().size());
+    }
+
+    @Test
+    public void testStartStop() {
+        final PerformanceStatistics statistics = new PerformanceStatistics();
+        assertTrue(statistics.isEnabled());
+
+        statistics.start(DB_QUERY, "amsub-n15").stop();
+        statistics.start(DB_QUERY, "amsub-n15").stop(100);
+        statistics.start(DB_QUERY, "ssmt2-f14").stop();
+        statistics.start(CONDITIONS, PerformanceStatistics.ALL_SENSORS).stop();
+        statistics.addBytes(CONDITIONS, PerformanceStatistics.ALL_SENSORS, 20);
+
+        final List<PerformanceStatistics.Entry> entries = statistics.getEntries();
+        assertEquals(3, entries.size());
+
+        PerformanceStatistics.Entry entry = entries.get(0);
+        assertEquals(DB_QUERY, entry.getStage());
+        assertEquals("amsub-n15", entry.getSensorName());
+        assertEquals(2, entry.getCalls());
+        assertEquals(100, entry.getBytes());
+        assertTrue(entry.getSeconds() >= 0.0);
+
+        entry = entries.get(1);
+        assertEquals(DB_QUERY, entry.getStage());
+        assertEquals("ssmt2-f14", entry.getSensorName());
+        assertEquals(1, entry.getCalls());
+
+        entry = entries.get(2);
+        assertEquals(CONDITIONS, entry.getStage());
+        assertEquals("all", entry.getSensorName());
+        assertEquals(20, entry.getBytes());
+    }
+
+    @Test
+    public void testCacheHitRate() {
+        final PerformanceStatistics statistics = new PerformanceStatistics();
+
+        for (int i = 0; i < 4; i++) {
+            statistics.addCacheRequest(READER_OPEN, "amsub-n15");
+        }
+        statistics.start(READER_OPEN, "amsub-n15").stop();
+
+        final PerformanceStatistics.Entry entry = statistics.getEntries().get(0);
+        assertEquals(4, entry.getCacheRequests());
+        assertEquals(1, entry.getCalls());
+        assertEquals(0.75, entry.getCacheHitRate(), 1e-8);
+    }
+
+    @Test
+    public void testCacheHitRate_noRequests() {
+        final PerformanceStatistics statistics = new PerformanceStatistics();
+
+        statistics.start(READER_OPEN, "amsub-n15").stop();
+
+        assertEquals(0.0, statistics.getEntries().get(0).getCacheHitRate(), 1e-8);
+    }
+
+    @Test
+    public void testStop_recordsBytesReadByThread() {
+        final PerformanceStatistics statistics = new PerformanceStatistics();
+
+        PerformanceStatistics.addBytesRead(50);
+        final PerformanceStatistics.Timer timer = statistics.start(PIXEL_LOCATION, "amsub-n15");
+        PerformanceStatistics.addBytesRead(200);
+        PerformanceStatistics.addBytesRead(56);
+        timer.stop();
+
+        // explicit bytes replace the bytes read
+        final PerformanceStatistics.Timer explicitTimer = statistics.start(READER_OPEN, "amsub-n15");
+        PerformanceStatistics.addBytesRead(1000);
+        explicitTimer.stop(12);
+
+        final List<PerformanceStatistics.Entry> entries = statistics.getEntries();
+        assertEquals(READER_OPEN, entries.get(0).getStage());
+        assertEquals(12, entries.get(0).getBytes());
+        assertEquals(PIXEL_LOCATION, entries.get(1).getStage());
+        assertEquals(256, entries.get(1).getBytes());
+    }
+
+    @Test
+    public void testWriteCsv_quotesSensorName() throws IOException {
+        final PerformanceStatistics statistics = new PerformanceStatistics();
+        statistics.addBytes(DB_QUERY, "sensor,\"name\"", 12);
+
+        final Path file = Files.createTempFile("statistics", ".csv");
+        try {
+            statistics.writeCsv(file);
+
+            final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(2, lines.size());
+            assertEquals("db_query,\"sensor,\"\"name\"\"\",0,0.000000,12,0,0.0000", lines.get(1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.tool;
+
+import com.bc.fiduceo.IOTestRunner;
+import com.bc.fiduceo.TestUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.bc.fiduceo.tool.PerformanceStatistics.Stage.MMD_WRITE;
+import static com.bc.fiduceo.tool.PerformanceStatistics.Stage.READER_OPEN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(IOTestRunner.class)
+public class PerformanceStatistics_IO_Test {
+
+    private Path testDir;
+    private PerformanceStatistics statistics;
+
+    @Before
+    public void setUp() {
+        testDir = TestUtil.createTestDirectory().toPath();
+
+        statistics = new PerformanceStatistics();
+        statistics.addCacheRequest(READER_OPEN, "amsub-n15");
+        statistics.addCacheRequest(READER_OPEN, "amsub-n15");
+        statistics.start(READER_OPEN, "amsub-n15").stop();
+        statistics.addBytes(MMD_WRITE, "amsub-n15", 2048);
+    }
+
+    @After
+    public void tearDown() {
+        TestUtil.deleteTestDirectory();
+    }
+
+    @Test
+    public void testWriteCsv() throws IOException {
+        final Path file = testDir.resolve("stats.csv");
+
+        statistics.writeCsv(file);
+
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("stage,sensor,calls,seconds,bytes,cache_requests,cache_hit_rate", lines.get(0));
+        assertTrue(lines.get(1).startsWith("reader_open,amsub-n15,1,"));
+        assertTrue(lines.get(1).endsWith(",0,2,0.5000"));
+        assertEquals("mmd_write,amsub-n15,0,0.000000,2048,0,0.0000", lines.get(2));
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        final Path file = testDir.resolve("stats.json");
+
+        statistics.writeJson(file);
+
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("{\"stages\": [", lines.get(0));
+        assertTrue(lines.get(1).startsWith("  {\"stage\": \"reader_open\", \"sensor\": \"amsub-n15\", \"calls\": 1, \"seconds\": "));
+        assertTrue(lines.get(1).endsWith(", \"bytes\": 0, \"cache_requests\": 2, \"cache_hit_rate\": 0.5000},"));
+        assertEquals("  {\"stage\": \"mmd_write\", \"sensor\": \"amsub-n15\", \"calls\": 0, \"seconds\": 0.000000, \"bytes\": 2048, \"cache_requests\": 0, \"cache_hit_rate\": 0.0000}", lines.get(2));
+        assertEquals("]}", lines.get(3));
+    }
+}
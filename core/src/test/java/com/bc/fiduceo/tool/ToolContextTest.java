@@ -127,4 +127,14 @@ public class ToolContextTest {
         context.setTempFileUtils(tempFileUtils);
         assertSame(tempFileUtils, context.getTempFileUtils());
     }
+
+    @Test
+    public void testSetGetPerformanceStatistics() {
+        assertSame(PerformanceStatistics.DISABLED, context.getPerformanceStatistics());
+
+        final PerformanceStatistics performanceStatistics = new PerformanceStatistics();
+
+        context.setPerformanceStatistics(performanceStatistics);
+        assertSame(performanceStatistics, context.getPerformanceStatistics());
+    }
 }
@@ -137,6 +137,21 @@ public class TimeUtilsTest {
         TestUtil.assertCorrectUTCDate(2007, 5, 9, 23, 55, 0, 0, adjustedDate);
     }
 
+    @Test
+    public void testAddDays() {
+        final Date date = TimeUtils.parseDOYBeginOfDay("2007-130");
+
+        Date adjustedDate = TimeUtils.addDays(3, date);
+        TestUtil.assertCorrectUTCDate(2007, 5, 13, 0, 0, 0, 0, adjustedDate);
+
+        adjustedDate = TimeUtils.addDays(-10, date);
+        TestUtil.assertCorrectUTCDate(2007, 4, 30, 0, 0, 0, 0, adjustedDate);
+
+        // beyond the range of an int in seconds
+        adjustedDate = TimeUtils.addDays(30000, date);
+        TestUtil.assertCorrectUTCDate(2089, 6, 28, 0, 0, 0, 0, adjustedDate);
+    }
+
     @Test
     public void testCalculateTheTimeDifferentFrom_1970_01_01() {
         Date date = TimeUtils.parse("1970-01-01 00:00:00", "yyyy-MM-dd HH:mm:ss");
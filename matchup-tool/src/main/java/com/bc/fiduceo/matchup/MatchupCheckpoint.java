@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup;
+
+import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.core.UseCaseConfig;
+import com.bc.fiduceo.util.TimeUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Persists the matchup sets of each completed primary observation, so that an interrupted matchup run can be resumed
+ * without recomputing these. The checkpoint of a run lives in a sub-directory named after the use-case and the
+ * processing period and holds a copy of the use-case configuration - a checkpoint written with a different
+ * configuration is discarded.
+ * <p>
+ * The methods are thread-safe, each primary observation is stored in a file of its own.
+ */
+public class MatchupCheckpoint {
+
+    private static final String CONFIG_FILE_NAME = "use-case-config.xml";
+    private static final String RANDOM_SKIP_FILE_NAME = "random-skip.txt";
+    private static final String EXTENSION = ".matchups";
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+
+    MatchupCheckpoint(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the checkpoint for a matchup run, creates it if not present.
+     *
+     * @param checkpointRoot the root directory for all checkpoints
+     * @param useCaseConfig  the use-case configuration of the run
+     * @param startDate      the start of the processing period
+     * @param endDate        the end of the processing period
+     * @param logger         the logger
+     * @return the checkpoint
+     * @throws IOException on disk access errors
+     */
+    public static MatchupCheckpoint open(Path checkpointRoot, UseCaseConfig useCaseConfig, Date startDate, Date endDate, Logger logger) throws IOException {
+        final String runName = useCaseConfig.getName() + "_" + TimeUtils.formatToDOY(startDate) + "_" + TimeUtils.formatToDOY(endDate);
+        final Path directory = checkpointRoot.resolve(runName.replaceAll("[^A-Za-z0-9._-]", "_"));
+
+        final ByteArrayOutputStream configStream = new ByteArrayOutputStream();
+        useCaseConfig.store(configStream);
+        final byte[] configBytes = configStream.toByteArray();
+
+        final MatchupCheckpoint checkpoint = new MatchupCheckpoint(directory);
+        final Path configFile = directory.resolve(CONFIG_FILE_NAME);
+        if (Files.isRegularFile(configFile)) {
+            if (Arrays.equals(configBytes, Files.readAllBytes(configFile))) {
+                return checkpoint;
+            }
+
+            logger.warning("Use-case configuration differs from checkpoint, discarding checkpoint '" + directory + "'");
+            checkpoint.delete();
+        }
+
+        Files.createDirectories(directory);
+        checkpoint.writeAtomically(configFile, configBytes);
+        return checkpoint;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public boolean isCompleted(SatelliteObservation primaryObservation) {
+        return Files.isRegularFile(getFile(primaryObservation));
+    }
+
+    public int getNumCompleted() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return (int) files.filter(file -> file.getFileName().toString().endsWith(EXTENSION)).count();
+        }
+    }
+
+    /**
+     * Stores the result of a primary observation, marks the observation as completed.
+     *
+     * @param primaryObservation the primary observation
+     * @param matchupSets        the matchup sets found for the observation, may be empty
+     * @throws IOException on disk access errors
+     */
+    public void store(SatelliteObservation primaryObservation, List<MatchupSet> matchupSets) throws IOException {
+        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(byteStream))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(primaryObservation.getDataFilePath().toString());
+            out.writeInt(matchupSets.size());
+            for (final MatchupSet matchupSet : matchupSets) {
+                writeMatchupSet(out, matchupSet);
+            }
+        }
+
+        writeAtomically(getFile(primaryObservation), byteStream.toByteArray());
+    }
+
+    /**
+     * Loads the result of a completed primary observation.
+     *
+     * @param primaryObservation the primary observation
+     * @return the matchup sets
+     * @throws IOException on disk access errors or if the observation is not completed
+     */
+    public List<MatchupSet> load(SatelliteObservation primaryObservation) throws IOException {
+        final Path file = getFile(primaryObservation);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            final int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported checkpoint format version " + formatVersion + ": " + file);
+            }
+            final String dataFilePath = in.readUTF();
+            if (!dataFilePath.equals(primaryObservation.getDataFilePath().toString())) {
+                throw new IOException("Checkpoint file '" + file + "' belongs to '" + dataFilePath + "'");
+            }
+
+            final int numSets = in.readInt();
+            final List<MatchupSet> matchupSets = new ArrayList<>(numSets);
+            for (int i = 0; i < numSets; i++) {
+                matchupSets.add(readMatchupSet(in));
+            }
+            return matchupSets;
+        }
+    }
+
+    /**
+     * Retrieves the random skip of the run, e.g. of a seed point sequence. The skip is created with the supplier on
+     * the first request and stored, so that a resumed run uses the same value as the interrupted one.
+     *
+     * @param skipSupplier creates the skip if none is stored yet
+     * @return the skip
+     * @throws IOException on disk access errors
+     */
+    public synchronized int getRandomSkip(IntSupplier skipSupplier) throws IOException {
+        final Path file = directory.resolve(RANDOM_SKIP_FILE_NAME);
+        if (Files.isRegularFile(file)) {
+            final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+            try {
+                return Integer.parseInt(content);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid random skip in checkpoint file '" + file + "': " + content);
+            }
+        }
+
+        final int skip = skipSupplier.getAsInt();
+        writeAtomically(file, Integer.toString(skip).getBytes(StandardCharsets.UTF_8));
+        return skip;
+    }
+
+    /**
+     * Removes the checkpoint, e.g. after the MMD has been written successfully.
+     *
+     * @throws IOException on disk access errors
+     */
+    public void delete() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            final Iterator<Path> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                Files.delete(iterator.next());
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private Path getFile(SatelliteObservation primaryObservation) {
+        final byte[] key = primaryObservation.getDataFilePath().toString().getBytes(StandardCharsets.UTF_8);
+        return directory.resolve(UUID.nameUUIDFromBytes(key) + EXTENSION);
+    }
+
+    // a file that is visible under its final name is complete
+    private void writeAtomically(Path file, byte[] content) throws IOException {
+        final Path tempFile = Files.createTempFile(directory, "part_", ".tmp");
+        try {
+            Files.write(tempFile, content);
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void writeMatchupSet(DataOutputStream out, MatchupSet matchupSet) throws IOException {
+        writeNullable(out, toString(matchupSet.getPrimaryObservationPath()));
+        writeNullable(out, matchupSet.getPrimaryProcessingVersion());
+
+        final Set<String> secondarySensorKeys = matchupSet.getSecondarySensorKeys();
+        out.writeInt(secondarySensorKeys.size());
+        for (final String sensorKey : secondarySensorKeys) {
+            out.writeUTF(sensorKey);
+            writeNullable(out, toString(matchupSet.getSecondaryObservationPath(sensorKey)));
+            writeNullable(out, matchupSet.getSecondaryProcessingVersion(sensorKey));
+        }
+
+        final int numObservations = matchupSet.getNumObservations();
+        out.writeInt(numObservations);
+        for (int i = 0; i < numObservations; i++) {
+            final SampleSet sampleSet = matchupSet.getSampleSet(i);
+            writeSample(out, sampleSet.getPrimary());
+            final Set<String> sampleKeys = sampleSet.getSecondaryKeys();
+            out.writeInt(sampleKeys.size());
+            for (final String sampleKey : sampleKeys) {
+                out.writeUTF(sampleKey);
+                writeSample(out, sampleSet.getSecondary(sampleKey));
+            }
+        }
+    }
+
+    private static MatchupSet readMatchupSet(DataInputStream in) throws IOException {
+        final MatchupSet matchupSet = new MatchupSet();
+        matchupSet.setPrimaryObservationPath(toPath(readNullable(in)));
+        matchupSet.setPrimaryProcessingVersion(readNullable(in));
+
+        final int numSecondaries = in.readInt();
+        for (int i = 0; i < numSecondaries; i++) {
+            final String sensorKey = in.readUTF();
+            matchupSet.setSecondaryObservationPath(sensorKey, toPath(readNullable(in)));
+            matchupSet.setSecondaryProcessingVersion(sensorKey, readNullable(in));
+        }
+
+        final int numObservations = in.readInt();
+        final List<SampleSet> sampleSets = new ArrayList<>(numObservations);
+        for (int i = 0; i < numObservations; i++) {
+            final SampleSet sampleSet = new SampleSet();
+            sampleSet.setPrimary(readSample(in));
+            final int numSamples = in.readInt();
+            for (int k = 0; k < numSamples; k++) {
+                final String sampleKey = in.readUTF();
+                sampleSet.setSecondary(sampleKey, readSample(in));
+            }
+            sampleSets.add(sampleSet);
+        }
+        matchupSet.setSampleSets(sampleSets);
+        return matchupSet;
+    }
+
+    private static void writeSample(DataOutputStream out, Sample sample) throws IOException {
+        out.writeBoolean(sample != null);
+        if (sample != null) {
+            out.writeInt(sample.getX());
+            out.writeInt(sample.getY());
+            out.writeDouble(sample.getLon());
+            out.writeDouble(sample.getLat());
+            out.writeLong(sample.getTime());
+        }
+    }
+
+    private static Sample readSample(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return new Sample(in.readInt(), in.readInt(), in.readDouble(), in.readDouble(), in.readLong());
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static String toString(Path path) {
+        return path == null ? null : path.toString();
+    }
+
+    private static Path toPath(String path) {
+        return path == null ? null : Paths.get(path);
+    }
+}
@@ -32,6 +32,8 @@ public class MatchupCollection {
     }
 
     public void add(MatchupSet matchupSet) {
+        // the sets are kept until the MMD is written - store them in the compact form
+        matchupSet.compact();
         matchupSets.add(matchupSet);
     }
 
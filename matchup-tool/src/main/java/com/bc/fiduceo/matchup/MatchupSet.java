@@ -29,7 +29,11 @@ public class MatchupSet {
 
     private final Map<String, Path> secondaryObservationPath;
     private final Map<String, String> secondaryProcessingVersion;
+    // the samples are either held as SampleSet objects (while conditions and screenings are working on them) or,
+    // after compact(), as primitive columns - exactly one of both is non-null
     private List<SampleSet> sampleSets;
+    private SampleColumns primarySamples;
+    private Map<String, SampleColumns> secondarySamples;
     private Path primaryObservationPath;
     private String primaryProcessingVersion;
 
@@ -59,19 +63,144 @@ public class MatchupSet {
         final SampleSet sampleSet = new SampleSet();
         sampleSet.setPrimary(primarySample);
 
-        sampleSets.add(sampleSet);
+        getSampleSets().add(sampleSet);
     }
 
     public int getNumObservations() {
+        if (sampleSets == null) {
+            return primarySamples.size();
+        }
         return sampleSets.size();
     }
 
     public List<SampleSet> getSampleSets() {
+        if (sampleSets == null) {
+            expand();
+        }
         return sampleSets;
     }
 
     public void setSampleSets(List<SampleSet> sampleSets) {
         this.sampleSets = sampleSets;
+        primarySamples = null;
+        secondarySamples = null;
+    }
+
+    /**
+     * Creates a SampleSet object for a single matchup, not connected to this matchup set.
+     *
+     * @param index the matchup index
+     * @return the sample set
+     */
+    public SampleSet getSampleSet(int index) {
+        if (sampleSets != null) {
+            return sampleSets.get(index);
+        }
+
+        final SampleSet sampleSet = new SampleSet();
+        sampleSet.setPrimary(primarySamples.getSample(index));
+        for (final Map.Entry<String, SampleColumns> entry : secondarySamples.entrySet()) {
+            final Sample sample = entry.getValue().getSample(index);
+            if (sample != null) {
+                sampleSet.setSecondary(entry.getKey(), sample);
+            }
+        }
+        return sampleSet;
+    }
+
+    /**
+     * @return true if the samples are held as primitive columns, see compact()
+     */
+    public boolean isCompacted() {
+        return sampleSets == null;
+    }
+
+    /**
+     * Removes the matchups that are not kept, the remaining ones keep their order. Works on the sample columns,
+     * compacts the matchup set if necessary.
+     *
+     * @param keep per matchup, true if the matchup is kept
+     */
+    public void retainSamples(boolean[] keep) {
+        compact();
+        primarySamples.retain(keep);
+        for (final SampleColumns columns : secondarySamples.values()) {
+            columns.retain(keep);
+        }
+    }
+
+    /**
+     * Returns the primary samples as columns, compacts the matchup set if necessary.
+     *
+     * @return the primary sample columns
+     */
+    public SampleColumns getPrimarySamples() {
+        compact();
+        return primarySamples;
+    }
+
+    /**
+     * Returns the samples of a secondary sensor as columns, compacts the matchup set if necessary.
+     *
+     * @param sensorName the secondary sensor name
+     * @return the sample columns or null if there are no samples of this sensor
+     */
+    public SampleColumns getSecondarySamples(String sensorName) {
+        compact();
+        return secondarySamples.get(sensorName);
+    }
+
+    /**
+     * Converts the SampleSet objects to primitive columns. Matchup sets that are kept in memory until the MMD
+     * is written should be compacted, the columns need a fraction of the memory of the objects.
+     */
+    public void compact() {
+        if (sampleSets == null) {
+            return;
+        }
+
+        final int numSamples = sampleSets.size();
+        final Set<String> secondaryKeys = new LinkedHashSet<>();
+        for (final SampleSet sampleSet : sampleSets) {
+            secondaryKeys.addAll(sampleSet.getSecondaryKeys());
+        }
+
+        primarySamples = createColumns(null, numSamples);
+        secondarySamples = new LinkedHashMap<>();
+        for (final String key : secondaryKeys) {
+            secondarySamples.put(key, createColumns(key, numSamples));
+        }
+
+        for (final SampleSet sampleSet : sampleSets) {
+            primarySamples.add(sampleSet.getPrimary());
+            for (final Map.Entry<String, SampleColumns> entry : secondarySamples.entrySet()) {
+                entry.getValue().add(sampleSet.getSecondary(entry.getKey()));
+            }
+        }
+        sampleSets = null;
+    }
+
+    // null as sensor name stands for the primary sensor
+    private SampleColumns createColumns(String secondarySensorName, int numSamples) {
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (final SampleSet sampleSet : sampleSets) {
+            final Sample sample = secondarySensorName == null ? sampleSet.getPrimary() : sampleSet.getSecondary(secondarySensorName);
+            if (sample != null) {
+                minTime = Math.min(minTime, sample.getTime());
+                maxTime = Math.max(maxTime, sample.getTime());
+            }
+        }
+        return new SampleColumns(numSamples, minTime, maxTime);
+    }
+
+    private void expand() {
+        final int numSamples = primarySamples.size();
+        final List<SampleSet> expanded = new ArrayList<>(numSamples);
+        for (int i = 0; i < numSamples; i++) {
+            expanded.add(getSampleSet(i));
+        }
+        setSampleSets(expanded);
     }
 
     public String getPrimaryProcessingVersion() {
@@ -96,7 +225,7 @@ public class MatchupSet {
     }
 
     public void addSampleSets(List<SampleSet> sampleSets) {
-        this.sampleSets.addAll(sampleSets);
+        getSampleSets().addAll(sampleSets);
     }
 
     public MatchupSet clone() {
@@ -114,8 +243,9 @@ public class MatchupSet {
             clone.setSecondaryProcessingVersion(entry.getKey(), entry.getValue());
         }
 
-        for (final SampleSet sampleSet : sampleSets) {
-            clone.sampleSets.add(sampleSet.clone());
+        final int numObservations = getNumObservations();
+        for (int i = 0; i < numObservations; i++) {
+            clone.sampleSets.add(getSampleSet(i).clone());
         }
 
         return clone;
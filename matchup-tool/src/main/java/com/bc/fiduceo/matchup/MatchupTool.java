@@ -31,7 +31,9 @@ import com.bc.fiduceo.log.FiduceoLogger;
 import com.bc.fiduceo.matchup.strategy.AbstractMatchupStrategy;
 import com.bc.fiduceo.matchup.strategy.MatchupStrategyFactory;
 import com.bc.fiduceo.matchup.writer.*;
+import com.bc.fiduceo.reader.ArrayCache;
 import com.bc.fiduceo.reader.ReaderFactory;
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import com.bc.fiduceo.tool.ShutdownHook;
 import com.bc.fiduceo.tool.ToolContext;
 import com.bc.fiduceo.util.NetCDFUtils;
@@ -41,17 +43,25 @@ import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
+import org.esa.snap.core.util.StopWatch;
 import org.esa.snap.core.util.StringUtils;
 import ucar.ma2.DataType;
 import ucar.ma2.InvalidRangeException;
 import ucar.nc2.Attribute;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import static com.bc.fiduceo.FiduceoConstants.VERSION_NUMBER;
@@ -61,6 +71,7 @@ class MatchupTool {
 
     private static final String SPERICAL_DISTANCE_VAR_NAME = "matchup_spherical_distance";
     private static final String DESCRIPTION_ATTRIBUTE_NAME = "description";
+    private static final long MEGA_BYTE = 1024L * 1024L;
 
     private final Logger logger;
 
@@ -115,6 +126,13 @@ class MatchupTool {
             throws IOException {
 
         final MatchupSet matchupSet = getFirstMatchupSet(matchupCollection);
+        createIOVariablesPerSensor(ioVariablesList, matchupSet, useCaseConfig, variablesConfiguration);
+    }
+
+    static void createIOVariablesPerSensor(IOVariablesList ioVariablesList, MatchupSet matchupSet,
+                                           final UseCaseConfig useCaseConfig, VariablesConfiguration variablesConfiguration)
+            throws IOException {
+
         final Path primaryPath = matchupSet.getPrimaryObservationPath();
 
         final String primSensorName = useCaseConfig.getPrimarySensor().getName();
@@ -238,6 +256,15 @@ class MatchupTool {
         final Option useCaseOption = new Option("u", "usecase", true, "Defines the path to the use-case configuration file. Path is relative to the configuration directory.");
         options.addOption(useCaseOption);
 
+        final Option periodsOption = new Option("periods", "periods", true, "Defines a comma-separated list of processing periods 'yyyy-DDD:yyyy-DDD', one MMD file per period. Replaces start-date and end-date.");
+        options.addOption(periodsOption);
+
+        final Option stepOption = new Option("step", "step-days", true, "Splits start-date to end-date into processing periods of the given number of days, one MMD file per period.");
+        options.addOption(stepOption);
+
+        final Option parallelOption = new Option("par", "parallel", true, "Defines the number of processing periods processed concurrently, each using the 'matchup-threads' of the system configuration. Defaults to 1.");
+        options.addOption(parallelOption);
+
         return options;
     }
 
@@ -259,6 +286,86 @@ class MatchupTool {
         return TimeUtils.parseDOYBeginOfDay(startDateString);
     }
 
+    // package access for testing only
+    static List<Date[]> getProcessingPeriods(CommandLine commandLine) {
+        final List<Date[]> periods = new ArrayList<>();
+
+        final String periodsString = commandLine.getOptionValue("periods");
+        if (StringUtils.isNotNullAndNotEmpty(periodsString)) {
+            if (commandLine.getOptionValue("start") != null || commandLine.getOptionValue("end") != null) {
+                throw new RuntimeException("cmd-line parameter `periods` can not be combined with `start` and `end`");
+            }
+
+            for (final String periodString : periodsString.split(",")) {
+                final String[] dates = periodString.trim().split(":");
+                if (dates.length != 2) {
+                    throw new RuntimeException("Invalid processing period '" + periodString.trim() + "', format 'yyyy-DDD:yyyy-DDD' expected");
+                }
+                periods.add(createPeriod(TimeUtils.parseDOYBeginOfDay(dates[0].trim()), TimeUtils.parseDOYEndOfDay(dates[1].trim())));
+            }
+            return periods;
+        }
+
+        final Date startDate = getStartDate(commandLine);
+        final Date endDate = getEndDate(commandLine);
+
+        final String stepString = commandLine.getOptionValue("step");
+        if (StringUtils.isNullOrEmpty(stepString)) {
+            periods.add(createPeriod(startDate, endDate));
+            return periods;
+        }
+
+        final int stepDays = Integer.parseInt(stepString.trim());
+        if (stepDays < 1) {
+            throw new RuntimeException("Value of cmd-line parameter `step` >= 1 expected. But was '" + stepDays + "'.");
+        }
+
+        Date periodStart = startDate;
+        while (periodStart.before(endDate)) {
+            final Date nextPeriodStart = TimeUtils.addDays(stepDays, periodStart);
+            final Date periodEnd = new Date(Math.min(nextPeriodStart.getTime() - 1, endDate.getTime()));
+            periods.add(createPeriod(periodStart, periodEnd));
+            periodStart = nextPeriodStart;
+        }
+        return periods;
+    }
+
+    // package access for testing only
+    static int getParallelPeriods(CommandLine commandLine) {
+        final String parallelString = commandLine.getOptionValue("par");
+        if (StringUtils.isNullOrEmpty(parallelString)) {
+            return 1;
+        }
+
+        final int parallelPeriods = Integer.parseInt(parallelString.trim());
+        if (parallelPeriods < 1) {
+            throw new RuntimeException("Value of cmd-line parameter `par` >= 1 expected. But was '" + parallelPeriods + "'.");
+        }
+        return parallelPeriods;
+    }
+
+    // package access for testing only
+    static ToolContext createPeriodContext(ToolContext context, Date[] period) {
+        final ToolContext periodContext = new ToolContext();
+        periodContext.setStartDate(period[0]);
+        periodContext.setEndDate(period[1]);
+        periodContext.setStorage(context.getStorage());
+        periodContext.setSystemConfig(context.getSystemConfig());
+        periodContext.setUseCaseConfig(context.getUseCaseConfig());
+        periodContext.setGeometryFactory(context.getGeometryFactory());
+        periodContext.setReaderFactory(context.getReaderFactory());
+        periodContext.setTempFileUtils(context.getTempFileUtils());
+        periodContext.setArchive(context.getArchive());
+        return periodContext;
+    }
+
+    private static Date[] createPeriod(Date startDate, Date endDate) {
+        if (endDate.before(startDate)) {
+            throw new RuntimeException("Processing period end '" + TimeUtils.formatToDOY(endDate) + "' before start '" + TimeUtils.formatToDOY(startDate) + "'");
+        }
+        return new Date[]{startDate, endDate};
+    }
+
     // package access for testing only tb 2016-09-30
     static MmdWriterConfig loadWriterConfig(CommandLine commandLine) throws IOException {
         final String configValue = commandLine.getOptionValue("config", "./config");
@@ -297,6 +404,9 @@ class MatchupTool {
     }
 
     void run(CommandLine commandLine) throws IOException, SQLException, InvalidRangeException {
+        final List<Date[]> periods = getProcessingPeriods(commandLine);
+        final int parallelPeriods = getParallelPeriods(commandLine);
+
         final ToolContext context = initialize(commandLine);
 
         Runtime.getRuntime().addShutdownHook(new ShutdownHook(context));
@@ -304,7 +414,11 @@ class MatchupTool {
         final MmdWriterConfig mmdWriterConfig = loadWriterConfig(commandLine);
 
         try {
-            runMatchupGeneration(context, mmdWriterConfig);
+            if (periods.size() == 1) {
+                runMatchupGeneration(createPeriodContext(context, periods.get(0)), mmdWriterConfig);
+            } else {
+                runBatchMatchupGeneration(context, mmdWriterConfig, periods, parallelPeriods);
+            }
         } finally {
             context.getStorage().close();
             context.getTempFileUtils().cleanup();
@@ -336,9 +450,7 @@ class MatchupTool {
 
         final SystemConfig systemConfig = SystemConfig.loadFrom(configDirectory);
         context.setSystemConfig(systemConfig);
-
-        context.setStartDate(getStartDate(commandLine));
-        context.setEndDate(getEndDate(commandLine));
+        ArrayCache.setMemoryLimits(systemConfig.getArrayCacheSize() * MEGA_BYTE, systemConfig.getArrayCacheGlobalSize() * MEGA_BYTE);
 
         final UseCaseConfig useCaseConfig = loadUseCaseConfig(commandLine, configDirectory);
         final ValidationResult validationResult = useCaseConfig.checkValid();
@@ -378,32 +490,159 @@ class MatchupTool {
         return context;
     }
 
+    // database connection, reader factory and SNAP stay initialized for all periods, each period writes its own MMD file
+    private void runBatchMatchupGeneration(ToolContext context, MmdWriterConfig writerConfig, List<Date[]> periods, int parallelPeriods) {
+        final int numThreads = Math.min(parallelPeriods, periods.size());
+        logger.info("Batch processing of " + periods.size() + " periods, " + numThreads + " concurrently");
+        // each period runs its matchup threads on top of the period threads
+        final long totalThreads = (long) numThreads * context.getSystemConfig().getMatchupThreads();
+        final int processors = Runtime.getRuntime().availableProcessors();
+        if (totalThreads > processors) {
+            logger.warning("Processing with " + totalThreads + " threads ('par' x 'matchup-threads') on " + processors + " processors");
+        }
+
+        final List<String> failedPeriods = new ArrayList<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Date[] period : periods) {
+                final ToolContext periodContext = createPeriodContext(context, period);
+                futures.add(executorService.submit(() -> {
+                    runMatchupGeneration(periodContext, writerConfig);
+                    return null;
+                }));
+            }
+
+            // a failing period does not stop the others - a re-run with the failed periods completes the batch
+            for (int i = 0; i < futures.size(); i++) {
+                final String periodName = TimeUtils.formatToDOY(periods.get(i)[0]) + ":" + TimeUtils.formatToDOY(periods.get(i)[1]);
+                try {
+                    futures.get(i).get();
+                    logger.info("Completed period " + periodName);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    logger.severe("Failed to process period " + periodName + ": " + cause.getMessage());
+                    failedPeriods.add(periodName);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for batch processing", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        if (!failedPeriods.isEmpty()) {
+            throw new RuntimeException("Matchup generation failed for " + failedPeriods.size() + " of " + periods.size() + " periods: " + String.join(",", failedPeriods));
+        }
+    }
+
     private void runMatchupGeneration(ToolContext context, MmdWriterConfig writerConfig) throws SQLException, IOException, InvalidRangeException {
         final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
 
         final AbstractMatchupStrategy matchupStrategy = MatchupStrategyFactory.get(useCaseConfig, logger);
-        final MatchupCollection matchupCollection = matchupStrategy.createMatchupCollection(context);
+        final MatchupCheckpoint checkpoint = openCheckpoint(context);
+        matchupStrategy.setCheckpoint(checkpoint);
 
-        if (matchupCollection.getNumMatchups() == 0) {
-            logger.warning("No matchups in time interval, creation of MMD file skipped.");
+        if (context.getSystemConfig().isPerformanceStatistics()) {
+            context.setPerformanceStatistics(new PerformanceStatistics());
+        }
+
+        try {
+            if (writerConfig.isStreaming()) {
+                runStreamingMatchupGeneration(matchupStrategy, context, writerConfig);
+            } else {
+                final MatchupCollection matchupCollection = matchupStrategy.createMatchupCollection(context);
+
+                if (matchupCollection.getNumMatchups() == 0) {
+                    logger.warning("No matchups in time interval, creation of MMD file skipped.");
+                } else {
+                    writeMmdFile(matchupCollection, context, writerConfig);
+                }
+            }
+        } finally {
+            writePerformanceStatistics(context);
+        }
+
+        // the run is complete, a restart must not resume from here
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+
+    // written also for failed runs, these are the ones to look into
+    private void writePerformanceStatistics(ToolContext context) {
+        final PerformanceStatistics performanceStatistics = context.getPerformanceStatistics();
+        if (!performanceStatistics.isEnabled()) {
             return;
         }
 
-        writeMmdFile(matchupCollection, context, writerConfig);
+        logger.info("Array cache statistics: " + ArrayCache.getGlobalStatistics());
+
+        final Path[] statisticsFiles = getPerformanceStatisticsFiles(context);
+        try {
+            Files.createDirectories(statisticsFiles[0].getParent());
+            performanceStatistics.writeJson(statisticsFiles[0]);
+            performanceStatistics.writeCsv(statisticsFiles[1]);
+            logger.info("Wrote performance statistics to '" + statisticsFiles[0] + "'");
+        } catch (IOException e) {
+            logger.warning("Unable to write performance statistics: " + e.getMessage());
+        }
     }
 
-    private void writeMmdFile(MatchupCollection matchupCollection, ToolContext context, MmdWriterConfig writerConfig) throws IOException, InvalidRangeException {
-        final MmdWriter mmdWriter = MmdWriterFactory.createFileWriter(writerConfig);
+    // package access for testing only
+    static Path[] getPerformanceStatisticsFiles(ToolContext context) {
         final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
+        final String mmdFileName = MmdWriterFactory.createMMDFileName(useCaseConfig, context.getStartDate(), context.getEndDate());
+        final String baseName = mmdFileName.substring(0, mmdFileName.lastIndexOf(".")) + "_stats";
+        final Path outputDir = Paths.get(useCaseConfig.getOutputPath());
+        return new Path[]{outputDir.resolve(baseName + ".json"), outputDir.resolve(baseName + ".csv")};
+    }
 
-        final IOVariablesList ioVariablesList = new IOVariablesList(context.getReaderFactory());
+    private MatchupCheckpoint openCheckpoint(ToolContext context) throws IOException {
+        final String checkpointDir = context.getSystemConfig().getCheckpointDir();
+        if (StringUtils.isNullOrEmpty(checkpointDir)) {
+            return null;
+        }
 
-        final VariablesConfiguration variablesConfiguration = writerConfig.getVariablesConfiguration();
-        createIOVariablesPerSensor(ioVariablesList, matchupCollection, useCaseConfig, variablesConfiguration);
+        final MatchupCheckpoint checkpoint = MatchupCheckpoint.open(Paths.get(checkpointDir), context.getUseCaseConfig(),
+                context.getStartDate(), context.getEndDate(), logger);
+        logger.info("Using checkpoint directory '" + checkpoint.getDirectory() + "'");
+        return checkpoint;
+    }
 
-        if (useCaseConfig.isWriteDistance()) {
-            addDistanceVariables(useCaseConfig, ioVariablesList, variablesConfiguration);
+    private void runStreamingMatchupGeneration(AbstractMatchupStrategy matchupStrategy, ToolContext context, MmdWriterConfig writerConfig) throws SQLException, IOException, InvalidRangeException {
+        final MmdWriter mmdWriter = MmdWriterFactory.createFileWriter(writerConfig);
+        final StreamingMatchupCollection matchupCollection = new StreamingMatchupCollection(mmdWriter, context,
+                matchupSet -> createIOVariablesList(matchupSet, context, writerConfig));
+
+        final StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        try {
+            matchupStrategy.createMatchups(context, matchupCollection);
+        } catch (Exception e) {
+            // a truncated file must not look like the result of a complete run
+            try {
+                matchupCollection.abort();
+            } catch (IOException abortException) {
+                e.addSuppressed(abortException);
+            }
+            throw e;
+        }
+        matchupCollection.close();
+        stopWatch.stop();
+
+        final int numMatchups = matchupCollection.getNumMatchups();
+        if (numMatchups == 0) {
+            logger.warning("No matchups in time interval, creation of MMD file skipped.");
+            return;
         }
+        logger.info("Streamed " + numMatchups + " matchups to mmd-file, matchup generation and writing took " + stopWatch.getTimeDiffString());
+    }
+
+    private void writeMmdFile(MatchupCollection matchupCollection, ToolContext context, MmdWriterConfig writerConfig) throws IOException, InvalidRangeException {
+        final MmdWriter mmdWriter = MmdWriterFactory.createFileWriter(writerConfig);
+        final IOVariablesList ioVariablesList = createIOVariablesList(getFirstMatchupSet(matchupCollection), context, writerConfig);
 
         try {
             mmdWriter.writeMMD(matchupCollection, context, ioVariablesList);
@@ -412,6 +651,20 @@ class MatchupTool {
         }
     }
 
+    private IOVariablesList createIOVariablesList(MatchupSet matchupSet, ToolContext context, MmdWriterConfig writerConfig) throws IOException {
+        final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
+
+        final IOVariablesList ioVariablesList = new IOVariablesList(context.getReaderFactory());
+
+        final VariablesConfiguration variablesConfiguration = writerConfig.getVariablesConfiguration();
+        createIOVariablesPerSensor(ioVariablesList, matchupSet, useCaseConfig, variablesConfiguration);
+
+        if (useCaseConfig.isWriteDistance()) {
+            addDistanceVariables(useCaseConfig, ioVariablesList, variablesConfiguration);
+        }
+        return ioVariablesList;
+    }
+
     private void addDistanceVariables(UseCaseConfig useCaseConfig, IOVariablesList ioVariablesList, VariablesConfiguration variablesConfiguration) {
         final List<Sensor> secondarySensors = useCaseConfig.getSecondarySensors();
         final String primaryName = useCaseConfig.getPrimarySensor().getName();
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup;
+
+import com.bc.fiduceo.core.Sample;
+
+import java.util.Arrays;
+
+/**
+ * Column-wise primitive storage of the samples of one sensor in a matchup set - one entry per matchup. Entries
+ * can be missing, e.g. for a secondary sensor without a sample at this matchup.
+ */
+public class SampleColumns {
+
+    private final int[] x;
+    private final int[] y;
+    private final double[] lon;
+    private final double[] lat;
+    // times are stored as int offsets to the minimal time whenever the time range allows, as long otherwise
+    private final long timeOffset;
+    private final int[] timeDeltas;
+    private final long[] times;
+    private boolean[] missing;
+    private int size;
+
+    /**
+     * Creates empty columns.
+     *
+     * @param capacity the number of entries
+     * @param minTime  the minimal time of the samples to be added
+     * @param maxTime  the maximal time of the samples to be added
+     */
+    public SampleColumns(int capacity, long minTime, long maxTime) {
+        x = new int[capacity];
+        y = new int[capacity];
+        lon = new double[capacity];
+        lat = new double[capacity];
+
+        final long timeRange = maxTime - minTime;
+        if (maxTime < minTime) {
+            // no sample with a time at all
+            timeOffset = 0;
+            timeDeltas = new int[capacity];
+            times = null;
+        } else if (timeRange >= 0 && timeRange <= Integer.MAX_VALUE) {
+            timeOffset = minTime;
+            timeDeltas = new int[capacity];
+            times = null;
+        } else {
+            timeOffset = 0;
+            timeDeltas = null;
+            times = new long[capacity];
+        }
+    }
+
+    /**
+     * Appends a sample.
+     *
+     * @param sample the sample, null for a missing entry
+     */
+    public void add(Sample sample) {
+        if (sample == null) {
+            if (missing == null) {
+                missing = new boolean[x.length];
+            }
+            missing[size] = true;
+        } else {
+            x[size] = sample.getX();
+            y[size] = sample.getY();
+            lon[size] = sample.getLon();
+            lat[size] = sample.getLat();
+            if (times == null) {
+                timeDeltas[size] = (int) (sample.getTime() - timeOffset);
+            } else {
+                times[size] = sample.getTime();
+            }
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes the entries that are not kept, the remaining entries keep their order.
+     *
+     * @param keep per entry, true if the entry is kept
+     */
+    public void retain(boolean[] keep) {
+        int numKept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!keep[i]) {
+                continue;
+            }
+
+            if (numKept < i) {
+                x[numKept] = x[i];
+                y[numKept] = y[i];
+                lon[numKept] = lon[i];
+                lat[numKept] = lat[i];
+                if (times == null) {
+                    timeDeltas[numKept] = timeDeltas[i];
+                } else {
+                    times[numKept] = times[i];
+                }
+                if (missing != null) {
+                    missing[numKept] = missing[i];
+                }
+            }
+            numKept++;
+        }
+
+        if (missing != null) {
+            Arrays.fill(missing, numKept, size, false);
+        }
+        size = numKept;
+    }
+
+    public boolean isPresent(int index) {
+        return missing == null || !missing[index];
+    }
+
+    public int getX(int index) {
+        return x[index];
+    }
+
+    public int getY(int index) {
+        return y[index];
+    }
+
+    public double getLon(int index) {
+        return lon[index];
+    }
+
+    public double getLat(int index) {
+        return lat[index];
+    }
+
+    public long getTime(int index) {
+        if (times == null) {
+            return timeOffset + timeDeltas[index];
+        }
+        return times[index];
+    }
+
+    /**
+     * Creates a sample object for the entry.
+     *
+     * @param index the entry index
+     * @return the sample or null if the entry is missing
+     */
+    public Sample getSample(int index) {
+        if (!isPresent(index)) {
+            return null;
+        }
+        return new Sample(x[index], y[index], lon[index], lat[index], getTime(index));
+    }
+}
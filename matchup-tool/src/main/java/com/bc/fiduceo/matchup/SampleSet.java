@@ -82,6 +82,10 @@ public class SampleSet {
         this.secondary.put(sensorName, secondary);
     }
 
+    public Set<String> getSecondaryKeys() {
+        return secondary.keySet();
+    }
+
     public SampleSet clone() {
         final SampleSet clone = new SampleSet();
         clone.setPrimary(primary.clone());
@@ -31,4 +31,10 @@ class SphericalDistanceCalculator {
         final Sample secondary = sampleSet.getSecondary(secondarySensorName);
         return Distance.computeSphericalDistanceKm(primary.getLon(), primary.getLat(), secondary.getLon(), secondary.getLat());
     }
+
+    static double calculateKm(final String secondarySensorName, MatchupSet matchupSet, int index) {
+        final SampleColumns primary = matchupSet.getPrimarySamples();
+        final SampleColumns secondary = matchupSet.getSecondarySamples(secondarySensorName);
+        return Distance.computeSphericalDistanceKm(primary.getLon(index), primary.getLat(index), secondary.getLon(index), secondary.getLat(index));
+    }
 }
\ No newline at end of file
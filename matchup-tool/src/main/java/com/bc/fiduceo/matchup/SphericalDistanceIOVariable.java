@@ -36,4 +36,10 @@ class SphericalDistanceIOVariable extends SampleSetIOVariable {
         final double km = SphericalDistanceCalculator.calculateKm(sensorName, sampleSet);
         target.write((float) km, targetVariableName, zIndex);
     }
+
+    @Override
+    public void writeData(MatchupSet matchupSet, int sampleIndex, int zIndex) {
+        final double km = SphericalDistanceCalculator.calculateKm(sensorName, matchupSet, sampleIndex);
+        target.write((float) km, targetVariableName, zIndex);
+    }
 }
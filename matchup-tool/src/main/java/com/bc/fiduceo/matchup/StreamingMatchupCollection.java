@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup;
+
+import com.bc.fiduceo.matchup.writer.IOVariablesList;
+import com.bc.fiduceo.matchup.writer.MmdWriter;
+import com.bc.fiduceo.tool.ToolContext;
+import ucar.ma2.InvalidRangeException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A matchup collection that does not keep the matchup sets but hands each one to the MMD writer as soon as it is
+ * added. The writer is initialized with the first non-empty matchup set, so a run without matchups creates no file.
+ */
+public class StreamingMatchupCollection extends MatchupCollection {
+
+    private final MmdWriter mmdWriter;
+    private final ToolContext context;
+    private final IOVariablesListFactory ioVariablesListFactory;
+
+    private IOVariablesList ioVariablesList;
+
+    public StreamingMatchupCollection(MmdWriter mmdWriter, ToolContext context, IOVariablesListFactory ioVariablesListFactory) {
+        this.mmdWriter = mmdWriter;
+        this.context = context;
+        this.ioVariablesListFactory = ioVariablesListFactory;
+    }
+
+    @Override
+    public void add(MatchupSet matchupSet) {
+        if (matchupSet.getNumObservations() == 0) {
+            return;
+        }
+
+        try {
+            if (ioVariablesList == null) {
+                ioVariablesList = ioVariablesListFactory.create(matchupSet);
+                mmdWriter.initialize(context, ioVariablesList);
+            }
+            mmdWriter.write(matchupSet);
+        } catch (IOException | InvalidRangeException e) {
+            throw new RuntimeException("Failed to write matchups to mmd-file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<MatchupSet> getSets() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getNumMatchups() {
+        if (ioVariablesList == null) {
+            return 0;
+        }
+        return mmdWriter.getNumMatchupsWritten();
+    }
+
+    public void close() throws IOException, InvalidRangeException {
+        if (ioVariablesList == null) {
+            return;
+        }
+
+        try {
+            mmdWriter.close();
+        } catch (IOException | InvalidRangeException | RuntimeException e) {
+            // the last matchups are missing, the file is incomplete
+            mmdWriter.abort();
+            throw e;
+        } finally {
+            ioVariablesList.close();
+        }
+    }
+
+    /**
+     * Closes the MMD writer after a failure, the incomplete file is deleted.
+     *
+     * @throws IOException on disk access failures
+     */
+    public void abort() throws IOException {
+        if (ioVariablesList == null) {
+            return;
+        }
+
+        try {
+            mmdWriter.abort();
+        } finally {
+            ioVariablesList.close();
+        }
+    }
+
+    public interface IOVariablesListFactory {
+        IOVariablesList create(MatchupSet firstMatchupSet) throws IOException;
+    }
+}
@@ -21,14 +21,14 @@
 package com.bc.fiduceo.matchup.condition;
 
 import com.bc.fiduceo.core.Dimension;
-import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleColumns;
 import com.bc.fiduceo.matchup.SampleSet;
 
-import java.util.ArrayList;
 import java.util.List;
 
-class BorderDistanceCondition implements Condition {
+class BorderDistanceCondition implements SampleCondition {
 
     private final List<Configuration> configurations;
 
@@ -37,55 +37,67 @@ class BorderDistanceCondition implements Condition {
     }
 
     @Override
-    public void apply(MatchupSet matchupSet, ConditionEngineContext context) {
-        List<SampleSet> sourceSamples = matchupSet.getSampleSets();
-        List<SampleSet> targetSamples = sourceSamples;
-
-        for (Configuration configuration : configurations) {
-            targetSamples = new ArrayList<>();
+    public boolean accept(SampleSet sampleSet, ConditionEngineContext context) {
+        for (final Configuration configuration : configurations) {
             if (configuration.usePrimary) {
                 final Dimension primarySize = context.getPrimarySize();
-                final int maxXPrimary = primarySize.getNx() - 1 - configuration.primary_x;
-                final int maxYPrimary = primarySize.getNy() - 1 - configuration.primary_y;
-
-                for (final SampleSet sampleSet : sourceSamples) {
-                    final Sample primary = sampleSet.getPrimary();
-                    final int primaryX = primary.getX();
-                    if (primaryX < configuration.primary_x || primaryX > maxXPrimary) {
-                        continue;
-                    }
-
-                    final int primaryY = primary.getY();
-                    if (primaryY < configuration.primary_y || primaryY > maxYPrimary) {
-                        continue;
-                    }
-                    targetSamples.add(sampleSet);
+                if (!isInside(sampleSet.getPrimary(), primarySize, configuration.primary_x, configuration.primary_y)) {
+                    return false;
                 }
             } else if (configuration.useSecondary) {
-                final String secondaryName = configuration.secondaryName;
-                final Dimension secondarySize = context.getSecondarySize(secondaryName);
-                final int maxXSecondary = secondarySize.getNx() - 1 - configuration.secondary_x;
-                final int maxYSecondary = secondarySize.getNy() - 1 - configuration.secondary_y;
-
-                for (final SampleSet sampleSet : sourceSamples) {
-                    final Sample secondary = sampleSet.getSecondary(secondaryName);
-                    final int secondaryX = secondary.getX();
-                    if (secondaryX < configuration.secondary_x || secondaryX > maxXSecondary) {
-                        continue;
-                    }
+                final Dimension secondarySize = context.getSecondarySize(configuration.secondaryName);
+                final Sample secondary = sampleSet.getSecondary(configuration.secondaryName);
+                if (!isInside(secondary, secondarySize, configuration.secondary_x, configuration.secondary_y)) {
+                    return false;
+                }
+            } else {
+                // neither primary nor secondary configured - no sample can pass
+                return false;
+            }
+        }
+        return true;
+    }
 
-                    final int secondaryY = secondary.getY();
-                    if (secondaryY < configuration.secondary_y || secondaryY > maxYSecondary) {
-                        continue;
-                    }
-                    targetSamples.add(sampleSet);
+    @Override
+    public boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context) {
+        for (final Configuration configuration : configurations) {
+            if (configuration.usePrimary) {
+                final Dimension primarySize = context.getPrimarySize();
+                if (!isInside(matchupSet.getPrimarySamples(), index, primarySize, configuration.primary_x, configuration.primary_y)) {
+                    return false;
+                }
+            } else if (configuration.useSecondary) {
+                final Dimension secondarySize = context.getSecondarySize(configuration.secondaryName);
+                final SampleColumns secondary = matchupSet.getSecondarySamples(configuration.secondaryName);
+                if (secondary == null || !secondary.isPresent(index)
+                        || !isInside(secondary, index, secondarySize, configuration.secondary_x, configuration.secondary_y)) {
+                    return false;
                 }
+            } else {
+                return false;
             }
-            sourceSamples.clear();
-            sourceSamples = targetSamples;
+        }
+        return true;
+    }
+
+    private static boolean isInside(SampleColumns samples, int index, Dimension size, int borderX, int borderY) {
+        final int x = samples.getX(index);
+        if (x < borderX || x > size.getNx() - 1 - borderX) {
+            return false;
+        }
+
+        final int y = samples.getY(index);
+        return y >= borderY && y <= size.getNy() - 1 - borderY;
+    }
+
+    private static boolean isInside(Sample sample, Dimension size, int borderX, int borderY) {
+        final int x = sample.getX();
+        if (x < borderX || x > size.getNx() - 1 - borderX) {
+            return false;
         }
 
-        matchupSet.setSampleSets(targetSamples);
+        final int y = sample.getY();
+        return y >= borderY && y <= size.getNy() - 1 - borderY;
     }
 
     static class Configuration {
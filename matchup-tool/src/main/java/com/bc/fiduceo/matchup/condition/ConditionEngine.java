@@ -35,13 +35,16 @@ public class ConditionEngine {
 
     public static final String TAG_NAME_CONDITIONS = "conditions";
     private final List<Condition> conditionsList;
+    // the conditions in processing order, consecutive sample conditions fused to a single pass
+    private List<Condition> processingList;
 
     public ConditionEngine() {
         conditionsList = new ArrayList<>();
+        processingList = new ArrayList<>();
     }
 
     public void process(MatchupSet matchupSet, ConditionEngineContext context) {
-        for (final Condition condition : conditionsList) {
+        for (final Condition condition : processingList) {
             condition.apply(matchupSet, context);
         }
     }
@@ -60,8 +63,9 @@ public class ConditionEngine {
                 }
             }
         }
-        
+
         conditionsList.add(new TimeRangeCondition());
+        processingList = fuse(conditionsList);
     }
 
     public long getMaxTimeDeltaInMillis() {
@@ -75,6 +79,34 @@ public class ConditionEngine {
         // the user does not want to check time differences, return 0 does the opposite 2016-09-20
     }
 
+    // package access for testing only
+    static List<Condition> fuse(List<Condition> conditions) {
+        final List<Condition> fusedList = new ArrayList<>();
+        final List<SampleCondition> sampleConditions = new ArrayList<>();
+        for (final Condition condition : conditions) {
+            if (condition instanceof SampleCondition) {
+                sampleConditions.add((SampleCondition) condition);
+                continue;
+            }
+
+            // conditions working on the complete matchup set (e.g. overlap removal) depend on the samples that
+            // passed all preceding conditions, so they end a fused sequence
+            addFused(fusedList, sampleConditions);
+            fusedList.add(condition);
+        }
+        addFused(fusedList, sampleConditions);
+        return fusedList;
+    }
+
+    private static void addFused(List<Condition> fusedList, List<SampleCondition> sampleConditions) {
+        if (sampleConditions.size() == 1) {
+            fusedList.add(sampleConditions.get(0));
+        } else if (sampleConditions.size() > 1) {
+            fusedList.add(new FusedSampleCondition(sampleConditions.toArray(new SampleCondition[0])));
+        }
+        sampleConditions.clear();
+    }
+
     public static ConditionEngineContext createContext(ToolContext context) {
         final ConditionEngineContext conditionEngineContext = new ConditionEngineContext();
         conditionEngineContext.setStartDate(context.getStartDate());
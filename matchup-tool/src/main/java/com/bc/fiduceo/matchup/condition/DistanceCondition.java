@@ -20,14 +20,12 @@
 
 package com.bc.fiduceo.matchup.condition;
 
-import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleColumns;
 import com.bc.fiduceo.matchup.SampleSet;
 import com.bc.fiduceo.math.Distance;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /* The XML template for this condition class looks like:
 
     <spherical-point_distance>
@@ -38,7 +36,7 @@ import java.util.List;
     </spherical-point_distance>
  */
 
-class DistanceCondition implements Condition {
+class DistanceCondition implements SampleCondition {
 
     private final double maxDistanceInKm;
     private String secondarySensorName = SampleSet.getOnlyOneSecondaryKey();
@@ -48,19 +46,22 @@ class DistanceCondition implements Condition {
     }
 
     @Override
-    public void apply(MatchupSet matchupSet, ConditionEngineContext context) {
-        final List<SampleSet> sourceSamples = matchupSet.getSampleSets();
-        final List<SampleSet> targetSamples = new ArrayList<>();
-        for (final SampleSet sampleSet : sourceSamples) {
-            final Sample primary = sampleSet.getPrimary();
-            final Sample secondary = sampleSet.getSecondary(getSecondarySensorName());
-            final double kmDistance = Distance.computeSphericalDistanceKm(primary.getLon(), primary.getLat(), secondary.getLon(), secondary.getLat());
-            if (kmDistance <= maxDistanceInKm) {
-                targetSamples.add(sampleSet);
-            }
+    public boolean accept(SampleSet sampleSet, ConditionEngineContext context) {
+        final Sample primary = sampleSet.getPrimary();
+        final Sample secondary = sampleSet.getSecondary(getSecondarySensorName());
+        final double kmDistance = Distance.computeSphericalDistanceKm(primary.getLon(), primary.getLat(), secondary.getLon(), secondary.getLat());
+        return kmDistance <= maxDistanceInKm;
+    }
+
+    @Override
+    public boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context) {
+        final SampleColumns primary = matchupSet.getPrimarySamples();
+        final SampleColumns secondary = matchupSet.getSecondarySamples(getSecondarySensorName());
+        if (secondary == null || !secondary.isPresent(index)) {
+            return false;
         }
-        matchupSet.setSampleSets(targetSamples);
-        sourceSamples.clear();
+        final double kmDistance = Distance.computeSphericalDistanceKm(primary.getLon(index), primary.getLat(index), secondary.getLon(index), secondary.getLat(index));
+        return kmDistance <= maxDistanceInKm;
     }
 
     double getMaxDistanceInKm() {
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.condition;
+
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Evaluates a sequence of sample conditions in one pass over the matchup set. A SampleSet is rejected at the first
+ * failing condition, the accepted ones are compacted in place - the result is the same as applying the conditions
+ * one after the other. A compacted matchup set is filtered on its sample columns, without SampleSet objects.
+ */
+class FusedSampleCondition implements Condition {
+
+    private final SampleCondition[] conditions;
+
+    FusedSampleCondition(SampleCondition... conditions) {
+        this.conditions = conditions;
+    }
+
+    @Override
+    public void apply(MatchupSet matchupSet, ConditionEngineContext context) {
+        filter(matchupSet, context, conditions);
+    }
+
+    SampleCondition[] getConditions() {
+        return conditions;
+    }
+
+    static void filter(MatchupSet matchupSet, ConditionEngineContext context, SampleCondition... conditions) {
+        if (matchupSet.isCompacted()) {
+            filterColumns(matchupSet, context, conditions);
+            return;
+        }
+
+        List<SampleSet> sampleSets = matchupSet.getSampleSets();
+        if (!(sampleSets instanceof RandomAccess)) {
+            sampleSets = new ArrayList<>(sampleSets);
+            matchupSet.setSampleSets(sampleSets);
+        }
+
+        final int numSampleSets = sampleSets.size();
+        int numAccepted = 0;
+        for (int i = 0; i < numSampleSets; i++) {
+            final SampleSet sampleSet = sampleSets.get(i);
+            if (accept(sampleSet, context, conditions)) {
+                sampleSets.set(numAccepted, sampleSet);
+                numAccepted++;
+            }
+        }
+
+        if (numAccepted < numSampleSets) {
+            sampleSets.subList(numAccepted, numSampleSets).clear();
+        }
+    }
+
+    private static void filterColumns(MatchupSet matchupSet, ConditionEngineContext context, SampleCondition[] conditions) {
+        final int numObservations = matchupSet.getNumObservations();
+        final boolean[] accepted = new boolean[numObservations];
+        int numAccepted = 0;
+        for (int i = 0; i < numObservations; i++) {
+            if (accept(matchupSet, i, context, conditions)) {
+                accepted[i] = true;
+                numAccepted++;
+            }
+        }
+
+        if (numAccepted < numObservations) {
+            matchupSet.retainSamples(accepted);
+        }
+    }
+
+    private static boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context, SampleCondition[] conditions) {
+        for (final SampleCondition condition : conditions) {
+            if (!condition.accept(matchupSet, index, context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean accept(SampleSet sampleSet, ConditionEngineContext context, SampleCondition[] conditions) {
+        for (final SampleCondition condition : conditions) {
+            if (!condition.accept(sampleSet, context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
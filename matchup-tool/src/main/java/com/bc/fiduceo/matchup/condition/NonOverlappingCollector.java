@@ -24,12 +24,13 @@ import com.bc.fiduceo.core.Sample;
 import com.bc.fiduceo.matchup.SampleSet;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
-import java.util.NavigableSet;
-import java.util.TreeSet;
 
+/**
+ * Collects sample sets whose extraction windows do not overlap with any window collected before. The accepted samples
+ * are hashed by their cell in a grid of window sized cells: two samples in the same cell always overlap, so each cell
+ * holds at most one accepted sample and the overlap test only has to look at the 3x3 neighbouring cells.
+ */
 class NonOverlappingCollector {
 
     private final int width;
@@ -37,7 +38,7 @@ class NonOverlappingCollector {
     private final boolean primary;
 
     private final ArrayList<SampleSet> sampleSets;
-    private final NavigableSet<Sample> samples;
+    private final CellHash acceptedCells;
     private String secondaryName;
 
     NonOverlappingCollector(int width, int height, boolean primary) {
@@ -51,8 +52,7 @@ class NonOverlappingCollector {
         this.secondaryName = secondaryName;
 
         sampleSets = new ArrayList<>();
-
-        samples = new TreeSet<>(new SwathOrderedSamplesComparator());
+        acceptedCells = new CellHash();
     }
 
     void add(SampleSet sampleSet) {
@@ -62,7 +62,9 @@ class NonOverlappingCollector {
         }
 
         sampleSets.add(sampleSet);
-        samples.add(inputSample);
+        if (width > 0 && height > 0) {
+            acceptedCells.put(getCellKey(getCellX(inputSample), getCellY(inputSample)), inputSample);
+        }
     }
 
     List<SampleSet> get() {
@@ -82,20 +84,99 @@ class NonOverlappingCollector {
     }
 
     private boolean hasOverlap(Sample inputSample) {
-        for (Iterator<Sample> iterator = samples.descendingIterator(); iterator.hasNext(); ) {
-            final Sample other = iterator.next();
-            final int otherY = other.getY();
-            final int inputSampleY = inputSample.getY();
-            if (otherY < inputSampleY - height) {
-                break;
+        if (width <= 0 || height <= 0) {
+            return false;   // empty windows never overlap
+        }
+
+        final long cellX = getCellX(inputSample);
+        final long cellY = getCellY(inputSample);
+        for (long y = cellY - 1; y <= cellY + 1; y++) {
+            for (long x = cellX - 1; x <= cellX + 1; x++) {
+                final Sample other = acceptedCells.get(getCellKey(x, y));
+                if (other != null && areOverlapping(inputSample, other)) {
+                    return true;
+                }
             }
-            if (otherY > inputSampleY + height) {
-                continue;
+        }
+        return false;
+    }
+
+    private long getCellX(Sample sample) {
+        return Math.floorDiv(sample.getX(), width);
+    }
+
+    private long getCellY(Sample sample) {
+        return Math.floorDiv(sample.getY(), height);
+    }
+
+    private static long getCellKey(long cellX, long cellY) {
+        return (cellY << 32) ^ (cellX & 0xFFFFFFFFL);
+    }
+
+    // open addressing hash map from cell key to sample, avoids boxing the keys
+    private static class CellHash {
+
+        private long[] keys;
+        private Sample[] samples;
+        private int size;
+
+        CellHash() {
+            keys = new long[64];
+            samples = new Sample[64];
+        }
+
+        Sample get(long key) {
+            final int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (samples[index] != null) {
+                if (keys[index] == key) {
+                    return samples[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long key, Sample sample) {
+            if (2 * (size + 1) > keys.length) {
+                resize();
             }
-            if (areOverlapping(inputSample, other)) {
-                return true;
+            if (insert(keys, samples, key, sample)) {
+                size++;
             }
         }
-        return false;
+
+        private void resize() {
+            final long[] newKeys = new long[keys.length * 2];
+            final Sample[] newSamples = new Sample[samples.length * 2];
+            for (int i = 0; i < keys.length; i++) {
+                if (samples[i] != null) {
+                    insert(newKeys, newSamples, keys[i], samples[i]);
+                }
+            }
+            keys = newKeys;
+            samples = newSamples;
+        }
+
+        // returns false if the key was present and the sample replaced
+        private static boolean insert(long[] keys, Sample[] samples, long key, Sample sample) {
+            final int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (samples[index] != null) {
+                if (keys[index] == key) {
+                    samples[index] = sample;
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            samples[index] = sample;
+            return true;
+        }
+
+        private static int hash(long key) {
+            final long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
     }
 }
@@ -26,10 +26,9 @@ import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.core.Sample;
 import com.bc.fiduceo.matchup.SampleSet;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.NavigableSet;
-import java.util.TreeSet;
 
 /* The XML template for this condition class looks like:
 
@@ -84,12 +83,17 @@ class OverlapRemoveCondition implements Condition {
             }
         };
 
-        final NavigableSet<SampleSet> orderedSampleSets = new TreeSet<>(orderedComparator);
-        orderedSampleSets.addAll(sampleSets);
+        // the sort is stable, of several sample sets at the same location the first one is used
+        final List<SampleSet> orderedSampleSets = new ArrayList<>(sampleSets);
+        orderedSampleSets.sort(orderedComparator);
 
         final NonOverlappingCollector collector = new NonOverlappingCollector(dimension.getNx(), dimension.getNy(), primary, secondaryName);
+        SampleSet previous = null;
         for (final SampleSet sampleSet : orderedSampleSets) {
-            collector.add(sampleSet);
+            if (previous == null || orderedComparator.compare(previous, sampleSet) != 0) {
+                collector.add(sampleSet);
+            }
+            previous = sampleSet;
         }
 
         matchupSet.setSampleSets(collector.get());
@@ -2,82 +2,71 @@ package com.bc.fiduceo.matchup.condition;
 
 import com.bc.fiduceo.core.Sample;
 import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleColumns;
 import com.bc.fiduceo.matchup.SampleSet;
 
-import java.util.ArrayList;
-import java.util.List;
-
-class PixelPositionCondition implements Condition {
+class PixelPositionCondition implements SampleCondition {
 
     private final Configuration configuration;
+    private final String[] secondaryNames;
 
     PixelPositionCondition(Configuration configuration) {
         this.configuration = configuration;
+        if (configuration.secondaryNames.length == 0) {
+            secondaryNames = new String[]{SampleSet.getOnlyOneSecondaryKey()};
+        } else {
+            secondaryNames = configuration.secondaryNames;
+        }
     }
 
     @Override
-    public void apply(MatchupSet matchupSet, ConditionEngineContext context) {
-        final List<SampleSet> sampleSets = matchupSet.getSampleSets();
-        final List<SampleSet> result = new ArrayList<>();
-
+    public boolean accept(SampleSet sampleSet, ConditionEngineContext context) {
         if (configuration.isPrimary) {
-            applyPrimary(sampleSets, result);
-        } else {
-            applySecondaries(sampleSets, result);
+            return isInside(sampleSet.getPrimary());
         }
 
-        matchupSet.setSampleSets(result);
-        sampleSets.clear();
-    }
-
-    private void applyPrimary(List<SampleSet> sampleSets, List<SampleSet> result) {
-        final int minX = configuration.minX;
-        final int maxX = configuration.maxX;
-        final int minY = configuration.minY;
-        final int maxY = configuration.maxY;
+        for (final String secondaryName : secondaryNames) {
+            final Sample secondary = sampleSet.getSecondary(secondaryName);
+            if (secondary == null) {
+                continue;   // we cannot assume all sensors in all matchups tb 2019-10-30
+            }
 
-        for (SampleSet sampleSet : sampleSets) {
-            final Sample primary = sampleSet.getPrimary();
-            final int primaryX = primary.getX();
-            final int primaryY = primary.getY();
-            if (primaryX < minX || primaryX > maxX || primaryY < minY || primaryY > maxY) {
-                continue;
+            if (!isInside(secondary)) {
+                return false;
             }
-            result.add(sampleSet);
         }
+        return true;
     }
 
-    private void applySecondaries(List<SampleSet> sampleSets, List<SampleSet> result) {
-        final int minX = configuration.minX;
-        final int maxX = configuration.maxX;
-        final int minY = configuration.minY;
-        final int maxY = configuration.maxY;
-
-        final String[] secondaryNames;
-        if (configuration.secondaryNames.length == 0) {
-            secondaryNames = new String[]{SampleSet.getOnlyOneSecondaryKey()};
-        } else {
-            secondaryNames = configuration.secondaryNames;
+    @Override
+    public boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context) {
+        if (configuration.isPrimary) {
+            return isInside(matchupSet.getPrimarySamples(), index);
         }
 
-        for (SampleSet sampleSet : sampleSets) {
-            boolean keep = true;
-            for (final String secondaryName : secondaryNames) {
-                final Sample secondary = sampleSet.getSecondary(secondaryName);
-                if (secondary == null) {
-                    continue;   // we cannot assume all sensors in all matchups tb 2019-10-30
-                }
-                final int primaryX = secondary.getX();
-                final int primaryY = secondary.getY();
-                if (primaryX < minX || primaryX > maxX || primaryY < minY || primaryY > maxY) {
-                    keep = false;
-                }
+        for (final String secondaryName : secondaryNames) {
+            final SampleColumns secondary = matchupSet.getSecondarySamples(secondaryName);
+            if (secondary == null || !secondary.isPresent(index)) {
+                continue;
             }
 
-            if (keep) {
-                result.add(sampleSet);
+            if (!isInside(secondary, index)) {
+                return false;
             }
         }
+        return true;
+    }
+
+    private boolean isInside(SampleColumns samples, int index) {
+        final int x = samples.getX(index);
+        final int y = samples.getY(index);
+        return x >= configuration.minX && x <= configuration.maxX && y >= configuration.minY && y <= configuration.maxY;
+    }
+
+    private boolean isInside(Sample sample) {
+        final int x = sample.getX();
+        final int y = sample.getY();
+        return x >= configuration.minX && x <= configuration.maxX && y >= configuration.minY && y <= configuration.maxY;
     }
 
     static class Configuration {
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.condition;
+
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleSet;
+
+/**
+ * A condition that decides on each SampleSet independently of all other samples of the matchup set. Consecutive
+ * sample conditions are evaluated by the ConditionEngine in a single pass, see FusedSampleCondition.
+ */
+interface SampleCondition extends Condition {
+
+    boolean accept(SampleSet sampleSet, ConditionEngineContext context);
+
+    /**
+     * Decides on a single matchup of a compacted matchup set. Creates the SampleSet of the matchup, conditions that
+     * read the sample columns of the matchup set directly override this.
+     *
+     * @param matchupSet the compacted matchup set
+     * @param index      the index of the matchup
+     * @param context    the condition context
+     * @return true if the matchup is accepted
+     */
+    default boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context) {
+        return accept(matchupSet.getSampleSet(index), context);
+    }
+
+    @Override
+    default void apply(MatchupSet matchupSet, ConditionEngineContext context) {
+        FusedSampleCondition.filter(matchupSet, context, this);
+    }
+}
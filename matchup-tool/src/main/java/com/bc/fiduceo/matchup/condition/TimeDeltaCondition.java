@@ -22,11 +22,9 @@ package com.bc.fiduceo.matchup.condition;
 
 import com.bc.fiduceo.core.Sample;
 import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleColumns;
 import com.bc.fiduceo.matchup.SampleSet;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /*
  * The XML template for this condition class looks like:
  *
@@ -57,7 +55,7 @@ import java.util.List;
  *      </time-delta>
  *
  */
-class TimeDeltaCondition implements Condition {
+class TimeDeltaCondition implements SampleCondition {
 
     private final long maxTimeDeltaInMillis;
     private String[] secondarySensorNames = {SampleSet.getOnlyOneSecondaryKey()};
@@ -69,18 +67,32 @@ class TimeDeltaCondition implements Condition {
     }
 
     @Override
-    public void apply(MatchupSet matchupSet, ConditionEngineContext context) {
-        final List<SampleSet> sourceSamples = matchupSet.getSampleSets();
-        final List<SampleSet> targetSamples = new ArrayList<>();
-        for (final SampleSet sampleSet : sourceSamples) {
-            boolean primaryIsValid = isValidDifferenceToPrimary(sampleSet);
-            boolean secondaryIsValid = isValidDifferenceBetweenSecondaries(sampleSet);
-            if (primaryIsValid && secondaryIsValid) {
-                targetSamples.add(sampleSet);
+    public boolean accept(SampleSet sampleSet, ConditionEngineContext context) {
+        return isValidDifferenceToPrimary(sampleSet) && isValidDifferenceBetweenSecondaries(sampleSet);
+    }
+
+    @Override
+    public boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context) {
+        if (primaryCheck) {
+            final SampleColumns primary = matchupSet.getPrimarySamples();
+            for (final String secondarySensorName : secondarySensorNames) {
+                if (isInvalid(primary, matchupSet.getSecondarySamples(secondarySensorName), index)) {
+                    return false;
+                }
             }
         }
-        matchupSet.setSampleSets(targetSamples);
-        sourceSamples.clear();
+        if (secondaryCheck) {
+            final int numNames = secondarySensorNames.length;
+            for (int i = 0; i < numNames - 1; i++) {
+                final SampleColumns s1 = matchupSet.getSecondarySamples(secondarySensorNames[i]);
+                for (int j = i + 1; j < numNames; j++) {
+                    if (isInvalid(s1, matchupSet.getSecondarySamples(secondarySensorNames[j]), index)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
     }
 
     long getMaxTimeDeltaInMillis() {
@@ -132,6 +144,14 @@ class TimeDeltaCondition implements Condition {
         return true;
     }
 
+    private boolean isInvalid(SampleColumns s1, SampleColumns s2, int index) {
+        if (s1 == null || s2 == null || !s1.isPresent(index) || !s2.isPresent(index)) {
+            return true;
+        }
+        final long actualTimeDelta = Math.abs(s1.getTime(index) - s2.getTime(index));
+        return actualTimeDelta > maxTimeDeltaInMillis;
+    }
+
     private boolean isInvalid(Sample primary, Sample secondary) {
         final long actualTimeDelta = Math.abs(primary.getTime() - secondary.getTime());
         return actualTimeDelta > maxTimeDeltaInMillis;
@@ -20,25 +20,17 @@ package com.bc.fiduceo.matchup.condition;
 import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.matchup.SampleSet;
 
-import java.util.ArrayList;
-import java.util.List;
-
-class TimeRangeCondition implements Condition {
+class TimeRangeCondition implements SampleCondition {
 
     @Override
-    public void apply(MatchupSet matchupSet, ConditionEngineContext context) {
-        final long endTime = context.getEndDate().getTime();
-        final long startTime = context.getStartDate().getTime();
+    public boolean accept(SampleSet sampleSet, ConditionEngineContext context) {
+        final long time = sampleSet.getPrimary().getTime();
+        return time >= context.getStartDate().getTime() && time <= context.getEndDate().getTime();
+    }
 
-        final List<SampleSet> sampleSets = matchupSet.getSampleSets();
-        final List<SampleSet> targetSets = new ArrayList<>();
-        for (SampleSet sampleSet : sampleSets) {
-            final long time = sampleSet.getPrimary().getTime();
-            if (time >= startTime && time <= endTime) {
-                targetSets.add(sampleSet);
-            }
-        }
-        matchupSet.setSampleSets(targetSets);
-        sampleSets.clear();
+    @Override
+    public boolean accept(MatchupSet matchupSet, int index, ConditionEngineContext context) {
+        final long time = matchupSet.getPrimarySamples().getTime(index);
+        return time >= context.getStartDate().getTime() && time <= context.getEndDate().getTime();
     }
 }
@@ -24,8 +24,8 @@ package com.bc.fiduceo.matchup.screening;
 import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.core.Sample;
 import com.bc.fiduceo.matchup.SampleSet;
-import com.bc.fiduceo.matchup.screening.expression.ReaderEvalEnv;
-import com.bc.fiduceo.matchup.screening.expression.ReaderNamespace;
+import com.bc.fiduceo.matchup.screening.expression.ColumnEvalEnv;
+import com.bc.fiduceo.matchup.screening.expression.ColumnNamespace;
 import com.bc.fiduceo.reader.Reader;
 import org.esa.snap.core.jexp.ParseException;
 import org.esa.snap.core.jexp.Term;
@@ -51,58 +51,53 @@ class PixelValueScreening implements Screening {
         List<SampleSet> sampleSets = matchupSet.getSampleSets();
 
         if (StringUtils.isNotNullAndNotEmpty(configuration.primaryExpression)) {
-            List<SampleSet> keptSets = new ArrayList<>();
-            final ReaderNamespace readerNamespace = new ReaderNamespace(primaryReader);
-            final ParserImpl parser = new ParserImpl(readerNamespace);
-            final ReaderEvalEnv readerEvalEnv = new ReaderEvalEnv(primaryReader);
-
-            try {
-                final Term term = parser.parse(configuration.primaryExpression);
-                for (final SampleSet sampleSet : sampleSets) {
-                    final Sample primary = sampleSet.getPrimary();
-                    readerEvalEnv.setLocation(primary.getX(), primary.getY());
-                    final boolean keep = term.evalB(readerEvalEnv);
-                    if (!keep) {
-                        continue;
-                    }
-                    keptSets.add(sampleSet);
-                }
-
-            } catch (ParseException e) {
-                throw new IOException("Invalid expression: " + e.getMessage());
-            }
-
-            sampleSets = keptSets;
+            sampleSets = filter(sampleSets, primaryReader, configuration.primaryExpression, null);
         }
 
         if (StringUtils.isNotNullAndNotEmpty(configuration.secondaryExpression)) {
-            List<SampleSet> keptSets = new ArrayList<>();
-            final Reader reader = secondaryReader.get(SampleSet.getOnlyOneSecondaryKey());
-            final ReaderNamespace readerNamespace = new ReaderNamespace(reader);
-            final ParserImpl parser = new ParserImpl(readerNamespace);
-            final ReaderEvalEnv readerEvalEnv = new ReaderEvalEnv(reader);
-
-            try {
-                final Term term = parser.parse(configuration.secondaryExpression);
-                for (final SampleSet sampleSet : sampleSets) {
-                    final Sample secondary = sampleSet.getSecondary(SampleSet.getOnlyOneSecondaryKey());
-                    readerEvalEnv.setLocation(secondary.getX(), secondary.getY());
-                    final boolean keep = term.evalB(readerEvalEnv);
-                    if (!keep) {
-                        continue;
-                    }
-                    keptSets.add(sampleSet);
-                }
-
-            } catch (ParseException e) {
-                throw new IOException("Invalid expression: " + e.getMessage());
-            }
-            sampleSets = keptSets;
+            final String secondaryKey = SampleSet.getOnlyOneSecondaryKey();
+            final Reader reader = secondaryReader.get(secondaryKey);
+            sampleSets = filter(sampleSets, reader, configuration.secondaryExpression, secondaryKey);
         }
 
         matchupSet.setSampleSets(sampleSets);
     }
 
+    // reads the referenced variables for all samples in one go, then evaluates the expression per sample on the
+    // value columns. secondaryKey == null selects the primary samples
+    private static List<SampleSet> filter(List<SampleSet> sampleSets, Reader reader, String expression, String secondaryKey) throws IOException, InvalidRangeException {
+        final ColumnNamespace columnNamespace = new ColumnNamespace(reader);
+        final ParserImpl parser = new ParserImpl(columnNamespace);
+
+        final Term term;
+        try {
+            term = parser.parse(expression);
+        } catch (ParseException e) {
+            throw new IOException("Invalid expression: " + e.getMessage());
+        }
+
+        final int numSamples = sampleSets.size();
+        final int[] x = new int[numSamples];
+        final int[] y = new int[numSamples];
+        for (int i = 0; i < numSamples; i++) {
+            final SampleSet sampleSet = sampleSets.get(i);
+            final Sample sample = secondaryKey == null ? sampleSet.getPrimary() : sampleSet.getSecondary(secondaryKey);
+            x[i] = sample.getX();
+            y[i] = sample.getY();
+        }
+        columnNamespace.readColumns(x, y);
+
+        final List<SampleSet> keptSets = new ArrayList<>();
+        final ColumnEvalEnv evalEnv = new ColumnEvalEnv();
+        for (int i = 0; i < numSamples; i++) {
+            evalEnv.setIndex(i);
+            if (term.evalB(evalEnv)) {
+                keptSets.add(sampleSets.get(i));
+            }
+        }
+        return keptSets;
+    }
+
     public void configure(Configuration configuration) {
         this.configuration = configuration;
     }
@@ -33,6 +33,7 @@ import ucar.ma2.InvalidRangeException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -87,9 +88,19 @@ public class WindowValueScreening implements Screening {
             final Term term = parser.parse(expression);
             final int width = dimension.getNx();
             final int height = dimension.getNy();
-            for (final SampleSet sampleSet : sampleSets) {
+            // the following sample decides whether a region around the window is read, see WindowReaderEvalEnv
+            final Iterator<SampleSet> iterator = sampleSets.iterator();
+            SampleSet nextSampleSet = iterator.hasNext() ? iterator.next() : null;
+            while (nextSampleSet != null) {
+                final SampleSet sampleSet = nextSampleSet;
+                nextSampleSet = iterator.hasNext() ? iterator.next() : null;
                 final Sample sample = sampleFetcher.getSample(sampleSet);
-                readerEvalEnv.setWindow(sample.getX(), sample.getY(), width, height);
+                final Sample nextSample = nextSampleSet != null ? sampleFetcher.getSample(nextSampleSet) : null;
+                if (nextSample != null) {
+                    readerEvalEnv.setWindow(sample.getX(), sample.getY(), width, height, nextSample.getX(), nextSample.getY());
+                } else {
+                    readerEvalEnv.setWindow(sample.getX(), sample.getY(), width, height);
+                }
                 int trueCount = 0;
                 int noDataCount = 0;
                 for (int y = 0; y < height; y++) {
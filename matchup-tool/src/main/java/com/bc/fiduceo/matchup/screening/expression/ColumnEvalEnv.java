@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2016 Brockmann Consult GmbH
+ * Copyright (C) 2026 Brockmann Consult GmbH
  * This code was developed for the EC project "Fidelity and Uncertainty in
  * Climate Data Records from Earth Observations (FIDUCEO)".
  * Grant Agreement: 638822
@@ -20,34 +20,21 @@
 
 package com.bc.fiduceo.matchup.screening.expression;
 
-import com.bc.fiduceo.reader.Reader;
 import org.esa.snap.core.jexp.EvalEnv;
 
-public class ReaderEvalEnv implements EvalEnv {
-
-    private final Reader reader;
-
-    private int x;
-    private int y;
-
-    public ReaderEvalEnv(Reader reader) {
-        this.reader = reader;
-    }
-
-    public Reader getReader() {
-        return reader;
-    }
+/**
+ * Evaluation environment for expressions running over the pre-read value columns of a {@link ColumnNamespace},
+ * the current position is the index of the sample in the columns.
+ */
+public class ColumnEvalEnv implements EvalEnv {
 
-    public void setLocation(int x, int y) {
-        this.x = x;
-        this.y = y;
-    }
+    private int index;
 
-    public int getX() {
-        return x;
+    public void setIndex(int index) {
+        this.index = index;
     }
 
-    public int getY() {
-        return y;
+    public int getIndex() {
+        return index;
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.screening.expression;
+
+import com.bc.fiduceo.reader.Reader;
+import org.esa.snap.core.jexp.Function;
+import org.esa.snap.core.jexp.Namespace;
+import org.esa.snap.core.jexp.Symbol;
+import org.esa.snap.core.jexp.Term;
+import org.esa.snap.core.jexp.impl.DefaultNamespace;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Variable;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Namespace for expressions evaluated over a whole list of sample locations at once. The namespace keeps track of
+ * the variables referenced by the parsed expressions and {@link #readColumns(int[], int[])} reads the values of
+ * these - and only these - for all locations before evaluation starts.
+ */
+public class ColumnNamespace implements Namespace {
+
+    private final HashMap<String, ColumnVariableSymbol> symbols = new HashMap<>();
+    private final LinkedHashSet<ColumnVariableSymbol> referencedSymbols = new LinkedHashSet<>();
+    private final DefaultNamespace defaultNamespace;
+    private final Reader reader;
+
+    public ColumnNamespace(Reader reader) throws InvalidRangeException, IOException {
+        this.reader = reader;
+        defaultNamespace = new DefaultNamespace();
+
+        final List<Variable> variables = reader.getVariables();
+        for (final Variable variable : variables) {
+            final ColumnVariableSymbol symbol = new ColumnVariableSymbol(variable);
+            symbols.put(symbol.getName(), symbol);
+        }
+    }
+
+    @Override
+    public Symbol resolveSymbol(String name) {
+        final ColumnVariableSymbol symbol = symbols.get(name);
+        if (symbol == null) {
+            return defaultNamespace.resolveSymbol(name);
+        }
+
+        referencedSymbols.add(symbol);
+        return symbol;
+    }
+
+    @Override
+    public Function resolveFunction(String name, Term[] args) {
+        return defaultNamespace.resolveFunction(name, args);
+    }
+
+    /**
+     * Reads the values of all variables referenced so far at the sample locations passed in. The sample index
+     * of a {@link ColumnEvalEnv} refers to the position in these arrays.
+     *
+     * @param x the x pixel coordinates of the samples
+     * @param y the y pixel coordinates of the samples
+     * @throws IOException           on read errors
+     * @throws InvalidRangeException on read errors
+     */
+    public void readColumns(int[] x, int[] y) throws IOException, InvalidRangeException {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Coordinate arrays differ in length");
+        }
+
+        for (final ColumnVariableSymbol symbol : referencedSymbols) {
+            symbol.read(reader, x, y);
+        }
+    }
+}
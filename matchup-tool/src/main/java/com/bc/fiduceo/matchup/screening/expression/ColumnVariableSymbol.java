@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.screening.expression;
+
+import com.bc.fiduceo.core.Interval;
+import com.bc.fiduceo.reader.Reader;
+import org.esa.snap.core.jexp.EvalEnv;
+import org.esa.snap.core.jexp.EvalException;
+import org.esa.snap.core.jexp.Symbol;
+import org.esa.snap.core.jexp.Term;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Variable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Symbol evaluating to the pixel values of a variable at a list of sample locations. The values of the distinct
+ * pixels are read with a single window read in {@link #read(Reader, int[], int[])} and kept as primitive columns, so
+ * that repeated references and samples sharing a pixel do not access the reader again.
+ */
+class ColumnVariableSymbol implements Symbol {
+
+    private final Variable variable;
+    private final Interval singlePixel = new Interval(1, 1);
+
+    private int[] intValues;
+    private double[] doubleValues;
+
+    ColumnVariableSymbol(Variable variable) {
+        this.variable = variable;
+        intValues = new int[0];
+        doubleValues = new double[0];
+    }
+
+    @Override
+    public String getName() {
+        return variable.getShortName();
+    }
+
+    @Override
+    public int getRetType() {
+        final DataType dataType = variable.getDataType();
+        if (dataType.isFloatingPoint()) {
+            return Term.TYPE_D;
+        } else if (dataType.isIntegral()) {
+            return Term.TYPE_I;
+        }
+        throw new RuntimeException("Unsupported data type: " + dataType.toString());
+    }
+
+    @Override
+    public boolean evalB(EvalEnv env) throws EvalException {
+        return intValues[((ColumnEvalEnv) env).getIndex()] != 0;
+    }
+
+    @Override
+    public int evalI(EvalEnv env) throws EvalException {
+        return intValues[((ColumnEvalEnv) env).getIndex()];
+    }
+
+    @Override
+    public double evalD(EvalEnv env) throws EvalException {
+        return doubleValues[((ColumnEvalEnv) env).getIndex()];
+    }
+
+    @Override
+    public String evalS(EvalEnv env) throws EvalException {
+        throw new RuntimeException("String expressions are not supported");
+    }
+
+    @Override
+    public boolean isConst() {
+        return false;
+    }
+
+    void read(Reader reader, int[] x, int[] y) throws IOException, InvalidRangeException {
+        final int numSamples = x.length;
+        intValues = new int[numSamples];
+        doubleValues = new double[numSamples];
+
+        if (numSamples == 0) {
+            return;
+        }
+
+        // index of the distinct pixel per sample
+        final int[] pixelIndices = new int[numSamples];
+        final int[] pixelX = new int[numSamples];
+        final int[] pixelY = new int[numSamples];
+        int numPixels = 0;
+        final HashMap<Long, Integer> pixelIndexMap = new HashMap<>();
+        for (int i = 0; i < numSamples; i++) {
+            final Long pixelKey = ((long) y[i] << 32) | (x[i] & 0xFFFFFFFFL);
+            final Integer pixelIndex = pixelIndexMap.putIfAbsent(pixelKey, numPixels);
+            if (pixelIndex != null) {
+                pixelIndices[i] = pixelIndex;
+                continue;
+            }
+
+            pixelIndices[i] = numPixels;
+            pixelX[numPixels] = x[i];
+            pixelY[numPixels] = y[i];
+            numPixels++;
+        }
+
+        // one pixel windows, element k of the stack is the value of distinct pixel k
+        final Array pixels = reader.readScaledWindows(Arrays.copyOf(pixelX, numPixels), Arrays.copyOf(pixelY, numPixels),
+                singlePixel, variable.getFullName());
+        for (int i = 0; i < numSamples; i++) {
+            intValues[i] = pixels.getInt(pixelIndices[i]);
+            doubleValues[i] = pixels.getDouble(pixelIndices[i]);
+        }
+    }
+}
@@ -17,35 +17,69 @@
  * with this program; if not, see http://www.gnu.org/licenses/
  */
 
+
 package com.bc.fiduceo.matchup.screening.expression;
 
+import com.bc.fiduceo.core.Dimension;
 import com.bc.fiduceo.core.Interval;
 import com.bc.fiduceo.reader.Reader;
-import com.bc.fiduceo.util.NetCDFUtils;
 import org.esa.snap.core.jexp.EvalEnv;
 import ucar.ma2.Array;
+import ucar.ma2.IndexIterator;
 import ucar.ma2.InvalidRangeException;
 
 import java.io.IOException;
 import java.util.HashMap;
 
+/**
+ * Evaluation environment running an expression over the pixels of a window. The data of a variable is read once
+ * per window and kept in primitive buffers. When the caller announces that the following window lies close to the
+ * current one (see {@link #setWindow(int, int, int, int, int, int)}), a region larger than the window is read, so that
+ * the following windows located within the same region - neighbouring samples - are served without accessing the
+ * reader again. Isolated windows are read exactly, sparse samples do not pay for the region.
+ * <p>
+ * Region reads are restricted to raster products. Point data, like in situ records, is described as a product one
+ * pixel wide, where neighbouring rows are unrelated observations and the readers fill all but the center pixel of a
+ * window. For these, exactly the requested window is read.
+ */
 public class WindowReaderEvalEnv implements EvalEnv, WindowVariableSymbol.NoDataListener {
 
-    private final HashMap<String, Array> windowArrayMap = new HashMap<>();
-    private final int[] pixelShape = new int[]{1, 1};
+    // default number of pixels a region read extends the window in each direction
+    static final int REGION_MARGIN = 32;
+
+    private final HashMap<String, PixelBuffer> bufferMap = new HashMap<>();
 
     private final Reader reader;
+    private final Dimension productSize;
+    private final boolean regionReads;
+    private final int regionMargin;
 
     private int x;
     private int y;
 
-    private Interval interval;
-    private int centerX;
-    private int centerY;
+    private int windowOffsetX;
+    private int windowOffsetY;
+    private int windowWidth;
+    private int windowHeight;
+    private boolean windowInside;
+    private boolean nextWindowNear;
+    private int windowCount;
     private boolean noData = false;
 
-    WindowReaderEvalEnv(Reader reader) {
+    WindowReaderEvalEnv(Reader reader) throws IOException {
+        this(reader, REGION_MARGIN);
+    }
+
+    /**
+     * @param reader       the reader
+     * @param regionMargin the number of pixels a region read extends the window in each direction, 0 reads every
+     *                     window exactly
+     */
+    WindowReaderEvalEnv(Reader reader, int regionMargin) throws IOException {
         this.reader = reader;
+        this.regionMargin = regionMargin;
+        productSize = reader.getProductSize();
+        regionReads = regionMargin > 0 && productSize != null && productSize.getNx() > 1;
     }
 
     public void setLocationInWindow(int x, int y) {
@@ -54,12 +88,33 @@ public class WindowReaderEvalEnv implements EvalEnv, WindowVariableSymbol.NoData
         this.y = y;
     }
 
+    /**
+     * Sets a window without a following window, the window is read exactly unless a previously read region
+     * contains it.
+     */
     public void setWindow(int centerX, int centerY, int width, int height) {
+        setWindow(centerX, centerY, width, height, false, 0, 0);
+    }
+
+    /**
+     * Sets a window and announces the center of the following window of the same size. A region around the window
+     * is read if the following window lies within it.
+     */
+    public void setWindow(int centerX, int centerY, int width, int height, int nextCenterX, int nextCenterY) {
+        setWindow(centerX, centerY, width, height, true, nextCenterX, nextCenterY);
+    }
+
+    private void setWindow(int centerX, int centerY, int width, int height, boolean hasNext, int nextCenterX, int nextCenterY) {
         resetNoData();
-        this.centerX = centerX;
-        this.centerY = centerY;
-        interval = new Interval(width, height);
-        windowArrayMap.clear();
+        windowOffsetX = centerX - width / 2;
+        windowOffsetY = centerY - height / 2;
+        windowWidth = width;
+        windowHeight = height;
+        windowInside = isInside(windowOffsetX, windowOffsetY);
+        nextWindowNear = hasNext && windowInside &&
+                         Math.abs(nextCenterX - centerX) <= regionMargin && Math.abs(nextCenterY - centerY) <= regionMargin &&
+                         isInside(nextCenterX - width / 2, nextCenterY - height / 2);
+        windowCount++;
     }
 
     @Override
@@ -71,21 +126,94 @@ public class WindowReaderEvalEnv implements EvalEnv, WindowVariableSymbol.NoData
         return noData;
     }
 
-    Array fetchPixel(String name) throws IOException, InvalidRangeException {
-        if (!windowArrayMap.containsKey(name)) {
-            readWindow(name);
-        }
-        final Array array = windowArrayMap.get(name);
-        return NetCDFUtils.section(array, new int[]{y, x}, pixelShape);
+    int fetchPixelInt(String name) throws IOException, InvalidRangeException {
+        final PixelBuffer buffer = getBuffer(name);
+        return buffer.intValues[buffer.windowOffset + y * buffer.width + x];
+    }
+
+    double fetchPixelDouble(String name) throws IOException, InvalidRangeException {
+        final PixelBuffer buffer = getBuffer(name);
+        return buffer.doubleValues[buffer.windowOffset + y * buffer.width + x];
     }
 
     private void resetNoData() {
         noData = false;
     }
 
+    private boolean isInside(int offsetX, int offsetY) {
+        return regionReads &&
+               offsetX >= 0 && offsetX + windowWidth <= productSize.getNx() &&
+               offsetY >= 0 && offsetY + windowHeight <= productSize.getNy();
+    }
+
+    private PixelBuffer getBuffer(String name) throws IOException, InvalidRangeException {
+        PixelBuffer buffer = bufferMap.get(name);
+        if (buffer != null && buffer.windowCount == windowCount) {
+            return buffer;
+        }
+
+        if (buffer == null || !windowInside || !buffer.contains(windowOffsetX, windowOffsetY, windowWidth, windowHeight)) {
+            buffer = read(name);
+            bufferMap.put(name, buffer);
+        }
 
-    private void readWindow(String name) throws IOException, InvalidRangeException {
-        final Array array = reader.readScaled(centerX, centerY, interval, name);
-        windowArrayMap.put(name, array);
+        buffer.windowOffset = (windowOffsetY - buffer.offsetY) * buffer.width + windowOffsetX - buffer.offsetX;
+        buffer.windowCount = windowCount;
+        return buffer;
+    }
+
+    private PixelBuffer read(String name) throws IOException, InvalidRangeException {
+        if (!nextWindowNear) {
+            // the reader fills the pixels outside of the product or of the point record, read exactly the requested window
+            final int centerX = windowOffsetX + windowWidth / 2;
+            final int centerY = windowOffsetY + windowHeight / 2;
+            final Array array = reader.readScaled(centerX, centerY, new Interval(windowWidth, windowHeight), name);
+            return new PixelBuffer(array, windowOffsetX, windowOffsetY, windowWidth, windowHeight, windowInside);
+        }
+
+        final int minX = Math.max(0, windowOffsetX - regionMargin);
+        final int minY = Math.max(0, windowOffsetY - regionMargin);
+        final int maxX = Math.min(productSize.getNx(), windowOffsetX + windowWidth + regionMargin);
+        final int maxY = Math.min(productSize.getNy(), windowOffsetY + windowHeight + regionMargin);
+        final int width = maxX - minX;
+        final int height = maxY - minY;
+        final Array array = reader.readScaled(minX + width / 2, minY + height / 2, new Interval(width, height), name);
+        return new PixelBuffer(array, minX, minY, width, height, true);
+    }
+
+    private static class PixelBuffer {
+
+        private final int[] intValues;
+        private final double[] doubleValues;
+        private final int offsetX;
+        private final int offsetY;
+        private final int width;
+        private final int height;
+        private final boolean reusable;
+
+        private int windowOffset;
+        private int windowCount;
+
+        PixelBuffer(Array array, int offsetX, int offsetY, int width, int height, boolean reusable) {
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.width = width;
+            this.height = height;
+            this.reusable = reusable;
+
+            final int size = width * height;
+            intValues = new int[size];
+            doubleValues = new double[size];
+            final IndexIterator iterator = array.getIndexIterator();
+            for (int i = 0; i < size; i++) {
+                doubleValues[i] = iterator.getDoubleNext();
+                intValues[i] = iterator.getIntCurrent();
+            }
+        }
+
+        boolean contains(int x, int y, int width, int height) {
+            return reusable && x >= offsetX && y >= offsetY &&
+                   x + width <= offsetX + this.width && y + height <= offsetY + this.height;
+        }
     }
 }
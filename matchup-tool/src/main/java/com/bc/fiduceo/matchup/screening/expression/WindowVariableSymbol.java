@@ -24,7 +24,6 @@ import org.esa.snap.core.jexp.EvalEnv;
 import org.esa.snap.core.jexp.EvalException;
 import org.esa.snap.core.jexp.Symbol;
 import org.esa.snap.core.jexp.Term;
-import ucar.ma2.Array;
 import ucar.ma2.DataType;
 import ucar.nc2.Variable;
 
@@ -61,8 +60,12 @@ class WindowVariableSymbol implements Symbol {
 
     @Override
     public int evalI(EvalEnv env) throws EvalException {
-        final Array array = fetchPixel((WindowReaderEvalEnv) env);
-        final int intValue = array.getInt(array.getIndex());
+        final int intValue;
+        try {
+            intValue = ((WindowReaderEvalEnv) env).fetchPixelInt(getName());
+        } catch (Exception e) {
+            throw new EvalException("Unable to fetch pixel value.", e);
+        }
         if (intValue == fillValue.intValue()) {
             listener.fireNoData();
         }
@@ -72,9 +75,14 @@ class WindowVariableSymbol implements Symbol {
 
     @Override
     public double evalD(EvalEnv env) throws EvalException {
-        final Array array = fetchPixel((WindowReaderEvalEnv) env);
-        final Double v = array.getDouble(array.getIndex());
-        if (Double.isNaN(v) || v.equals(fillValue.doubleValue())) {
+        final double v;
+        try {
+            v = ((WindowReaderEvalEnv) env).fetchPixelDouble(getName());
+        } catch (Exception e) {
+            throw new EvalException("Unable to fetch pixel value.", e);
+        }
+        // bitwise comparison, as Double.equals() does
+        if (Double.isNaN(v) || Double.doubleToLongBits(v) == Double.doubleToLongBits(fillValue.doubleValue())) {
             listener.fireNoData();
             return Double.NaN;
         }
@@ -91,14 +99,6 @@ class WindowVariableSymbol implements Symbol {
         return false;
     }
 
-    private Array fetchPixel(WindowReaderEvalEnv windowReaderEvalEnv) {
-        try {
-            return windowReaderEvalEnv.fetchPixel(getName());
-        } catch (Exception e) {
-            throw new EvalException("Unable to fetch pixel value.", e);
-        }
-    }
-
     interface NoDataListener {
 
         void fireNoData();
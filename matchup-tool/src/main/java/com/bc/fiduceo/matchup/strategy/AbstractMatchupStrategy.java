@@ -32,6 +32,7 @@ import com.bc.fiduceo.geometry.GeometryCollection;
 import com.bc.fiduceo.geometry.MultiPolygon;
 import com.bc.fiduceo.geometry.Polygon;
 import com.bc.fiduceo.location.PixelLocator;
+import com.bc.fiduceo.matchup.MatchupCheckpoint;
 import com.bc.fiduceo.matchup.MatchupCollection;
 import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.matchup.ObservationsSet;
@@ -39,6 +40,7 @@ import com.bc.fiduceo.matchup.condition.ConditionEngine;
 import com.bc.fiduceo.matchup.condition.ConditionEngineContext;
 import com.bc.fiduceo.matchup.screening.ScreeningEngine;
 import com.bc.fiduceo.reader.Reader;
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import com.bc.fiduceo.tool.ToolContext;
 import org.esa.snap.core.util.StringUtils;
 import ucar.ma2.InvalidRangeException;
@@ -55,17 +57,56 @@ import java.util.logging.Logger;
 public abstract class AbstractMatchupStrategy {
 
     final Logger logger;
+    MatchupCheckpoint checkpoint;
 
     AbstractMatchupStrategy(Logger logger) {
         this.logger = logger;
     }
 
+    /**
+     * Sets the checkpoint to store the results of completed primary observations in and to resume from. Strategies
+     * that do not process per primary observation ignore the checkpoint.
+     *
+     * @param checkpoint the checkpoint, null to disable checkpointing
+     */
+    public void setCheckpoint(MatchupCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     abstract public MatchupCollection createMatchupCollection(ToolContext context) throws SQLException, IOException, InvalidRangeException;
 
+    /**
+     * Adds the matchup sets to the collection passed in. Strategies that can hand out complete sets while still
+     * processing (e.g. one per primary observation) override this; the default creates the complete collection first.
+     */
+    public void createMatchups(ToolContext context, MatchupCollection matchupCollection) throws SQLException, IOException, InvalidRangeException {
+        final MatchupCollection completeCollection = createMatchupCollection(context);
+        for (final MatchupSet matchupSet : completeCollection.getSets()) {
+            matchupCollection.add(matchupSet);
+        }
+    }
+
+    // returns null when the primary observation has not been completed in a previous run
+    List<MatchupSet> restoreFromCheckpoint(SatelliteObservation primaryObservation) throws IOException {
+        if (checkpoint == null || !checkpoint.isCompleted(primaryObservation)) {
+            return null;
+        }
+        final List<MatchupSet> matchupSets = checkpoint.load(primaryObservation);
+        logger.info("Restored " + matchupSets.size() + " matchup sets from checkpoint: " + primaryObservation.getDataFilePath());
+        return matchupSets;
+    }
+
+    void storeToCheckpoint(SatelliteObservation primaryObservation, List<MatchupSet> matchupSets) throws IOException {
+        if (checkpoint != null) {
+            checkpoint.store(primaryObservation, matchupSets);
+        }
+    }
+
     void applyConditionsAndScreenings(MatchupSet matchupSet,
                                       ConditionEngine conditionEngine, ConditionEngineContext conditionEngineContext,
                                       ScreeningEngine screeningEngine,
-                                      Reader primaryReader, Map<String, Reader> secondaryReader) throws IOException, InvalidRangeException {
+                                      Reader primaryReader, Map<String, Reader> secondaryReader,
+                                      PerformanceStatistics performanceStatistics) throws IOException, InvalidRangeException {
         final Dimension primarySize = primaryReader.getProductSize();
         conditionEngineContext.setPrimarySize(primarySize);
         for (Map.Entry<String, Reader> stringReaderEntry : secondaryReader.entrySet()) {
@@ -75,12 +116,19 @@ public abstract class AbstractMatchupStrategy {
             conditionEngineContext.setSecondarySize(secondarySize, sensorName);
         }
 
+        // sample conditions filter the sample columns, conditions and screenings working on SampleSet objects expand
+        // the set when they need them
+        matchupSet.compact();
+        final PerformanceStatistics.Timer conditionsTimer = performanceStatistics.start(PerformanceStatistics.Stage.CONDITIONS, PerformanceStatistics.ALL_SENSORS);
         conditionEngine.process(matchupSet, conditionEngineContext);
+        conditionsTimer.stop();
         final int numObservations = matchupSet.getNumObservations();
         logger.info("Remaining " + numObservations + " after condition processing");
 
         if (numObservations > 0) {
+            final PerformanceStatistics.Timer screeningTimer = performanceStatistics.start(PerformanceStatistics.Stage.SCREENING, PerformanceStatistics.ALL_SENSORS);
             screeningEngine.process(matchupSet, primaryReader, secondaryReader);
+            screeningTimer.stop();
             logger.info("Remaining " + matchupSet.getNumObservations() + " after matchup screening");
         }
     }
@@ -150,7 +198,9 @@ public abstract class AbstractMatchupStrategy {
 
         final Storage storage = context.getStorage();
         final Archive archive = context.getArchive();
+        final PerformanceStatistics.Timer timer = context.getPerformanceStatistics().start(PerformanceStatistics.Stage.DB_QUERY, parameter.getSensorName());
         final List<SatelliteObservation> primaryObservations = storage.get(parameter);
+        timer.stop();
         for (final SatelliteObservation observation : primaryObservations) {
             final Path relativePath = observation.getDataFilePath();
             observation.setDataFilePath(archive.toAbsolute(relativePath).toString());
@@ -172,7 +222,9 @@ public abstract class AbstractMatchupStrategy {
             final String sensorName = parameter.getSensorName();
             logger.info("Requesting secondary data ... (" + sensorName + ", " + parameter.getStartTime() + ", " + parameter.getStopTime());
 
+            final PerformanceStatistics.Timer timer = context.getPerformanceStatistics().start(PerformanceStatistics.Stage.DB_QUERY, sensorName);
             final List<SatelliteObservation> secondaryObservations = storage.get(parameter);
+            timer.stop();
             for (final SatelliteObservation observation : secondaryObservations) {
                 final Path relativePath = observation.getDataFilePath();
                 observation.setDataFilePath(archive.toAbsolute(relativePath).toString());
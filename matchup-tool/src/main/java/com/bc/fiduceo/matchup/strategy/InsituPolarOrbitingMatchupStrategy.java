@@ -40,6 +40,7 @@ import com.bc.fiduceo.reader.Reader;
 import com.bc.fiduceo.reader.ReaderCache;
 import com.bc.fiduceo.reader.ReaderFactory;
 import com.bc.fiduceo.reader.time.TimeLocator;
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import com.bc.fiduceo.tool.ToolContext;
 import com.bc.fiduceo.util.TimeUtils;
 import ucar.ma2.Array;
@@ -92,6 +93,11 @@ class InsituPolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
         final ObservationsSet secondaryObservationsSet = retrieveSecondaryObservations(context, timeDeltaSeconds);
         final String[] secSensorNames = secondaryObservationsSet.getSensorKeys();
 
+        final Map<String, ObservationIndex> secondaryIndices = new HashMap<>();
+        for (String secSensorName : secSensorNames) {
+            secondaryIndices.put(secSensorName, new ObservationIndex(secondaryObservationsSet.get(secSensorName)));
+        }
+
         final Map<String, Map<Path, List<MatchupSet>>> mapMatchupSetsInsituOrder = new HashMap<>();
         final Map<String, Map<Path, List<MatchupSet>>> mapMatchupSetsSatelliteOrder = new HashMap<>();
         for (String secSensorName : secSensorNames) {
@@ -106,11 +112,11 @@ class InsituPolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
                 insituReader.open(insituPath.toFile());
 
                 for (String secSensorName : secSensorNames) {
-                    final List<SatelliteObservation> secondaryObservations = secondaryObservationsSet.get(secSensorName);
+                    final ObservationIndex secondaryIndex = secondaryIndices.get(secSensorName);
                     final Map<Path, List<MatchupSet>> matchupSetsInsituOrder = mapMatchupSetsInsituOrder.get(secSensorName);
                     final Map<Path, List<MatchupSet>> matchupSetsSatelliteOrder = mapMatchupSetsSatelliteOrder.get(secSensorName);
 
-                    final List<MatchupSet> matchupSets = getInsituSamplesPerSatellite(geometryFactory, timeDeltaInMillis, processingInterval, secondaryObservations, insituReader);
+                    final List<MatchupSet> matchupSets = getInsituSamplesPerSatellite(geometryFactory, timeDeltaInMillis, processingInterval, secondaryIndex, insituReader);
                     for (final MatchupSet matchupSet : matchupSets) {
                         matchupSet.setPrimaryObservationPath(insituPath);
                         matchupSet.setPrimaryProcessingVersion(insituObservation.getVersion());
@@ -141,7 +147,9 @@ class InsituPolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
                     final SampleCollector sampleCollector = new SampleCollector(context, pixelLocator);
 
                     for (MatchupSet matchupSet : matchupSets) {
+                        final PerformanceStatistics.Timer timer = context.getPerformanceStatistics().start(PerformanceStatistics.Stage.PIXEL_LOCATION, secSensorName);
                         final List<SampleSet> completeSamples = sampleCollector.addSecondarySamples(matchupSet.getSampleSets(), timeLocator, secSensorName);
+                        timer.stop();
                         matchupSet.setSampleSets(completeSamples);
                     }
                 }
@@ -175,7 +183,8 @@ class InsituPolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
                 final Reader reader = readerCache.getReaderFor(secSensorName, secondaryObservationPath, null);
                 secondaryReaders.put(secSensorName, reader);
             }
-            applyConditionsAndScreenings(matchupSet, conditionEngine, conditionEngineContext, screeningEngine, primaryReader, secondaryReaders);
+            applyConditionsAndScreenings(matchupSet, conditionEngine, conditionEngineContext, screeningEngine, primaryReader, secondaryReaders,
+                    context.getPerformanceStatistics());
         }
 
         readerCache.close();
@@ -200,17 +209,22 @@ class InsituPolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
         return getSecondaryObservations(context, searchTimeStart, searchTimeEnd);
     }
 
-    static List<SatelliteObservation> getCandidatesByTime(List<SatelliteObservation> satelliteObservations, Date insituTime, long timeDeltaInMillis) {
-        final List<SatelliteObservation> candidateList = new ArrayList<>();
-        for (final SatelliteObservation observation : satelliteObservations) {
-            final Date startTime = new Date(observation.getStartTime().getTime() - timeDeltaInMillis);
-            final Date stopTime = new Date(observation.getStopTime().getTime() + timeDeltaInMillis);
-            final TimeInterval observationInterval = new TimeInterval(startTime, stopTime);
-            if (observationInterval.contains(insituTime)) {
-                candidateList.add(observation);
-            }
-        }
-        return candidateList;
+    static List<SatelliteObservation> getCandidatesByTime(ObservationIndex secondaryIndex, Date insituTime, long timeDeltaInMillis) {
+        // an observation is a candidate if [start - delta, stop + delta] contains the insitu time, which is equivalent
+        // to the observation overlapping the interval [insituTime - delta, insituTime + delta]
+        final long insituMillis = insituTime.getTime();
+        return secondaryIndex.get(new Date(insituMillis - timeDeltaInMillis), new Date(insituMillis + timeDeltaInMillis));
+    }
+
+    static List<SatelliteObservation> getCandidates(ObservationIndex secondaryIndex, Date insituTime, long timeDeltaInMillis, Geometry point) {
+        final long insituMillis = insituTime.getTime();
+        final Date searchStart = new Date(insituMillis - timeDeltaInMillis);
+        final Date searchEnd = new Date(insituMillis + timeDeltaInMillis);
+
+        // the coarse spatial filter of the index drops granules far off the point only, full-orbit swaths are
+        // selected by time and all of them undergo the exact geometric test
+        final List<SatelliteObservation> candidatesByTime = secondaryIndex.get(searchStart, searchEnd, point);
+        return getCandidatesByGeometry(candidatesByTime, point);
     }
 
     static List<SatelliteObservation> getCandidatesByGeometry(List<SatelliteObservation> satelliteObservations, Geometry geometry) {
@@ -340,14 +354,13 @@ class InsituPolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
     }
 
     private List<MatchupSet> getInsituSamplesPerSatellite(GeometryFactory geometryFactory, long timeDeltaInMillis, TimeInterval processingInterval,
-                                                          List<SatelliteObservation> secondaryObservations, Reader insituReader) throws IOException, InvalidRangeException {
+                                                          ObservationIndex secondaryIndex, Reader insituReader) throws IOException, InvalidRangeException {
         final HashMap<String, MatchupSet> observationsPerProduct = new HashMap<>();
 
         final List<Sample> insituSamples = getInsituSamples(processingInterval, insituReader);
         for (final Sample insituSample : insituSamples) {
-            final List<SatelliteObservation> candidatesByTime = getCandidatesByTime(secondaryObservations, new Date(insituSample.getTime()), timeDeltaInMillis);
             final Geometry point = geometryFactory.createPoint(insituSample.getLon(), insituSample.getLat());
-            final List<SatelliteObservation> candidatesByGeometry = getCandidatesByGeometry(candidatesByTime, point);
+            final List<SatelliteObservation> candidatesByGeometry = getCandidates(secondaryIndex, new Date(insituSample.getTime()), timeDeltaInMillis, point);
 
             for (SatelliteObservation candidate : candidatesByGeometry) {
                 final String secSensorName = candidate.getSensor().getName();
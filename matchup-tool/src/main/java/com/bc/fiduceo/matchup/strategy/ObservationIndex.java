@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.geometry.Geometry;
+import com.bc.fiduceo.geometry.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * In-memory index on a list of satellite observations. Supports the selection of all observations overlapping a
+ * time interval (using an interval tree on the start/stop times) combined with a coarse spatial pre-filter based
+ * on bounding spherical caps of the observation geo-bounds.
+ * The spatial pre-filter only prunes observations of limited extent, e.g. granules of a few minutes. The bounds of
+ * full-orbit or half-orbit swaths span far more than a quarter circle, their caps cover the full sphere and these
+ * observations are selected by time only.
+ * Query results are always returned in the order of the list used to create the index.
+ */
+class ObservationIndex {
+
+    // security margin applied to the bounding caps, accounts for non-geodesic edges in planar geometry libraries
+    private static final double CAP_MARGIN_RAD = Math.toRadians(1.0);
+
+    private final List<SatelliteObservation> observations;
+
+    // interval tree, implicit balanced binary tree on the observations sorted by start time
+    private final long[] startTimes;
+    private final long[] stopTimes;
+    private final long[] maxStopTimes;
+    private final int[] listIndices;
+
+    private final BoundingCap[] caps;
+
+    ObservationIndex(List<SatelliteObservation> observations) {
+        this.observations = observations;
+
+        final int numObservations = observations.size();
+        final Integer[] sortedIndices = new Integer[numObservations];
+        for (int i = 0; i < numObservations; i++) {
+            sortedIndices[i] = i;
+        }
+        Arrays.sort(sortedIndices, Comparator.comparingLong(i -> observations.get(i).getStartTime().getTime()));
+
+        startTimes = new long[numObservations];
+        stopTimes = new long[numObservations];
+        maxStopTimes = new long[numObservations];
+        listIndices = new int[numObservations];
+        caps = new BoundingCap[numObservations];
+        for (int i = 0; i < numObservations; i++) {
+            final int listIndex = sortedIndices[i];
+            final SatelliteObservation observation = observations.get(listIndex);
+            listIndices[i] = listIndex;
+            startTimes[i] = observation.getStartTime().getTime();
+            stopTimes[i] = observation.getStopTime().getTime();
+            caps[listIndex] = BoundingCap.create(observation.getGeoBounds());
+        }
+
+        buildMaxStopTimes(0, numObservations - 1);
+    }
+
+    int size() {
+        return observations.size();
+    }
+
+    /**
+     * Retrieves all observations with stopTime >= startTime and startTime <= stopTime, i.e. the same
+     * selection as performed by the database drivers.
+     *
+     * @param startTime the interval start
+     * @param stopTime  the interval stop
+     * @return the observations overlapping the interval, in order of the indexed list
+     */
+    List<SatelliteObservation> get(Date startTime, Date stopTime) {
+        return get(startTime, stopTime, null);
+    }
+
+    /**
+     * Retrieves all observations overlapping the time interval whose bounding caps intersect the bounding cap
+     * of the geometry supplied. If the geometry is null, no spatial filtering is applied.
+     *
+     * @param startTime the interval start
+     * @param stopTime  the interval stop
+     * @param geometry  the geometry, may be null
+     * @return the candidate observations, in order of the indexed list
+     */
+    List<SatelliteObservation> get(Date startTime, Date stopTime, Geometry geometry) {
+        final List<Integer> hits = new ArrayList<>();
+        collect(0, listIndices.length - 1, startTime.getTime(), stopTime.getTime(), hits);
+
+        final BoundingCap queryCap = geometry == null ? BoundingCap.FULL : BoundingCap.create(geometry);
+        hits.sort(null);
+
+        final List<SatelliteObservation> result = new ArrayList<>(hits.size());
+        for (final int listIndex : hits) {
+            if (queryCap.intersects(caps[listIndex])) {
+                result.add(observations.get(listIndex));
+            }
+        }
+        return result;
+    }
+
+    private long buildMaxStopTimes(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        final int mid = (lo + hi) >>> 1;
+        long maxStop = stopTimes[mid];
+        maxStop = Math.max(maxStop, buildMaxStopTimes(lo, mid - 1));
+        maxStop = Math.max(maxStop, buildMaxStopTimes(mid + 1, hi));
+        maxStopTimes[mid] = maxStop;
+        return maxStop;
+    }
+
+    private void collect(int lo, int hi, long queryStart, long queryStop, List<Integer> hits) {
+        if (lo > hi) {
+            return;
+        }
+        final int mid = (lo + hi) >>> 1;
+        if (maxStopTimes[mid] < queryStart) {
+            // no interval in this subtree reaches the query interval
+            return;
+        }
+
+        collect(lo, mid - 1, queryStart, queryStop, hits);
+
+        if (startTimes[mid] <= queryStop) {
+            if (stopTimes[mid] >= queryStart) {
+                hits.add(listIndices[mid]);
+            }
+            // the right subtree only contains later start times
+            collect(mid + 1, hi, queryStart, queryStop, hits);
+        }
+    }
+
+    /**
+     * Spherical cap enclosing all vertices of a geometry. Caps with a radius of a quarter circle or more are not
+     * guaranteed to enclose the geometry edges and are treated as covering the full sphere. This is the case for all
+     * swaths reaching from pole to pole.
+     */
+    static class BoundingCap {
+
+        static final BoundingCap FULL = new BoundingCap(0.0, 0.0, 1.0, Math.PI);
+
+        private final double x;
+        private final double y;
+        private final double z;
+        private final double radius;
+
+        private BoundingCap(double x, double y, double z, double radius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+        }
+
+        static BoundingCap create(Geometry geometry) {
+            if (geometry == null) {
+                return FULL;
+            }
+            final Point[] coordinates = geometry.getCoordinates();
+            if (coordinates == null || coordinates.length == 0) {
+                return FULL;
+            }
+
+            final double[][] vectors = new double[coordinates.length][];
+            double cx = 0.0;
+            double cy = 0.0;
+            double cz = 0.0;
+            for (int i = 0; i < coordinates.length; i++) {
+                final double[] vector = toUnitVector(coordinates[i].getLon(), coordinates[i].getLat());
+                vectors[i] = vector;
+                cx += vector[0];
+                cy += vector[1];
+                cz += vector[2];
+            }
+            final double norm = Math.sqrt(cx * cx + cy * cy + cz * cz);
+            if (norm < 1e-6) {
+                return FULL;
+            }
+            cx /= norm;
+            cy /= norm;
+            cz /= norm;
+
+            double radius = 0.0;
+            for (final double[] vector : vectors) {
+                radius = Math.max(radius, angle(cx, cy, cz, vector[0], vector[1], vector[2]));
+            }
+            radius += CAP_MARGIN_RAD;
+            if (radius >= Math.PI / 2) {
+                return FULL;
+            }
+            return new BoundingCap(cx, cy, cz, radius);
+        }
+
+        boolean intersects(BoundingCap other) {
+            if (radius >= Math.PI || other.radius >= Math.PI) {
+                return true;
+            }
+            return angle(x, y, z, other.x, other.y, other.z) <= radius + other.radius;
+        }
+
+        private static double[] toUnitVector(double lon, double lat) {
+            final double lonRad = Math.toRadians(lon);
+            final double latRad = Math.toRadians(lat);
+            final double cosLat = Math.cos(latRad);
+            return new double[]{cosLat * Math.cos(lonRad), cosLat * Math.sin(lonRad), Math.sin(latRad)};
+        }
+
+        private static double angle(double x0, double y0, double z0, double x1, double y1, double z1) {
+            final double cx = y0 * z1 - z0 * y1;
+            final double cy = z0 * x1 - x0 * z1;
+            final double cz = x0 * y1 - y0 * x1;
+            final double sin = Math.sqrt(cx * cx + cy * cy + cz * cz);
+            final double cos = x0 * x1 + y0 * y1 + z0 * z1;
+            return Math.atan2(sin, cos);
+        }
+    }
+}
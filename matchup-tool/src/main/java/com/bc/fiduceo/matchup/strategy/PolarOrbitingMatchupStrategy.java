@@ -36,16 +36,26 @@ import com.bc.fiduceo.math.Intersection;
 import com.bc.fiduceo.math.IntersectionEngine;
 import com.bc.fiduceo.math.TimeInfo;
 import com.bc.fiduceo.reader.Reader;
+import com.bc.fiduceo.reader.ReaderCache;
 import com.bc.fiduceo.reader.ReaderFactory;
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import com.bc.fiduceo.tool.ToolContext;
 import com.bc.fiduceo.util.TimeUtils;
 import ucar.ma2.InvalidRangeException;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 class PolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
@@ -57,38 +67,217 @@ class PolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
 
     public MatchupCollection createMatchupCollection(ToolContext context) throws SQLException, IOException, InvalidRangeException {
         final MatchupCollection matchupCollection = new MatchupCollection();
+        createMatchups(context, matchupCollection);
+        return matchupCollection;
+    }
 
+    @Override
+    public void createMatchups(ToolContext context, MatchupCollection matchupCollection) throws SQLException, IOException, InvalidRangeException {
         final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
 
         final ConditionEngine conditionEngine = new ConditionEngine();
-        final ConditionEngineContext conditionEngineContext = ConditionEngine.createContext(context);
         conditionEngine.configure(useCaseConfig);
 
-        final ScreeningEngine screeningEngine = new ScreeningEngine(context);
-
-        final ReaderFactory readerFactory = ReaderFactory.get();
-
         final long timeDeltaInMillis = conditionEngine.getMaxTimeDeltaInMillis();
         final int timeDeltaSeconds = (int) (timeDeltaInMillis / 1000);
 
+        final int numThreads = context.getSystemConfig().getMatchupThreads();
+
         final List<SatelliteObservation> primaryObservations = getPrimaryObservations(context);
+        if (primaryObservations.isEmpty()) {
+            return;
+        }
+
+        ObservationIndex secondaryIndex = null;
+        if (checkpoint != null) {
+            final int numCompleted = checkpoint.getNumCompleted();
+            if (numCompleted > 0) {
+                logger.info("Resuming from checkpoint '" + checkpoint.getDirectory() + "', " + numCompleted + " of " + primaryObservations.size() + " primary observations completed");
+            }
+        }
+        if (!isCompleted(primaryObservations)) {
+            secondaryIndex = getSecondaryObservationIndex(context, primaryObservations, timeDeltaSeconds);
+        }
+
+        final int readerCacheSize = context.getSystemConfig().getReaderCacheSize();
+        final ReaderStatistics primaryStatistics = new ReaderStatistics("Primary");
+        final ReaderStatistics secondaryStatistics = new ReaderStatistics("Secondary");
+        // consecutive primary observations intersect mostly the same secondary observations - keep these open
+        final ReaderCache secondaryReaderCache = new ReaderCache(readerCacheSize, ReaderFactory.get(), null);
+        if (numThreads <= 1) {
+            final ConditionEngineContext conditionEngineContext = ConditionEngine.createContext(context);
+            final ScreeningEngine screeningEngine = new ScreeningEngine(context);
+
+            try {
+                for (final SatelliteObservation primaryObservation : primaryObservations) {
+                    List<MatchupSet> matchupSets = restoreFromCheckpoint(primaryObservation);
+                    if (matchupSets == null) {
+                        final List<SatelliteObservation> secondaryObservations = getCandidates(secondaryIndex, primaryObservation, timeDeltaSeconds);
+                        matchupSets = processPrimaryObservation(primaryObservation, secondaryObservations, context,
+                                conditionEngine, conditionEngineContext, screeningEngine,
+                                secondaryReaderCache, primaryStatistics, secondaryStatistics);
+                        storeToCheckpoint(primaryObservation, matchupSets);
+                    }
+                    addAll(matchupSets, matchupCollection);
+                }
+            } finally {
+                secondaryReaderCache.close();
+            }
+        } else {
+            logger.info("Processing primary observations using " + numThreads + " threads");
+            final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+            try {
+                // keep only a limited number of primaries in flight, finished results are handed on in order
+                final int maxPendingTasks = 2 * numThreads;
+                final ArrayDeque<Future<List<MatchupSet>>> futures = new ArrayDeque<>();
+                for (final SatelliteObservation primaryObservation : primaryObservations) {
+                    if (futures.size() >= maxPendingTasks) {
+                        addAll(getResult(futures.poll()), matchupCollection);
+                    }
+                    final List<MatchupSet> restoredSets = restoreFromCheckpoint(primaryObservation);
+                    if (restoredSets != null) {
+                        futures.add(CompletableFuture.completedFuture(restoredSets));
+                        continue;
+                    }
+
+                    final List<SatelliteObservation> secondaryObservations = getCandidates(secondaryIndex, primaryObservation, timeDeltaSeconds);
+                    futures.add(executorService.submit(() -> {
+                        // conditions and screenings carry state per invocation - each task uses its own engines
+                        final ConditionEngine taskConditionEngine = new ConditionEngine();
+                        taskConditionEngine.configure(useCaseConfig);
+                        final ConditionEngineContext taskConditionEngineContext = ConditionEngine.createContext(context);
+                        final ScreeningEngine taskScreeningEngine = new ScreeningEngine(context);
+
+                        // the reader cache is shared, each task acquires the secondary readers for its exclusive use
+                        final List<MatchupSet> matchupSets = processPrimaryObservation(primaryObservation, secondaryObservations, context,
+                                taskConditionEngine, taskConditionEngineContext, taskScreeningEngine,
+                                secondaryReaderCache, primaryStatistics, secondaryStatistics);
+                        storeToCheckpoint(primaryObservation, matchupSets);
+                        return matchupSets;
+                    }));
+                }
+
+                // collect in order of the primary observations to keep the result independent of the thread scheduling
+                for (final Future<List<MatchupSet>> future : futures) {
+                    addAll(getResult(future), matchupCollection);
+                }
+            } finally {
+                executorService.shutdownNow();
+                secondaryReaderCache.close();
+            }
+        }
+
+        logger.info(primaryStatistics.getSummary());
+        logger.info(secondaryStatistics.getSummary());
+    }
+
+    // package access for testing only
+    static List<MatchupSet> getResult(Future<List<MatchupSet>> future) throws IOException, InvalidRangeException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for matchup processing", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof InvalidRangeException) {
+                throw (InvalidRangeException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    private boolean isCompleted(List<SatelliteObservation> primaryObservations) {
+        if (checkpoint == null) {
+            return false;
+        }
         for (final SatelliteObservation primaryObservation : primaryObservations) {
-            final Date searchTimeStart = TimeUtils.addSeconds(-timeDeltaSeconds, primaryObservation.getStartTime());
-            final Date searchTimeEnd = TimeUtils.addSeconds(timeDeltaSeconds, primaryObservation.getStopTime());
-
-            final Geometry primaryGeoBounds = primaryObservation.getGeoBounds();
-            final boolean isPrimarySegmented = AbstractMatchupStrategy.isSegmented(primaryGeoBounds);
-
-            final ObservationsSet secondaryObservationsSet = getSecondaryObservations(context, searchTimeStart, searchTimeEnd);
-            // todo se multisensor
-            // create(0) is still only one secondary sensor case
-            final String secondarySensorName_CaseOneSecondary = useCaseConfig.getSecondarySensors().get(0).getName();
-            // todo se multisensor
-            // still only one secondary sensor case
-            final List<SatelliteObservation> secondaryObservations = secondaryObservationsSet.get(secondarySensorName_CaseOneSecondary);
+            if (!checkpoint.isCompleted(primaryObservation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addAll(List<MatchupSet> matchupSets, MatchupCollection matchupCollection) {
+        for (final MatchupSet matchupSet : matchupSets) {
+            matchupCollection.add(matchupSet);
+        }
+    }
+
+    // package access for testing only
+    static List<SatelliteObservation> getCandidates(ObservationIndex secondaryIndex, SatelliteObservation primaryObservation, int timeDeltaSeconds) {
+        final Date searchTimeStart = TimeUtils.addSeconds(-timeDeltaSeconds, primaryObservation.getStartTime());
+        final Date searchTimeEnd = TimeUtils.addSeconds(timeDeltaSeconds, primaryObservation.getStopTime());
+
+        return secondaryIndex.get(searchTimeStart, searchTimeEnd, primaryObservation.getGeoBounds());
+    }
+
+    // package access for testing only
+    static Date[] getSearchInterval(List<SatelliteObservation> primaryObservations, int timeDeltaSeconds) {
+        Date minStart = primaryObservations.get(0).getStartTime();
+        Date maxStop = primaryObservations.get(0).getStopTime();
+        for (final SatelliteObservation observation : primaryObservations) {
+            if (observation.getStartTime().before(minStart)) {
+                minStart = observation.getStartTime();
+            }
+            if (observation.getStopTime().after(maxStop)) {
+                maxStop = observation.getStopTime();
+            }
+        }
+
+        return new Date[]{TimeUtils.addSeconds(-timeDeltaSeconds, minStart), TimeUtils.addSeconds(timeDeltaSeconds, maxStop)};
+    }
+
+    private ObservationIndex getSecondaryObservationIndex(ToolContext context, List<SatelliteObservation> primaryObservations, int timeDeltaSeconds) throws SQLException {
+        // query all secondary observations of the processing window at once and serve the candidates
+        // for each primary observation from memory
+        final Date[] searchInterval = getSearchInterval(primaryObservations, timeDeltaSeconds);
+        final ObservationsSet secondaryObservationsSet = getSecondaryObservations(context, searchInterval[0], searchInterval[1]);
+        // todo se multisensor
+        // create(0) is still only one secondary sensor case
+        final String secondarySensorName_CaseOneSecondary = context.getUseCaseConfig().getSecondarySensors().get(0).getName();
+        // todo se multisensor
+        // still only one secondary sensor case
+        return new ObservationIndex(secondaryObservationsSet.get(secondarySensorName_CaseOneSecondary));
+    }
+
+    private List<MatchupSet> processPrimaryObservation(SatelliteObservation primaryObservation, List<SatelliteObservation> secondaryObservations,
+                                                       ToolContext context, ConditionEngine conditionEngine,
+                                                       ConditionEngineContext conditionEngineContext, ScreeningEngine screeningEngine,
+                                                       ReaderCache secondaryReaderCache, ReaderStatistics primaryStatistics,
+                                                       ReaderStatistics secondaryStatistics)
+            throws IOException, InvalidRangeException {
+        final List<MatchupSet> matchupSets = new ArrayList<>();
+
+        final long timeDeltaInMillis = conditionEngine.getMaxTimeDeltaInMillis();
+        final PerformanceStatistics performanceStatistics = context.getPerformanceStatistics();
+        final String primarySensorName = primaryObservation.getSensor().getName();
+
+        final Geometry primaryGeoBounds = primaryObservation.getGeoBounds();
+        final boolean isPrimarySegmented = AbstractMatchupStrategy.isSegmented(primaryGeoBounds);
+
+        // todo se multisensor
+        // still only one secondary sensor case
+        final String secondarySensorName_CaseOneSecondary = context.getUseCaseConfig().getSecondarySensors().get(0).getName();
+
+        // the primary reader is opened on the first intersection found and kept open for all secondary observations
+        Reader primaryReader = null;
+        try {
             for (final SatelliteObservation secondaryObservation : secondaryObservations) {
                 logger.info("Calculating intersections ... ");
-                final Intersection[] intersectingIntervals = IntersectionEngine.getIntersectingIntervals(primaryObservation, secondaryObservation);
+                final PerformanceStatistics.Timer intersectionTimer = performanceStatistics.start(PerformanceStatistics.Stage.INTERSECTION, secondarySensorName_CaseOneSecondary);
+                final Intersection[] intersectingIntervals;
+                // secondary observations are shared between the primary observations, the S2 geometries build their
+                // edge indices lazily and are not thread-safe
+                synchronized (secondaryObservation) {
+                    intersectingIntervals = IntersectionEngine.getIntersectingIntervals(primaryObservation, secondaryObservation);
+                }
+                intersectionTimer.stop();
                 if (intersectingIntervals.length == 0) {
                     logger.info("... no intersections found");
                     continue;
@@ -100,72 +289,121 @@ class PolarOrbitingMatchupStrategy extends AbstractMatchupStrategy {
                 final Geometry secondaryGeoBounds = secondaryObservation.getGeoBounds();
                 final boolean isSecondarySegmented = AbstractMatchupStrategy.isSegmented(secondaryGeoBounds);
 
-                try (final Reader primaryReader = readerFactory.getReader(primaryObservation.getSensor().getName())) {
-                    primaryReader.open(primaryObservation.getDataFilePath().toFile());
+                primaryStatistics.addRequest();
+                performanceStatistics.addCacheRequest(PerformanceStatistics.Stage.READER_OPEN, primarySensorName);
+                if (primaryReader == null) {
+                    primaryReader = openReader(primaryObservation, primaryStatistics, performanceStatistics);
+                }
 
-                    // todo se multisensor
-                    // needed by method applyConditionsAndScreenings(...) which is ready to handle multiple secondary sensor
-                    final HashMap<String, Reader> secondaryReaderMap = new HashMap<>();
-                    try (Reader secondaryReader = readerFactory.getReader(secondarySensorName_CaseOneSecondary)) {
-                        secondaryReader.open(secondaryObservation.getDataFilePath().toFile());
+                // todo se multisensor
+                // needed by method applyConditionsAndScreenings(...) which is ready to handle multiple secondary sensor
+                final HashMap<String, Reader> secondaryReaderMap = new HashMap<>();
+                final Reader secondaryReader = getReader(secondaryReaderCache, secondarySensorName_CaseOneSecondary, secondaryObservation, secondaryStatistics, performanceStatistics);
+                // todo se multisensor
+                // still only one secondary sensor case
+                secondaryReaderMap.put(secondarySensorName_CaseOneSecondary, secondaryReader);
+
+                try {
+                    for (final Intersection intersection : intersectingIntervals) {
+                        final TimeInfo timeInfo = intersection.getTimeInfo();
+                        if (timeInfo.getMinimalTimeDelta() >= timeDeltaInMillis) {
+                            logger.info("Intersection time delta too large, skipping");
+                            continue;
+                        }
+
+                        final MatchupSet matchupSet = new MatchupSet();
+                        matchupSet.setPrimaryObservationPath(primaryObservation.getDataFilePath());
+                        matchupSet.setPrimaryProcessingVersion(primaryObservation.getVersion());
                         // todo se multisensor
                         // still only one secondary sensor case
-                        secondaryReaderMap.put(secondarySensorName_CaseOneSecondary, secondaryReader);
-
-                        for (final Intersection intersection : intersectingIntervals) {
-                            final TimeInfo timeInfo = intersection.getTimeInfo();
-                            if (timeInfo.getMinimalTimeDelta() >= timeDeltaInMillis) {
-                                logger.info("Intersection time delta too large, skipping");
-                                continue;
-                            }
+                        matchupSet.setSecondaryObservationPath(secondarySensorName_CaseOneSecondary, secondaryObservation.getDataFilePath());
+                        // todo se multisensor
+                        // still only one secondary sensor case
+                        matchupSet.setSecondaryProcessingVersion(secondarySensorName_CaseOneSecondary, secondaryObservation.getVersion());
 
-                            final MatchupSet matchupSet = new MatchupSet();
-                            matchupSet.setPrimaryObservationPath(primaryObservation.getDataFilePath());
-                            matchupSet.setPrimaryProcessingVersion(primaryObservation.getVersion());
-                            // todo se multisensor
-                            // still only one secondary sensor case
-                            matchupSet.setSecondaryObservationPath(secondarySensorName_CaseOneSecondary, secondaryObservation.getDataFilePath());
-                            // todo se multisensor
-                            // still only one secondary sensor case
-                            matchupSet.setSecondaryProcessingVersion(secondarySensorName_CaseOneSecondary, secondaryObservation.getVersion());
+                        final PixelLocator primaryPixelLocator = getPixelLocator(primaryReader, isPrimarySegmented, (Polygon) intersection.getPrimaryGeometry());
+                        final PixelLocator secondaryPixelLocator;
+                        synchronized (secondaryObservation) {
+                            secondaryPixelLocator = getPixelLocator(secondaryReader, isSecondarySegmented, (Polygon) intersection.getSecondaryGeometry());
+                        }
 
-                            final PixelLocator primaryPixelLocator = getPixelLocator(primaryReader, isPrimarySegmented, (Polygon) intersection.getPrimaryGeometry());
-                            final PixelLocator secondaryPixelLocator = getPixelLocator(secondaryReader, isSecondarySegmented, (Polygon) intersection.getSecondaryGeometry());
+                        if (primaryPixelLocator == null || secondaryPixelLocator == null) {
+                            logger.warning("Unable to create valid pixel locators. Skipping intersection segment.");
+                            continue;
+                        }
 
-                            if (primaryPixelLocator == null || secondaryPixelLocator == null) {
-                                logger.warning("Unable to create valid pixel locators. Skipping intersection segment.");
-                                continue;
-                            }
+                        logger.info("Start collecting primary pixels ... ");
+                        SampleCollector sampleCollector = new SampleCollector(context, primaryPixelLocator);
+                        final PerformanceStatistics.Timer primaryTimer = performanceStatistics.start(PerformanceStatistics.Stage.PIXEL_LOCATION, primarySensorName);
+                        sampleCollector.addPrimarySamples((Polygon) intersection.getGeometry(), matchupSet, primaryReader.getTimeLocator());
+                        primaryTimer.stop();
+                        logger.info("... done. Found " + matchupSet.getNumObservations() + " observations");
 
-                            logger.info("Start collecting primary pixels ... ");
-                            SampleCollector sampleCollector = new SampleCollector(context, primaryPixelLocator);
-                            sampleCollector.addPrimarySamples((Polygon) intersection.getGeometry(), matchupSet, primaryReader.getTimeLocator());
-                            logger.info("... done. Found " + matchupSet.getNumObservations() + " observations");
+                        logger.info("Start collecting associated pixels ... ");
+                        sampleCollector = new SampleCollector(context, secondaryPixelLocator);
+                        // todo se multisensor
+                        // still only one secondary sensor case
+                        final PerformanceStatistics.Timer secondaryTimer = performanceStatistics.start(PerformanceStatistics.Stage.PIXEL_LOCATION, secondarySensorName_CaseOneSecondary);
+                        final List<SampleSet> completeSamples = sampleCollector.addSecondarySamples(matchupSet.getSampleSets(), secondaryReader.getTimeLocator(), secondarySensorName_CaseOneSecondary);
+                        secondaryTimer.stop();
+                        matchupSet.setSampleSets(completeSamples);
+                        logger.info("... done. Found " + matchupSet.getNumObservations() + " associated observations");
 
-                            logger.info("Start collecting associated pixels ... ");
-                            sampleCollector = new SampleCollector(context, secondaryPixelLocator);
+                        if (matchupSet.getNumObservations() > 0) {
                             // todo se multisensor
                             // still only one secondary sensor case
-                            final List<SampleSet> completeSamples = sampleCollector.addSecondarySamples(matchupSet.getSampleSets(), secondaryReader.getTimeLocator(), secondarySensorName_CaseOneSecondary);
-                            matchupSet.setSampleSets(completeSamples);
-                            logger.info("... done. Found " + matchupSet.getNumObservations() + " associated observations");
-
+                            // uses the secondaryReaderMap instantiated above
+                            applyConditionsAndScreenings(matchupSet, conditionEngine, conditionEngineContext, screeningEngine, primaryReader, secondaryReaderMap, performanceStatistics);
                             if (matchupSet.getNumObservations() > 0) {
-                                // todo se multisensor
-                                // still only one secondary sensor case
-                                // uses the secondaryReaderMap instantiated above
-                                applyConditionsAndScreenings(matchupSet, conditionEngine, conditionEngineContext, screeningEngine, primaryReader, secondaryReaderMap);
-                                if (matchupSet.getNumObservations() > 0) {
-                                    matchupCollection.add(matchupSet);
-                                }
+                                matchupSets.add(matchupSet);
                             }
                         }
                     }
+                } finally {
+                    secondaryReaderCache.releaseReader(secondaryObservation.getDataFilePath(), secondaryReader);
                 }
             }
+        } finally {
+            if (primaryReader != null) {
+                primaryReader.close();
+            }
         }
 
-        return matchupCollection;
+        return matchupSets;
+    }
+
+    private static Reader openReader(SatelliteObservation observation, ReaderStatistics statistics,
+                                     PerformanceStatistics performanceStatistics) throws IOException {
+        final String sensorName = observation.getSensor().getName();
+        final PerformanceStatistics.Timer timer = performanceStatistics.start(PerformanceStatistics.Stage.READER_OPEN, sensorName);
+        final long startNanos = System.nanoTime();
+        final Reader reader = ReaderFactory.get().getReader(sensorName);
+        try {
+            reader.open(observation.getDataFilePath().toFile());
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        statistics.addOpened(System.nanoTime() - startNanos);
+        timer.stop();
+        return reader;
     }
 
+    private static Reader getReader(ReaderCache readerCache, String sensorName, SatelliteObservation observation, ReaderStatistics statistics,
+                                    PerformanceStatistics performanceStatistics) throws IOException {
+        statistics.addRequest();
+        performanceStatistics.addCacheRequest(PerformanceStatistics.Stage.READER_OPEN, sensorName);
+
+        final Path observationPath = observation.getDataFilePath();
+        if (readerCache.containsKey(observationPath)) {
+            return readerCache.acquireReaderFor(sensorName, observationPath, null);
+        }
+
+        final PerformanceStatistics.Timer timer = performanceStatistics.start(PerformanceStatistics.Stage.READER_OPEN, sensorName);
+        final long startNanos = System.nanoTime();
+        final Reader reader = readerCache.acquireReaderFor(sensorName, observationPath, null);
+        statistics.addOpened(System.nanoTime() - startNanos);
+        timer.stop();
+        return reader;
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the reader requests of a matchup strategy against the number of readers actually opened. Thread-safe.
+ */
+class ReaderStatistics {
+
+    private final String name;
+    private final AtomicInteger numRequests;
+    private final AtomicInteger numOpened;
+    private final AtomicLong openNanos;
+
+    ReaderStatistics(String name) {
+        this.name = name;
+        numRequests = new AtomicInteger();
+        numOpened = new AtomicInteger();
+        openNanos = new AtomicLong();
+    }
+
+    void addRequest() {
+        numRequests.incrementAndGet();
+    }
+
+    void addOpened(long nanos) {
+        numOpened.incrementAndGet();
+        openNanos.addAndGet(nanos);
+    }
+
+    int getNumRequests() {
+        return numRequests.get();
+    }
+
+    int getNumOpened() {
+        return numOpened.get();
+    }
+
+    // estimated from the mean opening time of the readers actually opened
+    double getSavedSeconds() {
+        final int opened = numOpened.get();
+        if (opened == 0) {
+            return 0.0;
+        }
+        final double meanOpenNanos = (double) openNanos.get() / opened;
+        return (numRequests.get() - opened) * meanOpenNanos * 1e-9;
+    }
+
+    String getSummary() {
+        return String.format(Locale.ENGLISH, "%s readers: %d opened for %d requests, opening took %.1f s, reuse saved approx. %.1f s",
+                name, numOpened.get(), numRequests.get(), openNanos.get() * 1e-9, getSavedSeconds());
+    }
+}
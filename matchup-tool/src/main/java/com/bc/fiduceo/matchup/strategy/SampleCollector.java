@@ -101,13 +101,75 @@ class SampleCollector {
             }
         }
 
-        final Point2D.Double geoPos = new Point2D.Double();
-        final GeometryFactory factory = context.getGeometryFactory();
-
         final int startY = (int) yRange.getMin();
         final int endY = (int) yRange.getMax();
         final int startX = (int) xRange.getMin();
         final int endX = (int) xRange.getMax();
+        if (endY < startY || endX < startX) {
+            return;
+        }
+
+        final ScanlineContainment scanlineContainment = ScanlineContainment.create(polygon);
+        if (scanlineContainment == null) {
+            addPrimarySamplesPerPixel(polygon, matchupSet, timeLocator, startX, endX, startY, endY);
+        } else {
+            addPrimarySamplesPerRow(polygon, matchupSet, timeLocator, scanlineContainment, startX, endX, startY, endY);
+        }
+    }
+
+    private void addPrimarySamplesPerRow(Polygon polygon, MatchupSet matchupSet, TimeLocator timeLocator, ScanlineContainment scanlineContainment,
+                                         int startX, int endX, int startY, int endY) {
+        final Point2D.Double geoPos = new Point2D.Double();
+        final GeometryFactory factory = context.getGeometryFactory();
+
+        final int width = endX - startX + 1;
+        final double[] lons = new double[width];
+        final double[] lats = new double[width];
+        final boolean[] valid = new boolean[width];
+        final boolean[] linked = new boolean[width];
+        final boolean[] inside = new boolean[width];
+
+        for (int y = startY; y <= endY; y++) {
+            for (int i = 0; i < width; i++) {
+                final Point2D geoLocation = pixelLocator.getGeoLocation(startX + i + .5, y + .5, geoPos);
+                valid[i] = geoLocation != null;
+                if (valid[i]) {
+                    lons[i] = geoLocation.getX();
+                    lats[i] = geoLocation.getY();
+                }
+            }
+
+            // run the exact polygon test only where the containment may change along the row
+            scanlineContainment.linkRow(lons, lats, valid, width, linked);
+
+            for (int i = 0; i < width; i++) {
+                if (!valid[i]) {
+                    continue;
+                }
+
+                if (linked[i]) {
+                    inside[i] = inside[i - 1];
+                } else {
+                    inside[i] = polygon.contains(factory.createPoint(lons[i], lats[i]));
+                }
+
+                if (inside[i]) {
+                    final int x = startX + i;
+                    final long time = timeLocator.getTimeFor(x, y);
+                    if (time >= 0) {
+                        final Sample sample = new Sample(x, y, lons[i], lats[i], time);
+                        matchupSet.addPrimary(sample);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addPrimarySamplesPerPixel(Polygon polygon, MatchupSet matchupSet, TimeLocator timeLocator,
+                                           int startX, int endX, int startY, int endY) {
+        final Point2D.Double geoPos = new Point2D.Double();
+        final GeometryFactory factory = context.getGeometryFactory();
+
         for (int y = startY; y <= endY; y++) {
             for (int x = startX; x <= endX; x++) {
                 final Point2D geoLocation = pixelLocator.getGeoLocation(x + .5, y + .5, geoPos);
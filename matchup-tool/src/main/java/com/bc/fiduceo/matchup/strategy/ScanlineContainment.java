@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.geometry.Polygon;
+import com.google.common.geometry.S2Loop;
+import com.google.common.geometry.S2Point;
+import com.google.common.geometry.S2Polygon;
+
+/**
+ * Scanline support for the point-in-polygon test of a pixel row. The containment of a point can only differ from the
+ * containment of its neighbour in the row if the short arc between both touches an edge of the polygon. This class
+ * finds the pixels whose arc to the left neighbour provably stays clear of all edges, so that the caller needs to run
+ * the exact (and expensive) polygon test only at the start of a row and next to polygon edges.
+ */
+class ScanlineContainment {
+
+    // safety margin in units of the unit sphere, approx. 6 mm on the earth surface - far above the numerical noise
+    private static final double EPS = 1e-9;
+    // arcs are never linked close to the antipode of S2.origin(), the reference point of the S2 containment test
+    private static final double ORIGIN_ANTIPODE_GUARD_COS = Math.cos(0.01);
+    private static final int BLOCK_SIZE = 512;
+    private static final int CHUNK_SIZE = 32;
+
+    private final int numEdges;
+    // per edge: start and end vertex, normalized normal of the great circle and the two planes bounding the segment
+    private final double[] edges;
+
+    private double[] px;
+    private double[] py;
+    private double[] pz;
+    private boolean[] usable;
+    private int[] rowEdges;
+    private int[] blockEdges;
+    private int[] chunkEdges;
+
+    private ScanlineContainment(double[] edges, int numEdges) {
+        this.edges = edges;
+        this.numEdges = numEdges;
+        px = new double[0];
+        py = new double[0];
+        pz = new double[0];
+        usable = new boolean[0];
+        rowEdges = new int[numEdges];
+        blockEdges = new int[numEdges];
+        chunkEdges = new int[numEdges];
+    }
+
+    /**
+     * Creates the scanline support for the polygon passed in.
+     *
+     * @param polygon the polygon
+     * @return the scanline support or null if the polygon type is not supported
+     */
+    static ScanlineContainment create(Polygon polygon) {
+        final Object inner = polygon.getInner();
+        if (!(inner instanceof S2Polygon)) {
+            return null;
+        }
+
+        final S2Polygon s2Polygon = (S2Polygon) inner;
+        int numEdges = 0;
+        for (int i = 0; i < s2Polygon.numLoops(); i++) {
+            numEdges += s2Polygon.loop(i).numVertices();
+        }
+
+        final double[] edges = new double[numEdges * 15];
+        int edgeIndex = 0;
+        for (int i = 0; i < s2Polygon.numLoops(); i++) {
+            final S2Loop loop = s2Polygon.loop(i);
+            final int numVertices = loop.numVertices();
+            for (int k = 0; k < numVertices; k++) {
+                setEdge(edges, edgeIndex++, loop.vertex(k), loop.vertex((k + 1) % numVertices));
+            }
+        }
+        return new ScanlineContainment(edges, numEdges);
+    }
+
+    /**
+     * Marks the pixels of a row that are guaranteed to have the same polygon containment as their left neighbour.
+     *
+     * @param lons   the pixel longitudes
+     * @param lats   the pixel latitudes
+     * @param valid  whether a pixel has a geo-location at all
+     * @param length the number of pixels in the row
+     * @param linked the result, linked[i] is true if pixel i is contained exactly when pixel i - 1 is
+     */
+    void linkRow(double[] lons, double[] lats, boolean[] valid, int length, boolean[] linked) {
+        ensureCapacity(length);
+
+        for (int i = 0; i < length; i++) {
+            usable[i] = valid[i] && toPoint(lons[i], lats[i], i);
+            linked[i] = false;
+        }
+
+        final int numRowEdges = collectEdges(0, length, null, numEdges, rowEdges);
+
+        // narrow down the edges in two steps, the arcs (i - 1, i) with blockStart <= i < blockEnd form a block
+        for (int blockStart = 1; blockStart < length; blockStart += BLOCK_SIZE) {
+            final int blockEnd = Math.min(blockStart + BLOCK_SIZE, length);
+            final int numBlockEdges = collectEdges(blockStart - 1, blockEnd, rowEdges, numRowEdges, blockEdges);
+
+            for (int chunkStart = blockStart; chunkStart < blockEnd; chunkStart += CHUNK_SIZE) {
+                final int chunkEnd = Math.min(chunkStart + CHUNK_SIZE, blockEnd);
+                final int numChunkEdges = collectEdges(chunkStart - 1, chunkEnd, blockEdges, numBlockEdges, chunkEdges);
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    if (usable[i - 1] && usable[i]) {
+                        linked[i] = isArcClear(i - 1, i, numChunkEdges);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isArcClear(int p, int q, int numCandidateEdges) {
+        final double pX = px[p], pY = py[p], pZ = pz[p];
+        final double qX = px[q], qY = py[q], qZ = pz[q];
+        if (pX == qX && pY == qY && pZ == qZ) {
+            // the same location has the same containment
+            return true;
+        }
+
+        double mX = pY * qZ - pZ * qY;
+        double mY = pZ * qX - pX * qZ;
+        double mZ = pX * qY - pY * qX;
+        final double mLength = Math.sqrt(mX * mX + mY * mY + mZ * mZ);
+        final boolean hasArcCircle = mLength > 1e-12;
+        if (hasArcCircle) {
+            mX /= mLength;
+            mY /= mLength;
+            mZ /= mLength;
+        }
+
+        for (int k = 0; k < numCandidateEdges; k++) {
+            final int offset = chunkEdges[k] * 15;
+
+            // both points strictly on the same side of the great circle through the edge
+            final double nX = edges[offset + 6], nY = edges[offset + 7], nZ = edges[offset + 8];
+            final double sp = nX * pX + nY * pY + nZ * pZ;
+            final double sq = nX * qX + nY * qY + nZ * qZ;
+            if ((sp > EPS && sq > EPS) || (sp < -EPS && sq < -EPS)) {
+                continue;
+            }
+
+            // both edge vertices strictly on the same side of the great circle through the arc
+            if (hasArcCircle) {
+                final double sa = mX * edges[offset] + mY * edges[offset + 1] + mZ * edges[offset + 2];
+                final double sb = mX * edges[offset + 3] + mY * edges[offset + 4] + mZ * edges[offset + 5];
+                if ((sa > EPS && sb > EPS) || (sa < -EPS && sb < -EPS)) {
+                    continue;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    // collects the edges out of the candidates that come close to the points [start, end)
+    private int collectEdges(int start, int end, int[] candidates, int numCandidates, int[] target) {
+        double cX = 0.0, cY = 0.0, cZ = 0.0;
+        for (int i = start; i < end; i++) {
+            if (usable[i]) {
+                cX += px[i];
+                cY += py[i];
+                cZ += pz[i];
+            }
+        }
+        final double cLength = Math.sqrt(cX * cX + cY * cY + cZ * cZ);
+        if (cLength < 1e-6) {
+            // no or widely spread points, keep all candidates
+            for (int k = 0; k < numCandidates; k++) {
+                target[k] = candidates == null ? k : candidates[k];
+            }
+            return numCandidates;
+        }
+        cX /= cLength;
+        cY /= cLength;
+        cZ /= cLength;
+
+        double minCos = 1.0;
+        for (int i = start; i < end; i++) {
+            if (usable[i]) {
+                minCos = Math.min(minCos, cX * px[i] + cY * py[i] + cZ * pz[i]);
+            }
+        }
+        final double radius = Math.acos(Math.max(-1.0, Math.min(1.0, minCos))) + 1e-6;
+        if (radius >= Math.PI / 2) {
+            for (int k = 0; k < numCandidates; k++) {
+                target[k] = candidates == null ? k : candidates[k];
+            }
+            return numCandidates;
+        }
+        final double cosRadius = Math.cos(radius);
+        final double sinRadius = Math.sin(radius);
+
+        int numTarget = 0;
+        for (int k = 0; k < numCandidates; k++) {
+            final int edge = candidates == null ? k : candidates[k];
+            if (isEdgeNear(edge, cX, cY, cZ, cosRadius, sinRadius)) {
+                target[numTarget++] = edge;
+            }
+        }
+        return numTarget;
+    }
+
+    private boolean isEdgeNear(int edge, double cX, double cY, double cZ, double cosRadius, double sinRadius) {
+        final int offset = edge * 15;
+        final double ta = edges[offset + 9] * cX + edges[offset + 10] * cY + edges[offset + 11] * cZ;
+        final double tb = edges[offset + 12] * cX + edges[offset + 13] * cY + edges[offset + 14] * cZ;
+        if (ta >= 0.0 && tb >= 0.0) {
+            // the closest point of the great circle lies on the segment
+            final double sc = edges[offset + 6] * cX + edges[offset + 7] * cY + edges[offset + 8] * cZ;
+            return Math.abs(sc) <= sinRadius;
+        }
+
+        final double ca = edges[offset] * cX + edges[offset + 1] * cY + edges[offset + 2] * cZ;
+        final double cb = edges[offset + 3] * cX + edges[offset + 4] * cY + edges[offset + 5] * cZ;
+        return ca >= cosRadius || cb >= cosRadius;
+    }
+
+    // same computation as S2LatLng.fromDegrees(lat, lon).toPoint(), returns false if the point must not be linked
+    private boolean toPoint(double lon, double lat, int i) {
+        if (Double.isNaN(lon) || Double.isNaN(lat)) {
+            return false;
+        }
+
+        final double phi = lat * (Math.PI / 180);
+        final double theta = lon * (Math.PI / 180);
+        final double cosPhi = Math.cos(phi);
+        px[i] = Math.cos(theta) * cosPhi;
+        py[i] = Math.sin(theta) * cosPhi;
+        pz[i] = Math.sin(phi);
+
+        return -py[i] < ORIGIN_ANTIPODE_GUARD_COS;
+    }
+
+    private void ensureCapacity(int length) {
+        if (px.length < length) {
+            px = new double[length];
+            py = new double[length];
+            pz = new double[length];
+            usable = new boolean[length];
+        }
+    }
+
+    private static void setEdge(double[] edges, int edgeIndex, S2Point a, S2Point b) {
+        final int offset = edgeIndex * 15;
+        final S2Point normal = S2Point.normalize(S2Point.crossProd(a, b));
+        final S2Point planeA = S2Point.crossProd(normal, a);
+        final S2Point planeB = S2Point.crossProd(b, normal);
+        set(edges, offset, a);
+        set(edges, offset + 3, b);
+        set(edges, offset + 6, normal);
+        set(edges, offset + 9, planeA);
+        set(edges, offset + 12, planeB);
+    }
+
+    private static void set(double[] edges, int offset, S2Point point) {
+        edges[offset] = point.getX();
+        edges[offset + 1] = point.getY();
+        edges[offset + 2] = point.getZ();
+    }
+}
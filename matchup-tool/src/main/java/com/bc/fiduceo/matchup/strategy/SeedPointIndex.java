@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.core.SamplingPoint;
+import com.bc.fiduceo.geometry.Geometry;
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.geometry.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * In-memory index on the seed points of a matchup run. The points are sorted by time so that the points of an
+ * observation time window are located by binary search, only these are tested against the observation geometries.
+ * Query results are always returned in the order of the list used to create the index.
+ * <p>
+ * Sorting the points costs about as much as the time checks of some tens of linear scans over the points, the index
+ * only pays off for runs with many primary observations, see {@link #isWorthwhile(int)}.
+ */
+class SeedPointIndex {
+
+    // measured with synthetic polar swaths, 14 orbits per day: the linear scans are faster for one day (14 primary
+    // observations), the index for ten days (140)
+    static final int MIN_NUM_QUERIES = 32;
+
+    private final List<SamplingPoint> seedPoints;
+    private final long[] sortedTimes;
+    private final double[] sortedLons;
+    private final double[] sortedLats;
+    private final int[] listIndices;
+
+    SeedPointIndex(List<SamplingPoint> seedPoints) {
+        this.seedPoints = seedPoints;
+
+        final int numPoints = seedPoints.size();
+        listIndices = sortByTime(seedPoints);
+
+        // coordinates are copied in time order so that the query loop reads sequential memory
+        sortedTimes = new long[numPoints];
+        sortedLons = new double[numPoints];
+        sortedLats = new double[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            final SamplingPoint seedPoint = seedPoints.get(listIndices[i]);
+            sortedTimes[i] = seedPoint.getTime();
+            sortedLons[i] = seedPoint.getLon();
+            sortedLats[i] = seedPoint.getLat();
+        }
+    }
+
+    /**
+     * Decides whether an index pays off compared to a linear scan over all seed points per query.
+     *
+     * @param numQueries the number of queries, i.e. primary observations
+     * @return true if an index is to be created
+     */
+    static boolean isWorthwhile(int numQueries) {
+        return numQueries >= MIN_NUM_QUERIES;
+    }
+
+    int size() {
+        return seedPoints.size();
+    }
+
+    List<SamplingPoint> get(Date startTime, Date stopTime, Geometry[] geometries, GeometryFactory geometryFactory) {
+        final int lower = firstIndexNotBefore(startTime.getTime());
+        final int upper = firstIndexAfter(stopTime.getTime());
+        if (lower >= upper) {
+            return new ArrayList<>();
+        }
+
+        final int[] hits = new int[upper - lower];
+        int numHits = 0;
+        for (int i = lower; i < upper; i++) {
+            final Point point = geometryFactory.createPoint(sortedLons[i], sortedLats[i]);
+            for (final Geometry geometry : geometries) {
+                final Geometry intersection = geometry.getIntersection(point);
+                if (intersection != null && intersection.isValid()) {
+                    hits[numHits++] = listIndices[i];
+                    break;
+                }
+            }
+        }
+
+        Arrays.sort(hits, 0, numHits);
+        final List<SamplingPoint> result = new ArrayList<>(numHits);
+        for (int i = 0; i < numHits; i++) {
+            result.add(seedPoints.get(hits[i]));
+        }
+        return result;
+    }
+
+    private int firstIndexNotBefore(long time) {
+        int low = 0;
+        int high = sortedTimes.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sortedTimes[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstIndexAfter(long time) {
+        int low = 0;
+        int high = sortedTimes.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sortedTimes[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // package access for testing only
+    // sorts the list indices by time, points with equal times keep their list order
+    static int[] sortByTime(List<SamplingPoint> seedPoints) {
+        final int numPoints = seedPoints.size();
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (final SamplingPoint seedPoint : seedPoints) {
+            minTime = Math.min(minTime, seedPoint.getTime());
+            maxTime = Math.max(maxTime, seedPoint.getTime());
+        }
+
+        final int[] indices = new int[numPoints];
+        if (numPoints == 0) {
+            return indices;
+        }
+
+        final long timeRange = maxTime - minTime;
+        if (timeRange >= 0 && timeRange < Long.MAX_VALUE / numPoints) {
+            // pack time offset and list index into a single primitive key - avoids boxing for several millions of points
+            final long[] keys = new long[numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                keys[i] = (seedPoints.get(i).getTime() - minTime) * numPoints + i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < numPoints; i++) {
+                indices[i] = (int) (keys[i] % numPoints);
+            }
+            return indices;
+        }
+
+        final Integer[] boxedIndices = new Integer[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            boxedIndices[i] = i;
+        }
+        Arrays.sort(boxedIndices, Comparator.comparingLong(i -> seedPoints.get(i).getTime()));
+        for (int i = 0; i < numPoints; i++) {
+            indices[i] = boxedIndices[i];
+        }
+        return indices;
+    }
+}
@@ -32,6 +32,7 @@ import com.bc.fiduceo.math.TimeInfo;
 import com.bc.fiduceo.reader.Reader;
 import com.bc.fiduceo.reader.ReaderFactory;
 import com.bc.fiduceo.reader.time.TimeLocator;
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import com.bc.fiduceo.tool.ToolContext;
 import com.bc.fiduceo.util.SobolSamplingPointGenerator;
 import com.bc.fiduceo.util.TimeUtils;
@@ -66,9 +67,14 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
     }
 
     @Override
-    public MatchupCollection createMatchupCollection(ToolContext context) throws SQLException, InvalidRangeException {
+    public MatchupCollection createMatchupCollection(ToolContext context) throws SQLException, IOException, InvalidRangeException {
         final MatchupCollection matchupCollection = new MatchupCollection();
+        createMatchups(context, matchupCollection);
+        return matchupCollection;
+    }
 
+    @Override
+    public void createMatchups(ToolContext context, MatchupCollection matchupCollection) throws SQLException, IOException, InvalidRangeException {
         final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
 
         final ConditionEngine conditionEngine = new ConditionEngine();
@@ -82,27 +88,50 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
 
         final long timeDeltaInMillis = conditionEngine.getMaxTimeDeltaInMillis();
         final int timeDeltaSeconds = (int) (timeDeltaInMillis / 1000);
+        final PerformanceStatistics performanceStatistics = context.getPerformanceStatistics();
 
         final List<SamplingPoint> seedPoints = createRandomPoints(context, useCaseConfig);
 
         final List<SatelliteObservation> primaryObservations = getPrimaryObservations(context);
+        SeedPointIndex seedPointIndex = null;
+        if (SeedPointIndex.isWorthwhile(primaryObservations.size())) {
+            seedPointIndex = new SeedPointIndex(seedPoints);
+        }
         for (final SatelliteObservation primaryObservation : primaryObservations) {
+            final List<MatchupSet> restoredSets = restoreFromCheckpoint(primaryObservation);
+            if (restoredSets != null) {
+                addAll(restoredSets, matchupCollection);
+                continue;
+            }
+
             final Date primaryStartTime = primaryObservation.getStartTime();
             final Date primaryStopTime = primaryObservation.getStopTime();
 
             final Geometry[] primaryGeometries = extractGeometries(primaryObservation);
 
-            final List<SamplingPoint> primarySeedPoints = getPrimarySeedPoints(geometryFactory, seedPoints, primaryStartTime, primaryStopTime, primaryGeometries);
+            final List<SamplingPoint> primarySeedPoints;
+            if (seedPointIndex != null) {
+                primarySeedPoints = seedPointIndex.get(primaryStartTime, primaryStopTime, primaryGeometries, geometryFactory);
+            } else {
+                primarySeedPoints = getPrimarySeedPoints(geometryFactory, seedPoints, primaryStartTime, primaryStopTime, primaryGeometries);
+            }
+            final List<MatchupSet> primaryMatchupSets = new ArrayList<>();
             if (primarySeedPoints.size() == 0) {
+                // stored as completed without matchups, a resumed run does not search this primary again
+                storeToCheckpoint(primaryObservation, primaryMatchupSets);
                 continue;
             }
 
+            boolean completed = false;
             try (final Reader primaryReader = readerFactory.getReader(primaryObservation.getSensor().getName())) {
                 final Path primaryObservationDataFilePath = primaryObservation.getDataFilePath();
                 primaryReader.open(primaryObservationDataFilePath.toFile());
 
+                final PerformanceStatistics.Timer primaryTimer = performanceStatistics.start(PerformanceStatistics.Stage.PIXEL_LOCATION, primaryObservation.getSensor().getName());
                 MatchupSet primaryMatchups = getPrimaryMatchupSet(primaryReader, primarySeedPoints, primaryObservationDataFilePath);
+                primaryTimer.stop();
                 if (primaryMatchups == null) {
+                    storeToCheckpoint(primaryObservation, primaryMatchupSets);
                     continue;
                 }
 
@@ -123,7 +152,9 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
                 final List<SatelliteObservation> secondaryObservations = mapSecondaryObservations.get(secondarySensorName_CaseOneSecondary);
                 boolean mustClone = false;
                 for (final SatelliteObservation secondaryObservation : secondaryObservations) {
+                    final PerformanceStatistics.Timer intersectionTimer = performanceStatistics.start(PerformanceStatistics.Stage.INTERSECTION, secondarySensorName_CaseOneSecondary);
                     final Intersection[] intersectingIntervals = IntersectionEngine.getIntersectingIntervals(primaryObservation, secondaryObservation);
+                    intersectionTimer.stop();
                     if (intersectingIntervals.length == 0) {
                         continue;
                     }
@@ -164,7 +195,9 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
                                 SampleCollector sampleCollector = new SampleCollector(context, secondaryPixelLocator);
                                 // todo se multisensor
                                 // still only one secondary sensor case
+                                final PerformanceStatistics.Timer secondaryTimer = performanceStatistics.start(PerformanceStatistics.Stage.PIXEL_LOCATION, secondarySensorName_CaseOneSecondary);
                                 final List<SampleSet> completeSamples = sampleCollector.addSecondarySamples(primaryMatchups.getSampleSets(), secondaryReader.getTimeLocator(), secondarySensorName_CaseOneSecondary);
+                                secondaryTimer.stop();
                                 matchupSet.setSampleSets(completeSamples);
 
                                 if (matchupSet.getNumObservations() > 0) {
@@ -175,9 +208,9 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
                                     // todo se multisensor
                                     // still only one secondary sensor case
                                     // uses the secondaryReaderMap instantiated above
-                                    applyConditionsAndScreenings(matchupSet, conditionEngine, conditionEngineContext, screeningEngine, primaryReader, secondaryReaderMap);
+                                    applyConditionsAndScreenings(matchupSet, conditionEngine, conditionEngineContext, screeningEngine, primaryReader, secondaryReaderMap, performanceStatistics);
                                     if (matchupSet.getNumObservations() > 0) {
-                                        matchupCollection.add(matchupSet);
+                                        primaryMatchupSets.add(matchupSet);
                                     }
                                 }
                             }
@@ -188,13 +221,23 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
                         logger.warning(e.getMessage());
                     }
                 }
+                completed = true;
             } catch (IOException e) {
                 logger.warning("Primary sensorfile read error: " + primaryObservation.getDataFilePath());
                 logger.warning(e.getMessage());
             }
+            // a primary observation that failed to read is not marked as completed, a resumed run retries it
+            if (completed) {
+                storeToCheckpoint(primaryObservation, primaryMatchupSets);
+            }
+            addAll(primaryMatchupSets, matchupCollection);
         }
+    }
 
-        return matchupCollection;
+    private static void addAll(List<MatchupSet> matchupSets, MatchupCollection matchupCollection) {
+        for (final MatchupSet matchupSet : matchupSets) {
+            matchupCollection.add(matchupSet);
+        }
     }
 
     private Geometry[] extractGeometries(SatelliteObservation primaryObservation) {
@@ -202,7 +245,7 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
         return GeometryUtil.getSubGeometries(primaryGeoBounds);
     }
 
-    private List<SamplingPoint> createRandomPoints(ToolContext context, UseCaseConfig useCaseConfig) {
+    private List<SamplingPoint> createRandomPoints(ToolContext context, UseCaseConfig useCaseConfig) throws IOException {
         final int randomPointsPerDay = useCaseConfig.getRandomPointsPerDay();
         if (randomPointsPerDay < 1) {
             throw new RuntimeException("Number of random seed points greater than zero expected.");
@@ -219,7 +262,12 @@ public class SeedPointMatchupStrategy extends AbstractMatchupStrategy {
         final long contextEnd = endDate.getTime();
         int seed = 0;
         if (!useCaseConfig.isTestRun()) {
-            seed = SobolSamplingPointGenerator.createRandomSkip();
+            // a resumed run must draw the seed points of the interrupted one, the checkpointed results refer to these
+            if (checkpoint != null) {
+                seed = checkpoint.getRandomSkip(SobolSamplingPointGenerator::createRandomSkip);
+            } else {
+                seed = SobolSamplingPointGenerator.createRandomSkip();
+            }
         }
         return sobolSamplingPointGenerator.createSamples(randomPoints, seed, contextStart, contextEnd);
     }
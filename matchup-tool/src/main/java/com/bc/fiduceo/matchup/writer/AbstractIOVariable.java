@@ -26,7 +26,7 @@ import ucar.nc2.Dimension;
 import java.util.ArrayList;
 import java.util.List;
 
-public abstract class AbstractIOVariable implements IOVariable {
+public abstract class AbstractIOVariable implements IOVariable, Cloneable {
 
     String sourceVariableName;
     protected String targetVariableName;
@@ -100,4 +100,15 @@ public abstract class AbstractIOVariable implements IOVariable {
     public Dimension getCustomDimension() {
         return null;
     }
+
+    @Override
+    public IOVariable copy(ReaderContainer readerContainer) {
+        try {
+            final AbstractIOVariable copy = (AbstractIOVariable) clone();
+            copy.target = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
 }
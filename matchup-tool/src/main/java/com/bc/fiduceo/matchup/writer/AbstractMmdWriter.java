@@ -27,17 +27,17 @@ import com.bc.fiduceo.core.Dimension;
 import com.bc.fiduceo.log.FiduceoLogger;
 import com.bc.fiduceo.matchup.MatchupCollection;
 import com.bc.fiduceo.matchup.MatchupSet;
-import com.bc.fiduceo.matchup.SampleSet;
+import com.bc.fiduceo.matchup.SampleColumns;
 import com.bc.fiduceo.reader.Reader;
 import com.bc.fiduceo.reader.ReaderCache;
 import com.bc.fiduceo.reader.ReaderFactory;
+import com.bc.fiduceo.tool.PerformanceStatistics;
 import com.bc.fiduceo.tool.ToolContext;
 import com.bc.fiduceo.util.NetCDFUtils;
 import com.bc.fiduceo.util.TimeUtils;
 import org.esa.snap.core.util.StopWatch;
 import ucar.ma2.Array;
 import ucar.ma2.DataType;
-import ucar.ma2.Index;
 import ucar.ma2.InvalidRangeException;
 import ucar.nc2.*;
 
@@ -47,24 +47,56 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 abstract class AbstractMmdWriter implements MmdWriter, Target {
 
+    // dimension size indicating an unlimited matchup_count dimension, used when streaming matchups
+    static final int UNLIMITED_MATCHUP_COUNT = -1;
+
     private final Logger logger;
     private final Map<String, Array> dataCacheMap;
+    // buffers of the block written last, reused for the block after the one in progress
+    private final Map<String, Array> spareCacheMap;
     private final Map<String, Variable> variableMap;
     private final MmdWriterConfig writerConfig;
 
     NetcdfFileWriter netcdfFileWriter;
     private int flushCount = 0;
 
+    // state of the mmd-file in progress, set up in initialize()
+    private Path mmdFile;
+    private ReaderCache readerCache;
+    private IOVariablesList ioVariablesList;
+    private String primarySensorName;
+    private Interval primaryInterval;
+    private String[] secSensorNames;
+    private Interval[] secIntervals;
+    private boolean unlimitedMatchupCount;
+    private int zIndex;
+    private PerformanceStatistics performanceStatistics = PerformanceStatistics.DISABLED;
+    // extraction of the calling thread, using the variables passed in and the shared readers of the reader cache
+    private final Extraction extraction;
+    // extraction threads with variables and readers of their own, when more than one is configured
+    private List<Extraction> workerExtractions;
+    private ExecutorService extractionExecutor;
+    // the filled cache blocks are written to disk by a background thread while the next block is extracted
+    private ExecutorService flushExecutor;
+    private Future<?> pendingFlush;
+
     AbstractMmdWriter(MmdWriterConfig writerConfig) {
         this.writerConfig = writerConfig;
         logger = FiduceoLogger.getLogger();
 
         dataCacheMap = new HashMap<>();
+        spareCacheMap = new HashMap<>();
         variableMap = new HashMap<>();
+        extraction = new Extraction(false);
     }
 
     /**
@@ -83,86 +115,21 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
             return;
         }
 
-        final List<IOVariable> ioVariables = ioVariablesList.get();
-        for (IOVariable variable : ioVariables) {
-            variable.setTarget(this);
-        }
-
-        final ReaderFactory readerFactory = context.getReaderFactory();
-        final ReaderCache readerCache = new ReaderCache(writerConfig.getReaderCacheSize(), readerFactory, context.getArchive());
-
         try {
-            logger.info("Start writing mmd-file ...");
-
-            final Path mmdFile = createMmdFile(context, writerConfig);
-            final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
-
-            initializeNetcdfFile(mmdFile, useCaseConfig, ioVariablesList.get(), matchupCollection.getNumMatchups());
-            logger.info("Initialized target file");
-
-            final Sensor primarySensor = useCaseConfig.getPrimarySensor();
-            final String primarySensorName = primarySensor.getName();
-            final List<IOVariable> primaryVariables = ioVariablesList.getVariablesFor(primarySensorName);
-            final Dimension primaryDimension = useCaseConfig.getDimensionFor(primarySensorName);
-            final Interval primaryInterval = new Interval(primaryDimension.getNx(), primaryDimension.getNy());
-
-            final List<Sensor> secondarySensors = useCaseConfig.getSecondarySensors();
-            final int secSize = secondarySensors.size();
-            final String[] secSensorNames = new String[secSize];
-            final List<List<IOVariable>> secVariablesList = new ArrayList<>();
-            final Interval[] secIntervals = new Interval[secSize];
-            for (int i = 0; i < secondarySensors.size(); i++) {
-                final Sensor secondarySensor = secondarySensors.get(i);
-                final String secondarySensorName = secondarySensor.getName();
-                secSensorNames[i] = secondarySensorName;
-                secVariablesList.add(ioVariablesList.getVariablesFor(secondarySensorName));
-                final Dimension secondaryDimension = useCaseConfig.getDimensionFor(secondarySensorName);
-                secIntervals[i] = new Interval(secondaryDimension.getNx(), secondaryDimension.getNy());
-            }
-
-            final List<SampleSetIOVariable> sampleSetVariables = ioVariablesList.getSampleSetIOVariables();
-            logger.info("Collected IO Variables");
+            initialize(context, ioVariablesList, matchupCollection.getNumMatchups());
 
             final StopWatch stopWatch = new StopWatch();
             stopWatch.start();
 
-            final List<MatchupSet> sets = matchupCollection.getSets();
-            int zIndex = 0;
             final int cacheSize = writerConfig.getCacheSize();
-            for (MatchupSet set : sets) {
-                int numObservations = set.getNumObservations();
-                if (numObservations == 0) {
-                    continue;
+            final List<List<WritePlan.Fragment>> plan = WritePlan.create(matchupCollection.getSets(), secSensorNames, cacheSize);
+            for (final List<WritePlan.Fragment> block : plan) {
+                extract(block);
+                for (final WritePlan.Fragment fragment : block) {
+                    zIndex = Math.max(zIndex, fragment.zIndex + fragment.numSamples);
                 }
-
-                final Path primaryObservationPath = set.getPrimaryObservationPath();
-                final String primaryVersion = set.getPrimaryProcessingVersion();
-                final Reader primaryReader = readerCache.getReaderFor(primarySensorName, primaryObservationPath, primaryVersion);
-                ioVariablesList.setReaderAndPath(primarySensorName, primaryReader, primaryObservationPath, primaryVersion);
-
-                logger.info("writing samples for " + primaryObservationPath.getFileName());
-                for (String secSensorName : secSensorNames) {
-                    final Path secondaryObservationPath = set.getSecondaryObservationPath(secSensorName);
-                    final String secondaryVersion = set.getSecondaryProcessingVersion(secSensorName);
-                    final Reader secondaryReader = readerCache.getReaderFor(secSensorName, secondaryObservationPath, secondaryVersion);
-                    ioVariablesList.setReaderAndPath(secSensorName, secondaryReader, secondaryObservationPath, secondaryVersion);
-                    logger.info("... and " + secondaryObservationPath.getFileName());
-                }
-                logger.info("Num matchups: " + numObservations);
-
-                final List<SampleSet> sampleSets = set.getSampleSets();
-                for (SampleSet sampleSet : sampleSets) {
-                    writeMmdValues(sampleSet.getPrimary(), zIndex, primaryVariables, primaryInterval);
-                    for (int i = 0; i < secSensorNames.length; i++) {
-                        String secSensorName = secSensorNames[i];
-                        final List<IOVariable> secIOVariables = secVariablesList.get(i);
-                        writeMmdValues(sampleSet.getSecondary(secSensorName), zIndex, secIOVariables, secIntervals[i]);
-                    }
-                    writeSampleSetVariables(sampleSet, sampleSetVariables, zIndex);
-                    zIndex++;
-                    if (zIndex % cacheSize == 0) {
-                        flush();
-                    }
+                if (zIndex % cacheSize == 0) {
+                    flush();
                 }
             }
 
@@ -175,38 +142,230 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
             logger.severe(e.getMessage());
             throw e;
         } finally {
-            readerCache.close();
             close();
         }
     }
 
+    /**
+     * Creates the MMD file with an unlimited matchup_count dimension. The matchup sets are then appended
+     * using write(MatchupSet) in arbitrary number.
+     *
+     * @param context         the ToolContext
+     * @param ioVariablesList the variables which has to be part of the mmd file
+     * @throws IOException on disk access errors
+     */
+    @Override
+    public void initialize(ToolContext context, IOVariablesList ioVariablesList) throws IOException {
+        initialize(context, ioVariablesList, UNLIMITED_MATCHUP_COUNT);
+    }
+
+    @Override
+    public void write(MatchupSet set) throws IOException, InvalidRangeException {
+        final int numObservations = set.getNumObservations();
+        final int cacheSize = writerConfig.getCacheSize();
+        int sampleIndex = 0;
+        while (sampleIndex < numObservations) {
+            // the matchups are written in chunks ending at the next flush, the windows of a chunk are read with one call per variable
+            final int chunkSize = Math.min(numObservations - sampleIndex, cacheSize - zIndex % cacheSize);
+            extract(Collections.singletonList(new WritePlan.Fragment(set, sampleIndex, chunkSize, zIndex)));
+            sampleIndex += chunkSize;
+            zIndex += chunkSize;
+            if (zIndex % cacheSize == 0) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Extracts the fragments of the current cache block. With several extraction threads, the fragments are split
+     * into pieces of similar size, which the threads take one after the other. The pieces fill disjoint rows of the
+     * block, so the result is the same as extracting the fragments in sequence.
+     */
+    private void extract(List<WritePlan.Fragment> fragments) throws IOException, InvalidRangeException {
+        if (workerExtractions == null) {
+            for (final WritePlan.Fragment fragment : fragments) {
+                extraction.write(fragment.set, fragment.sampleIndex, fragment.numSamples, fragment.zIndex);
+            }
+            return;
+        }
+
+        int numRows = 0;
+        for (final WritePlan.Fragment fragment : fragments) {
+            // the threads read the sample columns of a set concurrently, these must not be created on access
+            fragment.set.compact();
+            numRows += fragment.numSamples;
+        }
+        final int numWorkers = workerExtractions.size();
+        final int pieceSize = Math.max(1, (numRows + numWorkers - 1) / numWorkers);
+        final Queue<WritePlan.Fragment> pieces = new ConcurrentLinkedQueue<>();
+        for (final WritePlan.Fragment fragment : fragments) {
+            for (int offset = 0; offset < fragment.numSamples; offset += pieceSize) {
+                final int numSamples = Math.min(pieceSize, fragment.numSamples - offset);
+                pieces.add(new WritePlan.Fragment(fragment.set, fragment.sampleIndex + offset, numSamples, fragment.zIndex + offset));
+            }
+        }
+
+        // the buffers are created up front, the extraction threads only fill them
+        for (final IOVariable ioVariable : ioVariablesList.get()) {
+            getTarget(ioVariable.getTargetVariableName());
+        }
+
+        final List<Future<?>> extractions = new ArrayList<>();
+        for (final Extraction workerExtraction : workerExtractions) {
+            extractions.add(extractionExecutor.submit(() -> {
+                try {
+                    WritePlan.Fragment piece;
+                    while ((piece = pieces.poll()) != null) {
+                        workerExtraction.write(piece.set, piece.sampleIndex, piece.numSamples, piece.zIndex);
+                    }
+                } catch (Exception e) {
+                    // the other threads stop after their current piece
+                    pieces.clear();
+                    throw e;
+                }
+                return null;
+            }));
+        }
+        for (final Future<?> future : extractions) {
+            await(future, "extracting the matchups");
+        }
+    }
+
+    @Override
+    public int getNumMatchupsWritten() {
+        return zIndex;
+    }
+
+    private Reader getReader(String sensorName, Path observationPath, String processingVersion, boolean exclusive) throws IOException {
+        performanceStatistics.addCacheRequest(PerformanceStatistics.Stage.READER_OPEN, sensorName);
+        if (readerCache.containsKey(observationPath)) {
+            return openReader(sensorName, observationPath, processingVersion, exclusive);
+        }
+
+        final PerformanceStatistics.Timer timer = performanceStatistics.start(PerformanceStatistics.Stage.READER_OPEN, sensorName);
+        final Reader reader = openReader(sensorName, observationPath, processingVersion, exclusive);
+        timer.stop();
+        return reader;
+    }
+
+    private Reader openReader(String sensorName, Path observationPath, String processingVersion, boolean exclusive) throws IOException {
+        if (exclusive) {
+            return readerCache.acquireReaderFor(sensorName, observationPath, processingVersion);
+        }
+        return readerCache.getReaderFor(sensorName, observationPath, processingVersion);
+    }
+
+    private void initialize(ToolContext context, IOVariablesList ioVariablesList, int numMatchups) throws IOException {
+        this.ioVariablesList = ioVariablesList;
+
+        final ReaderFactory readerFactory = context.getReaderFactory();
+        readerCache = new ReaderCache(writerConfig.getReaderCacheSize(), readerFactory, context.getArchive());
+        performanceStatistics = context.getPerformanceStatistics();
+
+        logger.info("Start writing mmd-file ...");
+
+        mmdFile = createMmdFile(context, writerConfig);
+        final UseCaseConfig useCaseConfig = context.getUseCaseConfig();
+
+        initializeNetcdfFile(mmdFile, useCaseConfig, ioVariablesList.get(), numMatchups);
+        logger.info("Initialized target file");
+
+        final Sensor primarySensor = useCaseConfig.getPrimarySensor();
+        primarySensorName = primarySensor.getName();
+        final Dimension primaryDimension = useCaseConfig.getDimensionFor(primarySensorName);
+        primaryInterval = new Interval(primaryDimension.getNx(), primaryDimension.getNy());
+
+        final List<Sensor> secondarySensors = useCaseConfig.getSecondarySensors();
+        final int secSize = secondarySensors.size();
+        secSensorNames = new String[secSize];
+        secIntervals = new Interval[secSize];
+        for (int i = 0; i < secondarySensors.size(); i++) {
+            final Sensor secondarySensor = secondarySensors.get(i);
+            final String secondarySensorName = secondarySensor.getName();
+            secSensorNames[i] = secondarySensorName;
+            final Dimension secondaryDimension = useCaseConfig.getDimensionFor(secondarySensorName);
+            secIntervals[i] = new Interval(secondaryDimension.getNx(), secondaryDimension.getNy());
+        }
+
+        extraction.setVariables(ioVariablesList);
+        initializeWorkerExtractions(ioVariablesList);
+        logger.info("Collected IO Variables");
+
+        zIndex = 0;
+    }
+
+    private void initializeWorkerExtractions(IOVariablesList ioVariablesList) {
+        final int extractionThreads = writerConfig.getExtractionThreads();
+        if (extractionThreads <= 1) {
+            return;
+        }
+
+        final List<Extraction> extractions = new ArrayList<>();
+        for (int i = 0; i < extractionThreads; i++) {
+            final IOVariablesList variablesCopy = ioVariablesList.copy();
+            if (variablesCopy == null) {
+                logger.warning("Variables not supporting concurrent use, extracting the matchups with one thread");
+                return;
+            }
+            final Extraction workerExtraction = new Extraction(true);
+            workerExtraction.setVariables(variablesCopy);
+            extractions.add(workerExtraction);
+        }
+        workerExtractions = extractions;
+        extractionExecutor = Executors.newFixedThreadPool(extractionThreads);
+    }
+
     @Override
     public void write(Array data, String variableName, int zIndex) {
-        final Array target = getTarget(variableName);
-        final Index index = target.getIndex();
-        index.set(zIndex % writerConfig.getCacheSize());
-        Array.arraycopy(data, 0, target, index.currentElement(), (int) data.getSize());
+        extraction.write(data, variableName, zIndex);
     }
 
     @Override
     public void write(int v, String variableName, int zIndex) {
-        final Array data = NetCDFUtils.create(new int[][]{{v}});
-        write(data, variableName, zIndex);
+        extraction.write(v, variableName, zIndex);
     }
 
     @Override
     public void write(float value, String variableName, int zIndex) {
-        final Array data = NetCDFUtils.create(new float[][]{{value}});
-        write(data, variableName, zIndex);
+        extraction.write(value, variableName, zIndex);
     }
 
     @Override
     public void write(String v, String variableName, int zIndex) {
-        final int[] shape = getVariable(variableName).getShape();
-        final char[] chars = new char[shape[1]];
-        v.getChars(0, v.length(), chars, 0);
-        final Array data = NetCDFUtils.create(new char[][]{chars});
-        write(data, variableName, zIndex);
+        extraction.write(v, variableName, zIndex);
+    }
+
+    private long copyToBuffer(Array data, String variableName, int zIndex) {
+        final Array target = getTarget(variableName);
+        Array.arraycopy(data, 0, target, getRowOffset(target, zIndex), (int) data.getSize());
+        return data.getSizeBytes();
+    }
+
+    // the scalar and string values are set directly in the cache buffers, without a wrapping array per value
+    private long copyToBuffer(int v, String variableName, int zIndex) {
+        final Array target = getTarget(variableName);
+        target.setInt(getRowOffset(target, zIndex), v);
+        return DataType.INT.getSize();
+    }
+
+    private long copyToBuffer(float value, String variableName, int zIndex) {
+        final Array target = getTarget(variableName);
+        target.setFloat(getRowOffset(target, zIndex), value);
+        return DataType.FLOAT.getSize();
+    }
+
+    private long copyToBuffer(String v, String variableName, int zIndex) {
+        final Array target = getTarget(variableName);
+        final int rowSize = getRowSize(target);
+        final int length = v.length();
+        if (length > rowSize) {
+            throw new IllegalArgumentException("String value too long for variable '" + variableName + "': " + v);
+        }
+        final int rowOffset = getRowOffset(target, zIndex);
+        for (int i = 0; i < rowSize; i++) {
+            target.setChar(rowOffset + i, i < length ? v.charAt(i) : 0);
+        }
+        return rowSize * DataType.CHAR.getSize();
     }
 
     static void createUseCaseAttributes(NetcdfFileWriter netcdfFileWriter, UseCaseConfig useCaseConfig) {
@@ -278,6 +437,7 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
 
     void initializeNetcdfFile(Path mmdFile, UseCaseConfig useCaseConfig, List<IOVariable> ioVariables, int numMatchups) throws IOException {
         createNetCdfFileWriter(mmdFile);
+        unlimitedMatchupCount = numMatchups == UNLIMITED_MATCHUP_COUNT;
 
         createGlobalAttributes();
         createUseCaseAttributes(netcdfFileWriter, useCaseConfig);
@@ -308,6 +468,11 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
             }
         }
         netcdfFileWriter.create();
+
+        // resolved once up front, the file is not searched while a block is written in the background
+        for (final IOVariable ioVariable : ioVariables) {
+            getVariable(ioVariable.getTargetVariableName());
+        }
     }
 
     private void ensureCfConformUsageOf_units_Attribute(Variable variable) {
@@ -320,41 +485,78 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
         }
     }
 
-    void close() throws IOException, InvalidRangeException {
-        flush();
-        variableMap.clear();
-        dataCacheMap.clear();
-        if (netcdfFileWriter != null) {
-            netcdfFileWriter.close();
-            netcdfFileWriter = null;
+    @Override
+    public void close() throws IOException, InvalidRangeException {
+        try {
+            flush();
+            waitForPendingFlush();
+            variableMap.clear();
+            dataCacheMap.clear();
+            spareCacheMap.clear();
+            if (netcdfFileWriter != null) {
+                netcdfFileWriter.close();
+                netcdfFileWriter = null;
+            }
+        } finally {
+            if (flushExecutor != null) {
+                flushExecutor.shutdownNow();
+                flushExecutor = null;
+                pendingFlush = null;
+            }
+            if (extractionExecutor != null) {
+                extractionExecutor.shutdownNow();
+                extractionExecutor = null;
+                workerExtractions = null;
+            }
+            if (readerCache != null) {
+                readerCache.close();
+                readerCache = null;
+            }
         }
     }
 
-    private void writeSampleSetVariables(SampleSet sampleSet, List<SampleSetIOVariable> sampleSetVariables, int zIndex)
-            throws IOException, InvalidRangeException {
-        for (SampleSetIOVariable variable : sampleSetVariables) {
-            variable.setSampleSet(sampleSet);
-            variable.writeData(0, 0, null, zIndex);
+    /**
+     * Closes the MMD file after a failure and deletes it, so that no incomplete file is left behind. The matchups
+     * not written yet are dropped. Failures are logged only, not to hide the failure that caused the abort.
+     */
+    @Override
+    public void abort() {
+        dataCacheMap.clear();
+        try {
+            close();
+        } catch (IOException | InvalidRangeException | RuntimeException e) {
+            logger.warning("Unable to close mmd-file: " + e.getMessage());
         }
-    }
-
-    private void writeMmdValues(Sample sample, int zIndex, List<IOVariable> variables, Interval interval) throws IOException, InvalidRangeException {
-        final int x = sample.getX();
-        final int y = sample.getY();
 
-        for (IOVariable variable : variables) {
-            variable.writeData(x, y, interval, zIndex);
+        if (mmdFile != null) {
+            try {
+                Files.deleteIfExists(mmdFile);
+                logger.info("Deleted incomplete mmd-file '" + mmdFile.toAbsolutePath().toString() + "'");
+            } catch (IOException e) {
+                logger.warning("Unable to delete incomplete mmd-file '" + mmdFile.toAbsolutePath().toString() + "': " + e.getMessage());
+            }
         }
     }
 
     private Array getTarget(String variableName) {
-        if (!dataCacheMap.containsKey(variableName)) {
+        Array target = dataCacheMap.get(variableName);
+        if (target == null) {
             Variable variable = getVariable(variableName);
             final int[] shape = variable.getShape();
             shape[0] = writerConfig.getCacheSize();
-            dataCacheMap.put(variableName, Array.factory(variable.getDataType(), shape));
+            target = Array.factory(variable.getDataType(), shape);
+            dataCacheMap.put(variableName, target);
         }
-        return dataCacheMap.get(variableName);
+        return target;
+    }
+
+    // number of elements of one matchup in a cache buffer
+    private int getRowSize(Array target) {
+        return (int) (target.getSize() / writerConfig.getCacheSize());
+    }
+
+    private int getRowOffset(Array target, int zIndex) {
+        return (zIndex % writerConfig.getCacheSize()) * getRowSize(target);
     }
 
     private Variable getVariable(String variableName) {
@@ -385,7 +587,11 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
         }
         netcdfFileWriter.addDimension(null, FiduceoConstants.FILE_NAME, 128);
         netcdfFileWriter.addDimension(null, FiduceoConstants.PROCESSING_VERSION, 30);
-        netcdfFileWriter.addDimension(null, FiduceoConstants.MATCHUP_COUNT, numMatchups);
+        if (numMatchups == UNLIMITED_MATCHUP_COUNT) {
+            netcdfFileWriter.addUnlimitedDimension(FiduceoConstants.MATCHUP_COUNT);
+        } else {
+            netcdfFileWriter.addDimension(null, FiduceoConstants.MATCHUP_COUNT, numMatchups);
+        }
     }
 
     private String getDimensionNameNy(String sensorName) {
@@ -397,11 +603,18 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
     }
 
     private void flush() throws IOException, InvalidRangeException {
+        // at most one block is written at a time, the buffers of the previous block are free afterwards
+        waitForPendingFlush();
+
         final int cacheSize = writerConfig.getCacheSize();
+        final List<Variable> variables = new ArrayList<>();
+        final List<int[]> origins = new ArrayList<>();
+        final List<Array> slabs = new ArrayList<>();
         for (Map.Entry<String, Array> entry : dataCacheMap.entrySet()) {
             final String variableName = entry.getKey();
             final Variable variable = variableMap.get(variableName);
-            final int matchupCount = variable.getShape(0);
+            // an unlimited dimension grows with the data written, its length is not the final matchup count
+            final int matchupCount = unlimitedMatchupCount ? zIndex : variable.getShape(0);
             final int zStart = flushCount * cacheSize;
             final int restHeight = matchupCount - zStart;
             if (restHeight <= 0) {
@@ -415,11 +628,195 @@ abstract class AbstractMmdWriter implements MmdWriter, Target {
                 dataToBeWritten = dataToBeWritten.sectionNoReduce(origin, shape, null);
             }
             origin[0] = zStart;
-            netcdfFileWriter.write(variable, origin, dataToBeWritten);
+            variables.add(variable);
+            origins.add(origin);
+            slabs.add(dataToBeWritten);
         }
         flushCount++;
-        if (netcdfFileWriter != null) {
-            netcdfFileWriter.flush();
+
+        // the next block is extracted into the spare buffers while the filled ones are written
+        final Map<String, Array> filledBuffers = new HashMap<>(dataCacheMap);
+        dataCacheMap.clear();
+        dataCacheMap.putAll(spareCacheMap);
+        spareCacheMap.clear();
+        spareCacheMap.putAll(filledBuffers);
+
+        final NetcdfFileWriter writer = netcdfFileWriter;
+        if (flushExecutor == null) {
+            flushExecutor = Executors.newSingleThreadExecutor();
+        }
+        pendingFlush = flushExecutor.submit(() -> {
+            for (int i = 0; i < slabs.size(); i++) {
+                writer.write(variables.get(i), origins.get(i), slabs.get(i));
+            }
+            writer.flush();
+            return null;
+        });
+    }
+
+    private void waitForPendingFlush() throws IOException, InvalidRangeException {
+        if (pendingFlush == null) {
+            return;
+        }
+
+        try {
+            await(pendingFlush, "writing the mmd-file");
+        } finally {
+            pendingFlush = null;
+        }
+    }
+
+    private static void await(Future<?> future, String task) throws IOException, InvalidRangeException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while " + task, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof InvalidRangeException) {
+                throw (InvalidRangeException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    // Extracts matchups to the rows of the current cache block, with a set of variables of its own. The extraction
+    // threads fill disjoint rows of a block with readers acquired for their exclusive use, the buffers of the block
+    // are created before they start.
+    private class Extraction implements Target {
+
+        private final boolean exclusiveReaders;
+        private final List<Path> readerPaths;
+        private final List<Reader> readers;
+        private IOVariablesList variables;
+        private List<IOVariable> primaryVariables;
+        private List<List<IOVariable>> secVariablesList;
+        private List<SampleSetIOVariable> sampleSetVariables;
+        private long bytesCopied;
+
+        Extraction(boolean exclusiveReaders) {
+            this.exclusiveReaders = exclusiveReaders;
+            readerPaths = new ArrayList<>();
+            readers = new ArrayList<>();
+        }
+
+        void setVariables(IOVariablesList variables) {
+            this.variables = variables;
+            for (final IOVariable variable : variables.get()) {
+                variable.setTarget(this);
+            }
+            primaryVariables = variables.getVariablesFor(primarySensorName);
+            secVariablesList = new ArrayList<>();
+            for (final String secSensorName : secSensorNames) {
+                secVariablesList.add(variables.getVariablesFor(secSensorName));
+            }
+            sampleSetVariables = variables.getSampleSetIOVariables();
+        }
+
+        /**
+         * Writes consecutive matchups of a set to consecutive rows. The rows must be in the current cache block.
+         */
+        void write(MatchupSet set, int sampleIndex, int numSamples, int zIndex) throws IOException, InvalidRangeException {
+            try {
+                writeSamples(set, sampleIndex, numSamples, zIndex);
+            } finally {
+                releaseReaders();
+            }
+        }
+
+        private void writeSamples(MatchupSet set, int sampleIndex, int numSamples, int zIndex) throws IOException, InvalidRangeException {
+            final Path primaryObservationPath = set.getPrimaryObservationPath();
+            final String primaryVersion = set.getPrimaryProcessingVersion();
+            final PerformanceStatistics.Timer timer = performanceStatistics.start(PerformanceStatistics.Stage.MMD_WRITE, PerformanceStatistics.ALL_SENSORS);
+            final long bytesBefore = bytesCopied;
+
+            final Reader primaryReader = getReader(primarySensorName, primaryObservationPath, primaryVersion);
+            variables.setReaderAndPath(primarySensorName, primaryReader, primaryObservationPath, primaryVersion);
+
+            logger.info("writing samples for " + primaryObservationPath.getFileName());
+            for (String secSensorName : secSensorNames) {
+                final Path secondaryObservationPath = set.getSecondaryObservationPath(secSensorName);
+                final String secondaryVersion = set.getSecondaryProcessingVersion(secSensorName);
+                final Reader secondaryReader = getReader(secSensorName, secondaryObservationPath, secondaryVersion);
+                variables.setReaderAndPath(secSensorName, secondaryReader, secondaryObservationPath, secondaryVersion);
+                logger.info("... and " + secondaryObservationPath.getFileName());
+            }
+            logger.info("Num matchups: " + numSamples);
+
+            // bytes of the data copied per sensor, i.e. mostly pixel windows read from the input files
+            long sensorBytesBefore = bytesCopied;
+            writeMmdValues(set.getPrimarySamples(), sampleIndex, numSamples, zIndex, primaryVariables, primaryInterval);
+            performanceStatistics.addBytes(PerformanceStatistics.Stage.MMD_WRITE, primarySensorName, bytesCopied - sensorBytesBefore);
+            for (int i = 0; i < secSensorNames.length; i++) {
+                sensorBytesBefore = bytesCopied;
+                writeMmdValues(set.getSecondarySamples(secSensorNames[i]), sampleIndex, numSamples, zIndex, secVariablesList.get(i), secIntervals[i]);
+                performanceStatistics.addBytes(PerformanceStatistics.Stage.MMD_WRITE, secSensorNames[i], bytesCopied - sensorBytesBefore);
+            }
+            for (final SampleSetIOVariable variable : sampleSetVariables) {
+                for (int i = 0; i < numSamples; i++) {
+                    variable.writeData(set, sampleIndex + i, zIndex + i);
+                }
+            }
+
+            timer.stop(bytesCopied - bytesBefore);
+        }
+
+        private void writeMmdValues(SampleColumns samples, int sampleIndex, int numSamples, int zIndex, List<IOVariable> variables, Interval interval) throws IOException, InvalidRangeException {
+            final int[] x = new int[numSamples];
+            final int[] y = new int[numSamples];
+            for (int i = 0; i < numSamples; i++) {
+                x[i] = samples.getX(sampleIndex + i);
+                y[i] = samples.getY(sampleIndex + i);
+            }
+
+            for (IOVariable variable : variables) {
+                variable.writeData(x, y, interval, zIndex);
+            }
+        }
+
+        private Reader getReader(String sensorName, Path observationPath, String processingVersion) throws IOException {
+            final Reader reader = AbstractMmdWriter.this.getReader(sensorName, observationPath, processingVersion, exclusiveReaders);
+            if (exclusiveReaders) {
+                readerPaths.add(observationPath);
+                readers.add(reader);
+            }
+            return reader;
+        }
+
+        private void releaseReaders() throws IOException {
+            try {
+                for (int i = 0; i < readers.size(); i++) {
+                    readerCache.releaseReader(readerPaths.get(i), readers.get(i));
+                }
+            } finally {
+                readerPaths.clear();
+                readers.clear();
+            }
+        }
+
+        @Override
+        public void write(Array data, String variableName, int zIndex) {
+            bytesCopied += copyToBuffer(data, variableName, zIndex);
+        }
+
+        @Override
+        public void write(int data, String variableName, int zIndex) {
+            bytesCopied += copyToBuffer(data, variableName, zIndex);
+        }
+
+        @Override
+        public void write(float data, String variableName, int zIndex) {
+            bytesCopied += copyToBuffer(data, variableName, zIndex);
+        }
+
+        @Override
+        public void write(String data, String variableName, int zIndex) {
+            bytesCopied += copyToBuffer(data, variableName, zIndex);
         }
     }
 }
@@ -34,6 +34,22 @@ public interface IOVariable {
 
     void writeData(int centerX, int centerY, Interval interval, int zIndex) throws IOException, InvalidRangeException;
 
+    /**
+     * Writes the data of several consecutive matchups, the matchup i is written to the layer zIndex + i.
+     *
+     * @param centerX  the center x positions, one per matchup
+     * @param centerY  the center y positions, one per matchup
+     * @param interval the window size
+     * @param zIndex   the layer of the first matchup
+     * @throws IOException           on disk access failures
+     * @throws InvalidRangeException on incorrect coordinates supplied
+     */
+    default void writeData(int[] centerX, int[] centerY, Interval interval, int zIndex) throws IOException, InvalidRangeException {
+        for (int i = 0; i < centerX.length; i++) {
+            writeData(centerX[i], centerY[i], interval, zIndex + i);
+        }
+    }
+
     String getSourceVariableName();
 
     List<Attribute> getAttributes();
@@ -59,4 +75,14 @@ public interface IOVariable {
     boolean hasCustomDimension();
 
     Dimension getCustomDimension();
+
+    /**
+     * Creates a copy writing to the same target variable, for the use by another thread. The copy has no target set.
+     *
+     * @param readerContainer the reader container of the copy, replaces the container of variables reading from a reader
+     * @return the copy, or null if the variable cannot be used by several threads
+     */
+    default IOVariable copy(ReaderContainer readerContainer) {
+        return null;
+    }
 }
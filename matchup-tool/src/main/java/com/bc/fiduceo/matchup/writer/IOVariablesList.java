@@ -79,6 +79,32 @@ public class IOVariablesList {
         }
     }
 
+    /**
+     * Creates a list of copies of the variables, for the use by another thread. The copies write to the same target
+     * variables and read from reader containers of their own.
+     *
+     * @return the copy, or null if one of the variables cannot be used by several threads
+     */
+    IOVariablesList copy() {
+        final IOVariablesList copy = new IOVariablesList(readerFactory);
+        for (final String sensorName : readerContainerMap.keySet()) {
+            copy.setReaderContainer(sensorName, new ReaderContainer());
+        }
+
+        for (final Map.Entry<String, List<IOVariable>> entry : ioVariablesMap.entrySet()) {
+            final String sensorName = entry.getKey();
+            final ReaderContainer readerContainer = copy.readerContainerMap.get(sensorName);
+            for (final IOVariable ioVariable : entry.getValue()) {
+                final IOVariable variableCopy = ioVariable.copy(readerContainer);
+                if (variableCopy == null) {
+                    return null;
+                }
+                copy.add(variableCopy, sensorName);
+            }
+        }
+        return copy;
+    }
+
     public void addSampleSetVariable(SampleSetIOVariable variable) {
         add(variable, SAMPLE_SET_IO_VARIABLES);
     }
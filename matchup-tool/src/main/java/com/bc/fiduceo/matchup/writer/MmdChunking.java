@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.writer;
+
+import com.bc.fiduceo.FiduceoConstants;
+import ucar.nc2.Variable;
+import ucar.nc2.write.Nc4Chunking;
+import ucar.nc2.write.Nc4ChunkingDefault;
+
+import java.util.Map;
+
+/**
+ * NetCDF-4 chunking of MMD files following the access pattern of the MMD: complete windows per matchup and ranges
+ * of consecutive matchups. Variables along the matchup dimension are chunked with a configurable number of matchups
+ * per chunk, all other dimensions are taken completely. Variables without a configured chunk size are left to the
+ * chunking strategy of the library.
+ */
+class MmdChunking implements Nc4Chunking {
+
+    private final Nc4Chunking libraryChunking;
+    private final int matchupChunkSize;
+    private final Map<String, Integer> variableMatchupChunkSizes;
+    private final int deflateLevel;
+    private final boolean shuffle;
+
+    MmdChunking(int matchupChunkSize, Map<String, Integer> variableMatchupChunkSizes, int deflateLevel, boolean shuffle) {
+        this.matchupChunkSize = matchupChunkSize;
+        this.variableMatchupChunkSizes = variableMatchupChunkSizes;
+        this.deflateLevel = deflateLevel;
+        this.shuffle = shuffle;
+        libraryChunking = Nc4ChunkingDefault.factory(Strategy.standard, deflateLevel, shuffle);
+    }
+
+    /**
+     * Creates the chunking for the writer configuration. Without configured chunk sizes the standard chunking of
+     * the library is used.
+     *
+     * @param writerConfig the writer configuration
+     * @return the chunking
+     */
+    static Nc4Chunking create(MmdWriterConfig writerConfig) {
+        final boolean noCompression = writerConfig.isNoCompression();
+        final int deflateLevel = noCompression ? 0 : writerConfig.getDeflateLevel();
+        final boolean shuffle = !noCompression && writerConfig.isShuffle();
+
+        final int matchupChunkSize = writerConfig.getMatchupChunkSize();
+        final Map<String, Integer> variableChunkSizes = writerConfig.getVariableMatchupChunkSizes();
+        if (matchupChunkSize == 0 && variableChunkSizes.isEmpty()) {
+            return Nc4ChunkingDefault.factory(Strategy.standard, deflateLevel, shuffle);
+        }
+        return new MmdChunking(matchupChunkSize, variableChunkSizes, deflateLevel, shuffle);
+    }
+
+    @Override
+    public boolean isChunked(Variable v) {
+        if (getMatchupChunkSize(v) > 0) {
+            return true;
+        }
+        return libraryChunking.isChunked(v);
+    }
+
+    @Override
+    public long[] computeChunking(Variable v) {
+        final int chunkSize = getMatchupChunkSize(v);
+        if (chunkSize <= 0) {
+            return libraryChunking.computeChunking(v);
+        }
+
+        final int[] shape = v.getShape();
+        final long[] chunking = new long[shape.length];
+        // the length of an unlimited matchup dimension is not known when the file is defined
+        chunking[0] = shape[0] > 0 ? Math.min(chunkSize, shape[0]) : chunkSize;
+        for (int i = 1; i < shape.length; i++) {
+            chunking[i] = shape[i];
+        }
+        return chunking;
+    }
+
+    @Override
+    public int getDeflateLevel(Variable v) {
+        return deflateLevel;
+    }
+
+    @Override
+    public boolean isShuffle(Variable v) {
+        return shuffle;
+    }
+
+    // returns 0 for variables without the matchup dimension or without a configured chunk size
+    private int getMatchupChunkSize(Variable v) {
+        if (v.getRank() == 0 || !FiduceoConstants.MATCHUP_COUNT.equals(v.getDimension(0).getShortName())) {
+            return 0;
+        }
+
+        final Integer variableChunkSize = variableMatchupChunkSizes.get(v.getShortName());
+        if (variableChunkSize != null) {
+            return variableChunkSize;
+        }
+        return matchupChunkSize;
+    }
+}
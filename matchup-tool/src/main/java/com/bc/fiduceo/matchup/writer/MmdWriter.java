@@ -22,6 +22,7 @@ package com.bc.fiduceo.matchup.writer;
 
 
 import com.bc.fiduceo.matchup.MatchupCollection;
+import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.tool.ToolContext;
 import ucar.ma2.InvalidRangeException;
 
@@ -30,4 +31,16 @@ import java.io.IOException;
 public interface MmdWriter {
 
     void writeMMD(MatchupCollection matchupCollection, ToolContext context, IOVariablesList ioVariablesList) throws IOException, InvalidRangeException;
+
+    // incremental writing: initialize(), write() for each matchup set, close()
+    void initialize(ToolContext context, IOVariablesList ioVariablesList) throws IOException;
+
+    void write(MatchupSet matchupSet) throws IOException, InvalidRangeException;
+
+    int getNumMatchupsWritten();
+
+    void close() throws IOException, InvalidRangeException;
+
+    // closes an incrementally written file after a failure and deletes it
+    void abort();
 }
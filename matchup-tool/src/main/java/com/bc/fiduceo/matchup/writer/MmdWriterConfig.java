@@ -41,6 +41,14 @@ public class MmdWriterConfig {
     private static final String CACHE_SIZE_TAG = "cache-size";
     private static final String NETCDF_FORMAT_TAG = "netcdf-format";
     private static final String READER_CACHE_SIZE_TAG = "reader-cache-size";
+    private static final String STREAMING_TAG = "streaming";
+    private static final String EXTRACTION_THREADS_TAG = "extraction-threads";
+    private static final String NETCDF4_CHUNKING_TAG = "netcdf4-chunking";
+    private static final String MATCHUP_CHUNK_SIZE_TAG = "matchup-chunk-size";
+    private static final String DEFLATE_LEVEL_TAG = "deflate-level";
+    private static final String SHUFFLE_TAG = "shuffle";
+    private static final String NO_COMPRESSION_TAG = "no-compression";
+    private static final String VARIABLE_TAG = "variable";
     private static final String VARIABLES_CONFIGURATION_TAG = "variables-configuration";
     private static final String SENSOR_RENAME_TAG = "sensor-rename";
     private static final String SEPARATOR = "separator";
@@ -52,6 +60,7 @@ public class MmdWriterConfig {
     private static final String SEPARATOR_ATTRIBUTE = "separator";
     private static final String SENSOR_NAMES_ATTRIBUTE = "sensor-names";
     private static final String NAMES_ATTRIBUTE = "names";
+    private static final String NAME_ATTRIBUTE = "name";
     private static final String VARIABLE_NAMES_ATTRIBUTE = "variable-names";
     private static final String SOURCE_NAME_ATTRIBUTE = "source-name";
     private static final String TARGET_NAME_ATTRIBUTE = "target-name";
@@ -61,12 +70,27 @@ public class MmdWriterConfig {
     private NetcdfType netcdfFormat;
     private VariablesConfiguration variablesConfiguration;
     private int readerCacheSize;
+    private boolean streaming;
+    private int extractionThreads;
+    // NetCDF-4 storage layout, a matchup chunk size of 0 leaves the chunk shape to the library
+    private int matchupChunkSize;
+    private final Map<String, Integer> variableMatchupChunkSizes;
+    private int deflateLevel;
+    private boolean shuffle;
+    private boolean noCompression;
 
     MmdWriterConfig() {
         cacheSize = 2048;
         netcdfFormat = NetcdfType.N4;
         variablesConfiguration = new VariablesConfiguration();
         readerCacheSize = 6;
+        streaming = false;
+        extractionThreads = 1;
+        matchupChunkSize = 0;
+        variableMatchupChunkSizes = new HashMap<>();
+        deflateLevel = 5;
+        shuffle = true;
+        noCompression = false;
     }
 
     private MmdWriterConfig(Document document) {
@@ -120,6 +144,90 @@ public class MmdWriterConfig {
         return readerCacheSize;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Number of threads reading the matchup data from the input files, each with readers of its own.
+     *
+     * @return the number of threads
+     */
+    int getExtractionThreads() {
+        return extractionThreads;
+    }
+
+    void setExtractionThreads(int extractionThreads) {
+        if (extractionThreads < 1) {
+            throw new RuntimeException("Invalid number of extraction threads: " + extractionThreads);
+        }
+        this.extractionThreads = extractionThreads;
+    }
+
+    int getMatchupChunkSize() {
+        return matchupChunkSize;
+    }
+
+    void setMatchupChunkSize(int matchupChunkSize) {
+        if (matchupChunkSize < 0) {
+            throw new RuntimeException("Invalid matchup chunk size: " + matchupChunkSize);
+        }
+        this.matchupChunkSize = matchupChunkSize;
+    }
+
+    /**
+     * Returns the chunk sizes along the matchup dimension configured for single MMD variables.
+     *
+     * @return the chunk sizes, keyed by MMD variable name
+     */
+    Map<String, Integer> getVariableMatchupChunkSizes() {
+        return variableMatchupChunkSizes;
+    }
+
+    void setVariableMatchupChunkSize(String variableName, int matchupChunkSize) {
+        if (matchupChunkSize <= 0) {
+            throw new RuntimeException("Invalid matchup chunk size for variable '" + variableName + "': " + matchupChunkSize);
+        }
+        variableMatchupChunkSizes.put(variableName, matchupChunkSize);
+    }
+
+    int getDeflateLevel() {
+        return deflateLevel;
+    }
+
+    void setDeflateLevel(int deflateLevel) {
+        if (deflateLevel < 0 || deflateLevel > 9) {
+            throw new RuntimeException("Invalid deflate level: " + deflateLevel);
+        }
+        this.deflateLevel = deflateLevel;
+    }
+
+    boolean isShuffle() {
+        return shuffle;
+    }
+
+    void setShuffle(boolean shuffle) {
+        this.shuffle = shuffle;
+    }
+
+    /**
+     * Fast staging mode: the NetCDF-4 file is written without deflate and shuffle filters, independent of the
+     * configured deflate level.
+     *
+     * @return whether compression is switched off
+     */
+    boolean isNoCompression() {
+        return noCompression;
+    }
+
+    void setNoCompression(boolean noCompression) {
+        this.noCompression = noCompression;
+    }
+
     private void init(Document document) {
         final Element rootElement = document.getRootElement();
         final String name = rootElement.getName();
@@ -151,6 +259,23 @@ public class MmdWriterConfig {
             setReaderCacheSize(Integer.valueOf(readerCacheValue));
         }
 
+        final Element streamingElement = rootElement.getChild(STREAMING_TAG);
+        if (streamingElement != null) {
+            final String streamingValue = streamingElement.getValue();
+            streaming = Boolean.valueOf(streamingValue);
+        }
+
+        final Element extractionThreadsElement = rootElement.getChild(EXTRACTION_THREADS_TAG);
+        if (extractionThreadsElement != null) {
+            final String extractionThreadsValue = extractionThreadsElement.getValue();
+            setExtractionThreads(Integer.valueOf(extractionThreadsValue));
+        }
+
+        final Element chunkingElement = rootElement.getChild(NETCDF4_CHUNKING_TAG);
+        if (chunkingElement != null) {
+            configureChunking(chunkingElement);
+        }
+
         final Element variablesConfigurationElement = rootElement.getChild(VARIABLES_CONFIGURATION_TAG);
         if (variablesConfigurationElement != null) {
             addSensorRenames(variablesConfigurationElement);
@@ -165,6 +290,35 @@ public class MmdWriterConfig {
         }
     }
 
+    private void configureChunking(Element chunkingElement) {
+        final Element matchupChunkSizeElement = chunkingElement.getChild(MATCHUP_CHUNK_SIZE_TAG);
+        if (matchupChunkSizeElement != null) {
+            setMatchupChunkSize(Integer.valueOf(matchupChunkSizeElement.getValue().trim()));
+        }
+
+        final Element deflateLevelElement = chunkingElement.getChild(DEFLATE_LEVEL_TAG);
+        if (deflateLevelElement != null) {
+            setDeflateLevel(Integer.valueOf(deflateLevelElement.getValue().trim()));
+        }
+
+        final Element shuffleElement = chunkingElement.getChild(SHUFFLE_TAG);
+        if (shuffleElement != null) {
+            shuffle = Boolean.valueOf(shuffleElement.getValue().trim());
+        }
+
+        final Element noCompressionElement = chunkingElement.getChild(NO_COMPRESSION_TAG);
+        if (noCompressionElement != null) {
+            noCompression = Boolean.valueOf(noCompressionElement.getValue().trim());
+        }
+
+        final List<Element> variableElements = chunkingElement.getChildren(VARIABLE_TAG);
+        for (final Element variableElement : variableElements) {
+            final String variableName = getAttributeString(NAME_ATTRIBUTE, variableElement);
+            final String chunkSize = getAttributeString(MATCHUP_CHUNK_SIZE_TAG, variableElement);
+            setVariableMatchupChunkSize(variableName, Integer.valueOf(chunkSize.trim()));
+        }
+    }
+
     private void configureSeparator(Element variablesConfigurationElement) {
         final List<Element> separatorElems = variablesConfigurationElement.getChildren(SEPARATOR);
         if (separatorElems == null || separatorElems.size() == 0) {
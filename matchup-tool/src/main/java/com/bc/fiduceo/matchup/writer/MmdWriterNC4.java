@@ -22,19 +22,21 @@ package com.bc.fiduceo.matchup.writer;
 
 import ucar.nc2.NetcdfFileWriter;
 import ucar.nc2.write.Nc4Chunking;
-import ucar.nc2.write.Nc4ChunkingDefault;
 
 import java.io.IOException;
 import java.nio.file.Path;
 
 class MmdWriterNC4 extends AbstractMmdWriter {
 
+    private final MmdWriterConfig writerConfig;
+
     MmdWriterNC4(MmdWriterConfig writerConfig) {
         super(writerConfig);
+        this.writerConfig = writerConfig;
     }
 
     void createNetCdfFileWriter(Path mmdFile) throws IOException {
-        final Nc4Chunking chunking = Nc4ChunkingDefault.factory(Nc4Chunking.Strategy.standard, 5, true);
+        final Nc4Chunking chunking = MmdChunking.create(writerConfig);
         netcdfFileWriter = NetcdfFileWriter.createNew(NetcdfFileWriter.Version.netcdf4, mmdFile.toAbsolutePath().toString(), chunking);
     }
 }
\ No newline at end of file
@@ -22,9 +22,16 @@ package com.bc.fiduceo.matchup.writer;
 
 abstract class ReaderIOVariable extends AbstractIOVariable {
 
-    final ReaderContainer readerContainer;
+    ReaderContainer readerContainer;
 
     ReaderIOVariable(ReaderContainer readerContainer) {
         this.readerContainer = readerContainer;
     }
+
+    @Override
+    public IOVariable copy(ReaderContainer readerContainer) {
+        final ReaderIOVariable copy = (ReaderIOVariable) super.copy(readerContainer);
+        copy.readerContainer = readerContainer;
+        return copy;
+    }
 }
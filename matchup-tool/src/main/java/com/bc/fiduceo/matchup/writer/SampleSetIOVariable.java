@@ -20,7 +20,11 @@
 
 package com.bc.fiduceo.matchup.writer;
 
+import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.matchup.SampleSet;
+import ucar.ma2.InvalidRangeException;
+
+import java.io.IOException;
 
 public abstract class SampleSetIOVariable extends AbstractIOVariable {
 
@@ -29,4 +33,24 @@ public abstract class SampleSetIOVariable extends AbstractIOVariable {
     public void setSampleSet(SampleSet sampleSet) {
         this.sampleSet = sampleSet;
     }
+
+    /**
+     * Writes the value of one matchup of a matchup set. Creates the SampleSet of the matchup, variables that compute
+     * their value from the sample columns of the matchup set override this.
+     *
+     * @param matchupSet  the matchup set
+     * @param sampleIndex the index of the matchup in the set
+     * @param zIndex      the target row
+     */
+    public void writeData(MatchupSet matchupSet, int sampleIndex, int zIndex) throws IOException, InvalidRangeException {
+        setSampleSet(matchupSet.getSampleSet(sampleIndex));
+        writeData(0, 0, null, zIndex);
+    }
+
+    @Override
+    public IOVariable copy(ReaderContainer readerContainer) {
+        final SampleSetIOVariable copy = (SampleSetIOVariable) super.copy(readerContainer);
+        copy.sampleSet = null;
+        return copy;
+    }
 }
@@ -51,4 +51,17 @@ public class WindowReadingIOVariable extends ReaderIOVariable {
         }
         target.write(array, targetVariableName, zIndex);
     }
+
+    @Override
+    public void writeData(int[] centerX, int[] centerY, Interval interval, int zIndex) throws IOException, InvalidRangeException {
+        final Reader reader = readerContainer.getReader();
+        final Array windows;
+        if (readScaled) {
+            windows = reader.readScaledWindows(centerX, centerY, interval, sourceVariableName);
+        } else {
+            windows = reader.readRawWindows(centerX, centerY, interval, sourceVariableName);
+        }
+        // the windows are stacked along the matchup dimension, so they fill the consecutive layers starting at zIndex
+        target.write(windows, targetVariableName, zIndex);
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.writer;
+
+import com.bc.fiduceo.matchup.MatchupSet;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the extraction of the matchups of a MMD file by source products. The matchup sets are cut into fragments at
+ * the boundaries of the writer cache. Within one cache block the fragments are grouped by their combination of
+ * primary and secondary product, so each product combination is read in one go instead of interleaved with others.
+ * The group of the product combination read last in a block comes first in the next block. Every fragment keeps
+ * its target rows, so the row order of the MMD file is not affected.
+ */
+class WritePlan {
+
+    private WritePlan() {
+    }
+
+    /**
+     * Creates the plan.
+     *
+     * @param sets           the matchup sets in MMD row order
+     * @param secSensorNames the names of the secondary sensors
+     * @param cacheSize      the number of rows held by the writer cache
+     * @return the fragments per cache block, in processing order
+     */
+    static List<List<Fragment>> create(List<MatchupSet> sets, String[] secSensorNames, int cacheSize) {
+        final List<List<Fragment>> blocks = new ArrayList<>();
+        final Map<String, List<Fragment>> blockGroups = new LinkedHashMap<>();
+        String lastKey = null;
+        int zIndex = 0;
+        for (final MatchupSet set : sets) {
+            final int numObservations = set.getNumObservations();
+            if (numObservations == 0) {
+                continue;
+            }
+
+            final String key = getProductKey(set, secSensorNames);
+            int sampleIndex = 0;
+            while (sampleIndex < numObservations) {
+                final int numSamples = Math.min(numObservations - sampleIndex, cacheSize - zIndex % cacheSize);
+                blockGroups.computeIfAbsent(key, k -> new ArrayList<>()).add(new Fragment(set, sampleIndex, numSamples, zIndex));
+                sampleIndex += numSamples;
+                zIndex += numSamples;
+                if (zIndex % cacheSize == 0) {
+                    lastKey = addBlock(blocks, blockGroups, lastKey);
+                }
+            }
+        }
+        if (!blockGroups.isEmpty()) {
+            addBlock(blocks, blockGroups, lastKey);
+        }
+        return blocks;
+    }
+
+    // package access for testing only
+    static String getProductKey(MatchupSet set, String[] secSensorNames) {
+        final StringBuilder key = new StringBuilder();
+        key.append(set.getPrimaryObservationPath());
+        for (final String secSensorName : secSensorNames) {
+            final Path secondaryPath = set.getSecondaryObservationPath(secSensorName);
+            key.append('\n').append(secondaryPath);
+        }
+        return key.toString();
+    }
+
+    private static String addBlock(List<List<Fragment>> blocks, Map<String, List<Fragment>> blockGroups, String lastKey) {
+        final List<Fragment> block = new ArrayList<>();
+        final List<Fragment> continued = blockGroups.remove(lastKey);
+        if (continued != null) {
+            block.addAll(continued);
+        }
+        String blockLastKey = lastKey;
+        for (final Map.Entry<String, List<Fragment>> entry : blockGroups.entrySet()) {
+            block.addAll(entry.getValue());
+            blockLastKey = entry.getKey();
+        }
+        blockGroups.clear();
+        blocks.add(block);
+        return blockLastKey;
+    }
+
+    static class Fragment {
+
+        final MatchupSet set;
+        final int sampleIndex;
+        final int numSamples;
+        final int zIndex;
+
+        Fragment(MatchupSet set, int sampleIndex, int numSamples, int zIndex) {
+            this.set = set;
+            this.sampleIndex = sampleIndex;
+            this.numSamples = numSamples;
+            this.zIndex = zIndex;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup;
+
+import com.bc.fiduceo.IOTestRunner;
+import com.bc.fiduceo.TestUtil;
+import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.core.UseCaseConfig;
+import com.bc.fiduceo.core.UseCaseConfigBuilder;
+import com.bc.fiduceo.util.TimeUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+@RunWith(IOTestRunner.class)
+public class MatchupCheckpointTest {
+
+    private Path testDir;
+    private Date startDate;
+    private Date endDate;
+    private Logger logger;
+
+    @Before
+    public void setUp() {
+        testDir = TestUtil.createTestDirectory().toPath();
+        startDate = TimeUtils.parseDOYBeginOfDay("2016-120");
+        endDate = TimeUtils.parseDOYEndOfDay("2016-122");
+        logger = Logger.getAnonymousLogger();
+    }
+
+    @After
+    public void tearDown() {
+        TestUtil.deleteTestDirectory();
+    }
+
+    @Test
+    public void testOpen_createsDirectory() throws IOException {
+        final MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+
+        final Path directory = checkpoint.getDirectory();
+        assertEquals("mmd-22_2016-120_2016-122", directory.getFileName().toString());
+        assertTrue(Files.isDirectory(directory));
+        assertEquals(0, checkpoint.getNumCompleted());
+    }
+
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        final MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        final SatelliteObservation primary = createObservation("/archive/primary/file_1.nc");
+        assertFalse(checkpoint.isCompleted(primary));
+
+        final MatchupSet matchupSet = new MatchupSet();
+        matchupSet.setPrimaryObservationPath(Paths.get("/archive/primary/file_1.nc"));
+        matchupSet.setPrimaryProcessingVersion("v1.0");
+        matchupSet.setSecondaryObservationPath(SampleSet.getOnlyOneSecondaryKey(), Paths.get("/archive/secondary/file_7.nc"));
+        matchupSet.setSecondaryProcessingVersion(SampleSet.getOnlyOneSecondaryKey(), "v2.1");
+        final List<SampleSet> sampleSets = new ArrayList<>();
+        sampleSets.add(createSampleSet(new Sample(2, 3, 4.5, 5.5, 1000L), new Sample(6, 7, 8.5, 9.5, 1100L)));
+        sampleSets.add(createSampleSet(new Sample(12, 13, -14.5, -15.5, 2000L), null));
+        matchupSet.setSampleSets(sampleSets);
+
+        checkpoint.store(primary, Collections.singletonList(matchupSet));
+
+        assertTrue(checkpoint.isCompleted(primary));
+        assertEquals(1, checkpoint.getNumCompleted());
+
+        final List<MatchupSet> loaded = checkpoint.load(primary);
+        assertEquals(1, loaded.size());
+        final MatchupSet loadedSet = loaded.get(0);
+        assertEquals(Paths.get("/archive/primary/file_1.nc"), loadedSet.getPrimaryObservationPath());
+        assertEquals("v1.0", loadedSet.getPrimaryProcessingVersion());
+        assertEquals(Paths.get("/archive/secondary/file_7.nc"), loadedSet.getSecondaryObservationPath(SampleSet.getOnlyOneSecondaryKey()));
+        assertEquals("v2.1", loadedSet.getSecondaryProcessingVersion(SampleSet.getOnlyOneSecondaryKey()));
+        assertEquals(2, loadedSet.getNumObservations());
+
+        final SampleSet first = loadedSet.getSampleSet(0);
+        assertEquals(2, first.getPrimary().getX());
+        assertEquals(5.5, first.getPrimary().getLat(), 0.0);
+        assertEquals(1100L, first.getSecondary(SampleSet.getOnlyOneSecondaryKey()).getTime());
+
+        final SampleSet second = loadedSet.getSampleSet(1);
+        assertEquals(-14.5, second.getPrimary().getLon(), 0.0);
+        assertNull(second.getSecondary(SampleSet.getOnlyOneSecondaryKey()));
+    }
+
+    @Test
+    public void testStoreAndLoad_empty() throws IOException {
+        final MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        final SatelliteObservation primary = createObservation("/archive/primary/file_2.nc");
+
+        checkpoint.store(primary, new ArrayList<>());
+
+        assertTrue(checkpoint.isCompleted(primary));
+        assertEquals(0, checkpoint.load(primary).size());
+    }
+
+    @Test
+    public void testOpen_resumesWithSameConfiguration() throws IOException {
+        final SatelliteObservation primary = createObservation("/archive/primary/file_1.nc");
+        MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        checkpoint.store(primary, new ArrayList<>());
+
+        checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        assertTrue(checkpoint.isCompleted(primary));
+    }
+
+    @Test
+    public void testOpen_discardsCheckpointOfDifferentConfiguration() throws IOException {
+        final SatelliteObservation primary = createObservation("/archive/primary/file_1.nc");
+        MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        checkpoint.store(primary, new ArrayList<>());
+
+        final UseCaseConfig changedConfig = UseCaseConfigBuilder.build("mmd-22").withRandomPointsPerDay(2000).createConfig();
+        checkpoint = MatchupCheckpoint.open(testDir, changedConfig, startDate, endDate, logger);
+        assertFalse(checkpoint.isCompleted(primary));
+        assertEquals(0, checkpoint.getNumCompleted());
+    }
+
+    @Test
+    public void testDelete() throws IOException {
+        final MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        checkpoint.store(createObservation("/archive/primary/file_1.nc"), new ArrayList<>());
+
+        checkpoint.delete();
+
+        assertFalse(Files.exists(checkpoint.getDirectory()));
+    }
+
+    @Test
+    public void testGetRandomSkip_storedAndReusedOnResume() throws IOException {
+        MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        assertEquals(1234, checkpoint.getRandomSkip(() -> 1234));
+        assertEquals(1234, checkpoint.getRandomSkip(() -> 5678));
+
+        checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        assertEquals(1234, checkpoint.getRandomSkip(() -> 5678));
+        assertEquals(0, checkpoint.getNumCompleted());
+    }
+
+    @Test
+    public void testGetRandomSkip_newAfterDiscardedCheckpoint() throws IOException {
+        MatchupCheckpoint checkpoint = MatchupCheckpoint.open(testDir, createConfig("mmd-22"), startDate, endDate, logger);
+        assertEquals(1234, checkpoint.getRandomSkip(() -> 1234));
+
+        final UseCaseConfig changedConfig = UseCaseConfigBuilder.build("mmd-22").withRandomPointsPerDay(2000).createConfig();
+        checkpoint = MatchupCheckpoint.open(testDir, changedConfig, startDate, endDate, logger);
+        assertEquals(5678, checkpoint.getRandomSkip(() -> 5678));
+    }
+
+    private static UseCaseConfig createConfig(String name) {
+        return UseCaseConfigBuilder.build(name).createConfig();
+    }
+
+    private static SatelliteObservation createObservation(String path) {
+        final SatelliteObservation observation = new SatelliteObservation();
+        observation.setDataFilePath(path);
+        return observation;
+    }
+
+    private static SampleSet createSampleSet(Sample primary, Sample secondary) {
+        final SampleSet sampleSet = new SampleSet();
+        sampleSet.setPrimary(primary);
+        sampleSet.setSecondary(SampleSet.getOnlyOneSecondaryKey(), secondary);
+        return sampleSet;
+    }
+}
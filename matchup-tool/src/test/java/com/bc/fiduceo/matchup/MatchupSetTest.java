@@ -30,7 +30,9 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -170,4 +172,129 @@ public class MatchupSetTest {
         assertEquals(6.0, primary.getLat(), 1e-8);
         assertEquals(7L, primary.getTime());
     }
+
+    @Test
+    public void testCompact_columnsHoldTheSamples() {
+        final SampleSet first = new SampleSet();
+        first.setPrimary(new Sample(2, 3, 4.5, 5.5, 1000L));
+        first.setSecondary("sec", new Sample(12, 13, 14.5, 15.5, 2000L));
+        final SampleSet second = new SampleSet();
+        second.setPrimary(new Sample(6, 7, 8.5, 9.5, 1100L));
+        matchupSet.getSampleSets().add(first);
+        matchupSet.getSampleSets().add(second);
+
+        matchupSet.compact();
+
+        assertEquals(2, matchupSet.getNumObservations());
+        final SampleColumns primarySamples = matchupSet.getPrimarySamples();
+        assertEquals(2, primarySamples.size());
+        assertEquals(6, primarySamples.getX(1));
+        assertEquals(7, primarySamples.getY(1));
+        assertEquals(8.5, primarySamples.getLon(1), 0.0);
+        assertEquals(9.5, primarySamples.getLat(1), 0.0);
+        assertEquals(1100L, primarySamples.getTime(1));
+
+        final SampleColumns secondarySamples = matchupSet.getSecondarySamples("sec");
+        assertTrue(secondarySamples.isPresent(0));
+        assertFalse(secondarySamples.isPresent(1));
+        assertEquals(12, secondarySamples.getX(0));
+        assertEquals(2000L, secondarySamples.getTime(0));
+
+        assertNull(matchupSet.getSecondarySamples("unknown"));
+    }
+
+    @Test
+    public void testCompact_getSampleSetsRestoresTheObjects() {
+        final SampleSet sampleSet = new SampleSet();
+        sampleSet.setPrimary(new Sample(2, 3, 4.5, 5.5, 1000L));
+        sampleSet.setSecondary("sec", new Sample(12, 13, 14.5, 15.5, 2000L));
+        matchupSet.getSampleSets().add(sampleSet);
+        matchupSet.addPrimary(new Sample(6, 7, 8.5, 9.5, 1100L));
+
+        matchupSet.compact();
+        final List<SampleSet> sampleSets = matchupSet.getSampleSets();
+
+        assertEquals(2, sampleSets.size());
+        Sample primary = sampleSets.get(0).getPrimary();
+        assertEquals(2, primary.getX());
+        assertEquals(3, primary.getY());
+        assertEquals(4.5, primary.getLon(), 0.0);
+        assertEquals(5.5, primary.getLat(), 0.0);
+        assertEquals(1000L, primary.getTime());
+        final Sample secondary = sampleSets.get(0).getSecondary("sec");
+        assertEquals(12, secondary.getX());
+        assertEquals(15.5, secondary.getLat(), 0.0);
+
+        primary = sampleSets.get(1).getPrimary();
+        assertEquals(6, primary.getX());
+        assertNull(sampleSets.get(1).getSecondary("sec"));
+
+        // the restored list is live again
+        matchupSet.addPrimary(new Sample(8, 9, 10.5, 11.5, 1200L));
+        assertEquals(3, matchupSet.getNumObservations());
+    }
+
+    @Test
+    public void testCompact_getSampleSet() {
+        matchupSet.addPrimary(new Sample(2, 3, 4.5, 5.5, 1000L));
+        matchupSet.addPrimary(new Sample(6, 7, 8.5, 9.5, 1100L));
+        matchupSet.compact();
+
+        final SampleSet sampleSet = matchupSet.getSampleSet(1);
+        assertEquals(6, sampleSet.getPrimary().getX());
+        assertEquals(1100L, sampleSet.getPrimary().getTime());
+
+        // creating a single sample set keeps the compact form
+        assertEquals(2, matchupSet.getPrimarySamples().size());
+    }
+
+    @Test
+    public void testCompact_largeTimeRange() {
+        matchupSet.addPrimary(new Sample(2, 3, 4.5, 5.5, 0L));
+        matchupSet.addPrimary(new Sample(6, 7, 8.5, 9.5, 4000000000000L));
+
+        matchupSet.compact();
+
+        final SampleColumns primarySamples = matchupSet.getPrimarySamples();
+        assertEquals(0L, primarySamples.getTime(0));
+        assertEquals(4000000000000L, primarySamples.getTime(1));
+    }
+
+    @Test
+    public void testCompact_emptySet() {
+        matchupSet.compact();
+
+        assertEquals(0, matchupSet.getNumObservations());
+        assertEquals(0, matchupSet.getSampleSets().size());
+    }
+
+    @Test
+    public void testRetainSamples() {
+        final SampleSet first = new SampleSet();
+        first.setPrimary(new Sample(2, 3, 4.5, 5.5, 1000L));
+        first.setSecondary("sec", new Sample(12, 13, 14.5, 15.5, 2000L));
+        final SampleSet second = new SampleSet();
+        second.setPrimary(new Sample(6, 7, 8.5, 9.5, 1100L));
+        final SampleSet third = new SampleSet();
+        third.setPrimary(new Sample(8, 9, 10.5, 11.5, 1200L));
+        third.setSecondary("sec", new Sample(18, 19, 20.5, 21.5, 2200L));
+        matchupSet.getSampleSets().add(first);
+        matchupSet.getSampleSets().add(second);
+        matchupSet.getSampleSets().add(third);
+
+        matchupSet.retainSamples(new boolean[]{false, true, true});
+
+        assertTrue(matchupSet.isCompacted());
+        assertEquals(2, matchupSet.getNumObservations());
+        final SampleColumns primarySamples = matchupSet.getPrimarySamples();
+        assertEquals(6, primarySamples.getX(0));
+        assertEquals(1200L, primarySamples.getTime(1));
+
+        final SampleColumns secondarySamples = matchupSet.getSecondarySamples("sec");
+        assertEquals(2, secondarySamples.size());
+        assertFalse(secondarySamples.isPresent(0));
+        assertTrue(secondarySamples.isPresent(1));
+        assertEquals(18, secondarySamples.getX(1));
+        assertEquals(2200L, secondarySamples.getTime(1));
+    }
 }
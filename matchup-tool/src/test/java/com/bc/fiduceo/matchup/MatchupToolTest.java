@@ -25,6 +25,7 @@ import com.bc.fiduceo.FiduceoConstants;
 import com.bc.fiduceo.TestUtil;
 import com.bc.fiduceo.core.Dimension;
 import com.bc.fiduceo.core.Sensor;
+import com.bc.fiduceo.core.SystemConfig;
 import com.bc.fiduceo.core.UseCaseConfig;
 import com.bc.fiduceo.core.UseCaseConfigBuilder;
 import com.bc.fiduceo.core.ValidationResult;
@@ -33,6 +34,8 @@ import com.bc.fiduceo.matchup.writer.IOVariablesList;
 import com.bc.fiduceo.matchup.writer.ReaderContainer;
 import com.bc.fiduceo.matchup.writer.VariablesConfiguration;
 import com.bc.fiduceo.matchup.writer.WindowReadingIOVariable;
+import com.bc.fiduceo.tool.ToolContext;
+import com.bc.fiduceo.util.TimeUtils;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
@@ -91,7 +94,13 @@ public class MatchupToolTest {
                 "   -c,--config <arg>           Defines the configuration directory. Defaults to './config'." + ls +
                 "   -end,--end-date <arg>       Defines the processing end-date, format 'yyyy-DDD'" + ls +
                 "   -h,--help                   Prints the tool usage." + ls +
+                "   -par,--parallel <arg>       Defines the number of processing periods processed concurrently, each using the" + ls +
+                "                               'matchup-threads' of the system configuration. Defaults to 1." + ls +
+                "   -periods,--periods <arg>    Defines a comma-separated list of processing periods 'yyyy-DDD:yyyy-DDD', one MMD file" + ls +
+                "                               per period. Replaces start-date and end-date." + ls +
                 "   -start,--start-date <arg>   Defines the processing start-date, format 'yyyy-DDD'" + ls +
+                "   -step,--step-days <arg>     Splits start-date to end-date into processing periods of the given number of days, one" + ls +
+                "                               MMD file per period." + ls +
                 "   -u,--usecase <arg>          Defines the path to the use-case configuration file. Path is relative to the" + ls +
                 "                               configuration directory." + ls, outputStream.toString());
     }
@@ -135,6 +144,27 @@ public class MatchupToolTest {
         assertEquals("usecase", useCaseOption.getLongOpt());
         assertEquals("Defines the path to the use-case configuration file. Path is relative to the configuration directory.", useCaseOption.getDescription());
         assertTrue(useCaseOption.hasArg());
+
+        final Option periodsOption = options.getOption("periods");
+        assertNotNull(periodsOption);
+        assertEquals("periods", periodsOption.getOpt());
+        assertEquals("periods", periodsOption.getLongOpt());
+        assertEquals("Defines a comma-separated list of processing periods 'yyyy-DDD:yyyy-DDD', one MMD file per period. Replaces start-date and end-date.", periodsOption.getDescription());
+        assertTrue(periodsOption.hasArg());
+
+        final Option stepOption = options.getOption("step");
+        assertNotNull(stepOption);
+        assertEquals("step", stepOption.getOpt());
+        assertEquals("step-days", stepOption.getLongOpt());
+        assertEquals("Splits start-date to end-date into processing periods of the given number of days, one MMD file per period.", stepOption.getDescription());
+        assertTrue(stepOption.hasArg());
+
+        final Option parallelOption = options.getOption("par");
+        assertNotNull(parallelOption);
+        assertEquals("par", parallelOption.getOpt());
+        assertEquals("parallel", parallelOption.getLongOpt());
+        assertEquals("Defines the number of processing periods processed concurrently, each using the 'matchup-threads' of the system configuration. Defaults to 1.", parallelOption.getDescription());
+        assertTrue(parallelOption.hasArg());
     }
 
     @Test
@@ -177,6 +207,161 @@ public class MatchupToolTest {
         }
     }
 
+    @Test
+    public void testGetProcessingPeriods_startAndEnd() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("start")).thenReturn("2016-120");
+        when(commandLine.getOptionValue("end")).thenReturn("2016-122");
+
+        final List<Date[]> periods = MatchupTool.getProcessingPeriods(commandLine);
+        assertEquals(1, periods.size());
+        TestUtil.assertCorrectUTCDate(2016, 4, 29, 0, 0, 0, 0, periods.get(0)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 1, 23, 59, 59, 999, periods.get(0)[1]);
+    }
+
+    @Test
+    public void testGetProcessingPeriods_step() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("start")).thenReturn("2016-120");
+        when(commandLine.getOptionValue("end")).thenReturn("2016-124");
+        when(commandLine.getOptionValue("step")).thenReturn("2");
+
+        final List<Date[]> periods = MatchupTool.getProcessingPeriods(commandLine);
+        assertEquals(3, periods.size());
+        TestUtil.assertCorrectUTCDate(2016, 4, 29, 0, 0, 0, 0, periods.get(0)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 4, 30, 23, 59, 59, 999, periods.get(0)[1]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 1, 0, 0, 0, 0, periods.get(1)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 2, 23, 59, 59, 999, periods.get(1)[1]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 3, 0, 0, 0, 0, periods.get(2)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 3, 23, 59, 59, 999, periods.get(2)[1]);
+    }
+
+    @Test
+    public void testGetProcessingPeriods_step_largerThanPeriod() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("start")).thenReturn("2016-120");
+        when(commandLine.getOptionValue("end")).thenReturn("2016-124");
+        when(commandLine.getOptionValue("step")).thenReturn("30000");
+
+        final List<Date[]> periods = MatchupTool.getProcessingPeriods(commandLine);
+        assertEquals(1, periods.size());
+        TestUtil.assertCorrectUTCDate(2016, 4, 29, 0, 0, 0, 0, periods.get(0)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 3, 23, 59, 59, 999, periods.get(0)[1]);
+    }
+
+    @Test
+    public void testGetProcessingPeriods_step_invalid() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("start")).thenReturn("2016-120");
+        when(commandLine.getOptionValue("end")).thenReturn("2016-124");
+        when(commandLine.getOptionValue("step")).thenReturn("0");
+
+        try {
+            MatchupTool.getProcessingPeriods(commandLine);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+            assertEquals("Value of cmd-line parameter `step` >= 1 expected. But was '0'.", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetProcessingPeriods_list() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("periods")).thenReturn("2016-120:2016-120, 2016-130:2016-132");
+
+        final List<Date[]> periods = MatchupTool.getProcessingPeriods(commandLine);
+        assertEquals(2, periods.size());
+        TestUtil.assertCorrectUTCDate(2016, 4, 29, 0, 0, 0, 0, periods.get(0)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 4, 29, 23, 59, 59, 999, periods.get(0)[1]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 9, 0, 0, 0, 0, periods.get(1)[0]);
+        TestUtil.assertCorrectUTCDate(2016, 5, 11, 23, 59, 59, 999, periods.get(1)[1]);
+    }
+
+    @Test
+    public void testGetProcessingPeriods_list_invalid() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("periods")).thenReturn("2016-120:2016-121,2016-130");
+
+        try {
+            MatchupTool.getProcessingPeriods(commandLine);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+            assertEquals("Invalid processing period '2016-130', format 'yyyy-DDD:yyyy-DDD' expected", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetProcessingPeriods_list_endBeforeStart() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("periods")).thenReturn("2016-122:2016-121");
+
+        try {
+            MatchupTool.getProcessingPeriods(commandLine);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+            assertEquals("Processing period end '2016-121' before start '2016-122'", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetProcessingPeriods_listAndStartDate() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        when(commandLine.getOptionValue("periods")).thenReturn("2016-120:2016-121");
+        when(commandLine.getOptionValue("start")).thenReturn("2016-120");
+
+        try {
+            MatchupTool.getProcessingPeriods(commandLine);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+            assertEquals("cmd-line parameter `periods` can not be combined with `start` and `end`", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetParallelPeriods() {
+        final CommandLine commandLine = mock(CommandLine.class);
+        assertEquals(1, MatchupTool.getParallelPeriods(commandLine));
+
+        when(commandLine.getOptionValue("par")).thenReturn("4");
+        assertEquals(4, MatchupTool.getParallelPeriods(commandLine));
+    }
+
+    @Test
+    public void testCreatePeriodContext() {
+        final ToolContext context = new ToolContext();
+        final SystemConfig systemConfig = new SystemConfig();
+        context.setSystemConfig(systemConfig);
+        final UseCaseConfig useCaseConfig = UseCaseConfigBuilder.build("test").createConfig();
+        context.setUseCaseConfig(useCaseConfig);
+        context.setStartDate(new Date(1000L));
+
+        final Date[] period = {new Date(2000L), new Date(3000L)};
+        final ToolContext periodContext = MatchupTool.createPeriodContext(context, period);
+
+        assertEquals(2000L, periodContext.getStartDate().getTime());
+        assertEquals(3000L, periodContext.getEndDate().getTime());
+        assertSame(systemConfig, periodContext.getSystemConfig());
+        assertSame(useCaseConfig, periodContext.getUseCaseConfig());
+        assertEquals(1000L, context.getStartDate().getTime());
+    }
+
+    @Test
+    public void testGetPerformanceStatisticsFiles() {
+        final UseCaseConfig useCaseConfig = UseCaseConfigBuilder.build("mmd-08")
+                .withSensors(Arrays.asList(createSensor("amsub-n15", true), createSensor("mhs-n18", false)))
+                .withOutputPath(Paths.get("output", "mmd").toString())
+                .createConfig();
+        final ToolContext context = new ToolContext();
+        context.setUseCaseConfig(useCaseConfig);
+        context.setStartDate(TimeUtils.parseDOYBeginOfDay("2007-112"));
+        context.setEndDate(TimeUtils.parseDOYEndOfDay("2007-114"));
+
+        final Path[] statisticsFiles = MatchupTool.getPerformanceStatisticsFiles(context);
+        assertEquals(2, statisticsFiles.length);
+        assertEquals(Paths.get("output", "mmd", "mmd-08_amsub-n15_mhs-n18_2007-112_2007-114_stats.json"), statisticsFiles[0]);
+        assertEquals(Paths.get("output", "mmd", "mmd-08_amsub-n15_mhs-n18_2007-112_2007-114_stats.csv"), statisticsFiles[1]);
+    }
+
     @Test
     public void testCreateErrorMessage_noErrors() {
         final StringBuilder errorMessage = MatchupTool.createErrorMessage(new ValidationResult());
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup;
+
+import com.bc.fiduceo.core.Sample;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SampleColumnsTest {
+
+    @Test
+    public void testAddAndGet() {
+        final SampleColumns columns = new SampleColumns(2, 1000L, 1200L);
+        assertEquals(0, columns.size());
+
+        columns.add(new Sample(2, 3, 4.5, 5.5, 1000L));
+        columns.add(new Sample(6, 7, 8.5, 9.5, 1200L));
+
+        assertEquals(2, columns.size());
+        assertTrue(columns.isPresent(0));
+        assertEquals(2, columns.getX(0));
+        assertEquals(3, columns.getY(0));
+        assertEquals(4.5, columns.getLon(0), 0.0);
+        assertEquals(5.5, columns.getLat(0), 0.0);
+        assertEquals(1000L, columns.getTime(0));
+        assertEquals(6, columns.getX(1));
+        assertEquals(1200L, columns.getTime(1));
+    }
+
+    @Test
+    public void testAdd_missingSample() {
+        final SampleColumns columns = new SampleColumns(3, 1000L, 1000L);
+
+        columns.add(new Sample(2, 3, 4.5, 5.5, 1000L));
+        columns.add(null);
+        columns.add(new Sample(6, 7, 8.5, 9.5, 1000L));
+
+        assertEquals(3, columns.size());
+        assertTrue(columns.isPresent(0));
+        assertFalse(columns.isPresent(1));
+        assertTrue(columns.isPresent(2));
+        assertNull(columns.getSample(1));
+    }
+
+    @Test
+    public void testGetSample() {
+        final SampleColumns columns = new SampleColumns(1, 1000L, 1000L);
+        columns.add(new Sample(2, 3, 4.5, 5.5, 1000L));
+
+        final Sample sample = columns.getSample(0);
+        assertEquals(2, sample.getX());
+        assertEquals(3, sample.getY());
+        assertEquals(4.5, sample.getLon(), 0.0);
+        assertEquals(5.5, sample.getLat(), 0.0);
+        assertEquals(1000L, sample.getTime());
+    }
+
+    @Test
+    public void testTimes_exceedingTheIntRange() {
+        final SampleColumns columns = new SampleColumns(2, -5L, Long.MAX_VALUE);
+
+        columns.add(new Sample(2, 3, 4.5, 5.5, -5L));
+        columns.add(new Sample(6, 7, 8.5, 9.5, Long.MAX_VALUE));
+
+        assertEquals(-5L, columns.getTime(0));
+        assertEquals(Long.MAX_VALUE, columns.getTime(1));
+    }
+
+    @Test
+    public void testTimes_noTimeRange() {
+        final SampleColumns columns = new SampleColumns(1, Long.MAX_VALUE, Long.MIN_VALUE);
+
+        columns.add(null);
+
+        assertEquals(1, columns.size());
+        assertFalse(columns.isPresent(0));
+    }
+
+    @Test
+    public void testRetain() {
+        final SampleColumns columns = new SampleColumns(4, 1000L, 1300L);
+        columns.add(new Sample(2, 3, 4.5, 5.5, 1000L));
+        columns.add(null);
+        columns.add(new Sample(6, 7, 8.5, 9.5, 1200L));
+        columns.add(new Sample(8, 9, 10.5, 11.5, 1300L));
+
+        columns.retain(new boolean[]{false, true, false, true});
+
+        assertEquals(2, columns.size());
+        assertFalse(columns.isPresent(0));
+        assertTrue(columns.isPresent(1));
+        assertEquals(8, columns.getX(1));
+        assertEquals(9, columns.getY(1));
+        assertEquals(10.5, columns.getLon(1), 0.0);
+        assertEquals(11.5, columns.getLat(1), 0.0);
+        assertEquals(1300L, columns.getTime(1));
+
+        // the freed entries can be added again
+        columns.add(new Sample(12, 13, 14.5, 15.5, 1100L));
+        assertEquals(3, columns.size());
+        assertTrue(columns.isPresent(2));
+        assertEquals(12, columns.getX(2));
+    }
+}
@@ -25,6 +25,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Set;
+
 import static org.junit.Assert.*;
 
 public class SampleSetTest {
@@ -62,6 +64,19 @@ public class SampleSetTest {
         assertEquals(sample.getX(), result.getX());
     }
 
+    @Test
+    public void testGetSecondaryKeys() {
+        assertEquals(0, sampleSet.getSecondaryKeys().size());
+
+        sampleSet.setSecondary("Fritz", new Sample(6, 7, 8, 9, 10L));
+        sampleSet.setSecondary("Franz", new Sample(7, 8, 9, 10, 11L));
+
+        final Set<String> keys = sampleSet.getSecondaryKeys();
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains("Fritz"));
+        assertTrue(keys.contains("Franz"));
+    }
+
     @Test
     public void testOnlyOneSecondaryKey_defaultValue() {
         assertEquals("0000", SampleSet.getOnlyOneSecondaryKey());
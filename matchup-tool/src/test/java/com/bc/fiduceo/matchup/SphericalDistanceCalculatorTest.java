@@ -38,4 +38,18 @@ public class SphericalDistanceCalculatorTest {
 
         assertEquals(1.1166796684265137f, (float) km, 1e-8);
     }
+
+    @Test
+    public void testCalculate_sampleColumns() {
+        final SampleSet sampleSet = new SampleSet();
+        sampleSet.setPrimary(new Sample(0, 1, 12.0876, 22.562, 3));
+        sampleSet.setSecondary(SampleSet.getOnlyOneSecondaryKey(), new Sample(4, 5, 12.0886, 22.572, 3));
+        final MatchupSet matchupSet = new MatchupSet();
+        matchupSet.getSampleSets().add(sampleSet);
+        matchupSet.compact();
+
+        final double km = SphericalDistanceCalculator.calculateKm(SampleSet.getOnlyOneSecondaryKey(), matchupSet, 0);
+
+        assertEquals(1.1166796684265137f, (float) km, 1e-8);
+    }
 }
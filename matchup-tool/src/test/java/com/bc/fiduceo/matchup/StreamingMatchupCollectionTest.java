@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup;
+
+import com.bc.fiduceo.matchup.writer.IOVariablesList;
+import com.bc.fiduceo.matchup.writer.MmdWriter;
+import com.bc.fiduceo.tool.ToolContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+public class StreamingMatchupCollectionTest {
+
+    private MmdWriter mmdWriter;
+    private ToolContext context;
+    private IOVariablesList ioVariablesList;
+    private List<MatchupSet> factoryCalls;
+    private StreamingMatchupCollection collection;
+
+    @Before
+    public void setUp() {
+        mmdWriter = mock(MmdWriter.class);
+        context = mock(ToolContext.class);
+        ioVariablesList = mock(IOVariablesList.class);
+        factoryCalls = new ArrayList<>();
+
+        collection = new StreamingMatchupCollection(mmdWriter, context, firstMatchupSet -> {
+            factoryCalls.add(firstMatchupSet);
+            return ioVariablesList;
+        });
+    }
+
+    @Test
+    public void testAdd_initializesWithFirstSetAndWritesEachSet() throws Exception {
+        final MatchupSet first = createMatchupSet(3);
+        final MatchupSet second = createMatchupSet(5);
+
+        collection.add(first);
+        collection.add(second);
+
+        assertEquals(1, factoryCalls.size());
+        assertSame(first, factoryCalls.get(0));
+
+        verify(mmdWriter, times(1)).initialize(context, ioVariablesList);
+        verify(mmdWriter, times(1)).write(first);
+        verify(mmdWriter, times(1)).write(second);
+        verifyNoMoreInteractions(mmdWriter);
+    }
+
+    @Test
+    public void testAdd_emptySetsAreSkipped() throws Exception {
+        final MatchupSet empty = createMatchupSet(0);
+        final MatchupSet filled = createMatchupSet(2);
+
+        collection.add(empty);
+        collection.add(filled);
+
+        assertEquals(1, factoryCalls.size());
+        assertSame(filled, factoryCalls.get(0));
+
+        verify(mmdWriter, times(1)).initialize(context, ioVariablesList);
+        verify(mmdWriter, times(1)).write(filled);
+        verifyNoMoreInteractions(mmdWriter);
+    }
+
+    @Test
+    public void testAdd_writeFailureIsRethrown() throws Exception {
+        final MatchupSet matchupSet = createMatchupSet(2);
+        doThrow(new IOException("disk full")).when(mmdWriter).write(matchupSet);
+
+        try {
+            collection.add(matchupSet);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testGetSets_isAlwaysEmpty() {
+        collection.add(createMatchupSet(4));
+
+        assertEquals(0, collection.getSets().size());
+    }
+
+    @Test
+    public void testGetNumMatchups() {
+        assertEquals(0, collection.getNumMatchups());
+
+        when(mmdWriter.getNumMatchupsWritten()).thenReturn(11);
+        collection.add(createMatchupSet(11));
+
+        assertEquals(11, collection.getNumMatchups());
+    }
+
+    @Test
+    public void testClose_closesWriterAndVariables() throws Exception {
+        collection.add(createMatchupSet(1));
+
+        collection.close();
+
+        verify(mmdWriter, times(1)).close();
+        verify(ioVariablesList, times(1)).close();
+    }
+
+    @Test
+    public void testClose_nothingWritten() throws Exception {
+        collection.close();
+
+        verifyNoMoreInteractions(mmdWriter);
+        verifyNoMoreInteractions(ioVariablesList);
+    }
+
+    @Test
+    public void testClose_writeFailureAbortsWriter() throws Exception {
+        collection.add(createMatchupSet(1));
+        doThrow(new IOException("disk full")).when(mmdWriter).close();
+
+        try {
+            collection.close();
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertEquals("disk full", expected.getMessage());
+        }
+
+        verify(mmdWriter, times(1)).abort();
+        verify(ioVariablesList, times(1)).close();
+    }
+
+    @Test
+    public void testAbort_abortsWriterAndClosesVariables() throws Exception {
+        collection.add(createMatchupSet(1));
+
+        collection.abort();
+
+        verify(mmdWriter, times(1)).abort();
+        verify(mmdWriter, never()).close();
+        verify(ioVariablesList, times(1)).close();
+    }
+
+    @Test
+    public void testAbort_nothingWritten() throws Exception {
+        collection.abort();
+
+        verifyNoMoreInteractions(mmdWriter);
+        verifyNoMoreInteractions(ioVariablesList);
+    }
+
+    private static MatchupSet createMatchupSet(int numObservations) {
+        final MatchupSet matchupSet = mock(MatchupSet.class);
+        when(matchupSet.getNumObservations()).thenReturn(numObservations);
+        return matchupSet;
+    }
+}
@@ -41,6 +41,7 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 public class ConditionEngineTest {
@@ -259,6 +260,55 @@ public class ConditionEngineTest {
         }
     }
 
+    @Test
+    public void testFuse_noConditions() {
+        final List<Condition> fused = ConditionEngine.fuse(new ArrayList<>());
+
+        assertEquals(0, fused.size());
+    }
+
+    @Test
+    public void testFuse_singleSampleCondition() {
+        final List<Condition> conditions = new ArrayList<>();
+        final TimeRangeCondition timeRangeCondition = new TimeRangeCondition();
+        conditions.add(timeRangeCondition);
+
+        final List<Condition> fused = ConditionEngine.fuse(conditions);
+        assertEquals(1, fused.size());
+        assertSame(timeRangeCondition, fused.get(0));
+    }
+
+    @Test
+    public void testFuse_orderDependentConditionSeparatesFusedSequences() {
+        final TimeDeltaCondition timeDeltaCondition = new TimeDeltaCondition(300);
+        final DistanceCondition distanceCondition = new DistanceCondition(5.0);
+        final OverlapRemoveCondition overlapRemoveCondition = new OverlapRemoveCondition();
+        final PixelPositionCondition pixelPositionCondition = new PixelPositionCondition(new PixelPositionCondition.Configuration());
+        final TimeRangeCondition timeRangeCondition = new TimeRangeCondition();
+
+        final List<Condition> conditions = new ArrayList<>();
+        conditions.add(timeDeltaCondition);
+        conditions.add(distanceCondition);
+        conditions.add(overlapRemoveCondition);
+        conditions.add(pixelPositionCondition);
+        conditions.add(timeRangeCondition);
+
+        final List<Condition> fused = ConditionEngine.fuse(conditions);
+        assertEquals(3, fused.size());
+
+        final SampleCondition[] firstSequence = ((FusedSampleCondition) fused.get(0)).getConditions();
+        assertEquals(2, firstSequence.length);
+        assertSame(timeDeltaCondition, firstSequence[0]);
+        assertSame(distanceCondition, firstSequence[1]);
+
+        assertSame(overlapRemoveCondition, fused.get(1));
+
+        final SampleCondition[] secondSequence = ((FusedSampleCondition) fused.get(2)).getConditions();
+        assertEquals(2, secondSequence.length);
+        assertSame(pixelPositionCondition, secondSequence[0]);
+        assertSame(timeRangeCondition, secondSequence[1]);
+    }
+
     private SampleSet createSampleSet(long primaryTime, long secondaryTime) {
         final SampleSet sampleSet = new SampleSet();
         sampleSet.setPrimary(new Sample(0, 0, 0, 0, primaryTime));
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.condition;
+
+import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.matchup.MatchupSet;
+import com.bc.fiduceo.matchup.SampleColumns;
+import com.bc.fiduceo.matchup.SampleSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FusedSampleConditionTest {
+
+    private ConditionEngineContext context;
+
+    @Before
+    public void setUp() {
+        context = new ConditionEngineContext();
+        context.setStartDate(new Date(1000));
+        context.setEndDate(new Date(5000));
+    }
+
+    @Test
+    public void testApply_emptySet() {
+        final MatchupSet matchupSet = new MatchupSet();
+
+        new FusedSampleCondition(new TimeRangeCondition(), new TimeDeltaCondition(100)).apply(matchupSet, context);
+
+        assertEquals(0, matchupSet.getNumObservations());
+    }
+
+    @Test
+    public void testApply_keepsOrderOfAcceptedSamples() {
+        final MatchupSet matchupSet = new MatchupSet();
+        final List<SampleSet> sampleSets = matchupSet.getSampleSets();
+        final SampleSet first = createSampleSet(10, 1000, 1050);
+        final SampleSet second = createSampleSet(11, 2000, 2200);      // <- time delta too large
+        final SampleSet third = createSampleSet(12, 3000, 3000);
+        final SampleSet fourth = createSampleSet(13, 6000, 6000);      // <- outside time range
+        final SampleSet fifth = createSampleSet(14, 4000, 3990);
+        sampleSets.add(first);
+        sampleSets.add(second);
+        sampleSets.add(third);
+        sampleSets.add(fourth);
+        sampleSets.add(fifth);
+
+        new FusedSampleCondition(new TimeRangeCondition(), new TimeDeltaCondition(100)).apply(matchupSet, context);
+
+        final List<SampleSet> result = matchupSet.getSampleSets();
+        assertEquals(3, result.size());
+        assertSame(first, result.get(0));
+        assertSame(third, result.get(1));
+        assertSame(fifth, result.get(2));
+    }
+
+    @Test
+    public void testApply_rejectsAtFirstFailingCondition() {
+        final MatchupSet matchupSet = new MatchupSet();
+        final List<SampleSet> sampleSets = matchupSet.getSampleSets();
+        sampleSets.add(createSampleSet(10, 1000, 1000));
+        sampleSets.add(createSampleSet(11, 1000, 1000));
+        sampleSets.add(createSampleSet(12, 1000, 1000));
+
+        final List<Integer> evaluated = new ArrayList<>();
+        final SampleCondition oddX = (sampleSet, context) -> sampleSet.getPrimary().getX() % 2 == 1;
+        final SampleCondition recording = (sampleSet, context) -> evaluated.add(sampleSet.getPrimary().getX());
+
+        new FusedSampleCondition(oddX, recording).apply(matchupSet, context);
+
+        assertEquals(1, matchupSet.getNumObservations());
+        assertEquals(1, evaluated.size());
+        assertEquals(11, evaluated.get(0).intValue());
+    }
+
+    @Test
+    public void testApply_sameResultAsSequentialConditions() {
+        final PixelPositionCondition.Configuration configuration = new PixelPositionCondition.Configuration();
+        configuration.minX = 3;
+        configuration.maxX = 16;
+        final SampleCondition[] conditions = {new TimeDeltaCondition(300), new PixelPositionCondition(configuration), new TimeRangeCondition()};
+
+        final MatchupSet sequentialSet = new MatchupSet();
+        final MatchupSet fusedSet = new MatchupSet();
+        for (int i = 0; i < 20; i++) {
+            final long primaryTime = 500 + i * 250;
+            final long secondaryTime = primaryTime + (i % 3) * 200;
+            sequentialSet.getSampleSets().add(createSampleSet(i, primaryTime, secondaryTime));
+            fusedSet.getSampleSets().add(createSampleSet(i, primaryTime, secondaryTime));
+        }
+
+        for (final SampleCondition condition : conditions) {
+            condition.apply(sequentialSet, context);
+        }
+        new FusedSampleCondition(conditions).apply(fusedSet, context);
+
+        final List<SampleSet> expected = sequentialSet.getSampleSets();
+        final List<SampleSet> actual = fusedSet.getSampleSets();
+        assertEquals(10, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPrimary().getX(), actual.get(i).getPrimary().getX());
+        }
+    }
+
+    @Test
+    public void testApply_sequentialList() {
+        final MatchupSet matchupSet = new MatchupSet();
+        final LinkedList<SampleSet> sampleSets = new LinkedList<>();
+        sampleSets.add(createSampleSet(10, 1000, 1000));
+        sampleSets.add(createSampleSet(11, 7000, 7000));    // <- outside time range
+        sampleSets.add(createSampleSet(12, 2000, 2000));
+        matchupSet.setSampleSets(sampleSets);
+
+        new TimeRangeCondition().apply(matchupSet, context);
+
+        final List<SampleSet> result = matchupSet.getSampleSets();
+        assertEquals(2, result.size());
+        assertEquals(10, result.get(0).getPrimary().getX());
+        assertEquals(12, result.get(1).getPrimary().getX());
+    }
+
+    private SampleSet createSampleSet(int x, long primaryTime, long secondaryTime) {
+        final SampleSet sampleSet = new SampleSet();
+        sampleSet.setPrimary(new Sample(x, 0, 0, 0, primaryTime));
+        sampleSet.setSecondary(SampleSet.getOnlyOneSecondaryKey(), new Sample(x, 0, 0, 0, secondaryTime));
+        return sampleSet;
+    }
+
+    @Test
+    public void testApply_compactedSet() {
+        final PixelPositionCondition.Configuration configuration = new PixelPositionCondition.Configuration();
+        configuration.minX = 3;
+        configuration.maxX = 16;
+        final DistanceCondition distanceCondition = new DistanceCondition(1000.0);
+        final SampleCondition[] conditions = {new TimeDeltaCondition(300), new PixelPositionCondition(configuration),
+                new TimeRangeCondition(), distanceCondition};
+
+        final MatchupSet objectSet = new MatchupSet();
+        final MatchupSet compactedSet = new MatchupSet();
+        for (int i = 0; i < 20; i++) {
+            final long primaryTime = 500 + i * 250;
+            final long secondaryTime = primaryTime + (i % 3) * 200;
+            objectSet.getSampleSets().add(createSampleSet(i, primaryTime, secondaryTime));
+            compactedSet.getSampleSets().add(createSampleSet(i, primaryTime, secondaryTime));
+        }
+        compactedSet.compact();
+
+        new FusedSampleCondition(conditions).apply(objectSet, context);
+        new FusedSampleCondition(conditions).apply(compactedSet, context);
+
+        assertTrue(compactedSet.isCompacted());
+        final List<SampleSet> expected = objectSet.getSampleSets();
+        final SampleColumns actual = compactedSet.getPrimarySamples();
+        assertEquals(10, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getPrimary().getX(), actual.getX(i));
+            assertEquals(expected.get(i).getPrimary().getTime(), actual.getTime(i));
+        }
+    }
+}
@@ -25,11 +25,14 @@ import com.bc.fiduceo.matchup.SampleSet;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class NonOverlappingCollectorTest {
@@ -329,6 +332,54 @@ public class NonOverlappingCollectorTest {
         assertFalse(primaryCollector.areOverlapping(reference, sample));
     }
 
+    @Test
+    public void testAdd_negativePixelPositions() {
+        primaryCollector.add(createSampleSet(-1, -2, 0, 0));
+        primaryCollector.add(createSampleSet(1, 2, 0, 0));     // overlapping
+        primaryCollector.add(createSampleSet(-4, -2, 0, 0));
+
+        final List<SampleSet> sampleSets = primaryCollector.get();
+        assertEquals(2, sampleSets.size());
+        assertEquals(-1, sampleSets.get(0).getPrimary().getX());
+        assertEquals(-4, sampleSets.get(1).getPrimary().getX());
+    }
+
+    @Test
+    public void testAdd_emptyWindow() {
+        final NonOverlappingCollector collector = new NonOverlappingCollector(0, 5, true);
+        collector.add(createSampleSet(12, 13, 0, 0));
+        collector.add(createSampleSet(12, 13, 0, 0));
+
+        assertEquals(2, collector.get().size());
+    }
+
+    @Test
+    public void testAdd_randomSamples_sameAsExhaustiveSearch() {
+        final Random random = new Random(3456);
+        final List<SampleSet> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            final SampleSet sampleSet = createSampleSet(random.nextInt(200) - 20, random.nextInt(300) - 30, 0, 0);
+            primaryCollector.add(sampleSet);
+
+            boolean overlapping = false;
+            for (final SampleSet accepted : expected) {
+                if (primaryCollector.areOverlapping(accepted.getPrimary(), sampleSet.getPrimary())) {
+                    overlapping = true;
+                    break;
+                }
+            }
+            if (!overlapping) {
+                expected.add(sampleSet);
+            }
+        }
+
+        final List<SampleSet> sampleSets = primaryCollector.get();
+        assertEquals(expected.size(), sampleSets.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), sampleSets.get(i));
+        }
+    }
+
     private SampleSet createSampleSet(int primaryX, int primaryY, int secondaryX, int secondaryY) {
         return createSampleSet(primaryX, primaryY, secondaryX, secondaryY, SampleSet.getOnlyOneSecondaryKey());
     }
@@ -137,6 +137,20 @@ public class OverlapRemoveConditionTest {
         assertEquals(3, matchupSet.getNumObservations());
     }
 
+    @Test
+    public void testRemove_samePosition_firstOneIsKept() {
+        Util.addSampleSet(108, 346, 3567, 12056, matchupSet);
+        Util.addSampleSet(108, 346, 1000, 2000, matchupSet);
+        Util.addSampleSet(20, 30, 500, 600, matchupSet);
+
+        primaryCondition.apply(matchupSet, context);
+
+        assertEquals(2, matchupSet.getNumObservations());
+        assertEquals(20, matchupSet.getSampleSets().get(0).getPrimary().getX());
+        assertEquals(108, matchupSet.getSampleSets().get(1).getPrimary().getX());
+        assertEquals(3567, matchupSet.getSampleSets().get(1).getSecondary(SampleSet.getOnlyOneSecondaryKey()).getX());
+    }
+
     @Test
     @Ignore
     public void testRemove_performanceTest_mimick_AATSR() {
@@ -60,8 +60,8 @@ public class PixelValueScreeningTest {
     @Test
     public void testApply_emptyInputSet() throws IOException, InvalidRangeException {
         final MatchupSet matchupSet = new MatchupSet();
-        final Reader primaryReader = mock(Reader.class);
-        final Reader secondaryReader = mock(Reader.class);
+        final Reader primaryReader = createReader();
+        final Reader secondaryReader = createReader();
         secondaryReaderMap.put(secondarySensorName, secondaryReader);
 
         assertEquals(0, matchupSet.getNumObservations());
@@ -80,13 +80,10 @@ public class PixelValueScreeningTest {
         sampleSets.add(createSampleSet(34, 275, 46, 655));
         sampleSets.add(createSampleSet(35, 276, 47, 656));  // <- this one gets removed
 
-        final Array regularScanArray = mock(ucar.ma2.Array.class);
-        when(regularScanArray.getInt(0)).thenReturn(0);
+        final Array regularScanArray = createScanlineTypeArray(0);
+        final Array calibrationScanArray = createScanlineTypeArray(3);
 
-        final Array calibrationScanArray = mock(ucar.ma2.Array.class);
-        when(calibrationScanArray.getInt(0)).thenReturn(3);
-
-        final Reader primaryReader = mock(Reader.class);
+        final Reader primaryReader = createReader();
         when(primaryReader.readScaled(eq(33), eq(274), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(primaryReader.readScaled(eq(34), eq(275), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(primaryReader.readScaled(eq(35), eq(276), any(), eq("scanline_type"))).thenReturn(calibrationScanArray);
@@ -94,7 +91,7 @@ public class PixelValueScreeningTest {
         final List<Variable> variables = createVariablesList();
         when(primaryReader.getVariables()).thenReturn(variables);
 
-        final Reader secondaryReader = mock(Reader.class);
+        final Reader secondaryReader = createReader();
         when(secondaryReader.readScaled(eq(45), eq(654), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(secondaryReader.readScaled(eq(46), eq(655), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(secondaryReader.readScaled(eq(47), eq(656), any(), eq("scanline_type"))).thenReturn(regularScanArray);
@@ -126,13 +123,10 @@ public class PixelValueScreeningTest {
         sampleSets.add(createSampleSet(35, 276, 47, 656));
         sampleSets.add(createSampleSet(36, 277, 48, 657));
 
-        final Array regularScanArray = mock(ucar.ma2.Array.class);
-        when(regularScanArray.getInt(0)).thenReturn(0);
-
-        final Array calibrationScanArray = mock(ucar.ma2.Array.class);
-        when(calibrationScanArray.getInt(0)).thenReturn(3);
+        final Array regularScanArray = createScanlineTypeArray(0);
+        final Array calibrationScanArray = createScanlineTypeArray(3);
 
-        final Reader primaryReader = mock(Reader.class);
+        final Reader primaryReader = createReader();
         when(primaryReader.readScaled(eq(34), eq(275), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(primaryReader.readScaled(eq(35), eq(276), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(primaryReader.readScaled(eq(36), eq(277), any(), eq("scanline_type"))).thenReturn(regularScanArray);
@@ -140,7 +134,7 @@ public class PixelValueScreeningTest {
         final List<Variable> variables = createVariablesList();
         when(primaryReader.getVariables()).thenReturn(variables);
 
-        final Reader secondaryReader = mock(Reader.class);
+        final Reader secondaryReader = createReader();
         when(secondaryReader.readScaled(eq(46), eq(655), any(), eq("scanline_type"))).thenReturn(calibrationScanArray);
         when(secondaryReader.readScaled(eq(47), eq(656), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(secondaryReader.readScaled(eq(48), eq(657), any(), eq("scanline_type"))).thenReturn(regularScanArray);
@@ -171,13 +165,10 @@ public class PixelValueScreeningTest {
         sampleSets.add(createSampleSet(36, 277, 48, 657));
         sampleSets.add(createSampleSet(37, 278, 49, 658));  // <- this one gets removed
 
-        final Array regularScanArray = mock(ucar.ma2.Array.class);
-        when(regularScanArray.getInt(0)).thenReturn(0);
+        final Array regularScanArray = createScanlineTypeArray(0);
+        final Array calibrationScanArray = createScanlineTypeArray(3);
 
-        final Array calibrationScanArray = mock(ucar.ma2.Array.class);
-        when(calibrationScanArray.getInt(0)).thenReturn(3);
-
-        final Reader primaryReader = mock(Reader.class);
+        final Reader primaryReader = createReader();
         when(primaryReader.readScaled(eq(35), eq(276), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(primaryReader.readScaled(eq(36), eq(277), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(primaryReader.readScaled(eq(37), eq(278), any(), eq("scanline_type"))).thenReturn(calibrationScanArray);
@@ -185,7 +176,7 @@ public class PixelValueScreeningTest {
         final List<Variable> variables = createVariablesList();
         when(primaryReader.getVariables()).thenReturn(variables);
 
-        final Reader secondaryReader = mock(Reader.class);
+        final Reader secondaryReader = createReader();
         when(secondaryReader.readScaled(eq(47), eq(656), any(), eq("scanline_type"))).thenReturn(calibrationScanArray);
         when(secondaryReader.readScaled(eq(48), eq(657), any(), eq("scanline_type"))).thenReturn(regularScanArray);
         when(secondaryReader.readScaled(eq(49), eq(658), any(), eq("scanline_type"))).thenReturn(regularScanArray);
@@ -227,4 +218,15 @@ public class PixelValueScreeningTest {
         return variables;
     }
 
+
+    private static Reader createReader() throws IOException, InvalidRangeException {
+        final Reader reader = mock(Reader.class);
+        // the default implementation stacks the windows read with readScaled()
+        when(reader.readScaledWindows(any(), any(), any(), any())).thenCallRealMethod();
+        return reader;
+    }
+
+    private static Array createScanlineTypeArray(int value) {
+        return Array.factory(DataType.INT, new int[]{1, 1}, new int[]{value});
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.screening.expression;
+
+import com.bc.fiduceo.reader.Reader;
+import org.esa.snap.core.jexp.Symbol;
+import org.junit.Before;
+import org.junit.Test;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Variable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ColumnNamespaceTest {
+
+    private Reader reader;
+
+    @Before
+    public void setUp() throws IOException, InvalidRangeException {
+        final List<Variable> variables = new ArrayList<>();
+        variables.add(createVariable("flags", DataType.INT));
+        variables.add(createVariable("radiance", DataType.FLOAT));
+
+        reader = mock(Reader.class);
+        when(reader.getVariables()).thenReturn(variables);
+        // the default implementation stacks the windows read with readScaled()
+        when(reader.readScaledWindows(any(), any(), any(), any())).thenCallRealMethod();
+    }
+
+    @Test
+    public void testResolveSymbol() throws IOException, InvalidRangeException {
+        final ColumnNamespace namespace = new ColumnNamespace(reader);
+
+        final Symbol symbol = namespace.resolveSymbol("flags");
+        assertEquals("flags", symbol.getName());
+
+        assertNull(namespace.resolveSymbol("not_a_variable"));
+        assertEquals("PI", namespace.resolveSymbol("PI").getName());
+    }
+
+    @Test
+    public void testReadColumns() throws IOException, InvalidRangeException {
+        when(reader.readScaled(eq(10), eq(100), any(), eq("flags"))).thenReturn(createArray(0.0));
+        when(reader.readScaled(eq(11), eq(101), any(), eq("flags"))).thenReturn(createArray(4.0));
+        when(reader.readScaled(eq(12), eq(102), any(), eq("flags"))).thenReturn(createArray(-7.0));
+
+        final ColumnNamespace namespace = new ColumnNamespace(reader);
+        final Symbol symbol = namespace.resolveSymbol("flags");
+
+        namespace.readColumns(new int[]{10, 11, 12}, new int[]{100, 101, 102});
+
+        final ColumnEvalEnv evalEnv = new ColumnEvalEnv();
+        evalEnv.setIndex(0);
+        assertEquals(0, symbol.evalI(evalEnv));
+        assertFalse(symbol.evalB(evalEnv));
+
+        evalEnv.setIndex(1);
+        assertEquals(4, symbol.evalI(evalEnv));
+        assertEquals(4.0, symbol.evalD(evalEnv), 1e-8);
+        assertTrue(symbol.evalB(evalEnv));
+
+        evalEnv.setIndex(2);
+        assertEquals(-7, symbol.evalI(evalEnv));
+    }
+
+    @Test
+    public void testReadColumns_readsEachPixelOnce() throws IOException, InvalidRangeException {
+        when(reader.readScaled(eq(10), eq(100), any(), eq("radiance"))).thenReturn(createArray(2.75));
+        when(reader.readScaled(eq(11), eq(100), any(), eq("radiance"))).thenReturn(createArray(3.5));
+
+        final ColumnNamespace namespace = new ColumnNamespace(reader);
+        final Symbol symbol = namespace.resolveSymbol("radiance");
+
+        namespace.readColumns(new int[]{10, 11, 10, 10}, new int[]{100, 100, 100, 100});
+
+        final ColumnEvalEnv evalEnv = new ColumnEvalEnv();
+        evalEnv.setIndex(2);
+        assertEquals(2.75, symbol.evalD(evalEnv), 1e-8);
+        evalEnv.setIndex(3);
+        assertEquals(2.75, symbol.evalD(evalEnv), 1e-8);
+        evalEnv.setIndex(1);
+        assertEquals(3.5, symbol.evalD(evalEnv), 1e-8);
+
+        verify(reader, times(1)).readScaledWindows(aryEq(new int[]{10, 11}), aryEq(new int[]{100, 100}), any(), eq("radiance"));
+        verify(reader, times(1)).readScaled(eq(10), eq(100), any(), eq("radiance"));
+        verify(reader, times(1)).readScaled(eq(11), eq(100), any(), eq("radiance"));
+    }
+
+    @Test
+    public void testReadColumns_onlyReferencedVariables() throws IOException, InvalidRangeException {
+        when(reader.readScaled(eq(10), eq(100), any(), eq("flags"))).thenReturn(createArray(1.0));
+
+        final ColumnNamespace namespace = new ColumnNamespace(reader);
+        namespace.resolveSymbol("flags");
+
+        namespace.readColumns(new int[]{10}, new int[]{100});
+
+        verify(reader, times(1)).readScaled(eq(10), eq(100), any(), eq("flags"));
+        verify(reader, times(0)).readScaled(eq(10), eq(100), any(), eq("radiance"));
+    }
+
+    @Test
+    public void testReadColumns_coordinateLengthsDiffer() throws IOException, InvalidRangeException {
+        final ColumnNamespace namespace = new ColumnNamespace(reader);
+
+        try {
+            namespace.readColumns(new int[]{10, 11}, new int[]{100});
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static Variable createVariable(String name, DataType dataType) {
+        final Variable variable = mock(Variable.class);
+        when(variable.getShortName()).thenReturn(name);
+        when(variable.getFullName()).thenReturn(name);
+        when(variable.getDataType()).thenReturn(dataType);
+        return variable;
+    }
+
+    private static Array createArray(double value) {
+        return Array.factory(DataType.DOUBLE, new int[]{1, 1}, new double[]{value});
+    }
+}
@@ -1,48 +0,0 @@
-/*
- * Copyright (C) 2016 Brockmann Consult GmbH
- * This code was developed for the EC project "Fidelity and Uncertainty in
- * Climate Data Records from Earth Observations (FIDUCEO)".
- * Grant Agreement: 638822
- *
- * This program is free software; you can redistribute it and/or modify it
- * under the terms of the GNU General Public License as published by the Free
- * Software Foundation; either version 3 of the License, or (at your option)
- * any later version.
- * This program is distributed in the hope that it will be useful, but WITHOUT
- * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
- * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
- * more details.
- *
- * A copy of the GNU General Public License should have been supplied along
- * with this program; if not, see http://www.gnu.org/licenses/
- *
- */
-
-package com.bc.fiduceo.matchup.screening.expression;
-
-import com.bc.fiduceo.reader.Reader;
-import org.junit.Test;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertSame;
-import static org.mockito.Mockito.mock;
-
-public class ReaderEvalEnvTest {
-
-    @Test
-    public void testConstruct() {
-        final Reader reader = mock(Reader.class);
-
-        final ReaderEvalEnv evalEnv = new ReaderEvalEnv(reader);
-        assertSame(reader, evalEnv.getReader());
-    }
-
-    @Test
-    public void testSetGetCoordinates() {
-        final ReaderEvalEnv evalEnv = new ReaderEvalEnv(null);
-
-        evalEnv.setLocation(23, 156);
-        assertEquals(23, evalEnv.getX());
-        assertEquals(156, evalEnv.getY());
-    }
-}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.screening.expression;
+
+import com.bc.fiduceo.core.Dimension;
+import com.bc.fiduceo.core.Interval;
+import com.bc.fiduceo.reader.Reader;
+import com.bc.fiduceo.reader.insitu.InsituUtils;
+import com.bc.fiduceo.util.NetCDFUtils;
+import org.junit.Before;
+import org.junit.Test;
+import ucar.ma2.Array;
+import ucar.ma2.InvalidRangeException;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WindowReaderEvalEnvTest {
+
+    private Reader reader;
+
+    @Before
+    public void setUp() throws IOException, InvalidRangeException {
+        reader = mock(Reader.class);
+        when(reader.getProductSize()).thenReturn(new Dimension("size", 200, 300));
+        // pixel value is 1000 * y + x, pixels outside the product are -1
+        when(reader.readScaled(anyInt(), anyInt(), any(), eq("the_var"))).thenAnswer(invocation -> {
+            final Interval interval = invocation.getArgument(2);
+            final int width = interval.getX();
+            final int height = interval.getY();
+            final int offsetX = (Integer) invocation.getArgument(0) - width / 2;
+            final int offsetY = (Integer) invocation.getArgument(1) - height / 2;
+            final int[][] data = new int[height][width];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    final int productX = offsetX + x;
+                    final int productY = offsetY + y;
+                    final boolean inside = productX >= 0 && productX < 200 && productY >= 0 && productY < 300;
+                    data[y][x] = inside ? 1000 * productY + productX : -1;
+                }
+            }
+            return NetCDFUtils.create(data);
+        });
+    }
+
+    @Test
+    public void testFetchPixel() throws IOException, InvalidRangeException {
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader);
+
+        evalEnv.setWindow(100, 150, 5, 5);
+        evalEnv.setLocationInWindow(0, 0);
+        assertEquals(148098, evalEnv.fetchPixelInt("the_var"));
+        evalEnv.setLocationInWindow(4, 2);
+        assertEquals(150102, evalEnv.fetchPixelInt("the_var"));
+        assertEquals(150102.0, evalEnv.fetchPixelDouble("the_var"), 1e-8);
+    }
+
+    @Test
+    public void testFetchPixel_neighbouringWindowsShareRegion() throws IOException, InvalidRangeException {
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader);
+
+        evalEnv.setWindow(100, 150, 5, 5, 101, 151);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(150100, evalEnv.fetchPixelInt("the_var"));
+
+        evalEnv.setWindow(101, 151, 5, 5, 100 + WindowReaderEvalEnv.REGION_MARGIN, 150);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(151101, evalEnv.fetchPixelInt("the_var"));
+
+        evalEnv.setWindow(100 + WindowReaderEvalEnv.REGION_MARGIN, 150, 5, 5, 101 + WindowReaderEvalEnv.REGION_MARGIN, 150);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(150132, evalEnv.fetchPixelInt("the_var"));
+
+        verify(reader, times(1)).readScaled(anyInt(), anyInt(), any(), eq("the_var"));
+
+        evalEnv.setWindow(101 + WindowReaderEvalEnv.REGION_MARGIN, 150, 5, 5);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(150133, evalEnv.fetchPixelInt("the_var"));
+
+        verify(reader, times(2)).readScaled(anyInt(), anyInt(), any(), eq("the_var"));
+    }
+
+    @Test
+    public void testFetchPixel_distantWindowsAreReadExactly() throws IOException, InvalidRangeException {
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader);
+
+        evalEnv.setWindow(100, 150, 5, 5, 100, 150 + WindowReaderEvalEnv.REGION_MARGIN + 1);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(150100, evalEnv.fetchPixelInt("the_var"));
+
+        evalEnv.setWindow(100, 150 + WindowReaderEvalEnv.REGION_MARGIN + 1, 5, 5);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(183100, evalEnv.fetchPixelInt("the_var"));
+
+        verify(reader, times(1)).readScaled(eq(100), eq(150), argThat(interval -> interval.getX() == 5 && interval.getY() == 5), eq("the_var"));
+        verify(reader, times(1)).readScaled(eq(100), eq(183), argThat(interval -> interval.getX() == 5 && interval.getY() == 5), eq("the_var"));
+        verify(reader, times(2)).readScaled(anyInt(), anyInt(), any(), eq("the_var"));
+    }
+
+    @Test
+    public void testFetchPixel_noRegionMargin() throws IOException, InvalidRangeException {
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader, 0);
+
+        evalEnv.setWindow(100, 150, 5, 5, 101, 150);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(150100, evalEnv.fetchPixelInt("the_var"));
+
+        evalEnv.setWindow(101, 150, 5, 5);
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(150101, evalEnv.fetchPixelInt("the_var"));
+
+        verify(reader, times(2)).readScaled(anyInt(), anyInt(), any(), eq("the_var"));
+    }
+
+    @Test
+    public void testFetchPixel_windowAtProductBorder() throws IOException, InvalidRangeException {
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader);
+
+        evalEnv.setWindow(0, 1, 3, 3);
+        evalEnv.setLocationInWindow(0, 0);
+        assertEquals(-1, evalEnv.fetchPixelInt("the_var"));
+        evalEnv.setLocationInWindow(1, 1);
+        assertEquals(1000, evalEnv.fetchPixelInt("the_var"));
+        evalEnv.setLocationInWindow(2, 2);
+        assertEquals(2001, evalEnv.fetchPixelInt("the_var"));
+
+        // border windows are read on their own, they are not re-used for the next window
+        evalEnv.setWindow(1, 1, 3, 3);
+        evalEnv.setLocationInWindow(1, 1);
+        assertEquals(1001, evalEnv.fetchPixelInt("the_var"));
+
+        verify(reader, times(1)).readScaled(eq(0), eq(1), any(), eq("the_var"));
+        verify(reader, times(2)).readScaled(anyInt(), anyInt(), any(), eq("the_var"));
+    }
+
+    @Test
+    public void testFetchPixel_noProductSize() throws IOException, InvalidRangeException {
+        when(reader.getProductSize()).thenReturn(null);
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(reader);
+
+        evalEnv.setWindow(100, 150, 3, 3);
+        evalEnv.setLocationInWindow(1, 1);
+        assertEquals(150100, evalEnv.fetchPixelInt("the_var"));
+
+        verify(reader, times(1)).readScaled(eq(100), eq(150), any(), eq("the_var"));
+    }
+
+    @Test
+    public void testFetchPixel_insituReader() throws IOException, InvalidRangeException {
+        final Reader insituReader = mock(Reader.class);
+        when(insituReader.getProductSize()).thenReturn(new Dimension("product_size", 1, 500));
+        // in situ readers fill all but the center pixel of a window, the value of record y is 10 * y
+        final int[] records = new int[500];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = 10 * i;
+        }
+        final Array recordArray = NetCDFUtils.create(records);
+        when(insituReader.readScaled(anyInt(), anyInt(), any(), eq("the_var"))).thenAnswer(invocation -> {
+            final int centerY = invocation.getArgument(1);
+            final Interval interval = invocation.getArgument(2);
+            return InsituUtils.getResultArray(centerY, interval, recordArray, -1);
+        });
+        final WindowReaderEvalEnv evalEnv = new WindowReaderEvalEnv(insituReader);
+
+        evalEnv.setWindow(0, 100, 1, 1);
+        evalEnv.setLocationInWindow(0, 0);
+        assertEquals(1000, evalEnv.fetchPixelInt("the_var"));
+
+        evalEnv.setWindow(0, 101, 1, 1);
+        evalEnv.setLocationInWindow(0, 0);
+        assertEquals(1010, evalEnv.fetchPixelInt("the_var"));
+
+        evalEnv.setWindow(0, 120, 1, 1);
+        evalEnv.setLocationInWindow(0, 0);
+        assertEquals(1200, evalEnv.fetchPixelInt("the_var"));
+        assertEquals(1200.0, evalEnv.fetchPixelDouble("the_var"), 1e-8);
+
+        verify(insituReader, times(1)).readScaled(eq(0), eq(101), any(), eq("the_var"));
+        verify(insituReader, times(3)).readScaled(anyInt(), anyInt(), any(), eq("the_var"));
+    }
+}
@@ -24,7 +24,6 @@ import com.bc.fiduceo.util.NetCDFUtils;
 import org.esa.snap.core.jexp.Term;
 import org.junit.Before;
 import org.junit.Test;
-import ucar.ma2.Array;
 import ucar.ma2.DataType;
 import ucar.ma2.InvalidRangeException;
 import ucar.nc2.Variable;
@@ -105,8 +104,7 @@ public class WindowVariableSymbolTest {
 
     @Test
     public void testEvalI() throws IOException, InvalidRangeException {
-        final Array array = NetCDFUtils.create(new short[]{19});
-        when(evalEnv.fetchPixel(any())).thenReturn(array);
+        when(evalEnv.fetchPixelInt(any())).thenReturn(19);
 
         when(variable.getDataType()).thenReturn(DataType.SHORT);
 
@@ -117,8 +115,7 @@ public class WindowVariableSymbolTest {
 
     @Test
     public void testEvalI_fillValue() throws IOException, InvalidRangeException {
-        final Array array = NetCDFUtils.create(new int[]{NetCDFUtils.getDefaultFillValue(int.class).intValue()});
-        when(evalEnv.fetchPixel(any())).thenReturn(array);
+        when(evalEnv.fetchPixelInt(any())).thenReturn(NetCDFUtils.getDefaultFillValue(int.class).intValue());
 
         when(variable.getDataType()).thenReturn(DataType.INT);
 
@@ -132,8 +129,7 @@ public class WindowVariableSymbolTest {
 
     @Test
     public void testEvalD() throws IOException, InvalidRangeException {
-        final Array array = NetCDFUtils.create(new double[]{20.21});
-        when(evalEnv.fetchPixel(any())).thenReturn(array);
+        when(evalEnv.fetchPixelDouble(any())).thenReturn(20.21);
 
         when(variable.getDataType()).thenReturn(DataType.DOUBLE);
 
@@ -144,8 +140,7 @@ public class WindowVariableSymbolTest {
 
     @Test
     public void testEvalD_NaN() throws IOException, InvalidRangeException {
-        final Array array = NetCDFUtils.create(new double[]{Double.NaN});
-        when(evalEnv.fetchPixel(any())).thenReturn(array);
+        when(evalEnv.fetchPixelDouble(any())).thenReturn(Double.NaN);
 
         when(variable.getDataType()).thenReturn(DataType.DOUBLE);
 
@@ -159,8 +154,7 @@ public class WindowVariableSymbolTest {
 
     @Test
     public void testEvalD_fillValue() throws IOException, InvalidRangeException {
-        final Array array = NetCDFUtils.create(new double[]{NetCDFUtils.getDefaultFillValue(double.class).doubleValue()});
-        when(evalEnv.fetchPixel(any())).thenReturn(array);
+        when(evalEnv.fetchPixelDouble(any())).thenReturn(NetCDFUtils.getDefaultFillValue(double.class).doubleValue());
 
         when(variable.getDataType()).thenReturn(DataType.DOUBLE);
 
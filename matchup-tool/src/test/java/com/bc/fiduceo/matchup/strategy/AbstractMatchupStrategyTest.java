@@ -34,6 +34,8 @@ import com.bc.fiduceo.geometry.GeometryCollection;
 import com.bc.fiduceo.geometry.MultiPolygon;
 import com.bc.fiduceo.geometry.Polygon;
 import com.bc.fiduceo.location.PixelLocator;
+import com.bc.fiduceo.matchup.MatchupCollection;
+import com.bc.fiduceo.matchup.MatchupSet;
 import com.bc.fiduceo.reader.Reader;
 import com.bc.fiduceo.tool.ToolContext;
 import com.bc.fiduceo.util.TimeUtils;
@@ -43,6 +45,7 @@ import org.junit.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.logging.Logger;
 
 public class AbstractMatchupStrategyTest {
 
@@ -240,4 +243,28 @@ public class AbstractMatchupStrategyTest {
         verify(multiPolygon, times(2)).getPolygons();
         verifyNoMoreInteractions(multiPolygon);
     }
+
+    @Test
+    public void testCreateMatchups_defaultAddsAllSetsOfTheCollection() throws Exception {
+        final MatchupSet first = new MatchupSet();
+        final MatchupSet second = new MatchupSet();
+        final MatchupCollection created = new MatchupCollection();
+        created.add(first);
+        created.add(second);
+
+        final AbstractMatchupStrategy strategy = new AbstractMatchupStrategy(Logger.getAnonymousLogger()) {
+            @Override
+            public MatchupCollection createMatchupCollection(ToolContext context) {
+                return created;
+            }
+        };
+
+        final MatchupCollection target = new MatchupCollection();
+        strategy.createMatchups(new ToolContext(), target);
+
+        final List<MatchupSet> sets = target.getSets();
+        assertEquals(2, sets.size());
+        assertSame(first, sets.get(0));
+        assertSame(second, sets.get(1));
+    }
 }
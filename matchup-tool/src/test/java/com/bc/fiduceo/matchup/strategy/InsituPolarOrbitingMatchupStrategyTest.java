@@ -50,7 +50,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
     public void testGetCandidatesByTime_emptyList() {
         final List<SatelliteObservation> satelliteObservations = new ArrayList<>();
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(20000), 20);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(20000), 20);
         assertEquals(0, resultList.size());
     }
 
@@ -60,7 +60,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         final SatelliteObservation observation = createSatelliteObservation(30000L, 40000L);
         satelliteObservations.add(observation);
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(20000), 500);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(20000), 500);
         assertEquals(0, resultList.size());
     }
 
@@ -70,7 +70,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         final SatelliteObservation observation = createSatelliteObservation(30000L, 40000L);
         satelliteObservations.add(observation);
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(41000), 500);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(41000), 500);
         assertEquals(0, resultList.size());
     }
 
@@ -81,7 +81,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         satelliteObservations.add(createSatelliteObservation(35000L, 45000L));
         satelliteObservations.add(createSatelliteObservation(37000L, 47000L));
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(46000), 500);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(46000), 500);
         assertEquals(1, resultList.size());
         assertEquals(37000L, resultList.get(0).getStartTime().getTime());
     }
@@ -93,7 +93,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         satelliteObservations.add(createSatelliteObservation(35000L, 45000L));
         satelliteObservations.add(createSatelliteObservation(37000L, 47000L));
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(47500), 1000);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(47500), 1000);
         assertEquals(1, resultList.size());
         assertEquals(37000L, resultList.get(0).getStartTime().getTime());
     }
@@ -105,7 +105,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         satelliteObservations.add(createSatelliteObservation(35000L, 45000L));
         satelliteObservations.add(createSatelliteObservation(37000L, 47000L));
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(30500), 1000);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(30500), 1000);
         assertEquals(1, resultList.size());
         assertEquals(30000L, resultList.get(0).getStartTime().getTime());
     }
@@ -117,7 +117,7 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         satelliteObservations.add(createSatelliteObservation(45000L, 55000L));
         satelliteObservations.add(createSatelliteObservation(47000L, 57000L));
 
-        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(satelliteObservations, new Date(52000), 500);
+        final List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidatesByTime(new ObservationIndex(satelliteObservations), new Date(52000), 500);
         assertEquals(2, resultList.size());
         assertEquals(45000L, resultList.get(0).getStartTime().getTime());
         assertEquals(47000L, resultList.get(1).getStartTime().getTime());
@@ -167,6 +167,28 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         assertEquals("POLYGON((3.5000000000000004 0.0,3.5 1.0,2.5000000000000004 1.0,2.5 0.0,3.5000000000000004 0.0))", geometryFactory.format(resultList.get(1).getGeoBounds()));
     }
 
+    @Test
+    public void testGetCandidates_timeAndGeometry() {
+        final List<SatelliteObservation> satelliteObservations = new ArrayList<>();
+        satelliteObservations.add(createSatelliteObservation(30000L, 40000L, "POLYGON((0 0, 0 2, 2 2, 2 0, 0 0))"));
+        satelliteObservations.add(createSatelliteObservation(35000L, 45000L, "POLYGON((2 0, 2 1, 3 1, 3 0, 2 0))"));
+        satelliteObservations.add(createSatelliteObservation(37000L, 47000L, "POLYGON((2.5 0, 2.5 1, 3.5 1, 3.5 0, 2.5 0))"));
+        satelliteObservations.add(createSatelliteObservation(36000L, 46000L, "POLYGON((60 30, 60 31, 61 31, 61 30, 60 30))"));
+        final ObservationIndex index = new ObservationIndex(satelliteObservations);
+
+        List<SatelliteObservation> resultList = InsituPolarOrbitingMatchupStrategy.getCandidates(index, new Date(38000), 500, geometryFactory.createPoint(2.7, 0.4));
+        assertEquals(2, resultList.size());
+        assertEquals(35000L, resultList.get(0).getStartTime().getTime());
+        assertEquals(37000L, resultList.get(1).getStartTime().getTime());
+
+        resultList = InsituPolarOrbitingMatchupStrategy.getCandidates(index, new Date(46000), 500, geometryFactory.createPoint(2.7, 0.4));
+        assertEquals(1, resultList.size());
+        assertEquals(37000L, resultList.get(0).getStartTime().getTime());
+
+        resultList = InsituPolarOrbitingMatchupStrategy.getCandidates(index, new Date(38000), 500, geometryFactory.createPoint(-20.0, 0.4));
+        assertEquals(0, resultList.size());
+    }
+
     @Test
     public void test_getValidMatchupSet() {
         //preparation
@@ -331,6 +353,12 @@ public class InsituPolarOrbitingMatchupStrategyTest {
         return observation;
     }
 
+    private SatelliteObservation createSatelliteObservation(long startTime, long stopTime, String boundaryWKT) {
+        final SatelliteObservation observation = createSatelliteObservation(startTime, stopTime);
+        observation.setGeoBounds(geometryFactory.parse(boundaryWKT));
+        return observation;
+    }
+
     private SatelliteObservation createSatelliteObservation(String boundaryWKT) {
         final SatelliteObservation observation = new SatelliteObservation();
         final Geometry geometry = geometryFactory.parse(boundaryWKT);
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.geometry.GeometryFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ObservationIndexTest {
+
+    private GeometryFactory geometryFactory;
+
+    @Before
+    public void setUp() {
+        geometryFactory = new GeometryFactory(GeometryFactory.Type.S2);
+    }
+
+    @Test
+    public void testGet_emptyIndex() {
+        final ObservationIndex index = new ObservationIndex(new ArrayList<>());
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.get(new Date(0), new Date(1000)).size());
+    }
+
+    @Test
+    public void testGet_boundariesAreInclusive() {
+        final List<SatelliteObservation> observations = new ArrayList<>();
+        observations.add(createObservation(1000, 2000, null));
+
+        final ObservationIndex index = new ObservationIndex(observations);
+
+        assertEquals(1, index.get(new Date(2000), new Date(3000)).size());
+        assertEquals(1, index.get(new Date(0), new Date(1000)).size());
+        assertEquals(0, index.get(new Date(2001), new Date(3000)).size());
+        assertEquals(0, index.get(new Date(0), new Date(999)).size());
+    }
+
+    @Test
+    public void testGet_keepsListOrder() {
+        final List<SatelliteObservation> observations = new ArrayList<>();
+        observations.add(createObservation(5000, 6000, null));
+        observations.add(createObservation(1000, 7000, null));
+        observations.add(createObservation(3000, 4000, null));
+
+        final ObservationIndex index = new ObservationIndex(observations);
+
+        final List<SatelliteObservation> result = index.get(new Date(3500), new Date(5500));
+        assertEquals(3, result.size());
+        assertSame(observations.get(0), result.get(0));
+        assertSame(observations.get(1), result.get(1));
+        assertSame(observations.get(2), result.get(2));
+    }
+
+    @Test
+    public void testGet_sameResultAsLinearSearch() {
+        final Random random = new Random(1234);
+        final List<SatelliteObservation> observations = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final long start = random.nextInt(1000000);
+            final long stop = start + random.nextInt(20000);
+            observations.add(createObservation(start, stop, null));
+        }
+
+        final ObservationIndex index = new ObservationIndex(observations);
+
+        for (int i = 0; i < 200; i++) {
+            final long start = random.nextInt(1000000);
+            final Date queryStart = new Date(start);
+            final Date queryStop = new Date(start + random.nextInt(50000));
+
+            final List<SatelliteObservation> expected = new ArrayList<>();
+            for (final SatelliteObservation observation : observations) {
+                if (!observation.getStopTime().before(queryStart) && !observation.getStartTime().after(queryStop)) {
+                    expected.add(observation);
+                }
+            }
+
+            assertEquals(expected, index.get(queryStart, queryStop));
+        }
+    }
+
+    @Test
+    public void testGet_withGeometry() {
+        final List<SatelliteObservation> observations = new ArrayList<>();
+        observations.add(createObservation(1000, 2000, "POLYGON((10 10, 12 10, 12 12, 10 12, 10 10))"));
+        observations.add(createObservation(1000, 2000, "POLYGON((-120 -40, -118 -40, -118 -38, -120 -38, -120 -40))"));
+        observations.add(createObservation(1000, 2000, null));
+
+        final ObservationIndex index = new ObservationIndex(observations);
+
+        final List<SatelliteObservation> result = index.get(new Date(1500), new Date(1600),
+                geometryFactory.parse("POLYGON((11 11, 13 11, 13 13, 11 13, 11 11))"));
+        assertEquals(2, result.size());
+        assertSame(observations.get(0), result.get(0));
+        assertSame(observations.get(2), result.get(1));
+    }
+
+    @Test
+    public void testBoundingCap_intersects() {
+        final ObservationIndex.BoundingCap cap_1 = ObservationIndex.BoundingCap.create(geometryFactory.parse("POLYGON((10 10, 12 10, 12 12, 10 12, 10 10))"));
+        final ObservationIndex.BoundingCap cap_2 = ObservationIndex.BoundingCap.create(geometryFactory.parse("POLYGON((12.5 10, 14 10, 14 12, 12.5 12, 12.5 10))"));
+        final ObservationIndex.BoundingCap cap_3 = ObservationIndex.BoundingCap.create(geometryFactory.parse("POLYGON((40 10, 42 10, 42 12, 40 12, 40 10))"));
+
+        assertTrue(cap_1.intersects(cap_2));
+        assertTrue(cap_2.intersects(cap_1));
+        assertFalse(cap_1.intersects(cap_3));
+        assertFalse(cap_3.intersects(cap_2));
+    }
+
+    @Test
+    public void testBoundingCap_largeGeometryCoversSphere() {
+        final ObservationIndex.BoundingCap globalCap = ObservationIndex.BoundingCap.create(geometryFactory.parse("POLYGON((-150 -60, -30 -60, 90 -60, 90 60, -30 60, -150 60, -150 -60))"));
+        final ObservationIndex.BoundingCap smallCap = ObservationIndex.BoundingCap.create(geometryFactory.parse("POLYGON((40 10, 42 10, 42 12, 40 12, 40 10))"));
+
+        assertTrue(globalCap.intersects(smallCap));
+        assertTrue(ObservationIndex.BoundingCap.create(null).intersects(smallCap));
+    }
+
+    private SatelliteObservation createObservation(long startMillis, long stopMillis, String wkt) {
+        final SatelliteObservation observation = new SatelliteObservation();
+        observation.setStartTime(new Date(startMillis));
+        observation.setStopTime(new Date(stopMillis));
+        if (wkt != null) {
+            observation.setGeoBounds(geometryFactory.parse(wkt));
+        }
+        return observation;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.core.SatelliteObservation;
+import com.bc.fiduceo.matchup.MatchupSet;
+import org.junit.Test;
+import ucar.ma2.InvalidRangeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class PolarOrbitingMatchupStrategyTest {
+
+    @Test
+    public void testGetResult() throws IOException, InvalidRangeException {
+        final List<MatchupSet> matchupSets = new ArrayList<>();
+        matchupSets.add(new MatchupSet());
+
+        final List<MatchupSet> result = PolarOrbitingMatchupStrategy.getResult(CompletableFuture.completedFuture(matchupSets));
+        assertSame(matchupSets, result);
+    }
+
+    @Test
+    public void testGetResult_rethrowsIOException() throws InvalidRangeException {
+        final CompletableFuture<List<MatchupSet>> future = new CompletableFuture<>();
+        future.completeExceptionally(new IOException("file broken"));
+
+        try {
+            PolarOrbitingMatchupStrategy.getResult(future);
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertEquals("file broken", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetResult_rethrowsInvalidRangeException() throws IOException {
+        final CompletableFuture<List<MatchupSet>> future = new CompletableFuture<>();
+        future.completeExceptionally(new InvalidRangeException("out of range"));
+
+        try {
+            PolarOrbitingMatchupStrategy.getResult(future);
+            fail("InvalidRangeException expected");
+        } catch (InvalidRangeException expected) {
+            assertEquals("out of range", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetResult_rethrowsRuntimeException() throws IOException, InvalidRangeException {
+        final CompletableFuture<List<MatchupSet>> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("no way"));
+
+        try {
+            PolarOrbitingMatchupStrategy.getResult(future);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+            assertEquals("no way", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetSearchInterval() {
+        final List<SatelliteObservation> primaryObservations = new ArrayList<>();
+        primaryObservations.add(createObservation(100000, 200000));
+        primaryObservations.add(createObservation(50000, 150000));
+        primaryObservations.add(createObservation(180000, 260000));
+
+        final Date[] searchInterval = PolarOrbitingMatchupStrategy.getSearchInterval(primaryObservations, 10);
+        assertEquals(40000, searchInterval[0].getTime());
+        assertEquals(270000, searchInterval[1].getTime());
+    }
+
+    @Test
+    public void testGetCandidates() {
+        final List<SatelliteObservation> secondaryObservations = new ArrayList<>();
+        secondaryObservations.add(createObservation(10000, 20000));
+        secondaryObservations.add(createObservation(25000, 40000));
+        secondaryObservations.add(createObservation(95000, 120000));
+        final ObservationIndex index = new ObservationIndex(secondaryObservations);
+
+        final List<SatelliteObservation> candidates = PolarOrbitingMatchupStrategy.getCandidates(index, createObservation(30000, 90000), 5);
+        assertEquals(2, candidates.size());
+        assertSame(secondaryObservations.get(1), candidates.get(0));
+        assertSame(secondaryObservations.get(2), candidates.get(1));
+    }
+
+    private static SatelliteObservation createObservation(long startMillis, long stopMillis) {
+        final SatelliteObservation observation = new SatelliteObservation();
+        observation.setStartTime(new Date(startMillis));
+        observation.setStopTime(new Date(stopMillis));
+        return observation;
+    }
+}
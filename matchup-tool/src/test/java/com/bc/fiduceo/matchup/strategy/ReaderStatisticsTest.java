@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReaderStatisticsTest {
+
+    private ReaderStatistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = new ReaderStatistics("Primary");
+    }
+
+    @Test
+    public void testInitialState() {
+        assertEquals(0, statistics.getNumRequests());
+        assertEquals(0, statistics.getNumOpened());
+        assertEquals(0.0, statistics.getSavedSeconds(), 1e-8);
+        assertEquals("Primary readers: 0 opened for 0 requests, opening took 0.0 s, reuse saved approx. 0.0 s", statistics.getSummary());
+    }
+
+    @Test
+    public void testAddRequestsAndOpened() {
+        for (int i = 0; i < 10; i++) {
+            statistics.addRequest();
+        }
+        statistics.addOpened(2_000_000_000L);
+        statistics.addOpened(1_000_000_000L);
+
+        assertEquals(10, statistics.getNumRequests());
+        assertEquals(2, statistics.getNumOpened());
+        assertEquals(12.0, statistics.getSavedSeconds(), 1e-8);
+        assertEquals("Primary readers: 2 opened for 10 requests, opening took 3.0 s, reuse saved approx. 12.0 s", statistics.getSummary());
+    }
+}
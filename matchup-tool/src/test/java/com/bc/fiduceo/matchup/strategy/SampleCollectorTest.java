@@ -96,6 +96,56 @@ public class SampleCollectorTest {
         }
     }
 
+    @Test
+    public void testAddPrimarySamples_sameResultAsPixelwiseContainment() {
+        // concave polygon with vertices on pixel centers, on a rotated and sheared pixel grid
+        final Polygon polygon = factory.createPolygon(createPoints(new double[]{
+                10.5, 10.5,
+                12.25, 10.625,
+                12.0, 12.5,
+                11.25, 11.375,
+                10.375, 12.25,
+                10.5, 10.5
+        }));
+        final PixelLocator pixelLocator = new AffinePixelLocator(9.8, 9.9, 0.0125, 0.003, -0.002, 0.0125);
+        collector = new SampleCollector(context, pixelLocator);
+
+        final MatchupSet matchupSet = new MatchupSet();
+        collector.addPrimarySamples(polygon, matchupSet, new TestTimeLocator());
+
+        final Range xRange = new Range();
+        final Range yRange = new Range();
+        for (final Point coordinate : polygon.getCoordinates()) {
+            final Point2D pixelLocation = pixelLocator.getPixelLocation(coordinate.getLon(), coordinate.getLat())[0];
+            xRange.aggregate(pixelLocation.getX());
+            yRange.aggregate(pixelLocation.getY());
+        }
+
+        final List<Sample> expected = new ArrayList<>();
+        final Point2D.Double geoPos = new Point2D.Double();
+        for (int y = (int) yRange.getMin(); y <= (int) yRange.getMax(); y++) {
+            for (int x = (int) xRange.getMin(); x <= (int) xRange.getMax(); x++) {
+                final Point2D geoLocation = pixelLocator.getGeoLocation(x + 0.5, y + 0.5, geoPos);
+                if (polygon.contains(factory.createPoint(geoLocation.getX(), geoLocation.getY()))) {
+                    expected.add(new Sample(x, y, geoLocation.getX(), geoLocation.getY(), x + 1000 * y));
+                }
+            }
+        }
+
+        final List<SampleSet> sampleSets = matchupSet.getSampleSets();
+        assertEquals(expected.size(), sampleSets.size());
+        assertTrue(expected.size() > 10000);
+        for (int i = 0; i < expected.size(); i++) {
+            final Sample expectedSample = expected.get(i);
+            final Sample primary = sampleSets.get(i).getPrimary();
+            assertEquals("Index = " + i, expectedSample.getX(), primary.getX());
+            assertEquals("Index = " + i, expectedSample.getY(), primary.getY());
+            assertEquals("Index = " + i, expectedSample.getLon(), primary.getLon(), 0.0);
+            assertEquals("Index = " + i, expectedSample.getLat(), primary.getLat(), 0.0);
+            assertEquals("Index = " + i, expectedSample.getTime(), primary.getTime());
+        }
+    }
+
     @Test
     public void testAddSecondarySamples() {
         final MatchupSet matchupSet = new MatchupSet();
@@ -200,6 +250,41 @@ public class SampleCollectorTest {
         }
     }
 
+    private class AffinePixelLocator implements PixelLocator {
+
+        private final double lon0;
+        private final double lat0;
+        private final double lonPerX;
+        private final double lonPerY;
+        private final double latPerX;
+        private final double latPerY;
+
+        AffinePixelLocator(double lon0, double lat0, double lonPerX, double lonPerY, double latPerX, double latPerY) {
+            this.lon0 = lon0;
+            this.lat0 = lat0;
+            this.lonPerX = lonPerX;
+            this.lonPerY = lonPerY;
+            this.latPerX = latPerX;
+            this.latPerY = latPerY;
+        }
+
+        @Override
+        public Point2D getGeoLocation(double x, double y, Point2D g) {
+            g.setLocation(lon0 + lonPerX * x + lonPerY * y, lat0 + latPerX * x + latPerY * y);
+            return g;
+        }
+
+        @Override
+        public Point2D[] getPixelLocation(double lon, double lat) {
+            final double det = lonPerX * latPerY - lonPerY * latPerX;
+            final double dLon = lon - lon0;
+            final double dLat = lat - lat0;
+            final double x = (latPerY * dLon - lonPerY * dLat) / det;
+            final double y = (lonPerX * dLat - latPerX * dLon) / det;
+            return new Point2D[]{new Point2D.Double(x, y)};
+        }
+    }
+
     private class TestTimeLocator implements TimeLocator {
 
         @Override
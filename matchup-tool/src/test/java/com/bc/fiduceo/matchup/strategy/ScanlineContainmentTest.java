@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.geometry.Point;
+import com.bc.fiduceo.geometry.Polygon;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScanlineContainmentTest {
+
+    private GeometryFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new GeometryFactory(GeometryFactory.Type.S2);
+    }
+
+    @Test
+    public void testCreate_notSupportedForJts() {
+        final GeometryFactory jtsFactory = new GeometryFactory(GeometryFactory.Type.JTS);
+        final List<Point> points = new ArrayList<>();
+        points.add(jtsFactory.createPoint(1, 1));
+        points.add(jtsFactory.createPoint(3, 1));
+        points.add(jtsFactory.createPoint(3, 3));
+        points.add(jtsFactory.createPoint(1, 1));
+
+        assertNull(ScanlineContainment.create(jtsFactory.createPolygon(points)));
+    }
+
+    @Test
+    public void testLinkRow_rowCrossingThePolygon() {
+        final ScanlineContainment scanlineContainment = ScanlineContainment.create(createSquare());
+        assertNotNull(scanlineContainment);
+
+        // row at latitude 2.0 from longitude 0.05 to 4.95, the edges are at longitude 1 and 3
+        final int length = 50;
+        final double[] lons = new double[length];
+        final double[] lats = new double[length];
+        final boolean[] valid = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            lons[i] = 0.05 + 0.1 * i;
+            lats[i] = 2.0;
+            valid[i] = true;
+        }
+        final boolean[] linked = new boolean[length];
+
+        scanlineContainment.linkRow(lons, lats, valid, length, linked);
+
+        assertFalse(linked[0]);
+        for (int i = 1; i < length; i++) {
+            final boolean crossesEdge = i == 10 || i == 30;
+            assertEquals("Index = " + i, !crossesEdge, linked[i]);
+        }
+    }
+
+    @Test
+    public void testLinkRow_invalidPixelsBreakTheLinks() {
+        final ScanlineContainment scanlineContainment = ScanlineContainment.create(createSquare());
+        assertNotNull(scanlineContainment);
+
+        final double[] lons = {1.5, 1.6, 1.7, Double.NaN, 1.9, 2.0, 2.1};
+        final double[] lats = {2.0, 2.0, 2.0, 2.0, 2.0, 2.0, 2.0};
+        final boolean[] valid = {true, true, false, true, true, true, true};
+        final boolean[] linked = new boolean[lons.length];
+
+        scanlineContainment.linkRow(lons, lats, valid, lons.length, linked);
+
+        assertFalse(linked[0]);
+        assertTrue(linked[1]);
+        assertFalse(linked[2]);
+        assertFalse(linked[3]);
+        assertFalse(linked[4]);
+        assertTrue(linked[5]);
+        assertTrue(linked[6]);
+    }
+
+    @Test
+    public void testLinkRow_pixelOnVertexIsNotLinked() {
+        final ScanlineContainment scanlineContainment = ScanlineContainment.create(createSquare());
+        assertNotNull(scanlineContainment);
+
+        final double[] lons = {0.8, 0.9, 1.0, 1.1, 1.2};
+        final double[] lats = {1.0, 1.0, 1.0, 1.0, 1.0};
+        final boolean[] valid = {true, true, true, true, true};
+        final boolean[] linked = new boolean[lons.length];
+
+        scanlineContainment.linkRow(lons, lats, valid, lons.length, linked);
+
+        assertFalse(linked[2]);
+        assertFalse(linked[3]);
+    }
+
+    private Polygon createSquare() {
+        final List<Point> points = new ArrayList<>();
+        points.add(factory.createPoint(1, 1));
+        points.add(factory.createPoint(3, 1));
+        points.add(factory.createPoint(3, 3));
+        points.add(factory.createPoint(1, 3));
+        points.add(factory.createPoint(1, 1));
+        return factory.createPolygon(points);
+    }
+}
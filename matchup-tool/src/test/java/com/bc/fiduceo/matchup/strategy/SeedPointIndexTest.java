@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.strategy;
+
+import com.bc.fiduceo.core.SamplingPoint;
+import com.bc.fiduceo.geometry.Geometry;
+import com.bc.fiduceo.geometry.GeometryFactory;
+import com.bc.fiduceo.geometry.GeometryUtil;
+import com.bc.fiduceo.geometry.Point;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SeedPointIndexTest {
+
+    private GeometryFactory geometryFactory;
+
+    @Before
+    public void setUp() {
+        geometryFactory = new GeometryFactory(GeometryFactory.Type.S2);
+    }
+
+    @Test
+    public void testGet_emptyIndex() {
+        final SeedPointIndex index = new SeedPointIndex(new ArrayList<>());
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.get(new Date(0), new Date(100000), getGeometries("POLYGON((0 0, 2 0, 2 2, 0 2, 0 0))"), geometryFactory).size());
+    }
+
+    @Test
+    public void testGet_timeBoundariesAreInclusive() {
+        final List<SamplingPoint> seedPoints = new ArrayList<>();
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 999));
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 1000));
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 1500));
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 2000));
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 2001));
+        final SeedPointIndex index = new SeedPointIndex(seedPoints);
+
+        final List<SamplingPoint> result = index.get(new Date(1000), new Date(2000), getGeometries("POLYGON((0 0, 2 0, 2 2, 0 2, 0 0))"), geometryFactory);
+        assertEquals(3, result.size());
+        assertSame(seedPoints.get(1), result.get(0));
+        assertSame(seedPoints.get(2), result.get(1));
+        assertSame(seedPoints.get(3), result.get(2));
+    }
+
+    @Test
+    public void testGet_keepsListOrder() {
+        final List<SamplingPoint> seedPoints = new ArrayList<>();
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 1800));
+        seedPoints.add(new SamplingPoint(5.0, 1.0, 1200));
+        seedPoints.add(new SamplingPoint(1.5, 0.5, 1100));
+        seedPoints.add(new SamplingPoint(0.5, 1.5, 1600));
+        final SeedPointIndex index = new SeedPointIndex(seedPoints);
+
+        final List<SamplingPoint> result = index.get(new Date(1000), new Date(2000), getGeometries("POLYGON((0 0, 2 0, 2 2, 0 2, 0 0))"), geometryFactory);
+        assertEquals(3, result.size());
+        assertSame(seedPoints.get(0), result.get(0));
+        assertSame(seedPoints.get(2), result.get(1));
+        assertSame(seedPoints.get(3), result.get(2));
+    }
+
+    @Test
+    public void testGet_multipleGeometries() {
+        final List<SamplingPoint> seedPoints = new ArrayList<>();
+        seedPoints.add(new SamplingPoint(1.0, 1.0, 1800));
+        seedPoints.add(new SamplingPoint(21.0, 1.0, 1200));
+        seedPoints.add(new SamplingPoint(11.0, 1.0, 1100));
+        final SeedPointIndex index = new SeedPointIndex(seedPoints);
+
+        final Geometry[] geometries = getGeometries("MULTIPOLYGON(((0 0, 2 0, 2 2, 0 2, 0 0)),((20 0, 22 0, 22 2, 20 2, 20 0)))");
+        final List<SamplingPoint> result = index.get(new Date(1000), new Date(2000), geometries, geometryFactory);
+        assertEquals(2, result.size());
+        assertSame(seedPoints.get(0), result.get(0));
+        assertSame(seedPoints.get(1), result.get(1));
+    }
+
+    @Test
+    public void testGet_equalsLinearSearch() {
+        final Random random = new Random(2873);
+        final List<SamplingPoint> seedPoints = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            final double lon = random.nextDouble() * 360.0 - 180.0;
+            final double lat = random.nextDouble() * 180.0 - 90.0;
+            seedPoints.add(new SamplingPoint(lon, lat, random.nextInt(86400) * 1000L));
+        }
+        final SeedPointIndex index = new SeedPointIndex(seedPoints);
+
+        final String[] wkts = {
+                "POLYGON((-10 -20, 15 -20, 15 30, -10 30, -10 -20))",
+                "POLYGON((170 60, -170 60, -170 80, 170 80, 170 60))",
+                "POLYGON((-60 -85, 60 -85, 60 -70, -60 -70, -60 -85))",
+                "POLYGON((-150 -60, -30 -60, 90 -60, 90 60, -30 60, -150 60, -150 -60))",
+                "MULTIPOLYGON(((0 0, 20 0, 20 20, 0 20, 0 0)),((100 -40, 120 -40, 120 -20, 100 -20, 100 -40)))"
+        };
+        for (final String wkt : wkts) {
+            final Geometry[] geometries = getGeometries(wkt);
+            for (int i = 0; i < 10; i++) {
+                final long start = random.nextInt(86400) * 1000L;
+                final long stop = start + random.nextInt(7200) * 1000L;
+
+                final List<SamplingPoint> expected = getLinear(seedPoints, start, stop, geometries);
+                final List<SamplingPoint> actual = index.get(new Date(start), new Date(stop), geometries, geometryFactory);
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testIsWorthwhile() {
+        assertFalse(SeedPointIndex.isWorthwhile(0));
+        assertFalse(SeedPointIndex.isWorthwhile(14));
+        assertFalse(SeedPointIndex.isWorthwhile(SeedPointIndex.MIN_NUM_QUERIES - 1));
+        assertTrue(SeedPointIndex.isWorthwhile(SeedPointIndex.MIN_NUM_QUERIES));
+        assertTrue(SeedPointIndex.isWorthwhile(140));
+    }
+
+    @Test
+    public void testSortByTime() {
+        final List<SamplingPoint> seedPoints = new ArrayList<>();
+        seedPoints.add(new SamplingPoint(0.0, 0.0, 3000));
+        seedPoints.add(new SamplingPoint(0.0, 0.0, 1000));
+        seedPoints.add(new SamplingPoint(0.0, 0.0, 2000));
+        seedPoints.add(new SamplingPoint(0.0, 0.0, 1000));
+
+        assertArrayEquals(new int[]{1, 3, 2, 0}, SeedPointIndex.sortByTime(seedPoints));
+    }
+
+    @Test
+    public void testSortByTime_hugeTimeRange() {
+        final List<SamplingPoint> seedPoints = new ArrayList<>();
+        seedPoints.add(new SamplingPoint(0.0, 0.0, Long.MAX_VALUE));
+        seedPoints.add(new SamplingPoint(0.0, 0.0, 0));
+        seedPoints.add(new SamplingPoint(0.0, 0.0, Long.MIN_VALUE));
+        seedPoints.add(new SamplingPoint(0.0, 0.0, 0));
+
+        assertArrayEquals(new int[]{2, 1, 3, 0}, SeedPointIndex.sortByTime(seedPoints));
+    }
+
+    @Test
+    public void testSortByTime_empty() {
+        assertEquals(0, SeedPointIndex.sortByTime(new ArrayList<>()).length);
+    }
+
+    private List<SamplingPoint> getLinear(List<SamplingPoint> seedPoints, long startTime, long stopTime, Geometry[] geometries) {
+        final List<SamplingPoint> result = new ArrayList<>();
+        for (final SamplingPoint seedPoint : seedPoints) {
+            final long time = seedPoint.getTime();
+            if (time >= startTime && time <= stopTime) {
+                final Point point = geometryFactory.createPoint(seedPoint.getLon(), seedPoint.getLat());
+                for (final Geometry geometry : geometries) {
+                    final Geometry intersection = geometry.getIntersection(point);
+                    if (intersection != null && intersection.isValid()) {
+                        result.add(seedPoint);
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Geometry[] getGeometries(String wkt) {
+        return GeometryUtil.getSubGeometries(geometryFactory.parse(wkt));
+    }
+}
@@ -21,7 +21,11 @@
 package com.bc.fiduceo.matchup.writer;
 
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
 import com.bc.fiduceo.core.Dimension;
@@ -29,9 +33,13 @@ import com.bc.fiduceo.core.Sensor;
 import com.bc.fiduceo.core.UseCaseConfig;
 import com.bc.fiduceo.matchup.MatchupToolTestUseCaseConfigBuilder;
 import org.junit.*;
+import org.mockito.ArgumentCaptor;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
 import ucar.nc2.Attribute;
 import ucar.nc2.Group;
 import ucar.nc2.NetcdfFileWriter;
+import ucar.nc2.Variable;
 
 import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
@@ -130,4 +138,69 @@ public class AbstractMmdWriterTest {
         final String csList = AbstractMmdWriter.getCommaSeparatedListOfSensors(useCaseConfig);
         assertEquals("theMaster,numberThree,otherOne", csList);
     }
+
+    @Test
+    public void testWriteScalarsAndStrings() throws Exception {
+        final Variable intVariable = mock(Variable.class);
+        when(intVariable.getShape()).thenReturn(new int[]{3});
+        when(intVariable.getShape(0)).thenReturn(3);
+        when(intVariable.getDataType()).thenReturn(DataType.INT);
+        final Variable floatVariable = mock(Variable.class);
+        when(floatVariable.getShape()).thenReturn(new int[]{3});
+        when(floatVariable.getShape(0)).thenReturn(3);
+        when(floatVariable.getDataType()).thenReturn(DataType.FLOAT);
+        final Variable charVariable = mock(Variable.class);
+        when(charVariable.getShape()).thenReturn(new int[]{3, 4});
+        when(charVariable.getShape(0)).thenReturn(3);
+        when(charVariable.getDataType()).thenReturn(DataType.CHAR);
+
+        final NetcdfFileWriter netcdfFileWriter = mock(NetcdfFileWriter.class);
+        when(netcdfFileWriter.findVariable("int_var")).thenReturn(intVariable);
+        when(netcdfFileWriter.findVariable("float_var")).thenReturn(floatVariable);
+        when(netcdfFileWriter.findVariable("char_var")).thenReturn(charVariable);
+
+        final MmdWriterConfig writerConfig = new MmdWriterConfig();
+        writerConfig.setCacheSize(4);
+        final MmdWriterNC3 writer = new MmdWriterNC3(writerConfig);
+        writer.netcdfFileWriter = netcdfFileWriter;
+
+        writer.write(17, "int_var", 0);
+        writer.write(-4, "int_var", 2);
+        writer.write(1.5f, "float_var", 1);
+        writer.write("abcd", "char_var", 0);
+        writer.write("xy", "char_var", 2);
+        writer.close();
+
+        final ArgumentCaptor<Array> intCaptor = ArgumentCaptor.forClass(Array.class);
+        verify(netcdfFileWriter).write(same(intVariable), aryEq(new int[]{0}), intCaptor.capture());
+        assertArrayEquals(new int[]{17, 0, -4}, (int[]) intCaptor.getValue().copyTo1DJavaArray());
+
+        final ArgumentCaptor<Array> floatCaptor = ArgumentCaptor.forClass(Array.class);
+        verify(netcdfFileWriter).write(same(floatVariable), aryEq(new int[]{0}), floatCaptor.capture());
+        assertArrayEquals(new float[]{0.f, 1.5f, 0.f}, (float[]) floatCaptor.getValue().copyTo1DJavaArray(), 1e-8f);
+
+        final ArgumentCaptor<Array> charCaptor = ArgumentCaptor.forClass(Array.class);
+        verify(netcdfFileWriter).write(same(charVariable), aryEq(new int[]{0, 0}), charCaptor.capture());
+        assertArrayEquals(new char[]{'a', 'b', 'c', 'd', 0, 0, 0, 0, 'x', 'y', 0, 0}, (char[]) charCaptor.getValue().copyTo1DJavaArray());
+    }
+
+    @Test
+    public void testWriteString_tooLong() {
+        final Variable charVariable = mock(Variable.class);
+        when(charVariable.getShape()).thenReturn(new int[]{3, 4});
+        when(charVariable.getDataType()).thenReturn(DataType.CHAR);
+        final NetcdfFileWriter netcdfFileWriter = mock(NetcdfFileWriter.class);
+        when(netcdfFileWriter.findVariable("char_var")).thenReturn(charVariable);
+
+        final MmdWriterConfig writerConfig = new MmdWriterConfig();
+        writerConfig.setCacheSize(4);
+        final MmdWriterNC3 writer = new MmdWriterNC3(writerConfig);
+        writer.netcdfFileWriter = netcdfFileWriter;
+
+        try {
+            writer.write("abcde", "char_var", 0);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
 }
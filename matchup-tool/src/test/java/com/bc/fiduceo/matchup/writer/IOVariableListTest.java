@@ -330,4 +330,54 @@ public class IOVariableListTest {
         verify(readerMock, times(1)).close();
         verifyNoMoreInteractions(readerMock);
     }
+
+    @Test
+    public void testCopy() throws IOException, InvalidRangeException {
+        final IOVariablesList ioVariablesList = new IOVariablesList(null);// we don't need a ReaderFactory for this test tb 2016-10-05
+        final ReaderContainer container = new ReaderContainer();
+        ioVariablesList.setReaderContainer("sensor", container);
+        final WindowReadingIOVariable windowVariable = new WindowReadingIOVariable(container);
+        windowVariable.setSourceVariableName("band");
+        windowVariable.setTargetVariableName("sensor_band");
+        final Target target = mock(Target.class);
+        windowVariable.setTarget(target);
+        ioVariablesList.add(windowVariable, "sensor");
+        final CenterXWritingIOVariable xVariable = new CenterXWritingIOVariable();
+        xVariable.setTargetVariableName("sensor_x");
+        ioVariablesList.add(xVariable, "sensor");
+
+        final IOVariablesList copy = ioVariablesList.copy();
+
+        final ReaderContainer copyContainer = copy.getReaderContainer("sensor");
+        assertNotSame(container, copyContainer);
+        final List<IOVariable> copyVariables = copy.getVariablesFor("sensor");
+        assertEquals(2, copyVariables.size());
+        assertNotSame(windowVariable, copyVariables.get(0));
+        assertEquals("band", copyVariables.get(0).getSourceVariableName());
+        assertEquals("sensor_band", copyVariables.get(0).getTargetVariableName());
+        assertNotSame(xVariable, copyVariables.get(1));
+        assertEquals("sensor_x", copyVariables.get(1).getTargetVariableName());
+
+        // the copy reads from its own container and writes to its own target
+        final Reader copyReader = mock(Reader.class);
+        final Array window = NetCDFUtils.create(new float[]{1.f});
+        when(copyReader.readRaw(3, 4, null, "band")).thenReturn(window);
+        copyContainer.setReader(copyReader);
+        final Target copyTarget = mock(Target.class);
+        copyVariables.get(0).setTarget(copyTarget);
+
+        copyVariables.get(0).writeData(3, 4, null, 5);
+
+        verify(copyTarget, times(1)).write(window, "sensor_band", 5);
+        verifyNoInteractions(target);
+        assertNull(container.getReader());
+    }
+
+    @Test
+    public void testCopy_variableWithoutCopy() {
+        final IOVariablesList ioVariablesList = new IOVariablesList(null);// we don't need a ReaderFactory for this test tb 2016-10-05
+        ioVariablesList.add(mock(IOVariable.class), "sensor");
+
+        assertNull(ioVariablesList.copy());
+    }
 }
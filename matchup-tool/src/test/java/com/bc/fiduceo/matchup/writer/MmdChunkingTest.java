@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.writer;
+
+import com.bc.fiduceo.FiduceoConstants;
+import org.junit.Test;
+import ucar.nc2.Dimension;
+import ucar.nc2.Variable;
+import ucar.nc2.write.Nc4Chunking;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MmdChunkingTest {
+
+    @Test
+    public void testCreate_defaultConfigUsesLibraryChunking() {
+        final Nc4Chunking chunking = MmdChunking.create(new MmdWriterConfig());
+
+        assertFalse(chunking instanceof MmdChunking);
+    }
+
+    @Test
+    public void testCreate_chunkSizeConfigured() {
+        final MmdWriterConfig writerConfig = new MmdWriterConfig();
+        writerConfig.setMatchupChunkSize(64);
+
+        final Nc4Chunking chunking = MmdChunking.create(writerConfig);
+        assertTrue(chunking instanceof MmdChunking);
+
+        final Variable variable = createVariable("window", new int[]{1000, 5, 5});
+        assertEquals(5, chunking.getDeflateLevel(variable));
+        assertTrue(chunking.isShuffle(variable));
+    }
+
+    @Test
+    public void testCreate_noCompression() {
+        final MmdWriterConfig writerConfig = new MmdWriterConfig();
+        writerConfig.setVariableMatchupChunkSize("window", 16);
+        writerConfig.setDeflateLevel(7);
+        writerConfig.setNoCompression(true);
+
+        final Nc4Chunking chunking = MmdChunking.create(writerConfig);
+
+        final Variable variable = createVariable("window", new int[]{1000, 5, 5});
+        assertEquals(0, chunking.getDeflateLevel(variable));
+        assertFalse(chunking.isShuffle(variable));
+    }
+
+    @Test
+    public void testComputeChunking() {
+        final MmdChunking chunking = new MmdChunking(256, new HashMap<>(), 5, true);
+
+        final Variable window = createVariable("window", new int[]{1000, 7, 9});
+        assertTrue(chunking.isChunked(window));
+        assertArrayEquals(new long[]{256, 7, 9}, chunking.computeChunking(window));
+
+        final Variable scalar = createVariable("x", new int[]{1000});
+        assertTrue(chunking.isChunked(scalar));
+        assertArrayEquals(new long[]{256}, chunking.computeChunking(scalar));
+    }
+
+    @Test
+    public void testComputeChunking_fewerMatchupsThanChunkSize() {
+        final MmdChunking chunking = new MmdChunking(256, new HashMap<>(), 5, true);
+
+        final Variable window = createVariable("window", new int[]{100, 3, 3});
+        assertArrayEquals(new long[]{100, 3, 3}, chunking.computeChunking(window));
+    }
+
+    @Test
+    public void testComputeChunking_unlimitedMatchupDimension() {
+        final MmdChunking chunking = new MmdChunking(256, new HashMap<>(), 5, true);
+
+        final Variable window = createVariable("window", new int[]{0, 3, 3});
+        assertArrayEquals(new long[]{256, 3, 3}, chunking.computeChunking(window));
+    }
+
+    @Test
+    public void testComputeChunking_variableChunkSize() {
+        final Map<String, Integer> variableChunkSizes = new HashMap<>();
+        variableChunkSizes.put("file_name", 1000);
+        final MmdChunking chunking = new MmdChunking(16, variableChunkSizes, 5, true);
+
+        final Variable fileName = createVariable("file_name", new int[]{1000, 128});
+        assertArrayEquals(new long[]{1000, 128}, chunking.computeChunking(fileName));
+
+        final Variable window = createVariable("window", new int[]{1000, 3, 3});
+        assertArrayEquals(new long[]{16, 3, 3}, chunking.computeChunking(window));
+    }
+
+    private static Variable createVariable(String name, int[] shape) {
+        final Variable variable = mock(Variable.class);
+        when(variable.getShortName()).thenReturn(name);
+        when(variable.getShape()).thenReturn(shape);
+        when(variable.getRank()).thenReturn(shape.length);
+        when(variable.getDimension(0)).thenReturn(new Dimension(FiduceoConstants.MATCHUP_COUNT, shape[0]));
+        return variable;
+    }
+}
@@ -87,12 +87,38 @@ public class MmdWriterConfigTest {
         assertEquals(cacheSize, config.getReaderCacheSize());
     }
 
+    @Test
+    public void testSetIsStreaming() {
+        config.setStreaming(true);
+        assertTrue(config.isStreaming());
+
+        config.setStreaming(false);
+        assertFalse(config.isStreaming());
+    }
+
+    @Test
+    public void testSetGetExtractionThreads() {
+        config.setExtractionThreads(4);
+        assertEquals(4, config.getExtractionThreads());
+    }
+
+    @Test
+    public void testSetExtractionThreads_invalid() {
+        try {
+            config.setExtractionThreads(0);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+    }
+
     @Test
     public void testDefaultValues() {
         assertFalse(config.isOverwrite());
         assertEquals(2048, config.getCacheSize());
         assertEquals(N4, config.getNetcdfFormat());
         assertEquals(6, config.getReaderCacheSize());
+        assertFalse(config.isStreaming());
+        assertEquals(1, config.getExtractionThreads());
 
         final VariablesConfiguration variablesConfiguration = config.getVariablesConfiguration();
         assertNotNull(variablesConfiguration);
@@ -148,6 +174,133 @@ public class MmdWriterConfigTest {
         assertEquals(14, loadedConfig.getReaderCacheSize());
     }
 
+    @Test
+    public void testLoad_streaming() {
+        final String configXml = "<mmd-writer-config>" +
+                "    <streaming>true</streaming>" +
+                "</mmd-writer-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(configXml.getBytes());
+
+        final MmdWriterConfig loadedConfig = MmdWriterConfig.load(inputStream);
+        assertTrue(loadedConfig.isStreaming());
+    }
+
+    @Test
+    public void testLoad_extractionThreads() {
+        final String configXml = "<mmd-writer-config>" +
+                "    <extraction-threads>3</extraction-threads>" +
+                "</mmd-writer-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(configXml.getBytes());
+
+        final MmdWriterConfig loadedConfig = MmdWriterConfig.load(inputStream);
+        assertEquals(3, loadedConfig.getExtractionThreads());
+    }
+
+    @Test
+    public void testDefaultValues_netcdf4Chunking() {
+        assertEquals(0, config.getMatchupChunkSize());
+        assertEquals(0, config.getVariableMatchupChunkSizes().size());
+        assertEquals(5, config.getDeflateLevel());
+        assertTrue(config.isShuffle());
+        assertFalse(config.isNoCompression());
+    }
+
+    @Test
+    public void testSetGetNetcdf4Chunking() {
+        config.setMatchupChunkSize(128);
+        config.setVariableMatchupChunkSize("the_variable", 16);
+        config.setDeflateLevel(1);
+        config.setShuffle(false);
+        config.setNoCompression(true);
+
+        assertEquals(128, config.getMatchupChunkSize());
+        assertEquals(1, config.getVariableMatchupChunkSizes().size());
+        assertEquals(16, config.getVariableMatchupChunkSizes().get("the_variable").intValue());
+        assertEquals(1, config.getDeflateLevel());
+        assertFalse(config.isShuffle());
+        assertTrue(config.isNoCompression());
+    }
+
+    @Test
+    public void testSetInvalidNetcdf4Chunking() {
+        try {
+            config.setMatchupChunkSize(-1);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+
+        try {
+            config.setVariableMatchupChunkSize("the_variable", 0);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+
+        try {
+            config.setDeflateLevel(10);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test
+    public void testLoad_netcdf4Chunking() {
+        final String configXml = "<mmd-writer-config>" +
+                "    <netcdf4-chunking>" +
+                "        <matchup-chunk-size>256</matchup-chunk-size>" +
+                "        <deflate-level>2</deflate-level>" +
+                "        <shuffle>false</shuffle>" +
+                "        <no-compression>true</no-compression>" +
+                "        <variable name=\"amsre.brightness_temperature6V\" matchup-chunk-size=\"32\"/>" +
+                "        <variable name=\"amsre.l2a_filename\" matchup-chunk-size=\"2048\"/>" +
+                "    </netcdf4-chunking>" +
+                "</mmd-writer-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(configXml.getBytes());
+
+        final MmdWriterConfig loadedConfig = MmdWriterConfig.load(inputStream);
+        assertEquals(256, loadedConfig.getMatchupChunkSize());
+        assertEquals(2, loadedConfig.getDeflateLevel());
+        assertFalse(loadedConfig.isShuffle());
+        assertTrue(loadedConfig.isNoCompression());
+
+        final Map<String, Integer> chunkSizes = loadedConfig.getVariableMatchupChunkSizes();
+        assertEquals(2, chunkSizes.size());
+        assertEquals(32, chunkSizes.get("amsre.brightness_temperature6V").intValue());
+        assertEquals(2048, chunkSizes.get("amsre.l2a_filename").intValue());
+    }
+
+    @Test
+    public void testLoad_netcdf4Chunking_defaultsForMissingElements() {
+        final String configXml = "<mmd-writer-config>" +
+                "    <netcdf4-chunking>" +
+                "        <matchup-chunk-size>64</matchup-chunk-size>" +
+                "    </netcdf4-chunking>" +
+                "</mmd-writer-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(configXml.getBytes());
+
+        final MmdWriterConfig loadedConfig = MmdWriterConfig.load(inputStream);
+        assertEquals(64, loadedConfig.getMatchupChunkSize());
+        assertEquals(0, loadedConfig.getVariableMatchupChunkSizes().size());
+        assertEquals(5, loadedConfig.getDeflateLevel());
+        assertTrue(loadedConfig.isShuffle());
+        assertFalse(loadedConfig.isNoCompression());
+    }
+
+    @Test
+    public void testLoad_netcdf4Chunking_variableWithoutName() {
+        final String configXml = "<mmd-writer-config>" +
+                "    <netcdf4-chunking>" +
+                "        <variable matchup-chunk-size=\"32\"/>" +
+                "    </netcdf4-chunking>" +
+                "</mmd-writer-config>";
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(configXml.getBytes());
+
+        try {
+            MmdWriterConfig.load(inputStream);
+            fail("RuntimeException expected");
+        } catch (RuntimeException expected) {
+        }
+    }
+
     @Test
     public void testLoad_emptyVariablesConfiguration() {
         final String configXml = "<mmd-writer-config>" +
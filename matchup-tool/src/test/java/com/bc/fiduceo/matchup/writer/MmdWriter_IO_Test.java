@@ -310,6 +310,15 @@ public class MmdWriter_IO_Test {
         execute_usecase_02(mmdWriter);
     }
 
+    @Test
+    public void testWrite_usecase02_AVHRR_NC4_extractionThreads() throws IOException, InvalidRangeException {
+        // several cache blocks, each split between the threads
+        writerConfig.setCacheSize(3);
+        writerConfig.setExtractionThreads(3);
+        final MmdWriter mmdWriter = new MmdWriterNC4(writerConfig);
+        execute_usecase_02(mmdWriter);
+    }
+
     private static MatchupCollection createMatchupCollection_AVHRR(File testDataDirectory) {
         final MatchupCollection matchupCollection = new MatchupCollection();
         final MatchupSet matchupSet = new MatchupSet();
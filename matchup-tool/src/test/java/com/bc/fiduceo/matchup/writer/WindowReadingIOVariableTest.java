@@ -137,4 +137,58 @@ public class WindowReadingIOVariableTest {
         verifyNoMoreInteractions(readerMock);
         verifyNoMoreInteractions(target);
     }
+
+    @Test
+    public void testWriteData_batch() throws IOException, InvalidRangeException {
+        final Target target = mock(Target.class);
+        final Reader readerMock = mock(Reader.class);
+
+        final Array data = NetCDFUtils.create(new int[]{1, 2, 3, 4, 5, 6, 7, 8});
+        when(readerMock.readRawWindows(any(), any(), any(), anyString())).thenReturn(data);
+        final ReaderContainer sourceContainer = new ReaderContainer();
+        sourceContainer.setReader(readerMock);
+
+        final WindowReadingIOVariable ioVariable = new WindowReadingIOVariable(sourceContainer);
+        ioVariable.setTarget(target);
+        ioVariable.setSourceVariableName("hans_wurst");
+        ioVariable.setTargetVariableName("target_hans_wurst");
+
+        final Interval interval = new Interval(2, 2);
+        final int[] centerX = {3, 5};
+        final int[] centerY = {4, 6};
+        ioVariable.writeData(centerX, centerY, interval, 7);
+
+        verify(readerMock, times(1)).readRawWindows(centerX, centerY, interval, "hans_wurst");
+        verify(target, times(1)).write(data, "target_hans_wurst", 7);
+
+        verifyNoMoreInteractions(readerMock);
+        verifyNoMoreInteractions(target);
+    }
+
+    @Test
+    public void testWriteData_batch_scaledVariable() throws IOException, InvalidRangeException {
+        final Target target = mock(Target.class);
+        final Reader readerMock = mock(Reader.class);
+
+        final Array data = NetCDFUtils.create(new double[]{1.1, 2.2, 3.3, 4.4});
+        when(readerMock.readScaledWindows(any(), any(), any(), anyString())).thenReturn(data);
+        final ReaderContainer sourceContainer = new ReaderContainer();
+        sourceContainer.setReader(readerMock);
+
+        final WindowReadingIOVariable ioVariable = new WindowReadingIOVariable(sourceContainer, true);
+        ioVariable.setTarget(target);
+        ioVariable.setSourceVariableName("hans_int");
+        ioVariable.setTargetVariableName("target_hans_double");
+
+        final Interval interval = new Interval(1, 1);
+        final int[] centerX = {3, 5, 7, 9};
+        final int[] centerY = {4, 6, 8, 10};
+        ioVariable.writeData(centerX, centerY, interval, 2);
+
+        verify(readerMock, times(1)).readScaledWindows(centerX, centerY, interval, "hans_int");
+        verify(target, times(1)).write(data, "target_hans_double", 2);
+
+        verifyNoMoreInteractions(readerMock);
+        verifyNoMoreInteractions(target);
+    }
 }
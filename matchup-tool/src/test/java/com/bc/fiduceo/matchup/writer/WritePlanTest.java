@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 Brockmann Consult GmbH
+ * This code was developed for the EC project "Fidelity and Uncertainty in
+ * Climate Data Records from Earth Observations (FIDUCEO)".
+ * Grant Agreement: 638822
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * A copy of the GNU General Public License should have been supplied along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ *
+ */
+
+package com.bc.fiduceo.matchup.writer;
+
+import com.bc.fiduceo.core.Sample;
+import com.bc.fiduceo.matchup.MatchupSet;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class WritePlanTest {
+
+    private static final String[] SEC_SENSOR_NAMES = {"sec"};
+
+    @Test
+    public void testCreate_groupsByProductsWithinBlock() {
+        final MatchupSet set_A1 = createSet("A", "1", 2);
+        final MatchupSet set_B2 = createSet("B", "2", 3);
+        final MatchupSet set_A1_again = createSet("A", "1", 2);
+
+        final List<MatchupSet> sets = new ArrayList<>();
+        sets.add(set_A1);
+        sets.add(set_B2);
+        sets.add(set_A1_again);
+
+        final List<List<WritePlan.Fragment>> plan = WritePlan.create(sets, SEC_SENSOR_NAMES, 10);
+        assertEquals(1, plan.size());
+
+        final List<WritePlan.Fragment> block = plan.get(0);
+        assertEquals(3, block.size());
+        assertFragment(set_A1, 0, 2, 0, block.get(0));
+        assertFragment(set_A1_again, 0, 2, 5, block.get(1));
+        assertFragment(set_B2, 0, 3, 2, block.get(2));
+    }
+
+    @Test
+    public void testCreate_splitsAtCacheBoundaries() {
+        final MatchupSet set_A1 = createSet("A", "1", 5);
+        final MatchupSet set_B2 = createSet("B", "2", 3);
+        final MatchupSet set_A1_again = createSet("A", "1", 1);
+
+        final List<MatchupSet> sets = new ArrayList<>();
+        sets.add(set_A1);
+        sets.add(set_B2);
+        sets.add(set_A1_again);
+
+        final List<List<WritePlan.Fragment>> plan = WritePlan.create(sets, SEC_SENSOR_NAMES, 4);
+        assertEquals(3, plan.size());
+
+        List<WritePlan.Fragment> block = plan.get(0);
+        assertEquals(1, block.size());
+        assertFragment(set_A1, 0, 4, 0, block.get(0));
+
+        // products read last in the previous block come first
+        block = plan.get(1);
+        assertEquals(2, block.size());
+        assertFragment(set_A1, 4, 1, 4, block.get(0));
+        assertFragment(set_B2, 0, 3, 5, block.get(1));
+
+        block = plan.get(2);
+        assertEquals(1, block.size());
+        assertFragment(set_A1_again, 0, 1, 8, block.get(0));
+    }
+
+    @Test
+    public void testCreate_secondaryProductDistinguishes() {
+        final MatchupSet set_A1 = createSet("A", "1", 1);
+        final MatchupSet set_A2 = createSet("A", "2", 1);
+        final MatchupSet set_A1_again = createSet("A", "1", 1);
+
+        final List<MatchupSet> sets = new ArrayList<>();
+        sets.add(set_A1);
+        sets.add(set_A2);
+        sets.add(set_A1_again);
+
+        final List<List<WritePlan.Fragment>> plan = WritePlan.create(sets, SEC_SENSOR_NAMES, 100);
+        assertEquals(1, plan.size());
+
+        final List<WritePlan.Fragment> block = plan.get(0);
+        assertFragment(set_A1, 0, 1, 0, block.get(0));
+        assertFragment(set_A1_again, 0, 1, 2, block.get(1));
+        assertFragment(set_A2, 0, 1, 1, block.get(2));
+    }
+
+    @Test
+    public void testCreate_emptySetsAreSkipped() {
+        final MatchupSet set_A1 = createSet("A", "1", 0);
+        final MatchupSet set_B2 = createSet("B", "2", 2);
+
+        final List<MatchupSet> sets = new ArrayList<>();
+        sets.add(set_A1);
+        sets.add(set_B2);
+
+        final List<List<WritePlan.Fragment>> plan = WritePlan.create(sets, SEC_SENSOR_NAMES, 2);
+        assertEquals(1, plan.size());
+        assertEquals(1, plan.get(0).size());
+        assertFragment(set_B2, 0, 2, 0, plan.get(0).get(0));
+    }
+
+    @Test
+    public void testCreate_noSets() {
+        final List<List<WritePlan.Fragment>> plan = WritePlan.create(new ArrayList<>(), SEC_SENSOR_NAMES, 2);
+        assertEquals(0, plan.size());
+    }
+
+    @Test
+    public void testGetProductKey() {
+        final MatchupSet set = createSet("prim", "second", 1);
+
+        assertEquals(Paths.get("prim").toString() + "\n" + Paths.get("second").toString(), WritePlan.getProductKey(set, SEC_SENSOR_NAMES));
+        assertEquals(Paths.get("prim").toString(), WritePlan.getProductKey(set, new String[0]));
+    }
+
+    private static void assertFragment(MatchupSet set, int sampleIndex, int numSamples, int zIndex, WritePlan.Fragment fragment) {
+        assertSame(set, fragment.set);
+        assertEquals(sampleIndex, fragment.sampleIndex);
+        assertEquals(numSamples, fragment.numSamples);
+        assertEquals(zIndex, fragment.zIndex);
+    }
+
+    private static MatchupSet createSet(String primaryPath, String secondaryPath, int numSamples) {
+        final MatchupSet set = new MatchupSet();
+        set.setPrimaryObservationPath(Paths.get(primaryPath));
+        set.setSecondaryObservationPath(SEC_SENSOR_NAMES[0], Paths.get(secondaryPath));
+        for (int i = 0; i < numSamples; i++) {
+            set.addPrimary(new Sample(i, i, 0.0, 0.0, 0L));
+        }
+        return set;
+    }
+}